@@ -6,6 +6,7 @@ public class OptimizerProperties {
   public static final String RESOURCE_ID = "resource-id";
   public static final String AMS_OPTIMIZER_URI = "ams-optimizing-uri";
   public static final String AMS_HOME = "ams-home";
+  public static final String RESOURCE_AUTOSCALED = "autoscaled";
 
   // Resource container properties
   public static final String EXPORT_PROPERTY_PREFIX = "export.";
@@ -21,4 +22,24 @@ public class OptimizerProperties {
   public static final String OPTIMIZER_MEMORY_STORAGE_SIZE = "memory-storage-size";
   public static final String MAX_INPUT_FILE_SIZE_PER_THREAD = "max-input-file-size-per-thread";
   public static final Long MAX_INPUT_FILE_SIZE_PER_THREAD_DEFAULT = 512 * 1024 * 1024L; // 512MB
+  public static final String OPTIMIZER_AUTOSCALE_ENABLED = "autoscale.enabled";
+  public static final boolean OPTIMIZER_AUTOSCALE_ENABLED_DEFAULT = false;
+  public static final String OPTIMIZER_AUTOSCALE_MIN_PARALLELISM = "autoscale.min-parallelism";
+  public static final int OPTIMIZER_AUTOSCALE_MIN_PARALLELISM_DEFAULT = 0;
+  public static final String OPTIMIZER_AUTOSCALE_MAX_PARALLELISM = "autoscale.max-parallelism";
+  public static final int OPTIMIZER_AUTOSCALE_MAX_PARALLELISM_DEFAULT = 16;
+  public static final String OPTIMIZER_AUTOSCALE_STEP_PARALLELISM = "autoscale.step-parallelism";
+  public static final int OPTIMIZER_AUTOSCALE_STEP_PARALLELISM_DEFAULT = 4;
+  public static final String OPTIMIZER_AUTOSCALE_COOL_DOWN = "autoscale.cool-down";
+  public static final long OPTIMIZER_AUTOSCALE_COOL_DOWN_DEFAULT = 300000; // 5min
+  public static final String OPTIMIZER_AUTOSCALE_START_TIMEOUT = "autoscale.start-timeout";
+  public static final long OPTIMIZER_AUTOSCALE_START_TIMEOUT_DEFAULT = 600000; // 10min
+  public static final String OPTIMIZER_SPECULATION_ENABLED = "speculation.enabled";
+  public static final boolean OPTIMIZER_SPECULATION_ENABLED_DEFAULT = false;
+  public static final String OPTIMIZER_SPECULATION_MULTIPLIER = "speculation.multiplier";
+  public static final double OPTIMIZER_SPECULATION_MULTIPLIER_DEFAULT = 3.0;
+  public static final String OPTIMIZER_SPECULATION_QUANTILE = "speculation.quantile";
+  public static final double OPTIMIZER_SPECULATION_QUANTILE_DEFAULT = 0.75;
+  public static final String OPTIMIZER_SPECULATION_MIN_RUNTIME = "speculation.min-runtime";
+  public static final long OPTIMIZER_SPECULATION_MIN_RUNTIME_DEFAULT = 60000; // 1min
 }
@@ -20,6 +20,8 @@ package com.netease.arctic.ams.api.metrics;
 
 import com.netease.arctic.ams.api.ActivePlugin;
 
+import java.util.List;
+
 /**
  * This is an interface defining a reporter, which users can implement to notify metrics to a
  * monitoring system.
@@ -33,6 +35,16 @@ public interface MetricsEmitter extends ActivePlugin {
    */
   void emit(MetricsContent<?> metrics);
 
+  /**
+   * emit a batch of metrics to the monitoring system, all of which are accepted by the emitter.
+   * Emitters could override it to write the batch in fewer requests.
+   *
+   * @param metrics a batch of {@link MetricsContent} to emit.
+   */
+  default void emitBatch(List<MetricsContent<?>> metrics) {
+    metrics.forEach(this::emit);
+  }
+
   /**
    * determine whether the emitter accepts the metrics according to {@link MetricsContent#type()}
    * and {@link MetricsContent#name()}
@@ -18,6 +18,7 @@
 
 package com.netease.arctic.ams.api.metrics;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
@@ -26,16 +27,37 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * This is a simple data structure that separates tags and metrics, making it easier for reporters
  * to write to popular monitoring systems when processing {@link MetricsContent}
  */
 public class TaggedMetrics {
+  /** Accessors of {@link Tag} methods, resolved once for each class. */
+  private static final ClassValue<List<Accessor>> TAG_ACCESSORS =
+      new ClassValue<List<Accessor>>() {
+        @Override
+        protected List<Accessor> computeValue(Class<?> type) {
+          return resolveAccessors(type, Tag.class, Tag::name);
+        }
+      };
+
+  /** Accessors of {@link Metric} methods, resolved once for each class. */
+  private static final ClassValue<List<Accessor>> METRIC_ACCESSORS =
+      new ClassValue<List<Accessor>>() {
+        @Override
+        protected List<Accessor> computeValue(Class<?> type) {
+          return resolveAccessors(type, Metric.class, Metric::name);
+        }
+      };
+
   private final Map<String, Object> tags;
   private final Map<String, Object> metrics;
 
@@ -61,47 +83,62 @@ public class TaggedMetrics {
   }
 
   private static Map<String, Object> parseTags(Object object) {
-    List<Method> tagMethods = getAnnotationMethods(object, TaggedMetrics.Tag.class);
     Map<String, Object> tags = Maps.newHashMap();
-    tagMethods.forEach(
-        method -> {
-          TaggedMetrics.Tag tag = method.getAnnotation(TaggedMetrics.Tag.class);
-          try {
-            tags.put(tag.name(), method.invoke(object));
-          } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e);
-          }
-        });
+    for (Accessor accessor : TAG_ACCESSORS.get(object.getClass())) {
+      tags.put(accessor.name, accessor.get(object));
+    }
     return tags;
   }
 
   private static Map<String, Object> parseMetrics(Object object) {
-    List<Method> tagMethods = getAnnotationMethods(object, TaggedMetrics.Metric.class);
     Map<String, Object> metrics = Maps.newHashMap();
-    tagMethods.forEach(
-        method -> {
-          TaggedMetrics.Metric metric = method.getAnnotation(TaggedMetrics.Metric.class);
-          try {
-            if (method.invoke(object) != null) {
-              metrics.put(metric.name(), method.invoke(object));
-            }
-          } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e);
-          }
-        });
+    for (Accessor accessor : METRIC_ACCESSORS.get(object.getClass())) {
+      Object value = accessor.get(object);
+      if (value != null) {
+        metrics.put(accessor.name, value);
+      }
+    }
     return metrics;
   }
 
-  private static List<Method> getAnnotationMethods(
-      Object object, Class<? extends Annotation> annotationClass) {
-    List<Method> methods = Lists.newArrayList();
-    for (Method method : object.getClass().getDeclaredMethods()) {
-      if (method.isAnnotationPresent(annotationClass)) {
+  private static <A extends Annotation> List<Accessor> resolveAccessors(
+      Class<?> type, Class<A> annotationClass, Function<A, String> nameFunction) {
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    List<Accessor> accessors = Lists.newArrayList();
+    for (Method method : type.getDeclaredMethods()) {
+      A annotation = method.getAnnotation(annotationClass);
+      if (annotation != null) {
         method.setAccessible(true);
-        methods.add(method);
+        try {
+          MethodHandle handle =
+              lookup.unreflect(method).asType(MethodType.methodType(Object.class, Object.class));
+          accessors.add(new Accessor(nameFunction.apply(annotation), handle));
+        } catch (IllegalAccessException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    }
+    return ImmutableList.copyOf(accessors);
+  }
+
+  private static class Accessor {
+    private final String name;
+    private final MethodHandle handle;
+
+    private Accessor(String name, MethodHandle handle) {
+      this.name = name;
+      this.handle = handle;
+    }
+
+    private Object get(Object object) {
+      try {
+        return handle.invokeExact(object);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable throwable) {
+        throw new RuntimeException(throwable);
       }
     }
-    return methods;
   }
 
   @Target(ElementType.METHOD)
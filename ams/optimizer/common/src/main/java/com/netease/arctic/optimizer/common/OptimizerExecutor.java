@@ -107,7 +107,11 @@ public class OptimizerExecutor extends AbstractOptimizerOperator {
       OptimizingTaskResult result = new OptimizingTaskResult(task.getTaskId(), threadId);
       result.setTaskOutput(outputByteBuffer);
       result.setSummary(output.summary());
-      LOG.info("Optimizer executor[{}] executed task[{}]", threadId, task.getTaskId());
+      LOG.info(
+          "Optimizer executor[{}] executed task[{}] with summary {}",
+          threadId,
+          task.getTaskId(),
+          output.summary());
       return result;
     } catch (Throwable t) {
       LOG.error("Optimizer executor[{}] executed task[{}] failed", threadId, task.getTaskId(), t);
@@ -57,6 +57,23 @@ public class ArcticManagementConf {
               "Sets the size of the worker pool. The worker pool limits the number of tasks concurrently processing "
                   + "manifests in the base table implementation across all concurrent planning or commit operations.");
 
+  public static final ConfigOption<Long> TABLE_METADATA_CACHE_MAX_SIZE =
+      ConfigOptions.key("table-metadata-cache.max-size")
+          .longType()
+          .defaultValue(256 * 1024 * 1024L)
+          .withDescription(
+              "The maximum total length in chars of the metadata JSON whose parsed table metadata are "
+                  + "cached for internal catalogs, as an estimate of their parsed size, 0 means the cache "
+                  + "is disabled.");
+
+  public static final ConfigOption<Integer> METRICS_MAX_TABLE_LABELS =
+      ConfigOptions.key("metrics.max-table-labels")
+          .intType()
+          .defaultValue(100)
+          .withDescription(
+              "The maximum number of tables having their own per-table metrics of AMS, "
+                  + "the metrics of the other tables are aggregated into one label value.");
+
   public static final ConfigOption<Long> REFRESH_EXTERNAL_CATALOGS_INTERVAL =
       ConfigOptions.key("refresh-external-catalogs.interval")
           .longType()
@@ -76,6 +93,23 @@ public class ArcticManagementConf {
           .defaultValue(1000000)
           .withDescription("The queue size of the executors of the external catalog explorer.");
 
+  public static final ConfigOption<Integer> TABLE_MAINTENANCE_MAX_CONCURRENT_TASKS =
+      ConfigOptions.key("table-maintenance.max-concurrent-tasks")
+          .intType()
+          .defaultValue(20)
+          .withDescription(
+              "The maximum number of table maintenance tasks, like snapshots expiring and orphan"
+                  + " files cleaning, running at the same time across all tables; a non-positive"
+                  + " value means no limit.");
+
+  public static final ConfigOption<Duration> TABLE_MAINTENANCE_START_SPREAD =
+      ConfigOptions.key("table-maintenance.start-spread")
+          .durationType()
+          .defaultValue(Duration.ofMinutes(10))
+          .withDescription(
+              "The first table maintenance tasks after AMS starts are spread randomly over this"
+                  + " duration, to avoid all tables being maintained at once.");
+
   public static final ConfigOption<Boolean> EXPIRE_SNAPSHOTS_ENABLED =
       ConfigOptions.key("expire-snapshots.enabled")
           .booleanType()
@@ -112,6 +146,18 @@ public class ArcticManagementConf {
           .defaultValue(10)
           .withDescription("The number of threads used for dangling delete files cleaning.");
 
+  public static final ConfigOption<Boolean> REWRITE_MANIFESTS_ENABLED =
+      ConfigOptions.key("rewrite-manifests.enabled")
+          .booleanType()
+          .defaultValue(true)
+          .withDescription("Enable rewriting small manifests of tables.");
+
+  public static final ConfigOption<Integer> REWRITE_MANIFESTS_THREAD_COUNT =
+      ConfigOptions.key("rewrite-manifests.thread-count")
+          .intType()
+          .defaultValue(10)
+          .withDescription("The number of threads used for rewriting manifests.");
+
   public static final ConfigOption<Boolean> SYNC_HIVE_TABLES_ENABLED =
       ConfigOptions.key("sync-hive-tables.enabled")
           .booleanType()
@@ -280,6 +326,14 @@ public class ArcticManagementConf {
           .defaultValue(3000L)
           .withDescription("Optimizer polling task timeout.");
 
+  public static final ConfigOption<Long> OPTIMIZER_AUTOSCALE_INTERVAL =
+      ConfigOptions.key("optimizer.autoscale-interval")
+          .longType()
+          .defaultValue(60000L)
+          .withDescription(
+              "Interval for checking the optimizer groups with autoscale enabled,"
+                  + " non-positive to disable autoscaling.");
+
   /** config key prefix of terminal */
   public static final String TERMINAL_PREFIX = "terminal.";
 
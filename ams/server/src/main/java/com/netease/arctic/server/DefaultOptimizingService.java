@@ -31,12 +31,15 @@ import com.netease.arctic.ams.api.resource.ResourceGroup;
 import com.netease.arctic.server.exception.ObjectNotExistsException;
 import com.netease.arctic.server.exception.PluginRetryAuthException;
 import com.netease.arctic.server.exception.TaskNotFoundException;
+import com.netease.arctic.server.metrics.AmsMetricRegistry;
+import com.netease.arctic.server.metrics.DurationHistogram;
 import com.netease.arctic.server.optimizing.OptimizingQueue;
 import com.netease.arctic.server.optimizing.OptimizingStatus;
 import com.netease.arctic.server.optimizing.TaskRuntime;
 import com.netease.arctic.server.persistence.StatedPersistentBase;
 import com.netease.arctic.server.persistence.mapper.OptimizerMapper;
 import com.netease.arctic.server.persistence.mapper.ResourceMapper;
+import com.netease.arctic.server.resource.OptimizerAutoScaler;
 import com.netease.arctic.server.resource.OptimizerInstance;
 import com.netease.arctic.server.resource.OptimizerManager;
 import com.netease.arctic.server.resource.OptimizerThread;
@@ -86,6 +89,9 @@ public class DefaultOptimizingService extends StatedPersistentBase
 
   private static final Logger LOG = LoggerFactory.getLogger(DefaultOptimizingService.class);
 
+  private static final String METRIC_RPC_DURATION = "ams_optimizing_service_rpc_duration_seconds";
+  private static final String METHOD_LABEL = "method";
+
   private final long optimizerTouchTimeout;
   private final long taskAckTimeout;
   private final int maxPlanningParallelism;
@@ -94,9 +100,16 @@ public class DefaultOptimizingService extends StatedPersistentBase
   private final Map<String, OptimizingQueue> optimizingQueueByToken = new ConcurrentHashMap<>();
   private final Map<String, OptimizerInstance> authOptimizers = new ConcurrentHashMap<>();
   private final OptimizerKeeper optimizerKeeper = new OptimizerKeeper();
+  private final OptimizerAutoScaler optimizerAutoScaler;
   private final TableService tableService;
   private final RuntimeHandlerChain tableHandlerChain;
   private final Executor planExecutor;
+  private final DurationHistogram pollTaskDuration =
+      AmsMetricRegistry.getInstance().histogram(METRIC_RPC_DURATION, METHOD_LABEL, "poll_task");
+  private final DurationHistogram ackTaskDuration =
+      AmsMetricRegistry.getInstance().histogram(METRIC_RPC_DURATION, METHOD_LABEL, "ack_task");
+  private final DurationHistogram completeTaskDuration =
+      AmsMetricRegistry.getInstance().histogram(METRIC_RPC_DURATION, METHOD_LABEL, "complete_task");
 
   public DefaultOptimizingService(Configurations serviceConfig, DefaultTableService tableService) {
     this.optimizerTouchTimeout = serviceConfig.getLong(ArcticManagementConf.OPTIMIZER_HB_TIMEOUT);
@@ -105,6 +118,11 @@ public class DefaultOptimizingService extends StatedPersistentBase
         serviceConfig.getInteger(ArcticManagementConf.OPTIMIZER_MAX_PLANNING_PARALLELISM);
     this.pollingTimeout = serviceConfig.getLong(ArcticManagementConf.OPTIMIZER_POLLING_TIMEOUT);
     this.tableService = tableService;
+    this.optimizerAutoScaler =
+        new OptimizerAutoScaler(
+            this,
+            this::getOptionalQueueByGroup,
+            serviceConfig.getLong(ArcticManagementConf.OPTIMIZER_AUTOSCALE_INTERVAL));
     this.tableHandlerChain = new TableRuntimeHandlerImpl();
     this.planExecutor =
         Executors.newCachedThreadPool(
@@ -157,7 +175,8 @@ public class DefaultOptimizingService extends StatedPersistentBase
 
   private void unregisterOptimizer(String token) {
     doAs(OptimizerMapper.class, mapper -> mapper.deleteOptimizer(token));
-    optimizingQueueByToken.remove(token);
+    Optional.ofNullable(optimizingQueueByToken.remove(token))
+        .ifPresent(queue -> queue.removeOptimizer(token));
     authOptimizers.remove(token);
   }
 
@@ -184,19 +203,24 @@ public class DefaultOptimizingService extends StatedPersistentBase
   @Override
   public OptimizingTask pollTask(String authToken, int threadId) {
     LOG.debug("Optimizer {} (threadId {}) try polling task", authToken, threadId);
-    OptimizingQueue queue = getQueueByToken(authToken);
-    return Optional.ofNullable(queue.pollTask(pollingTimeout))
-        .map(
-            task ->
-                extractOptimizingTask(
-                    task, getAuthenticatedOptimizer(authToken).getThread(threadId), queue))
-        .orElse(null);
+    try (DurationHistogram.Context ignored = pollTaskDuration.time()) {
+      OptimizingQueue queue = getQueueByToken(authToken);
+      TaskRuntime task = queue.pollTask(pollingTimeout);
+      OptimizerThread optimizerThread = getAuthenticatedOptimizer(authToken).getThread(threadId);
+      if (task != null) {
+        return extractOptimizingTask(task, optimizerThread, queue);
+      }
+      // run a straggler task speculatively since there is no other task for the idle thread
+      return Optional.ofNullable(queue.pollSpeculativeTask(optimizerThread))
+          .map(TaskRuntime::getOptimizingTask)
+          .orElse(null);
+    }
   }
 
   private OptimizingTask extractOptimizingTask(
       TaskRuntime task, OptimizerThread optimizerThread, OptimizingQueue queue) {
     try {
-      task.schedule(optimizerThread);
+      queue.scheduleTask(task, optimizerThread);
       LOG.info("OptimizerThread {} polled task {}", optimizerThread, task.getTaskId());
       return task.getOptimizingTask();
     } catch (Throwable throwable) {
@@ -209,21 +233,25 @@ public class DefaultOptimizingService extends StatedPersistentBase
   @Override
   public void ackTask(String authToken, int threadId, OptimizingTaskId taskId) {
     LOG.info("Ack task {} by optimizer {} (threadId {})", taskId, authToken, threadId);
-    OptimizingQueue queue = getQueueByToken(authToken);
-    Optional.ofNullable(queue.getTask(taskId))
-        .orElseThrow(() -> new TaskNotFoundException(taskId))
-        .ack(getAuthenticatedOptimizer(authToken).getThread(threadId));
+    try (DurationHistogram.Context ignored = ackTaskDuration.time()) {
+      OptimizingQueue queue = getQueueByToken(authToken);
+      Optional.ofNullable(queue.getTask(taskId))
+          .orElseThrow(() -> new TaskNotFoundException(taskId))
+          .ack(getAuthenticatedOptimizer(authToken).getThread(threadId));
+    }
   }
 
   @Override
   public void completeTask(String authToken, OptimizingTaskResult taskResult) {
     LOG.info("Optimizer {} complete task {}", authToken, taskResult.getTaskId());
-    OptimizingQueue queue = getQueueByToken(authToken);
-    OptimizerThread thread =
-        getAuthenticatedOptimizer(authToken).getThread(taskResult.getThreadId());
-    Optional.ofNullable(queue.getTask(taskResult.getTaskId()))
-        .orElseThrow(() -> new TaskNotFoundException(taskResult.getTaskId()))
-        .complete(thread, taskResult);
+    try (DurationHistogram.Context ignored = completeTaskDuration.time()) {
+      OptimizingQueue queue = getQueueByToken(authToken);
+      OptimizerThread thread =
+          getAuthenticatedOptimizer(authToken).getThread(taskResult.getThreadId());
+      Optional.ofNullable(queue.getTask(taskResult.getTaskId()))
+          .orElseThrow(() -> new TaskNotFoundException(taskResult.getTaskId()))
+          .complete(thread, taskResult);
+    }
   }
 
   @Override
@@ -281,6 +309,7 @@ public class DefaultOptimizingService extends StatedPersistentBase
 
   @Override
   public void createResourceGroup(ResourceGroup resourceGroup) {
+    OptimizerAutoScaler.validateProperties(resourceGroup.getProperties());
     doAsTransaction(
         () -> {
           doAs(ResourceMapper.class, mapper -> mapper.insertResourceGroup(resourceGroup));
@@ -300,7 +329,10 @@ public class DefaultOptimizingService extends StatedPersistentBase
   public void deleteResourceGroup(String groupName) {
     if (canDeleteResourceGroup(groupName)) {
       doAs(ResourceMapper.class, mapper -> mapper.deleteResourceGroup(groupName));
-      optimizingQueueByGroup.remove(groupName);
+      OptimizingQueue optimizingQueue = optimizingQueueByGroup.remove(groupName);
+      if (optimizingQueue != null) {
+        optimizingQueue.dispose();
+      }
     } else {
       throw new RuntimeException(
           String.format(
@@ -312,6 +344,7 @@ public class DefaultOptimizingService extends StatedPersistentBase
   @Override
   public void updateResourceGroup(ResourceGroup resourceGroup) {
     Preconditions.checkNotNull(resourceGroup, "The resource group cannot be null.");
+    OptimizerAutoScaler.validateProperties(resourceGroup.getProperties());
     Optional.ofNullable(optimizingQueueByGroup.get(resourceGroup.getName()))
         .ifPresent(queue -> queue.updateOptimizerGroup(resourceGroup));
     doAs(ResourceMapper.class, mapper -> mapper.updateResourceGroup(resourceGroup));
@@ -357,6 +390,7 @@ public class DefaultOptimizingService extends StatedPersistentBase
   @Override
   public void dispose() {
     optimizerKeeper.dispose();
+    optimizerAutoScaler.dispose();
     tableHandlerChain.dispose();
     optimizingQueueByGroup.clear();
     optimizingQueueByToken.clear();
@@ -428,6 +462,7 @@ public class DefaultOptimizingService extends StatedPersistentBase
     public void handleTableRemoved(TableRuntime tableRuntime) {
       getOptionalQueueByGroup(tableRuntime.getOptimizerGroup())
           .ifPresent(queue -> queue.releaseTable(tableRuntime));
+      AmsMetricRegistry.getInstance().removeTable(tableRuntime.getTableIdentifier());
     }
 
     @Override
@@ -436,6 +471,7 @@ public class DefaultOptimizingService extends StatedPersistentBase
       loadOptimizingQueues(tableRuntimeMetaList);
       optimizerKeeper.start();
       LOG.info("SuspendingDetector for Optimizer has been started.");
+      optimizerAutoScaler.start();
       LOG.info("OptimizerManagementService initializing has completed");
     }
 
@@ -519,10 +555,16 @@ public class DefaultOptimizingService extends StatedPersistentBase
           boolean isExpired = !keepingTask.tryKeeping();
           Optional.ofNullable(keepingTask.getQueue())
               .ifPresent(
-                  queue ->
+                  queue -> {
+                    queue
+                        .collectTasks(token, buildSuspendingPredication(token, isExpired))
+                        .forEach(task -> retryTask(task, queue));
+                    if (isExpired) {
                       queue
-                          .collectTasks(buildSuspendingPredication(token, isExpired))
-                          .forEach(task -> retryTask(task, queue)));
+                          .collectTasks(token, task -> token.equals(task.getSpeculativeToken()))
+                          .forEach(TaskRuntime::cancelSpeculation);
+                    }
+                  });
           if (isExpired) {
             LOG.info("Optimizer {} has been expired, unregister it", keepingTask.getOptimizer());
             unregisterOptimizer(token);
@@ -30,6 +30,7 @@ import com.netease.arctic.server.RestCatalogService;
 import com.netease.arctic.server.dashboard.controller.CatalogController;
 import com.netease.arctic.server.dashboard.controller.HealthCheckController;
 import com.netease.arctic.server.dashboard.controller.LoginController;
+import com.netease.arctic.server.dashboard.controller.MetricsController;
 import com.netease.arctic.server.dashboard.controller.OptimizerController;
 import com.netease.arctic.server.dashboard.controller.PlatformFileInfoController;
 import com.netease.arctic.server.dashboard.controller.SettingController;
@@ -70,6 +71,7 @@ public class DashboardServer {
   private final CatalogController catalogController;
   private final HealthCheckController healthCheckController;
   private final LoginController loginController;
+  private final MetricsController metricsController;
   private final OptimizerController optimizerController;
   private final PlatformFileInfoController platformFileInfoController;
   private final SettingController settingController;
@@ -86,6 +88,7 @@ public class DashboardServer {
     this.catalogController = new CatalogController(tableService, platformFileManager);
     this.healthCheckController = new HealthCheckController();
     this.loginController = new LoginController(serviceConfig);
+    this.metricsController = new MetricsController();
     this.optimizerController = new OptimizerController(tableService, optimizerManager);
     this.platformFileInfoController = new PlatformFileInfoController(platformFileManager);
     this.settingController = new SettingController(serviceConfig, optimizerManager);
@@ -279,6 +282,9 @@ public class DashboardServer {
             // health check
             get("/health/status", healthCheckController::healthCheck);
 
+            // metrics in the prometheus text format
+            get("/metrics", metricsController::scrape);
+
             // version controller
             get("/versionInfo", versionController::getVersionInfo);
           });
@@ -426,6 +432,7 @@ public class DashboardServer {
     "/ams/v1/versionInfo",
     "/ams/v1/login",
     "/ams/v1/health/status",
+    "/ams/v1/metrics",
     "/",
     "/overview",
     "/introduce",
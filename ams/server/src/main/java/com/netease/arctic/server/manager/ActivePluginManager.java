@@ -51,15 +51,26 @@ public abstract class ActivePluginManager<T extends ActivePlugin> implements Plu
     PreconditionUtils.checkNotExist(
         installedPlugins.containsKey(pluginName), "Plugin " + pluginName);
     Map<String, String> properties = loadProperties(pluginName);
-    installedPlugins.computeIfAbsent(
-        pluginName,
-        k -> {
-          T plugin = loadPlugin(properties);
-          plugin.open(properties);
-          return plugin;
-        });
+    T installed =
+        installedPlugins.computeIfAbsent(
+            pluginName,
+            k -> {
+              T plugin = loadPlugin(properties);
+              plugin.open(properties);
+              return plugin;
+            });
+    onInstalled(pluginName, installed, properties);
   }
 
+  /**
+   * Called after a plugin is installed, with the properties it is opened with.
+   *
+   * @param pluginName the name of the plugin
+   * @param plugin the installed plugin
+   * @param properties the properties loaded by {@link #loadProperties(String)}
+   */
+  protected void onInstalled(String pluginName, T plugin, Map<String, String> properties) {}
+
   @SuppressWarnings("unchecked")
   private T loadPlugin(Map<String, String> properties) {
     String pluginClass = properties.get(PLUGIN_IMPLEMENTATION_CLASS);
@@ -22,6 +22,7 @@ import com.netease.arctic.ams.api.Environments;
 import com.netease.arctic.ams.api.metrics.MetricsContent;
 import com.netease.arctic.ams.api.metrics.MetricsEmitter;
 import com.netease.arctic.server.exception.LoadingPluginException;
+import com.netease.arctic.server.metrics.AmsMetricRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yaml.snakeyaml.Yaml;
@@ -29,16 +30,45 @@ import org.yaml.snakeyaml.Yaml;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Manager of {@link MetricsEmitter}s.
+ *
+ * <p>Metrics are emitted asynchronously: every emitter has a bounded queue drained by its own
+ * thread in batches, so a slow emitter neither delays the callers nor the other emitters. The queue
+ * is configured by the plugin properties {@link #EMIT_QUEUE_SIZE}, {@link #EMIT_BATCH_SIZE} and
+ * {@link #EMIT_OVERFLOW_POLICY}.
+ */
 public class MetricsManager extends ActivePluginManager<MetricsEmitter> {
 
   private static final Logger LOG = LoggerFactory.getLogger(MetricsManager.class);
   private static final String METRICS_CONFIG_DIRECTORY = "metrics";
   private static volatile MetricsManager INSTANCE;
 
+  /** The capacity of the queue of metrics waiting to be emitted by an emitter. */
+  public static final String EMIT_QUEUE_SIZE = "emit.queue-size";
+  /** The maximum number of metrics passed to {@link MetricsEmitter#emitBatch(List)} at once. */
+  public static final String EMIT_BATCH_SIZE = "emit.batch-size";
+  /** What to do if the queue is full, see {@link OverflowPolicy}. */
+  public static final String EMIT_OVERFLOW_POLICY = "emit.overflow-policy";
+
+  private static final int DEFAULT_QUEUE_SIZE = 10000;
+  private static final int DEFAULT_BATCH_SIZE = 100;
+
   private final String configPath;
+  private final Map<String, AsyncEmitter> asyncEmitters = new ConcurrentHashMap<>();
 
   public MetricsManager() {
     this(new File(Environments.getHomePath(), METRICS_CONFIG_DIRECTORY).getPath());
@@ -81,16 +111,250 @@ public class MetricsManager extends ActivePluginManager<MetricsEmitter> {
     }
   }
 
+  @Override
+  protected void onInstalled(
+      String pluginName, MetricsEmitter emitter, Map<String, String> properties) {
+    AsyncEmitter asyncEmitter = new AsyncEmitter(pluginName, emitter, properties);
+    asyncEmitters.put(pluginName, asyncEmitter);
+    asyncEmitter.start();
+  }
+
+  @Override
+  public void uninstall(String pluginName) {
+    AsyncEmitter asyncEmitter = asyncEmitters.remove(pluginName);
+    if (asyncEmitter != null) {
+      asyncEmitter.stop();
+    }
+    super.uninstall(pluginName);
+  }
+
+  @Override
+  public void close() {
+    asyncEmitters.values().forEach(AsyncEmitter::stop);
+    asyncEmitters.clear();
+    super.close();
+  }
+
+  /**
+   * Put the metrics into the queues of the emitters accepting them, it does not wait for the
+   * metrics to be emitted.
+   */
   public void emit(MetricsContent<?> metrics) {
-    forEach(
-        emitter -> {
-          try (ClassLoaderContext ignored = new ClassLoaderContext(emitter)) {
-            if (emitter.accept(metrics)) {
-              emitter.emit(metrics);
-            }
-          } catch (Throwable throwable) {
-            LOG.error("Emit metrics {} failed", metrics, throwable);
+    for (AsyncEmitter asyncEmitter : asyncEmitters.values()) {
+      try (ClassLoaderContext ignored = new ClassLoaderContext(asyncEmitter.emitter)) {
+        if (asyncEmitter.emitter.accept(metrics)) {
+          asyncEmitter.offer(metrics);
+        }
+      } catch (Throwable throwable) {
+        LOG.error("Emit metrics {} failed", metrics, throwable);
+      }
+    }
+  }
+
+  /**
+   * Wait until the queues of all the emitters are drained and the metrics taken from them have been
+   * handled by the emitters.
+   *
+   * @return false if it is timed out
+   */
+  public boolean flush(long timeoutMs) {
+    long deadline = System.currentTimeMillis() + timeoutMs;
+    for (AsyncEmitter asyncEmitter : asyncEmitters.values()) {
+      while (asyncEmitter.pending.get() > 0) {
+        if (System.currentTimeMillis() > deadline) {
+          return false;
+        }
+        try {
+          Thread.sleep(10);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /** Returns the asynchronous emitters, which expose the statistics of emitting. */
+  public Collection<AsyncEmitter> asyncEmitters() {
+    return Collections.unmodifiableCollection(asyncEmitters.values());
+  }
+
+  /** What to do if metrics are emitted when the queue of an emitter is full. */
+  public enum OverflowPolicy {
+    /** Discard the metrics, the caller is never blocked. */
+    DROP,
+    /** Block the caller until there is space in the queue. */
+    BLOCK
+  }
+
+  /** A {@link MetricsEmitter} fed by a bounded queue and a dedicated thread. */
+  public static class AsyncEmitter implements Runnable {
+    private static final long POLL_TIMEOUT_MS = 100;
+    private static final long STOP_TIMEOUT_MS = 5000;
+    private static final String EMITTER_LABEL = "emitter";
+    private static final String METRIC_QUEUE_SIZE = "ams_metrics_emitter_queue_size";
+    private static final String METRIC_DROPPED = "ams_metrics_emitter_dropped_count";
+    private static final String METRIC_FAILED = "ams_metrics_emitter_failed_count";
+    private static final String METRIC_EMITTED = "ams_metrics_emitter_emitted_count";
+    private static final String METRIC_LATENCY = "ams_metrics_emitter_average_latency_ms";
+
+    private final String name;
+    private final MetricsEmitter emitter;
+    private final BlockingQueue<MetricsContent<?>> queue;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    /**
+     * The number of metrics queued or being emitted. It is increased before a metrics is put into
+     * the queue and decreased after it is handled, so it never misses a metrics in flight.
+     */
+    private final AtomicLong pending = new AtomicLong();
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong emitNanos = new AtomicLong();
+
+    AsyncEmitter(String name, MetricsEmitter emitter, Map<String, ?> properties) {
+      this.name = name;
+      this.emitter = emitter;
+      this.queue =
+          new ArrayBlockingQueue<>(intProperty(properties, EMIT_QUEUE_SIZE, DEFAULT_QUEUE_SIZE));
+      this.batchSize = intProperty(properties, EMIT_BATCH_SIZE, DEFAULT_BATCH_SIZE);
+      Object policy = properties.get(EMIT_OVERFLOW_POLICY);
+      this.overflowPolicy =
+          policy == null
+              ? OverflowPolicy.DROP
+              : OverflowPolicy.valueOf(String.valueOf(policy).toUpperCase(Locale.ROOT));
+      this.thread = new Thread(this, "metrics-emitter-" + name);
+      this.thread.setDaemon(true);
+    }
+
+    private static int intProperty(Map<String, ?> properties, String key, int defaultValue) {
+      Object value = properties.get(key);
+      int result = value == null ? defaultValue : Integer.parseInt(String.valueOf(value));
+      if (result <= 0) {
+        throw new IllegalArgumentException(key + " must be greater than 0, but is " + result);
+      }
+      return result;
+    }
+
+    void start() {
+      thread.start();
+      AmsMetricRegistry registry = AmsMetricRegistry.getInstance();
+      registry.gauge(METRIC_QUEUE_SIZE, this::queueSize, EMITTER_LABEL, name);
+      registry.gauge(METRIC_DROPPED, this::droppedCount, EMITTER_LABEL, name);
+      registry.gauge(METRIC_FAILED, this::failedCount, EMITTER_LABEL, name);
+      registry.gauge(METRIC_EMITTED, this::emittedCount, EMITTER_LABEL, name);
+      registry.gauge(METRIC_LATENCY, this::averageEmitLatencyMs, EMITTER_LABEL, name);
+    }
+
+    void offer(MetricsContent<?> metrics) {
+      pending.incrementAndGet();
+      if (overflowPolicy == OverflowPolicy.BLOCK) {
+        try {
+          queue.put(metrics);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          pending.decrementAndGet();
+          dropped.incrementAndGet();
+        }
+      } else if (!queue.offer(metrics)) {
+        pending.decrementAndGet();
+        if (dropped.getAndIncrement() % 1000 == 0) {
+          LOG.warn("The metrics queue of emitter {} is full, metrics are dropped", name);
+        }
+      }
+    }
+
+    @Override
+    public void run() {
+      List<MetricsContent<?>> batch = new ArrayList<>(batchSize);
+      while (running) {
+        try {
+          MetricsContent<?> metrics = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+          if (metrics == null) {
+            continue;
           }
-        });
+          batch.add(metrics);
+          queue.drainTo(batch, batchSize - 1);
+          emitBatch(batch);
+        } catch (InterruptedException e) {
+          break;
+        }
+      }
+      // emit the remaining metrics before the emitter is closed
+      while (queue.drainTo(batch, batchSize) > 0) {
+        emitBatch(batch);
+      }
+    }
+
+    private void emitBatch(List<MetricsContent<?>> batch) {
+      long start = System.nanoTime();
+      try (ClassLoaderContext ignored = new ClassLoaderContext(emitter)) {
+        emitter.emitBatch(batch);
+      } catch (Throwable throwable) {
+        failed.addAndGet(batch.size());
+        LOG.error("Emit {} metrics by emitter {} failed", batch.size(), name, throwable);
+      } finally {
+        emitNanos.addAndGet(System.nanoTime() - start);
+        batches.incrementAndGet();
+        completed.addAndGet(batch.size());
+        pending.addAndGet(-batch.size());
+        batch.clear();
+      }
+    }
+
+    void stop() {
+      running = false;
+      AmsMetricRegistry registry = AmsMetricRegistry.getInstance();
+      for (String metric :
+          new String[] {
+            METRIC_QUEUE_SIZE, METRIC_DROPPED, METRIC_FAILED, METRIC_EMITTED, METRIC_LATENCY
+          }) {
+        registry.remove(metric, EMITTER_LABEL, name);
+      }
+      try {
+        thread.join(STOP_TIMEOUT_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if (thread.isAlive()) {
+        thread.interrupt();
+        LOG.warn("Emitter {} is not stopped in {} ms", name, STOP_TIMEOUT_MS);
+      }
+      // release the callers blocked on the full queue
+      pending.addAndGet(-queue.drainTo(new ArrayList<>()));
+    }
+
+    public String name() {
+      return name;
+    }
+
+    public int queueSize() {
+      return queue.size();
+    }
+
+    public long droppedCount() {
+      return dropped.get();
+    }
+
+    public long failedCount() {
+      return failed.get();
+    }
+
+    public long emittedCount() {
+      return completed.get() - failed.get();
+    }
+
+    /** Returns the average time in milliseconds of emitting a batch. */
+    public double averageEmitLatencyMs() {
+      long count = batches.get();
+      return count == 0 ? 0 : emitNanos.get() / 1_000_000.0 / count;
+    }
   }
 }
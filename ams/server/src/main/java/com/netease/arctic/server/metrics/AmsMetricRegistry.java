@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.server.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.netease.arctic.server.ArcticManagementConf;
+import com.netease.arctic.server.table.ServerTableIdentifier;
+import com.netease.arctic.server.utils.Configurations;
+import org.apache.iceberg.relocated.com.google.common.base.Preconditions;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the metrics of AMS itself, like the optimizing queues, the commits and the table
+ * executors. The metrics are exposed by the dashboard server in the Prometheus text format.
+ *
+ * <p>Counters and histograms are recorded without locks, so they can be used on hot paths. To keep
+ * the cardinality bounded, the number of distinct tables used as the {@link #TABLE_LABEL} is capped
+ * by {@link ArcticManagementConf#METRICS_MAX_TABLE_LABELS}, the metrics of the other tables are
+ * aggregated into the label value {@link #OTHER_TABLES}.
+ */
+public class AmsMetricRegistry {
+
+  public static final String TABLE_LABEL = "table";
+  public static final String OTHER_TABLES = "__other__";
+
+  private static final AmsMetricRegistry INSTANCE =
+      new AmsMetricRegistry(ArcticManagementConf.METRICS_MAX_TABLE_LABELS.defaultValue());
+
+  private final Map<MetricKey, Metric> metrics = new ConcurrentHashMap<>();
+  private final Set<String> tableLabels = ConcurrentHashMap.newKeySet();
+  private volatile int maxTableLabels;
+
+  public AmsMetricRegistry(int maxTableLabels) {
+    this.maxTableLabels = maxTableLabels;
+  }
+
+  public static AmsMetricRegistry getInstance() {
+    return INSTANCE;
+  }
+
+  public void setup(Configurations conf) {
+    int maxTableLabels = conf.getInteger(ArcticManagementConf.METRICS_MAX_TABLE_LABELS);
+    Preconditions.checkArgument(
+        maxTableLabels >= 0,
+        "%s must not be negative",
+        ArcticManagementConf.METRICS_MAX_TABLE_LABELS.key());
+    this.maxTableLabels = maxTableLabels;
+  }
+
+  public Counter counter(String name, String... labels) {
+    return getOrCreate(MetricKey.of(name, labels), Counter.class, Counter::new);
+  }
+
+  public DurationHistogram histogram(String name, String... labels) {
+    return getOrCreate(MetricKey.of(name, labels), DurationHistogram.class, DurationHistogram::new);
+  }
+
+  /** Returns the histogram of the table, see {@link #tableLabel(ServerTableIdentifier)}. */
+  public DurationHistogram tableHistogram(String name, ServerTableIdentifier identifier) {
+    return histogram(name, TABLE_LABEL, tableLabel(identifier));
+  }
+
+  /** Register a gauge, replacing the gauge registered with the same name and labels. */
+  public void gauge(String name, Gauge<? extends Number> gauge, String... labels) {
+    metrics.put(MetricKey.of(name, labels), gauge);
+  }
+
+  public void remove(String name, String... labels) {
+    metrics.remove(MetricKey.of(name, labels));
+  }
+
+  /**
+   * Returns the value of the table label. Tables get their own label value until {@link
+   * ArcticManagementConf#METRICS_MAX_TABLE_LABELS} tables are labeled, later tables share {@link
+   * #OTHER_TABLES}.
+   */
+  public String tableLabel(ServerTableIdentifier identifier) {
+    String label =
+        identifier.getCatalog() + "." + identifier.getDatabase() + "." + identifier.getTableName();
+    if (tableLabels.contains(label)) {
+      return label;
+    }
+    synchronized (tableLabels) {
+      if (tableLabels.contains(label) || tableLabels.size() < maxTableLabels) {
+        tableLabels.add(label);
+        return label;
+      }
+    }
+    return OTHER_TABLES;
+  }
+
+  /** Remove all metrics of the table and release its label value. */
+  public void removeTable(ServerTableIdentifier identifier) {
+    String label =
+        identifier.getCatalog() + "." + identifier.getDatabase() + "." + identifier.getTableName();
+    if (tableLabels.remove(label)) {
+      metrics.keySet().removeIf(key -> label.equals(key.getLabels().get(TABLE_LABEL)));
+    }
+  }
+
+  public Map<MetricKey, Metric> getMetrics() {
+    return Collections.unmodifiableMap(metrics);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T extends Metric> T getOrCreate(MetricKey key, Class<T> type, Supplier<T> supplier) {
+    Metric metric = metrics.get(key);
+    if (metric == null) {
+      metric = metrics.computeIfAbsent(key, k -> supplier.get());
+    }
+    Preconditions.checkArgument(
+        type.isInstance(metric),
+        "Metric %s is already registered as %s",
+        key,
+        metric.getClass().getSimpleName());
+    return (T) metric;
+  }
+}
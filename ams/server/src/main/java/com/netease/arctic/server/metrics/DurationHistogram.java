@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.server.metrics;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.LockFreeExponentiallyDecayingReservoir;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.Snapshot;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations in nanoseconds. Recording is lock-free: the samples are kept by a {@link
+ * LockFreeExponentiallyDecayingReservoir} biased to the last 5 minutes, and the total duration by a
+ * {@link LongAdder}.
+ */
+public class DurationHistogram implements Metric {
+
+  private final Histogram histogram =
+      new Histogram(LockFreeExponentiallyDecayingReservoir.builder().build());
+  private final LongAdder sumNanos = new LongAdder();
+
+  public void update(long duration, TimeUnit unit) {
+    long nanos = unit.toNanos(Math.max(duration, 0));
+    histogram.update(nanos);
+    sumNanos.add(nanos);
+  }
+
+  /** Start timing, the duration is recorded when the returned context is closed. */
+  public Context time() {
+    return new Context(this, System.nanoTime());
+  }
+
+  public long getCount() {
+    return histogram.getCount();
+  }
+
+  public long getSumNanos() {
+    return sumNanos.sum();
+  }
+
+  public Snapshot getSnapshot() {
+    return histogram.getSnapshot();
+  }
+
+  public static class Context implements AutoCloseable {
+    private final DurationHistogram histogram;
+    private final long startNanos;
+
+    private Context(DurationHistogram histogram, long startNanos) {
+      this.histogram = histogram;
+      this.startNanos = startNanos;
+    }
+
+    @Override
+    public void close() {
+      histogram.update(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+}
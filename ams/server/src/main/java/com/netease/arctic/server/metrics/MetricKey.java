@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.server.metrics;
+
+import org.apache.iceberg.relocated.com.google.common.base.MoreObjects;
+import org.apache.iceberg.relocated.com.google.common.base.Preconditions;
+import org.apache.iceberg.relocated.com.google.common.collect.ImmutableMap;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/** Identifier of a metric in {@link AmsMetricRegistry}, a metric name with a set of labels. */
+public class MetricKey {
+
+  private static final Pattern NAME_PATTERN = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+  private static final Pattern LABEL_PATTERN = Pattern.compile("[a-zA-Z_][a-zA-Z0-9_]*");
+
+  private final String name;
+  private final Map<String, String> labels;
+
+  private MetricKey(String name, Map<String, String> labels) {
+    this.name = name;
+    this.labels = labels;
+  }
+
+  /**
+   * Create a metric key.
+   *
+   * @param name metric name
+   * @param labels label names and values in pairs, like {@code "group", "default"}
+   */
+  public static MetricKey of(String name, String... labels) {
+    Preconditions.checkArgument(
+        name != null && NAME_PATTERN.matcher(name).matches(), "Illegal metric name: %s", name);
+    Preconditions.checkArgument(
+        labels.length % 2 == 0, "Labels of metric %s must be in name-value pairs", name);
+    ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+    for (int i = 0; i < labels.length; i += 2) {
+      Preconditions.checkArgument(
+          labels[i] != null && LABEL_PATTERN.matcher(labels[i]).matches(),
+          "Illegal label name: %s",
+          labels[i]);
+      builder.put(labels[i], String.valueOf(labels[i + 1]));
+    }
+    return new MetricKey(name, builder.build());
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Map<String, String> getLabels() {
+    return labels;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    MetricKey that = (MetricKey) o;
+    return name.equals(that.name) && labels.equals(that.labels);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(name, labels);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this).add("name", name).add("labels", labels).toString();
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.server.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.Snapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Format the metrics of {@link AmsMetricRegistry} in the Prometheus text exposition format 0.0.4.
+ * Counters and gauges are written as is, {@link DurationHistogram}s are written as summaries in
+ * seconds.
+ */
+public class PrometheusFormatter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PrometheusFormatter.class);
+
+  public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private static final double[] QUANTILES = {0.5, 0.75, 0.95, 0.99};
+  private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+  private PrometheusFormatter() {}
+
+  public static String format(Map<MetricKey, Metric> metrics) {
+    Map<String, List<Map.Entry<MetricKey, Metric>>> metricsByName =
+        metrics.entrySet().stream()
+            .sorted(Comparator.comparing(entry -> entry.getKey().getName()))
+            .collect(
+                Collectors.groupingBy(
+                    entry -> entry.getKey().getName(), LinkedHashMap::new, Collectors.toList()));
+    StringBuilder builder = new StringBuilder();
+    metricsByName.forEach(
+        (name, entries) -> {
+          builder
+              .append("# TYPE ")
+              .append(name)
+              .append(' ')
+              .append(typeOf(entries.get(0).getValue()))
+              .append('\n');
+          entries.forEach(entry -> writeMetric(builder, entry.getKey(), entry.getValue()));
+        });
+    return builder.toString();
+  }
+
+  private static String typeOf(Metric metric) {
+    if (metric instanceof Counter) {
+      return "counter";
+    } else if (metric instanceof DurationHistogram) {
+      return "summary";
+    }
+    return "gauge";
+  }
+
+  private static void writeMetric(StringBuilder builder, MetricKey key, Metric metric) {
+    if (metric instanceof Counter) {
+      writeSample(builder, key.getName(), key.getLabels(), null, ((Counter) metric).getCount());
+    } else if (metric instanceof DurationHistogram) {
+      DurationHistogram histogram = (DurationHistogram) metric;
+      Snapshot snapshot = histogram.getSnapshot();
+      for (double quantile : QUANTILES) {
+        writeSample(
+            builder,
+            key.getName(),
+            key.getLabels(),
+            String.valueOf(quantile),
+            snapshot.getValue(quantile) / NANOS_PER_SECOND);
+      }
+      writeSample(
+          builder,
+          key.getName() + "_sum",
+          key.getLabels(),
+          null,
+          histogram.getSumNanos() / NANOS_PER_SECOND);
+      writeSample(builder, key.getName() + "_count", key.getLabels(), null, histogram.getCount());
+    } else if (metric instanceof Gauge) {
+      Object value;
+      try {
+        value = ((Gauge<?>) metric).getValue();
+      } catch (Throwable t) {
+        LOG.warn("Failed to get the value of gauge {}", key, t);
+        return;
+      }
+      if (value instanceof Number) {
+        writeSample(builder, key.getName(), key.getLabels(), null, (Number) value);
+      }
+    }
+  }
+
+  private static void writeSample(
+      StringBuilder builder,
+      String name,
+      Map<String, String> labels,
+      String quantile,
+      Number value) {
+    builder.append(name);
+    if (!labels.isEmpty() || quantile != null) {
+      builder.append('{');
+      boolean first = true;
+      for (Map.Entry<String, String> label : labels.entrySet()) {
+        if (!first) {
+          builder.append(',');
+        }
+        writeLabel(builder, label.getKey(), label.getValue());
+        first = false;
+      }
+      if (quantile != null) {
+        if (!first) {
+          builder.append(',');
+        }
+        writeLabel(builder, "quantile", quantile);
+      }
+      builder.append('}');
+    }
+    builder.append(' ').append(formatValue(value)).append('\n');
+  }
+
+  private static void writeLabel(StringBuilder builder, String name, String value) {
+    builder.append(name).append("=\"");
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '\\':
+          builder.append("\\\\");
+          break;
+        case '"':
+          builder.append("\\\"");
+          break;
+        case '\n':
+          builder.append("\\n");
+          break;
+        default:
+          builder.append(c);
+      }
+    }
+    builder.append('"');
+  }
+
+  private static String formatValue(Number value) {
+    if (value instanceof Double || value instanceof Float) {
+      double doubleValue = value.doubleValue();
+      if (Double.isNaN(doubleValue)) {
+        return "NaN";
+      } else if (Double.isInfinite(doubleValue)) {
+        return doubleValue > 0 ? "+Inf" : "-Inf";
+      }
+      return Double.toString(doubleValue);
+    }
+    return Long.toString(value.longValue());
+  }
+}
@@ -137,19 +137,23 @@ public class KeyedTableCommit extends UnKeyedTableCommit {
       Set<DeleteFile> addedDeleteFiles,
       Set<DeleteFile> removedDeleteFiles) {
     // overwrite files
-    OverwriteBaseFiles overwriteBaseFiles = new OverwriteBaseFiles(table.asKeyedTable());
-    overwriteBaseFiles.set(SnapshotSummary.SNAPSHOT_PRODUCER, CommitMetaProducer.OPTIMIZE.name());
-    overwriteBaseFiles.validateNoConflictingAppends(Expressions.alwaysFalse());
-    overwriteBaseFiles.dynamic(false);
-    toSequenceOfPartitions.forEach(overwriteBaseFiles::updateOptimizedSequence);
-    addedDataFiles.forEach(overwriteBaseFiles::addFile);
-    addedDeleteFiles.forEach(overwriteBaseFiles::addFile);
-    removedDataFiles.forEach(overwriteBaseFiles::deleteFile);
-    if (TableTypeUtil.isHive(table) && !needMoveFile2Hive()) {
-      overwriteBaseFiles.set(DELETE_UNTRACKED_HIVE_FILE, "true");
-      overwriteBaseFiles.set(SYNC_DATA_TO_HIVE, "true");
-    }
-    overwriteBaseFiles.skipEmptyCommit().commit();
+    commitWithRetry(
+        () -> {
+          OverwriteBaseFiles overwriteBaseFiles = new OverwriteBaseFiles(table.asKeyedTable());
+          overwriteBaseFiles.set(
+              SnapshotSummary.SNAPSHOT_PRODUCER, CommitMetaProducer.OPTIMIZE.name());
+          overwriteBaseFiles.validateNoConflictingAppends(Expressions.alwaysFalse());
+          overwriteBaseFiles.dynamic(false);
+          toSequenceOfPartitions.forEach(overwriteBaseFiles::updateOptimizedSequence);
+          addedDataFiles.forEach(overwriteBaseFiles::addFile);
+          addedDeleteFiles.forEach(overwriteBaseFiles::addFile);
+          removedDataFiles.forEach(overwriteBaseFiles::deleteFile);
+          if (TableTypeUtil.isHive(table) && !needMoveFile2Hive()) {
+            overwriteBaseFiles.set(DELETE_UNTRACKED_HIVE_FILE, "true");
+            overwriteBaseFiles.set(SYNC_DATA_TO_HIVE, "true");
+          }
+          overwriteBaseFiles.skipEmptyCommit().commit();
+        });
 
     // remove delete files
     if (CollectionUtils.isNotEmpty(removedDeleteFiles)) {
@@ -3,6 +3,7 @@ package com.netease.arctic.server.optimizing;
 import static com.netease.arctic.server.dashboard.utils.AmsUtil.byteToXB;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.netease.arctic.optimizing.OptimizingTaskSummary;
 import com.netease.arctic.optimizing.RewriteFilesInput;
 import com.netease.arctic.server.dashboard.model.FilesStatistics;
 import com.netease.arctic.server.dashboard.utils.FilesStatisticsBuilder;
@@ -35,6 +36,15 @@ public class MetricsSummary {
   public static final String OUTPUT_DELETE_FILES = "output-delete-files";
   public static final String OUTPUT_DELETE_SIZE = "output-delete-size";
   public static final String OUTPUT_DELETE_RECORDS = "output-delete-records";
+  public static final String EXECUTE_DURATION = "execute-duration(ms)";
+  public static final String READ_DURATION = "read-duration(ms)";
+  public static final String DELETE_LOAD_DURATION = "delete-load-duration(ms)";
+  public static final String WRITE_DURATION = "write-duration(ms)";
+  public static final String OUTPUT_CLOSE_DURATION = "output-close-duration(ms)";
+  public static final String READ_RECORDS = "read-records";
+  public static final String WRITE_RECORDS = "write-records";
+  public static final String SPILL_SIZE = "spill-size";
+  public static final String PEAK_MEMORY_SIZE = "peak-memory-size";
   private long rewriteDataSize = 0;
   private int rewriteDataFileCnt = 0;
   private long rewriteDataRecordCnt = 0;
@@ -67,6 +77,19 @@ public class MetricsSummary {
   private int newDeleteFileCnt = 0;
   private long newDeleteRecordCnt = 0;
 
+  /** Execution profile reported by optimizers, durations are in milliseconds */
+  private long executeDuration = 0;
+
+  private long readDuration = 0;
+  private long deleteLoadDuration = 0;
+  private long writeDuration = 0;
+  private long outputCloseDuration = 0;
+  private long readRecordCnt = 0;
+  private long writeRecordCnt = 0;
+  private long spillSize = 0;
+  /** The max peak memory of tasks when aggregated */
+  private long peakMemorySize = 0;
+
   public MetricsSummary() {}
 
   protected MetricsSummary(RewriteFilesInput input) {
@@ -129,9 +152,46 @@ public class MetricsSummary {
               posDeleteRecordCnt += metrics.getPosDeleteRecordCnt();
               newFileCnt += metrics.getNewFileCnt();
               newFileSize += metrics.getNewFileSize();
+              executeDuration += metrics.getExecuteDuration();
+              readDuration += metrics.getReadDuration();
+              deleteLoadDuration += metrics.getDeleteLoadDuration();
+              writeDuration += metrics.getWriteDuration();
+              outputCloseDuration += metrics.getOutputCloseDuration();
+              readRecordCnt += metrics.getReadRecordCnt();
+              writeRecordCnt += metrics.getWriteRecordCnt();
+              spillSize += metrics.getSpillSize();
+              peakMemorySize = Math.max(peakMemorySize, metrics.getPeakMemorySize());
             });
   }
 
+  /** Record the execution profile in the task summary reported by the optimizer. */
+  void recordExecution(Map<String, String> taskSummary) {
+    if (taskSummary == null) {
+      return;
+    }
+    executeDuration = parseLong(taskSummary, OptimizingTaskSummary.EXECUTE_DURATION);
+    readDuration = parseLong(taskSummary, OptimizingTaskSummary.READ_DURATION);
+    deleteLoadDuration = parseLong(taskSummary, OptimizingTaskSummary.DELETE_LOAD_DURATION);
+    writeDuration = parseLong(taskSummary, OptimizingTaskSummary.WRITE_DURATION);
+    outputCloseDuration = parseLong(taskSummary, OptimizingTaskSummary.OUTPUT_CLOSE_DURATION);
+    readRecordCnt = parseLong(taskSummary, OptimizingTaskSummary.READ_RECORD_CNT);
+    writeRecordCnt = parseLong(taskSummary, OptimizingTaskSummary.WRITE_RECORD_CNT);
+    spillSize = parseLong(taskSummary, OptimizingTaskSummary.SPILL_SIZE);
+    peakMemorySize = parseLong(taskSummary, OptimizingTaskSummary.PEAK_MEMORY_SIZE);
+  }
+
+  private static long parseLong(Map<String, String> taskSummary, String key) {
+    String value = taskSummary.get(key);
+    if (value == null) {
+      return 0;
+    }
+    try {
+      return Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
   public Map<String, String> summaryAsMap(boolean humanReadable) {
     Map<String, String> summary = new LinkedHashMap<>();
     put(summary, INPUT_DATA_FILES, rewriteDataFileCnt);
@@ -159,6 +219,15 @@ public class MetricsSummary {
     putIfPositive(summary, OUTPUT_DELETE_FILES, newDeleteFileCnt);
     putIfPositive(summary, OUTPUT_DELETE_SIZE, newDeleteSize, humanReadable);
     putIfPositive(summary, OUTPUT_DELETE_RECORDS, newDeleteRecordCnt);
+    putIfPositive(summary, EXECUTE_DURATION, executeDuration);
+    putIfPositive(summary, READ_DURATION, readDuration);
+    putIfPositive(summary, DELETE_LOAD_DURATION, deleteLoadDuration);
+    putIfPositive(summary, WRITE_DURATION, writeDuration);
+    putIfPositive(summary, OUTPUT_CLOSE_DURATION, outputCloseDuration);
+    putIfPositive(summary, READ_RECORDS, readRecordCnt);
+    putIfPositive(summary, WRITE_RECORDS, writeRecordCnt);
+    putIfPositive(summary, SPILL_SIZE, spillSize, humanReadable);
+    putIfPositive(summary, PEAK_MEMORY_SIZE, peakMemorySize, humanReadable);
     return summary;
   }
 
@@ -317,6 +386,42 @@ public class MetricsSummary {
     return posDeleteRecordCnt;
   }
 
+  public long getExecuteDuration() {
+    return executeDuration;
+  }
+
+  public long getReadDuration() {
+    return readDuration;
+  }
+
+  public long getDeleteLoadDuration() {
+    return deleteLoadDuration;
+  }
+
+  public long getWriteDuration() {
+    return writeDuration;
+  }
+
+  public long getOutputCloseDuration() {
+    return outputCloseDuration;
+  }
+
+  public long getReadRecordCnt() {
+    return readRecordCnt;
+  }
+
+  public long getWriteRecordCnt() {
+    return writeRecordCnt;
+  }
+
+  public long getSpillSize() {
+    return spillSize;
+  }
+
+  public long getPeakMemorySize() {
+    return peakMemorySize;
+  }
+
   @Override
   public String toString() {
     return MoreObjects.toStringHelper(this)
@@ -342,6 +447,15 @@ public class MetricsSummary {
         .add("newDeleteSize", newDeleteSize)
         .add("newDeleteFileCnt", newDeleteFileCnt)
         .add("newDeleteRecordCnt", newDeleteRecordCnt)
+        .add("executeDuration", executeDuration)
+        .add("readDuration", readDuration)
+        .add("deleteLoadDuration", deleteLoadDuration)
+        .add("writeDuration", writeDuration)
+        .add("outputCloseDuration", outputCloseDuration)
+        .add("readRecordCnt", readRecordCnt)
+        .add("writeRecordCnt", writeRecordCnt)
+        .add("spillSize", spillSize)
+        .add("peakMemorySize", peakMemorySize)
         .toString();
   }
 }
@@ -18,38 +18,52 @@
 
 package com.netease.arctic.server.optimizing;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.netease.arctic.AmoroTable;
 import com.netease.arctic.ams.api.OptimizerProperties;
 import com.netease.arctic.ams.api.OptimizingTaskId;
 import com.netease.arctic.ams.api.resource.ResourceGroup;
 import com.netease.arctic.optimizing.RewriteFilesInput;
+import com.netease.arctic.optimizing.RewriteFilesOutput;
 import com.netease.arctic.server.ArcticServiceConstants;
 import com.netease.arctic.server.exception.OptimizingClosedException;
+import com.netease.arctic.server.metrics.AmsMetricRegistry;
+import com.netease.arctic.server.metrics.DurationHistogram;
 import com.netease.arctic.server.optimizing.plan.OptimizingPlanner;
 import com.netease.arctic.server.optimizing.plan.TaskDescriptor;
 import com.netease.arctic.server.persistence.PersistentBase;
 import com.netease.arctic.server.persistence.TaskFilesPersistence;
 import com.netease.arctic.server.persistence.mapper.OptimizingMapper;
+import com.netease.arctic.server.resource.OptimizerThread;
 import com.netease.arctic.server.resource.QuotaProvider;
 import com.netease.arctic.server.table.ServerTableIdentifier;
 import com.netease.arctic.server.table.TableManager;
 import com.netease.arctic.server.table.TableRuntime;
 import com.netease.arctic.server.table.TableRuntimeMeta;
+import com.netease.arctic.server.utils.ServerThreadPools;
 import com.netease.arctic.table.ArcticTable;
 import com.netease.arctic.utils.ArcticDataFiles;
 import com.netease.arctic.utils.CompatiblePropertyUtil;
 import com.netease.arctic.utils.ExceptionUtil;
 import com.netease.arctic.utils.TablePropertyUtil;
+import org.apache.iceberg.ContentFile;
 import org.apache.iceberg.PartitionSpec;
 import org.apache.iceberg.StructLike;
 import org.apache.iceberg.relocated.com.google.common.annotations.VisibleForTesting;
 import org.apache.iceberg.relocated.com.google.common.base.Preconditions;
+import org.apache.iceberg.relocated.com.google.common.base.Throwables;
 import org.apache.iceberg.relocated.com.google.common.collect.Lists;
 import org.apache.iceberg.relocated.com.google.common.collect.Maps;
 import org.apache.iceberg.util.StructLikeMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -59,22 +73,40 @@ import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class OptimizingQueue extends PersistentBase {
 
   private static final Logger LOG = LoggerFactory.getLogger(OptimizingQueue.class);
 
+  private static final String GROUP_LABEL = "group";
+  private static final String METRIC_QUEUED_PROCESSES = "ams_optimizing_queue_processes";
+  private static final String METRIC_RETRY_TASKS = "ams_optimizing_queue_retry_tasks";
+  private static final String METRIC_PLANNING_TABLES = "ams_optimizing_queue_planning_tables";
+  private static final String METRIC_PLAN_DURATION = "ams_optimizing_plan_duration_seconds";
+  private static final String METRIC_COMMIT_DURATION = "ams_optimizing_commit_duration_seconds";
+  private static final String METRIC_COMMIT_FAILURES = "ams_optimizing_commit_failures_total";
+  private static final long COMMIT_LOCK_TIMEOUT = 10 * 1000L;
+
   private final QuotaProvider quotaProvider;
   private final Queue<TableOptimizingProcess> tableQueue = new LinkedTransferQueue<>();
   private final Queue<TaskRuntime> retryTaskQueue = new LinkedTransferQueue<>();
+  // speculated tasks whose losing attempt is still running, to clean up its output on completion
+  private final Cache<OptimizingTaskId, TaskRuntime> discardedAttempts =
+      Caffeine.newBuilder().expireAfterWrite(Duration.ofHours(1)).build();
+  // token of optimizer -> tasks scheduled to the optimizer, including the speculative ones
+  private final Map<String, Set<TaskRuntime>> tasksByToken = new ConcurrentHashMap<>();
   private final SchedulingPolicy scheduler;
   private final TableManager tableManager;
   private final Executor planExecutor;
@@ -100,6 +132,24 @@ public class OptimizingQueue extends PersistentBase {
     this.tableManager = tableManager;
     this.maxPlanningParallelism = maxPlanningParallelism;
     tableRuntimeMetaList.forEach(this::initTableRuntime);
+    registerMetrics();
+  }
+
+  private void registerMetrics() {
+    AmsMetricRegistry registry = AmsMetricRegistry.getInstance();
+    String group = optimizerGroup.getName();
+    registry.gauge(METRIC_QUEUED_PROCESSES, tableQueue::size, GROUP_LABEL, group);
+    registry.gauge(METRIC_RETRY_TASKS, retryTaskQueue::size, GROUP_LABEL, group);
+    registry.gauge(METRIC_PLANNING_TABLES, planningTables::size, GROUP_LABEL, group);
+  }
+
+  /** Unregister the metrics of this queue, called when the optimizer group is deleted. */
+  public void dispose() {
+    AmsMetricRegistry registry = AmsMetricRegistry.getInstance();
+    String group = optimizerGroup.getName();
+    registry.remove(METRIC_QUEUED_PROCESSES, GROUP_LABEL, group);
+    registry.remove(METRIC_RETRY_TASKS, GROUP_LABEL, group);
+    registry.remove(METRIC_PLANNING_TABLES, GROUP_LABEL, group);
   }
 
   private void initTableRuntime(TableRuntimeMeta tableRuntimeMeta) {
@@ -246,7 +296,10 @@ public class OptimizingQueue extends PersistentBase {
 
   private TableOptimizingProcess planInternal(TableRuntime tableRuntime) {
     tableRuntime.beginPlanning();
-    try {
+    try (DurationHistogram.Context ignored =
+        AmsMetricRegistry.getInstance()
+            .tableHistogram(METRIC_PLAN_DURATION, tableRuntime.getTableIdentifier())
+            .time()) {
       AmoroTable<?> table = tableManager.loadTable(tableRuntime.getTableIdentifier());
       OptimizingPlanner planner =
           new OptimizingPlanner(
@@ -272,7 +325,71 @@ public class OptimizingQueue extends PersistentBase {
         .filter(p -> p.getProcessId() == taskId.getProcessId())
         .findFirst()
         .map(p -> p.getTaskMap().get(taskId))
-        .orElse(null);
+        .orElseGet(() -> discardedAttempts.getIfPresent(taskId));
+  }
+
+  /**
+   * Returns a straggler task to run speculatively on the optimizer thread, or null if the
+   * speculation is disabled or no task runs much longer than the finished tasks of its process.
+   */
+  public TaskRuntime pollSpeculativeTask(OptimizerThread thread) {
+    Map<String, String> properties = optimizerGroup.getProperties();
+    if (!CompatiblePropertyUtil.propertyAsBoolean(
+        properties,
+        OptimizerProperties.OPTIMIZER_SPECULATION_ENABLED,
+        OptimizerProperties.OPTIMIZER_SPECULATION_ENABLED_DEFAULT)) {
+      return null;
+    }
+    double multiplier =
+        CompatiblePropertyUtil.propertyAsDouble(
+            properties,
+            OptimizerProperties.OPTIMIZER_SPECULATION_MULTIPLIER,
+            OptimizerProperties.OPTIMIZER_SPECULATION_MULTIPLIER_DEFAULT);
+    double quantile =
+        CompatiblePropertyUtil.propertyAsDouble(
+            properties,
+            OptimizerProperties.OPTIMIZER_SPECULATION_QUANTILE,
+            OptimizerProperties.OPTIMIZER_SPECULATION_QUANTILE_DEFAULT);
+    long minRuntime =
+        CompatiblePropertyUtil.propertyAsLong(
+            properties,
+            OptimizerProperties.OPTIMIZER_SPECULATION_MIN_RUNTIME,
+            OptimizerProperties.OPTIMIZER_SPECULATION_MIN_RUNTIME_DEFAULT);
+    long currentTime = System.currentTimeMillis();
+    for (TableOptimizingProcess process : tableQueue) {
+      TaskRuntime task =
+          process.findStraggler(thread, currentTime, multiplier, quantile, minRuntime);
+      if (task != null && task.trySpeculating(thread)) {
+        indexTask(thread.getToken(), task);
+        LOG.info(
+            "Speculatively run straggler task {} of {} on optimizer thread {}",
+            task.getTaskId(),
+            task.getResourceDesc(),
+            thread);
+        return task;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the running time beyond which a task is a straggler, which is the multiple of the
+   * median duration of the succeeded tasks, or {@link Long#MAX_VALUE} if less than the quantile of
+   * all tasks have succeeded.
+   */
+  @VisibleForTesting
+  static long stragglerThreshold(
+      List<Long> succeededDurations,
+      int taskCount,
+      double multiplier,
+      double quantile,
+      long minRuntime) {
+    if (succeededDurations.isEmpty() || succeededDurations.size() < quantile * taskCount) {
+      return Long.MAX_VALUE;
+    }
+    List<Long> sortedDurations = succeededDurations.stream().sorted().collect(Collectors.toList());
+    long median = sortedDurations.get(sortedDurations.size() / 2);
+    return Math.max(minRuntime, (long) (median * multiplier));
   }
 
   public List<TaskRuntime> collectTasks() {
@@ -288,7 +405,80 @@ public class OptimizingQueue extends PersistentBase {
         .collect(Collectors.toList());
   }
 
+  /** Returns the number of planned tasks waiting for an optimizer, including the retrying ones. */
+  public int getPendingTaskCount() {
+    return collectTasks(task -> task.getStatus() == TaskRuntime.Status.PLANNED).size();
+  }
+
+  /** Returns the number of tasks scheduled to or acked by an optimizer. */
+  public int getRunningTaskCount() {
+    return collectTasks(
+            task ->
+                task.getStatus() == TaskRuntime.Status.SCHEDULED
+                    || task.getStatus() == TaskRuntime.Status.ACKED)
+        .size();
+  }
+
+  /** Returns the number of tables waiting to be planned. */
+  public int getPendingTableCount() {
+    return scheduler.getPendingTableCount();
+  }
+
+  public ResourceGroup getOptimizerGroup() {
+    return optimizerGroup;
+  }
+
+  /** Schedule the task to the optimizer thread and index it by the token of the optimizer. */
+  public void scheduleTask(TaskRuntime taskRuntime, OptimizerThread thread) {
+    taskRuntime.schedule(thread);
+    indexTask(thread.getToken(), taskRuntime);
+  }
+
+  /**
+   * Collect the running tasks of the optimizer matching the predicate, including the ones it runs
+   * speculatively. It looks up the index of the optimizer instead of scanning all tasks of the
+   * queue.
+   */
+  public List<TaskRuntime> collectTasks(String token, Predicate<TaskRuntime> predicate) {
+    Set<TaskRuntime> tasks = tasksByToken.get(token);
+    if (tasks == null) {
+      return Collections.emptyList();
+    }
+    List<TaskRuntime> collectedTasks = new ArrayList<>();
+    for (TaskRuntime task : tasks) {
+      if (task.finished()
+          || (!token.equals(task.getToken()) && !token.equals(task.getSpeculativeToken()))) {
+        // the task has completed or been scheduled to another optimizer
+        unindexTask(token, task);
+      } else if (predicate.test(task)) {
+        collectedTasks.add(task);
+      }
+    }
+    return collectedTasks;
+  }
+
+  /** Drop the task index of the optimizer, called when the optimizer is unregistered. */
+  public void removeOptimizer(String token) {
+    tasksByToken.remove(token);
+  }
+
+  private void indexTask(String token, TaskRuntime taskRuntime) {
+    tasksByToken.computeIfAbsent(token, k -> ConcurrentHashMap.newKeySet()).add(taskRuntime);
+  }
+
+  private void unindexTask(String token, TaskRuntime taskRuntime) {
+    if (token != null) {
+      tasksByToken.computeIfPresent(
+          token,
+          (k, tasks) -> {
+            tasks.remove(taskRuntime);
+            return tasks.isEmpty() ? null : tasks;
+          });
+    }
+  }
+
   public void retryTask(TaskRuntime taskRuntime) {
+    unindexTask(taskRuntime.getToken(), taskRuntime);
     taskRuntime.reset();
     retryTaskQueue.offer(taskRuntime);
   }
@@ -334,6 +524,10 @@ public class OptimizingQueue extends PersistentBase {
     private Map<String, Long> fromSequence = Maps.newHashMap();
     private Map<String, Long> toSequence = Maps.newHashMap();
     private boolean hasCommitted = false;
+    // output files are validated concurrently as tasks succeed, so the commit only waits for them
+    private final Map<OptimizingTaskId, CompletableFuture<Void>> outputValidations =
+        Maps.newConcurrentMap();
+    private volatile ArcticTable validatingTable;
 
     public TaskRuntime poll() {
       lock.lock();
@@ -344,6 +538,40 @@ public class OptimizingQueue extends PersistentBase {
       }
     }
 
+    private TaskRuntime findStraggler(
+        OptimizerThread thread,
+        long currentTime,
+        double multiplier,
+        double quantile,
+        long minRuntime) {
+      lock.lock();
+      try {
+        List<Long> succeededDurations =
+            taskMap.values().stream()
+                .filter(task -> task.getStatus() == TaskRuntime.Status.SUCCESS)
+                .map(task -> task.getEndTime() - task.getStartTime())
+                .collect(Collectors.toList());
+        long threshold =
+            stragglerThreshold(
+                succeededDurations, taskMap.size(), multiplier, quantile, minRuntime);
+        if (threshold == Long.MAX_VALUE) {
+          return null;
+        }
+        return taskMap.values().stream()
+            .filter(
+                task ->
+                    task.getStatus() == TaskRuntime.Status.ACKED
+                        && task.isSpeculatable()
+                        && !task.isSpeculating()
+                        && !thread.getToken().equals(task.getToken())
+                        && currentTime - task.getStartTime() > threshold)
+            .min(Comparator.comparingLong(TaskRuntime::getStartTime))
+            .orElse(null);
+      } finally {
+        lock.unlock();
+      }
+    }
+
     public TableOptimizingProcess(OptimizingPlanner planner) {
       processId = planner.getProcessId();
       tableRuntime = planner.getTableRuntime();
@@ -404,6 +632,7 @@ public class OptimizingQueue extends PersistentBase {
 
     @Override
     public void acceptResult(TaskRuntime taskRuntime) {
+      unindexTask(taskRuntime.getToken(), taskRuntime);
       lock.lock();
       try {
         try {
@@ -419,6 +648,7 @@ public class OptimizingQueue extends PersistentBase {
           throw new OptimizingClosedException(processId);
         }
         if (taskRuntime.getStatus() == TaskRuntime.Status.SUCCESS) {
+          submitOutputValidation(taskRuntime);
           // the lock of TableOptimizingProcess makes it thread-safe
           if (allTasksPrepared()
               && tableRuntime.getOptimizingStatus().isProcessing()
@@ -444,6 +674,53 @@ public class OptimizingQueue extends PersistentBase {
       }
     }
 
+    @Override
+    public void discardAttempt(TaskRuntime taskRuntime) {
+      discardedAttempts.put(taskRuntime.getTaskId(), taskRuntime);
+    }
+
+    @Override
+    public void discardOutput(TaskRuntime taskRuntime, RewriteFilesOutput output) {
+      discardedAttempts.invalidate(taskRuntime.getTaskId());
+      Set<String> acceptedFiles =
+          outputFiles(taskRuntime.getOutput())
+              .map(file -> file.path().toString())
+              .collect(Collectors.toSet());
+      CompletableFuture<Void> deletion;
+      try {
+        deletion =
+            CompletableFuture.runAsync(
+                () ->
+                    outputFiles(output)
+                        .map(file -> file.path().toString())
+                        .filter(path -> !acceptedFiles.contains(path))
+                        .forEach(path -> loadValidatingTable().io().deleteFile(path)),
+                ServerThreadPools.getOptimizingOutputPool());
+      } catch (RejectedExecutionException e) {
+        deletion = CompletableFuture.failedFuture(e);
+      }
+      deletion.whenComplete(
+          (ignored, throwable) -> {
+            if (throwable != null) {
+              LOG.warn(
+                  "Failed to delete the discarded output of task {}, leave it to orphan files cleaning",
+                  taskRuntime.getTaskId(),
+                  throwable);
+            }
+          });
+    }
+
+    private Stream<ContentFile<?>> outputFiles(RewriteFilesOutput output) {
+      if (output == null) {
+        return Stream.empty();
+      }
+      Stream<ContentFile<?>> dataFiles =
+          output.getDataFiles() == null ? Stream.empty() : Arrays.stream(output.getDataFiles());
+      Stream<ContentFile<?>> deleteFiles =
+          output.getDeleteFiles() == null ? Stream.empty() : Arrays.stream(output.getDeleteFiles());
+      return Stream.concat(dataFiles, deleteFiles);
+    }
+
     @Override
     public boolean isClosed() {
       return status == OptimizingProcess.Status.CLOSED;
@@ -514,6 +791,37 @@ public class OptimizingQueue extends PersistentBase {
           taskMap.size(),
           taskMap.values());
 
+      if (!tryLockCommit()) {
+        return;
+      }
+      try {
+        commitLocked();
+      } finally {
+        tableRuntime.getCommitLock().unlock();
+      }
+    }
+
+    /**
+     * Take the commit lock of the table before the lock of the process, so waiting for a
+     * maintenance commit never blocks the optimizers reporting to the process. If the lock is not
+     * acquired in time, the status is still committing and the commit is retried later.
+     */
+    private boolean tryLockCommit() {
+      try {
+        if (tableRuntime.getCommitLock().tryLock(COMMIT_LOCK_TIMEOUT, TimeUnit.MILLISECONDS)) {
+          return true;
+        }
+        LOG.warn(
+            "{} commit lock is not acquired in {} ms, retry committing later",
+            tableRuntime.getTableIdentifier(),
+            COMMIT_LOCK_TIMEOUT);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return false;
+    }
+
+    private void commitLocked() {
       lock.lock();
       try {
         if (hasCommitted) {
@@ -521,12 +829,24 @@ public class OptimizingQueue extends PersistentBase {
           throw new IllegalStateException("repeat commit, and last error " + failedReason);
         }
         hasCommitted = true;
-        buildCommit().commit();
+        try (DurationHistogram.Context ignored =
+            AmsMetricRegistry.getInstance()
+                .tableHistogram(METRIC_COMMIT_DURATION, tableRuntime.getTableIdentifier())
+                .time()) {
+          awaitOutputValidations();
+          buildCommit().commit();
+        }
         status = Status.SUCCESS;
         endTime = System.currentTimeMillis();
         persistProcessCompleted(true);
       } catch (Exception e) {
         LOG.warn("{} Commit optimizing failed ", tableRuntime.getTableIdentifier(), e);
+        AmsMetricRegistry.getInstance()
+            .counter(
+                METRIC_COMMIT_FAILURES,
+                AmsMetricRegistry.TABLE_LABEL,
+                AmsMetricRegistry.getInstance().tableLabel(tableRuntime.getTableIdentifier()))
+            .inc();
         status = Status.FAILED;
         failedReason = ExceptionUtil.getErrorMessage(e, 4000);
         endTime = System.currentTimeMillis();
@@ -542,6 +862,58 @@ public class OptimizingQueue extends PersistentBase {
       return new MetricsSummary(taskMap.values());
     }
 
+    /**
+     * Validate the output files of a task in background. It is called holding the lock of the
+     * process, so if the pool is busy, the validation is left to committing instead of running on
+     * the reporting thread.
+     */
+    private void submitOutputValidation(TaskRuntime taskRuntime) {
+      try {
+        outputValidations.put(
+            taskRuntime.getTaskId(),
+            CompletableFuture.runAsync(
+                () -> validateOutput(taskRuntime), ServerThreadPools.getOptimizingOutputPool()));
+      } catch (RejectedExecutionException e) {
+        LOG.debug(
+            "{} output validation pool is busy, validate task {} when committing",
+            tableRuntime.getTableIdentifier(),
+            taskRuntime.getTaskId());
+      }
+    }
+
+    private void validateOutput(TaskRuntime taskRuntime) {
+      UnKeyedTableCommit.validateOutputFiles(loadValidatingTable(), taskRuntime);
+    }
+
+    private ArcticTable loadValidatingTable() {
+      if (validatingTable == null) {
+        validatingTable =
+            (ArcticTable) tableManager.loadTable(tableRuntime.getTableIdentifier()).originalTable();
+      }
+      return validatingTable;
+    }
+
+    private void awaitOutputValidations() {
+      // tasks recovered from persistence or reported while the pool was busy are not validated yet
+      taskMap
+          .values()
+          .forEach(
+              task ->
+                  outputValidations.computeIfAbsent(
+                      task.getTaskId(),
+                      taskId ->
+                          CompletableFuture.runAsync(
+                              () -> validateOutput(task),
+                              ServerThreadPools.getOptimizingFileIOPool())));
+      try {
+        CompletableFuture.allOf(outputValidations.values().toArray(new CompletableFuture[0]))
+            .join();
+      } catch (CompletionException e) {
+        Throwables.throwIfUnchecked(e.getCause());
+        throw e;
+      }
+    }
+
     private UnKeyedTableCommit buildCommit() {
       ArcticTable table =
           (ArcticTable) tableManager.loadTable(tableRuntime.getTableIdentifier()).originalTable();
@@ -643,6 +1015,9 @@ public class OptimizingQueue extends PersistentBase {
             taskRuntime.claimOwnership(this);
             taskRuntime.setInput(inputs.get(taskRuntime.getTaskId().getTaskId()));
             taskMap.put(taskRuntime.getTaskId(), taskRuntime);
+            if (!taskRuntime.finished() && taskRuntime.getToken() != null) {
+              indexTask(taskRuntime.getToken(), taskRuntime);
+            }
             if (taskRuntime.getStatus() == TaskRuntime.Status.PLANNED) {
               taskQueue.offer(taskRuntime);
             } else if (taskRuntime.getStatus() == TaskRuntime.Status.FAILED) {
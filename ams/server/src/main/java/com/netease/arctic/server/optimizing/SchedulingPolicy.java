@@ -79,6 +79,22 @@ public class SchedulingPolicy {
     }
   }
 
+  /** Returns the number of tables waiting to be planned, not counting the blocked ones. */
+  public int getPendingTableCount() {
+    tableLock.lock();
+    try {
+      return (int)
+          tableRuntimeMap.values().stream()
+              .filter(
+                  tableRuntime ->
+                      isTablePending(tableRuntime)
+                          && !tableRuntime.isBlocked(BlockableOperation.OPTIMIZE))
+              .count();
+    } finally {
+      tableLock.unlock();
+    }
+  }
+
   private void fillSkipSet(Set<ServerTableIdentifier> originalSet) {
     long currentTime = System.currentTimeMillis();
     tableRuntimeMap.values().stream()
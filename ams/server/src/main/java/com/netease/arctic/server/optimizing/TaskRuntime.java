@@ -22,6 +22,7 @@ import com.google.common.collect.Sets;
 import com.netease.arctic.ams.api.OptimizingTask;
 import com.netease.arctic.ams.api.OptimizingTaskId;
 import com.netease.arctic.ams.api.OptimizingTaskResult;
+import com.netease.arctic.optimizing.OptimizingInputProperties;
 import com.netease.arctic.optimizing.RewriteFilesInput;
 import com.netease.arctic.optimizing.RewriteFilesOutput;
 import com.netease.arctic.server.ArcticServiceConstants;
@@ -59,6 +60,12 @@ public class TaskRuntime extends StatedPersistentBase {
   @StateField private RewriteFilesOutput output;
   @StateField private MetricsSummary summary;
   private Map<String, String> properties;
+  // the speculative attempt running besides the original one
+  private volatile String speculativeToken;
+  private volatile int speculativeThreadId = -1;
+  // the attempt which lost the speculation, its output should be discarded
+  private String discardedToken;
+  private int discardedThreadId = -1;
 
   private TaskRuntime() {}
 
@@ -75,7 +82,43 @@ public class TaskRuntime extends StatedPersistentBase {
   public void complete(OptimizerThread thread, OptimizingTaskResult result) {
     invokeConsisitency(
         () -> {
-          validThread(thread);
+          if (isDiscardedAttempt(thread)) {
+            discardedToken = null;
+            discardedThreadId = -1;
+            owner.discardOutput(
+                this,
+                result.getErrorMessage() == null
+                    ? TaskFilesPersistence.loadTaskOutput(result.getTaskOutput())
+                    : null);
+            return;
+          }
+          if (isSpeculativeAttempt(thread)) {
+            if (result.getErrorMessage() != null) {
+              // the original attempt is still running
+              clearSpeculation();
+              return;
+            }
+            discardedToken = token;
+            discardedThreadId = threadId;
+            token = speculativeToken;
+            threadId = speculativeThreadId;
+            clearSpeculation();
+          } else {
+            validThread(thread);
+            if (speculativeToken != null) {
+              if (result.getErrorMessage() != null) {
+                // the speculative attempt takes over the task
+                token = speculativeToken;
+                threadId = speculativeThreadId;
+                clearSpeculation();
+                persistTaskRuntime(this);
+                return;
+              }
+              discardedToken = speculativeToken;
+              discardedThreadId = speculativeThreadId;
+              clearSpeculation();
+            }
+          }
           if (result.getErrorMessage() != null) {
             statusMachine.accept(Status.FAILED);
             failReason = result.getErrorMessage();
@@ -94,6 +137,7 @@ public class TaskRuntime extends StatedPersistentBase {
                 OptimizingUtil.getRecordCnt(filesOutput.getDeleteFiles()));
             summary.setNewFileSize(summary.getNewDataSize() + summary.getNewDeleteSize());
             summary.setNewFileCnt(summary.getNewDataFileCnt() + summary.getNewDeleteFileCnt());
+            summary.recordExecution(result.getSummary());
             endTime = System.currentTimeMillis();
             costTime += endTime - startTime;
             output = filesOutput;
@@ -101,6 +145,9 @@ public class TaskRuntime extends StatedPersistentBase {
           runTimes += 1;
           persistTaskRuntime(this);
           owner.acceptResult(this);
+          if (discardedToken != null) {
+            owner.discardAttempt(this);
+          }
           token = null;
           threadId = -1;
         });
@@ -114,6 +161,9 @@ public class TaskRuntime extends StatedPersistentBase {
           endTime = ArcticServiceConstants.INVALID_TIME;
           token = null;
           threadId = -1;
+          clearSpeculation();
+          discardedToken = null;
+          discardedThreadId = -1;
           failReason = null;
           output = null;
           summary = new MetricsSummary(input);
@@ -136,6 +186,9 @@ public class TaskRuntime extends StatedPersistentBase {
   public void ack(OptimizerThread thread) {
     invokeConsisitency(
         () -> {
+          if (isSpeculativeAttempt(thread)) {
+            return;
+          }
           validThread(thread);
           statusMachine.accept(Status.ACKED);
           persistTaskRuntime(this);
@@ -155,6 +208,59 @@ public class TaskRuntime extends StatedPersistentBase {
         });
   }
 
+  /**
+   * Run the task speculatively on another optimizer thread besides the running one, the result of
+   * the attempt completing first is accepted. The speculative attempt is kept in memory only.
+   */
+  boolean trySpeculating(OptimizerThread thread) {
+    return invokeConsisitency(
+        () -> {
+          if (status != Status.ACKED
+              || !isSpeculatable()
+              || speculativeToken != null
+              || thread.getToken().equals(token)) {
+            return false;
+          }
+          speculativeToken = thread.getToken();
+          speculativeThreadId = thread.getThreadId();
+          return true;
+        });
+  }
+
+  /**
+   * Tasks writing to a custom hive subdirectory can not run speculatively, since both attempts
+   * would write to the same hive location and the output of the loser could not be told apart.
+   */
+  boolean isSpeculatable() {
+    return properties == null || properties.get(OptimizingInputProperties.OUTPUT_DIR) == null;
+  }
+
+  public void cancelSpeculation() {
+    invokeInStateLock(this::clearSpeculation);
+  }
+
+  public boolean isSpeculating() {
+    return speculativeToken != null;
+  }
+
+  public String getSpeculativeToken() {
+    return speculativeToken;
+  }
+
+  private boolean isSpeculativeAttempt(OptimizerThread thread) {
+    return thread.getToken().equals(speculativeToken)
+        && thread.getThreadId() == speculativeThreadId;
+  }
+
+  private boolean isDiscardedAttempt(OptimizerThread thread) {
+    return thread.getToken().equals(discardedToken) && thread.getThreadId() == discardedThreadId;
+  }
+
+  private void clearSpeculation() {
+    speculativeToken = null;
+    speculativeThreadId = -1;
+  }
+
   public TaskRuntime claimOwnership(TaskOwner owner) {
     this.owner = owner;
     return this;
@@ -431,6 +537,15 @@ public class TaskRuntime extends StatedPersistentBase {
   public interface TaskOwner {
     void acceptResult(TaskRuntime taskRuntime);
 
+    /** Called when a speculated task succeeded while its other attempt is still running. */
+    void discardAttempt(TaskRuntime taskRuntime);
+
+    /**
+     * Called when the attempt which lost the speculation completed, to clean up its output, which
+     * is null if the attempt failed.
+     */
+    void discardOutput(TaskRuntime taskRuntime, RewriteFilesOutput output);
+
     boolean isClosed();
   }
 }
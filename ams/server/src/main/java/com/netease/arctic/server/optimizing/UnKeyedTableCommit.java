@@ -36,8 +36,11 @@ import com.netease.arctic.optimizing.RewriteFilesOutput;
 import com.netease.arctic.server.ArcticServiceConstants;
 import com.netease.arctic.server.exception.OptimizingCommitException;
 import com.netease.arctic.server.utils.IcebergTableUtil;
+import com.netease.arctic.server.utils.ServerThreadPools;
 import com.netease.arctic.table.ArcticTable;
+import com.netease.arctic.table.TableProperties;
 import com.netease.arctic.table.UnkeyedTable;
+import com.netease.arctic.utils.CompatiblePropertyUtil;
 import com.netease.arctic.utils.ContentFiles;
 import com.netease.arctic.utils.TableFileUtil;
 import com.netease.arctic.utils.TablePropertyUtil;
@@ -52,10 +55,13 @@ import org.apache.iceberg.RowDelta;
 import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.StructLike;
 import org.apache.iceberg.Transaction;
+import org.apache.iceberg.exceptions.CommitFailedException;
 import org.apache.iceberg.exceptions.ValidationException;
 import org.apache.iceberg.types.Types;
+import org.apache.iceberg.util.Pair;
 import org.apache.iceberg.util.SnapshotUtil;
 import org.apache.iceberg.util.StructLikeMap;
+import org.apache.iceberg.util.Tasks;
 import org.glassfish.jersey.internal.guava.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -74,6 +80,12 @@ import java.util.stream.Collectors;
 public class UnKeyedTableCommit {
   private static final Logger LOG = LoggerFactory.getLogger(UnKeyedTableCommit.class);
 
+  // the commit is retried while holding the process lock and the commit lock of the table, so
+  // the total retry time is kept short
+  private static final long COMMIT_MIN_RETRY_WAIT_MS = 100;
+  private static final long COMMIT_MAX_RETRY_WAIT_MS = 1000;
+  private static final long COMMIT_TOTAL_RETRY_TIME_MS = 10 * 1000;
+
   private final Long targetSnapshotId;
   private final ArcticTable table;
   private final Collection<TaskRuntime> tasks;
@@ -97,7 +109,9 @@ public class UnKeyedTableCommit {
             ? table.asUnkeyedTable().spec().partitionType()
             : table.asKeyedTable().baseTable().spec().partitionType();
 
-    List<DataFile> newTargetFiles = new ArrayList<>();
+    // resolve the hive location of each partition first, then create the locations and move the
+    // files concurrently, the renames dominate the commit of tables with many output files
+    List<Pair<DataFile, String>> filesToMove = new ArrayList<>();
     for (TaskRuntime taskRuntime : tasks) {
       RewriteFilesOutput output = taskRuntime.getOutput();
       DataFile[] dataFiles = output.getDataFiles();
@@ -119,11 +133,21 @@ public class UnKeyedTableCommit {
             partitionPathMap.computeIfAbsent(
                 taskRuntime.getPartition(),
                 key -> getPartitionPath(hiveClient, maxTransactionId, targetFile, partitionSchema));
-
-        DataFile finalDataFile = moveTargetFiles(targetFile, partitionPath);
-        newTargetFiles.add(finalDataFile);
+        filesToMove.add(Pair.of(targetFile, partitionPath));
       }
     }
+
+    Tasks.foreach(new HashSet<>(partitionPathMap.values()))
+        .executeWith(ServerThreadPools.getOptimizingFileIOPool())
+        .stopOnFailure()
+        .throwFailureWhenFinished()
+        .run(this::makeHiveLocationIfAbsent);
+    List<DataFile> newTargetFiles = Collections.synchronizedList(new ArrayList<>());
+    Tasks.foreach(filesToMove)
+        .executeWith(ServerThreadPools.getOptimizingFileIOPool())
+        .stopOnFailure()
+        .throwFailureWhenFinished()
+        .run(file -> newTargetFiles.add(moveTargetFiles(file.first(), file.second())));
     return newTargetFiles;
   }
 
@@ -227,34 +251,39 @@ public class UnKeyedTableCommit {
       Set<DeleteFile> addDeleteFiles)
       throws OptimizingCommitException {
     try {
-      Transaction transaction = icebergTable.newTransaction();
-      if (CollectionUtils.isNotEmpty(removedDataFiles)
-          || CollectionUtils.isNotEmpty(addedDataFiles)) {
-        RewriteFiles dataFileRewrite = transaction.newRewrite();
-        if (targetSnapshotId != ArcticServiceConstants.INVALID_SNAPSHOT_ID) {
-          dataFileRewrite.validateFromSnapshot(targetSnapshotId);
-          long sequenceNumber = table.asUnkeyedTable().snapshot(targetSnapshotId).sequenceNumber();
-          dataFileRewrite.rewriteFiles(removedDataFiles, addedDataFiles, sequenceNumber);
-        } else {
-          dataFileRewrite.rewriteFiles(removedDataFiles, addedDataFiles);
-        }
-        dataFileRewrite.set(SnapshotSummary.SNAPSHOT_PRODUCER, CommitMetaProducer.OPTIMIZE.name());
-        if (TableTypeUtil.isHive(table)) {
-          if (!needMoveFile2Hive()) {
-            dataFileRewrite.set(DELETE_UNTRACKED_HIVE_FILE, "true");
-          }
-          dataFileRewrite.set(SYNC_DATA_TO_HIVE, "true");
-        }
-        dataFileRewrite.commit();
-      }
-      if (CollectionUtils.isNotEmpty(addDeleteFiles)) {
-        RowDelta addDeleteFileRowDelta = transaction.newRowDelta();
-        addDeleteFiles.forEach(addDeleteFileRowDelta::addDeletes);
-        addDeleteFileRowDelta.set(
-            SnapshotSummary.SNAPSHOT_PRODUCER, CommitMetaProducer.OPTIMIZE.name());
-        addDeleteFileRowDelta.commit();
-      }
-      transaction.commitTransaction();
+      commitWithRetry(
+          () -> {
+            Transaction transaction = icebergTable.newTransaction();
+            if (CollectionUtils.isNotEmpty(removedDataFiles)
+                || CollectionUtils.isNotEmpty(addedDataFiles)) {
+              RewriteFiles dataFileRewrite = transaction.newRewrite();
+              if (targetSnapshotId != ArcticServiceConstants.INVALID_SNAPSHOT_ID) {
+                dataFileRewrite.validateFromSnapshot(targetSnapshotId);
+                long sequenceNumber =
+                    table.asUnkeyedTable().snapshot(targetSnapshotId).sequenceNumber();
+                dataFileRewrite.rewriteFiles(removedDataFiles, addedDataFiles, sequenceNumber);
+              } else {
+                dataFileRewrite.rewriteFiles(removedDataFiles, addedDataFiles);
+              }
+              dataFileRewrite.set(
+                  SnapshotSummary.SNAPSHOT_PRODUCER, CommitMetaProducer.OPTIMIZE.name());
+              if (TableTypeUtil.isHive(table)) {
+                if (!needMoveFile2Hive()) {
+                  dataFileRewrite.set(DELETE_UNTRACKED_HIVE_FILE, "true");
+                }
+                dataFileRewrite.set(SYNC_DATA_TO_HIVE, "true");
+              }
+              dataFileRewrite.commit();
+            }
+            if (CollectionUtils.isNotEmpty(addDeleteFiles)) {
+              RowDelta addDeleteFileRowDelta = transaction.newRowDelta();
+              addDeleteFiles.forEach(addDeleteFileRowDelta::addDeletes);
+              addDeleteFileRowDelta.set(
+                  SnapshotSummary.SNAPSHOT_PRODUCER, CommitMetaProducer.OPTIMIZE.name());
+              addDeleteFileRowDelta.commit();
+            }
+            transaction.commitTransaction();
+          });
     } catch (Exception e) {
       if (needMoveFile2Hive()) {
         correctHiveData(addedDataFiles, addDeleteFiles);
@@ -264,6 +293,27 @@ public class UnKeyedTableCommit {
     }
   }
 
+  /**
+   * Run the commit and retry it with exponential backoff if it fails on concurrent commits, like
+   * the frequent commits of streaming writers. Iceberg retries the commit itself a few times too,
+   * but giving up here would waste the whole optimizing process, so it is retried more patiently,
+   * for at most {@link #COMMIT_TOTAL_RETRY_TIME_MS}.
+   */
+  protected void commitWithRetry(Runnable commit) {
+    int retries =
+        CompatiblePropertyUtil.propertyAsInt(
+            table.properties(),
+            TableProperties.SELF_OPTIMIZING_COMMIT_RETRY_NUMBER,
+            TableProperties.SELF_OPTIMIZING_COMMIT_RETRY_NUMBER_DEFAULT);
+    Tasks.foreach(commit)
+        .retry(retries)
+        .exponentialBackoff(
+            COMMIT_MIN_RETRY_WAIT_MS, COMMIT_MAX_RETRY_WAIT_MS, COMMIT_TOTAL_RETRY_TIME_MS, 2.0)
+        .onlyRetryOn(CommitFailedException.class)
+        .throwFailureWhenFinished()
+        .run(Runnable::run);
+  }
+
   protected void removeOldDeleteFiles(
       UnkeyedTable icebergTable, Set<DeleteFile> removedDeleteFiles) {
     if (CollectionUtils.isEmpty(removedDeleteFiles)) {
@@ -328,18 +378,21 @@ public class UnKeyedTableCommit {
     }
   }
 
+  private void makeHiveLocationIfAbsent(String hiveLocation) {
+    if (!table.io().exists(hiveLocation)) {
+      LOG.debug(
+          "{} hive location {} does not exist and need to mkdir before rename",
+          table.id(),
+          hiveLocation);
+      table.io().asFileSystemIO().makeDirectories(hiveLocation);
+    }
+  }
+
   private DataFile moveTargetFiles(DataFile targetFile, String hiveLocation) {
     String oldFilePath = targetFile.path().toString();
     String newFilePath = TableFileUtil.getNewFilePath(hiveLocation, oldFilePath);
 
     if (!table.io().exists(newFilePath)) {
-      if (!table.io().exists(hiveLocation)) {
-        LOG.debug(
-            "{} hive location {} does not exist and need to mkdir before rename",
-            table.id(),
-            hiveLocation);
-        table.io().asFileSystemIO().makeDirectories(hiveLocation);
-      }
       table.io().asFileSystemIO().rename(oldFilePath, newFilePath);
       LOG.debug("{} move file from {} to {}", table.id(), oldFilePath, newFilePath);
     }
@@ -349,6 +402,30 @@ public class UnKeyedTableCommit {
     return targetFile;
   }
 
+  /**
+   * Check that the output files of the task exist, so that a commit fails before moving any file
+   * instead of referencing a lost file.
+   */
+  static void validateOutputFiles(ArcticTable table, TaskRuntime task) {
+    RewriteFilesOutput output = task.getOutput();
+    if (output == null) {
+      return;
+    }
+    List<ContentFile<?>> outputFiles = new ArrayList<>();
+    if (output.getDataFiles() != null) {
+      outputFiles.addAll(Arrays.asList(output.getDataFiles()));
+    }
+    if (output.getDeleteFiles() != null) {
+      outputFiles.addAll(Arrays.asList(output.getDeleteFiles()));
+    }
+    for (ContentFile<?> file : outputFiles) {
+      if (!table.io().exists(file.path().toString())) {
+        throw new ValidationException(
+            "Output file %s of task %s does not exist", file.path(), task.getTaskId());
+      }
+    }
+  }
+
   private static Set<String> getCommittedDataFilesFromSnapshotId(
       UnkeyedTable table, Long snapshotId) {
     long currentSnapshotId = IcebergTableUtil.getSnapshotId(table, true);
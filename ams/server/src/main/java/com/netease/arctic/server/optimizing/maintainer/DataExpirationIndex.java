@@ -0,0 +1,403 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.server.optimizing.maintainer;
+
+import com.netease.arctic.server.ArcticServiceConstants;
+import com.netease.arctic.server.table.DataExpirationConfig;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.PartitionField;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.StructLike;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.Expressions;
+import org.apache.iceberg.expressions.UnboundTerm;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.apache.iceberg.transforms.Transform;
+import org.apache.iceberg.types.Types;
+import org.apache.iceberg.util.SnapshotUtil;
+import org.apache.iceberg.util.StructLikeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * An in-memory index of the expiration field bounds in each partition of a table, which lets data
+ * expiration skip the partitions having no data to expire without checking their files.
+ *
+ * <p>The bound of a data file is the upper bound of its expiration field in milliseconds, the same
+ * one data expiration compares with the expiration timestamp. The index keeps the bounds of the
+ * live data files in each partition, and is updated from the data files added and removed by the
+ * snapshots committed since the last update. The table is only scanned to rebuild the index if the
+ * indexed snapshot is no longer an ancestor of the current snapshot, or the expiration config
+ * changes.
+ *
+ * <p>The partitions of the index are also turned into partition expressions, which are pushed down
+ * into the scan of data expiration so the manifests are pruned by their partition summaries, or
+ * used to drop the expired partitions by metadata.
+ */
+public class DataExpirationIndex {
+
+  private static final Logger LOG = LoggerFactory.getLogger(DataExpirationIndex.class);
+
+  // key of the indexed table, e.g. the base or the change store of a mixed table -> index
+  private final Map<String, TableIndex> tableIndexes = new ConcurrentHashMap<>();
+
+  /** Updates the index of a table to its current snapshot, the table is identified by the key. */
+  public TableIndex refresh(String key, Table table, DataExpirationConfig expirationConfig) {
+    Types.NestedField field = table.schema().findField(expirationConfig.getExpirationField());
+    TableIndex index =
+        tableIndexes.compute(
+            key,
+            (k, oldIndex) ->
+                oldIndex != null && oldIndex.isIndexOf(field, expirationConfig)
+                    ? oldIndex
+                    : new TableIndex(field, expirationConfig));
+    index.refresh(table);
+    return index;
+  }
+
+  /**
+   * Whether the files of a partition should be checked to expire data. A partition expires as a
+   * whole only if its latest data is expired, and has files to expire only if its earliest data is
+   * expired.
+   */
+  static boolean mayExpire(
+      @Nullable PartitionBounds bounds,
+      DataExpirationConfig.ExpireLevel level,
+      long expireTimestamp) {
+    if (bounds == null) {
+      // partitions without data files, only containing dangling delete files
+      return true;
+    }
+    return level == DataExpirationConfig.ExpireLevel.PARTITION
+        ? bounds.maxBound <= expireTimestamp
+        : bounds.minBound <= expireTimestamp;
+  }
+
+  /**
+   * Returns an expression matching the partitions of an index whose bounds, merged with the bounds
+   * of the same partitions in the other indexes, are accepted by the filter, or always false if
+   * there is no such partition.
+   *
+   * @param specs the partition specs of the indexed tables by id
+   * @param boundsFilter whether to match a partition by its bounds
+   * @param index the index of the table to match the partitions of
+   * @param otherIndexes the indexes of the tables sharing the partition specs, e.g. the change
+   *     store of a mixed table for the base store, the null ones are skipped
+   */
+  static Expression partitionExpression(
+      Map<Integer, PartitionSpec> specs,
+      Predicate<PartitionBounds> boundsFilter,
+      TableIndex index,
+      TableIndex... otherIndexes) {
+    List<Expression> expressions = Lists.newArrayList();
+    index
+        .partitionBounds()
+        .forEach(
+            (specId, specBounds) -> {
+              List<StructLike> accepted =
+                  specBounds.entrySet().stream()
+                      .filter(
+                          entry -> {
+                            PartitionBounds bounds = entry.getValue();
+                            for (TableIndex otherIndex : otherIndexes) {
+                              if (otherIndex != null) {
+                                bounds =
+                                    PartitionBounds.merge(
+                                        bounds, otherIndex.bounds(specId, entry.getKey()));
+                              }
+                            }
+                            return boundsFilter.test(bounds);
+                          })
+                      .map(Map.Entry::getKey)
+                      .collect(Collectors.toList());
+              if (!accepted.isEmpty()) {
+                expressions.add(partitionExpression(specs.get(specId), accepted));
+              }
+            });
+    return or(expressions, 0, expressions.size());
+  }
+
+  /**
+   * Returns an expression on the source columns matching the partitions of a spec. The predicates
+   * are on the partition transforms of the source columns, which Iceberg projects exactly onto the
+   * partition fields, so the expression is aligned with the partitions.
+   */
+  @SuppressWarnings("unchecked")
+  private static Expression partitionExpression(PartitionSpec spec, List<StructLike> partitions) {
+    List<Integer> positions = Lists.newArrayList();
+    List<UnboundTerm<Object>> terms = Lists.newArrayList();
+    for (int pos = 0; pos < spec.fields().size(); pos++) {
+      PartitionField field = spec.fields().get(pos);
+      Transform<Object, Object> transform = (Transform<Object, Object>) field.transform();
+      if (transform.isVoid()) {
+        continue;
+      }
+      String sourceName = spec.schema().findColumnName(field.sourceId());
+      if (sourceName == null) {
+        // the source column is dropped, the partitions can not be matched
+        return Expressions.alwaysTrue();
+      }
+      positions.add(pos);
+      terms.add(
+          transform.isIdentity()
+              ? Expressions.ref(sourceName)
+              : Expressions.transform(sourceName, transform));
+    }
+    if (terms.isEmpty()) {
+      return Expressions.alwaysTrue();
+    }
+
+    if (terms.size() == 1) {
+      // a single IN predicate, evaluated by a set instead of one predicate per partition
+      int pos = positions.get(0);
+      List<Object> values = Lists.newArrayList();
+      boolean hasNull = false;
+      for (StructLike partition : partitions) {
+        Object value = partition.get(pos, Object.class);
+        if (value == null) {
+          hasNull = true;
+        } else {
+          values.add(value);
+        }
+      }
+      Expression expression =
+          values.isEmpty() ? Expressions.alwaysFalse() : Expressions.in(terms.get(0), values);
+      return hasNull ? Expressions.or(expression, Expressions.isNull(terms.get(0))) : expression;
+    }
+
+    List<Expression> expressions = Lists.newArrayListWithCapacity(partitions.size());
+    for (StructLike partition : partitions) {
+      Expression expression = Expressions.alwaysTrue();
+      for (int i = 0; i < terms.size(); i++) {
+        Object value = partition.get(positions.get(i), Object.class);
+        expression =
+            Expressions.and(
+                expression,
+                value == null
+                    ? Expressions.isNull(terms.get(i))
+                    : Expressions.equal(terms.get(i), value));
+      }
+      expressions.add(expression);
+    }
+    return or(expressions, 0, expressions.size());
+  }
+
+  /** Combines the expressions as a balanced tree, which keeps the visitors of it shallow. */
+  private static Expression or(List<Expression> expressions, int from, int to) {
+    if (from == to) {
+      return Expressions.alwaysFalse();
+    } else if (to - from == 1) {
+      return expressions.get(from);
+    }
+    int mid = (from + to) >>> 1;
+    return Expressions.or(or(expressions, from, mid), or(expressions, mid, to));
+  }
+
+  /** The bounds of the expiration field of the live data files in a partition. */
+  public static class PartitionBounds {
+    private final long minBound;
+    private final long maxBound;
+    private final long fileCount;
+
+    PartitionBounds(long minBound, long maxBound, long fileCount) {
+      this.minBound = minBound;
+      this.maxBound = maxBound;
+      this.fileCount = fileCount;
+    }
+
+    public long getMinBound() {
+      return minBound;
+    }
+
+    public long getMaxBound() {
+      return maxBound;
+    }
+
+    public long getFileCount() {
+      return fileCount;
+    }
+
+    /** Merges the bounds of the same partition in different tables, e.g. the change and base. */
+    static PartitionBounds merge(
+        @Nullable PartitionBounds bounds, @Nullable PartitionBounds otherBounds) {
+      if (bounds == null || otherBounds == null) {
+        return bounds == null ? otherBounds : bounds;
+      }
+      return new PartitionBounds(
+          Math.min(bounds.minBound, otherBounds.minBound),
+          Math.max(bounds.maxBound, otherBounds.maxBound),
+          bounds.fileCount + otherBounds.fileCount);
+    }
+  }
+
+  /** The index of a table. */
+  public static class TableIndex {
+    private final Types.NestedField field;
+    private final String dateTimePattern;
+    private final String numberDateFormat;
+    private final DateTimeFormatter formatter;
+    // spec id -> partition -> bound -> count of data files with the bound
+    private final Map<Integer, StructLikeMap<TreeMap<Long, Integer>>> partitions = new HashMap<>();
+    private long snapshotId = ArcticServiceConstants.INVALID_SNAPSHOT_ID;
+
+    private TableIndex(Types.NestedField field, DataExpirationConfig expirationConfig) {
+      this.field = field;
+      this.dateTimePattern = expirationConfig.getDateTimePattern();
+      this.numberDateFormat = expirationConfig.getNumberDateFormat();
+      this.formatter = DateTimeFormatter.ofPattern(dateTimePattern, Locale.getDefault());
+    }
+
+    private boolean isIndexOf(Types.NestedField field, DataExpirationConfig expirationConfig) {
+      return this.field.equals(field)
+          && Objects.equals(dateTimePattern, expirationConfig.getDateTimePattern())
+          && Objects.equals(numberDateFormat, expirationConfig.getNumberDateFormat());
+    }
+
+    public synchronized long snapshotId() {
+      return snapshotId;
+    }
+
+    /** Returns the bounds of a partition, or null if the partition has no data file. */
+    public synchronized PartitionBounds bounds(int specId, StructLike partition) {
+      StructLikeMap<TreeMap<Long, Integer>> specPartitions = partitions.get(specId);
+      TreeMap<Long, Integer> bounds = specPartitions == null ? null : specPartitions.get(partition);
+      return bounds == null ? null : toPartitionBounds(bounds);
+    }
+
+    /** Whether any partition of the table should be checked to expire data. */
+    public synchronized boolean mayExpire(
+        DataExpirationConfig.ExpireLevel level, long expireTimestamp) {
+      return partitions.values().stream()
+          .flatMap(specPartitions -> specPartitions.values().stream())
+          .anyMatch(
+              bounds ->
+                  DataExpirationIndex.mayExpire(toPartitionBounds(bounds), level, expireTimestamp));
+    }
+
+    private synchronized Map<Integer, StructLikeMap<PartitionBounds>> partitionBounds() {
+      Map<Integer, StructLikeMap<PartitionBounds>> partitionBounds = new HashMap<>();
+      partitions.forEach(
+          (specId, specPartitions) ->
+              partitionBounds.put(
+                  specId, specPartitions.transformValues(TableIndex::toPartitionBounds)));
+      return partitionBounds;
+    }
+
+    private static PartitionBounds toPartitionBounds(TreeMap<Long, Integer> bounds) {
+      return new PartitionBounds(
+          bounds.firstKey(),
+          bounds.lastKey(),
+          bounds.values().stream().mapToLong(Integer::longValue).sum());
+    }
+
+    private synchronized void refresh(Table table) {
+      Snapshot current = table.currentSnapshot();
+      if (current == null) {
+        partitions.clear();
+        snapshotId = ArcticServiceConstants.INVALID_SNAPSHOT_ID;
+        return;
+      }
+      if (current.snapshotId() == snapshotId) {
+        return;
+      }
+      if (snapshotId == ArcticServiceConstants.INVALID_SNAPSHOT_ID
+          || !SnapshotUtil.isAncestorOf(table, current.snapshotId(), snapshotId)) {
+        rebuild(table, current);
+        return;
+      }
+
+      List<Snapshot> newSnapshots =
+          Lists.newArrayList(
+              SnapshotUtil.ancestorsBetween(current.snapshotId(), snapshotId, table::snapshot));
+      Collections.reverse(newSnapshots);
+      for (Snapshot snapshot : newSnapshots) {
+        snapshot.addedDataFiles(table.io()).forEach(file -> addFile(table.specs(), file));
+        snapshot.removedDataFiles(table.io()).forEach(this::removeFile);
+      }
+      LOG.debug(
+          "Updated the expiration index of table {} by {} snapshots to snapshot {}",
+          table.name(),
+          newSnapshots.size(),
+          current.snapshotId());
+      snapshotId = current.snapshotId();
+    }
+
+    private void rebuild(Table table, Snapshot current) {
+      partitions.clear();
+      try (CloseableIterable<FileScanTask> tasks =
+          table.newScan().useSnapshot(current.snapshotId()).includeColumnStats().planFiles()) {
+        tasks.forEach(task -> addFile(table.specs(), task.file()));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      LOG.info(
+          "Built the expiration index of table {} at snapshot {}",
+          table.name(),
+          current.snapshotId());
+      snapshotId = current.snapshotId();
+    }
+
+    private long bound(DataFile file) {
+      return IcebergTableMaintainer.getExpireTimestampLiteral(
+              file, field, formatter, numberDateFormat)
+          .value();
+    }
+
+    private void addFile(Map<Integer, PartitionSpec> specs, DataFile file) {
+      partitions
+          .computeIfAbsent(
+              file.specId(), specId -> StructLikeMap.create(specs.get(specId).partitionType()))
+          .computeIfAbsent(file.partition(), partition -> new TreeMap<>())
+          .merge(bound(file), 1, Integer::sum);
+    }
+
+    private void removeFile(DataFile file) {
+      StructLikeMap<TreeMap<Long, Integer>> specPartitions = partitions.get(file.specId());
+      TreeMap<Long, Integer> bounds =
+          specPartitions == null ? null : specPartitions.get(file.partition());
+      if (bounds == null) {
+        return;
+      }
+      bounds.computeIfPresent(bound(file), (bound, count) -> count > 1 ? count - 1 : null);
+      if (bounds.isEmpty()) {
+        specPartitions.remove(file.partition());
+      }
+    }
+  }
+}
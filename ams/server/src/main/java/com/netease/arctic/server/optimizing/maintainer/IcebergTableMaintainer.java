@@ -29,6 +29,7 @@ import com.netease.arctic.server.table.DataExpirationConfig;
 import com.netease.arctic.server.table.TableConfiguration;
 import com.netease.arctic.server.table.TableRuntime;
 import com.netease.arctic.server.utils.IcebergTableUtil;
+import com.netease.arctic.server.utils.ServerThreadPools;
 import com.netease.arctic.utils.TableFileUtil;
 import org.apache.hadoop.fs.Path;
 import org.apache.iceberg.ContentFile;
@@ -39,8 +40,11 @@ import org.apache.iceberg.DeleteFiles;
 import org.apache.iceberg.FileContent;
 import org.apache.iceberg.FileScanTask;
 import org.apache.iceberg.ManifestFile;
+import org.apache.iceberg.OverwriteFiles;
+import org.apache.iceberg.PendingUpdate;
 import org.apache.iceberg.ReachableFileUtil;
 import org.apache.iceberg.RewriteFiles;
+import org.apache.iceberg.RewriteManifests;
 import org.apache.iceberg.Schema;
 import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.SnapshotSummary;
@@ -63,9 +67,13 @@ import org.apache.iceberg.relocated.com.google.common.collect.Sets;
 import org.apache.iceberg.types.Conversions;
 import org.apache.iceberg.types.Type;
 import org.apache.iceberg.types.Types;
+import org.apache.iceberg.util.PropertyUtil;
+import org.apache.iceberg.util.ThreadPools;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
 import java.io.File;
 import java.io.IOException;
 import java.time.Instant;
@@ -81,8 +89,12 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -104,10 +116,26 @@ public class IcebergTableMaintainer implements TableMaintainer {
   public static final String EXPIRE_TIMESTAMP_MS = "TIMESTAMP_MS";
   public static final String EXPIRE_TIMESTAMP_S = "TIMESTAMP_S";
 
+  // snapshot producer of manifests rewriting, kept apart from optimizing snapshots
+  public static final String MANIFESTS_REWRITING_PRODUCER = "MANIFESTS_REWRITING";
+
+  private static final long COMMIT_LOCK_TIMEOUT = 30 * 1000L;
+
   protected Table table;
 
+  @Nullable private final Lock commitLock;
+
   public IcebergTableMaintainer(Table table) {
+    this(table, null);
+  }
+
+  /**
+   * @param commitLock the commit lock of the table shared with optimizing, held only while
+   *     committing the metadata of a maintenance update, not while planning it
+   */
+  public IcebergTableMaintainer(Table table, @Nullable Lock commitLock) {
     this.table = table;
+    this.commitLock = commitLock;
   }
 
   @Override
@@ -173,11 +201,13 @@ public class IcebergTableMaintainer implements TableMaintainer {
     LOG.debug("start expire snapshots older than {}, the exclude is {}", olderThan, exclude);
     final AtomicInteger toDeleteFiles = new AtomicInteger(0);
     final AtomicInteger deleteFiles = new AtomicInteger(0);
-    Set<String> parentDirectory = new HashSet<>();
+    Set<String> parentDirectory = ConcurrentHashMap.newKeySet();
     table
         .expireSnapshots()
         .retainLast(1)
         .expireOlderThan(olderThan)
+        .planWith(ServerThreadPools.getSnapshotExpiringPool())
+        .executeDeleteWith(ServerThreadPools.getSnapshotExpiringPool())
         .deleteWith(
             file -> {
               try {
@@ -226,7 +256,7 @@ public class IcebergTableMaintainer implements TableMaintainer {
                 .toInstant();
       }
 
-      expireDataFrom(expirationConfig, startInstant);
+      expireDataFrom(expirationConfig, startInstant, tableRuntime.getDataExpirationIndex());
     } catch (Throwable t) {
       LOG.error("Unexpected purge error for table {} ", tableRuntime.getTableIdentifier(), t);
     }
@@ -241,6 +271,24 @@ public class IcebergTableMaintainer implements TableMaintainer {
    */
   @VisibleForTesting
   public void expireDataFrom(DataExpirationConfig expirationConfig, Instant instant) {
+    expireDataFrom(expirationConfig, instant, null);
+  }
+
+  /**
+   * Purge data older than the specified UTC timestamp. The partitions without data to expire are
+   * pruned from the scan by the expiration index, and the partitions whose data are all expired are
+   * dropped by metadata
+   *
+   * @param expirationConfig expiration configs
+   * @param instant timestamp/timestampz/long field type uses UTC, others will use the local time
+   *     zone
+   * @param expirationIndex the expiration index of the table, all the partitions are checked if
+   *     null
+   */
+  public void expireDataFrom(
+      DataExpirationConfig expirationConfig,
+      Instant instant,
+      @Nullable DataExpirationIndex expirationIndex) {
     long expireTimestamp = instant.minusMillis(expirationConfig.getRetentionTime()).toEpochMilli();
     LOG.info(
         "Expiring data older than {} in table {} ",
@@ -252,7 +300,45 @@ public class IcebergTableMaintainer implements TableMaintainer {
 
     Expression dataFilter = getDataExpression(table.schema(), expirationConfig, expireTimestamp);
 
-    ExpireFiles expiredFiles = expiredFileScan(expirationConfig, dataFilter, expireTimestamp);
+    ExpireFiles expiredFiles;
+    if (expirationIndex == null) {
+      expiredFiles = expiredFileScan(expirationConfig, dataFilter, expireTimestamp);
+    } else {
+      DataExpirationConfig.ExpireLevel level = expirationConfig.getExpirationLevel();
+      DataExpirationIndex.TableIndex index =
+          expirationIndex.refresh(table.name(), table, expirationConfig);
+      if (!index.mayExpire(level, expireTimestamp)) {
+        LOG.info("No data older than {} to expire in table {}", expireTimestamp, table.name());
+        return;
+      }
+      // with a single spec, the partitions whose data are all expired are dropped by metadata
+      boolean dropExpiredPartitions = table.specs().size() == 1;
+      if (dropExpiredPartitions) {
+        expirePartitions(
+            DataExpirationIndex.partitionExpression(
+                table.specs(), bounds -> bounds.getMaxBound() <= expireTimestamp, index),
+            index.snapshotId(),
+            expireTimestamp);
+      }
+      Expression partitionFilter =
+          DataExpirationIndex.partitionExpression(
+              table.specs(),
+              bounds ->
+                  DataExpirationIndex.mayExpire(bounds, level, expireTimestamp)
+                      && !(dropExpiredPartitions && bounds.getMaxBound() <= expireTimestamp),
+              index);
+      if (partitionFilter.op() == Expression.Operation.FALSE) {
+        return;
+      }
+      expiredFiles =
+          expiredFileScan(
+              expirationConfig,
+              Expressions.and(dataFilter, partitionFilter),
+              expireTimestamp,
+              file ->
+                  DataExpirationIndex.mayExpire(
+                      index.bounds(file.specId(), file.partition()), level, expireTimestamp));
+    }
     expireFiles(expiredFiles, expireTimestamp);
   }
 
@@ -374,7 +460,7 @@ public class IcebergTableMaintainer implements TableMaintainer {
         Collections.emptySet(),
         Collections.emptySet());
     try {
-      rewriteFiles.commit();
+      commitWithLock(rewriteFiles);
     } catch (ValidationException e) {
       LOG.warn("Iceberg RewriteFiles commit failed on clear danglingDeleteFiles, but ignore", e);
       return 0;
@@ -382,6 +468,67 @@ public class IcebergTableMaintainer implements TableMaintainer {
     return danglingDeleteFiles.size();
   }
 
+  @Override
+  public void rewriteManifests(TableRuntime tableRuntime) {
+    TableConfiguration tableConfiguration = tableRuntime.getTableConfiguration();
+    if (!tableConfiguration.isRewriteManifestsEnabled()) {
+      return;
+    }
+    rewriteManifests(tableConfiguration.getRewriteManifestsMinCount());
+  }
+
+  /**
+   * Rewrite the data manifests smaller than the target manifest size once there are at least
+   * minCount of them. The files of each partition are written into one of the buckets that the
+   * small manifests are compacted into, so a commit rewriting the files of a few partitions only
+   * needs to rewrite the manifests of their buckets.
+   *
+   * @return the number of rewritten manifests
+   */
+  @VisibleForTesting
+  int rewriteManifests(int minCount) {
+    Snapshot currentSnapshot = table.currentSnapshot();
+    if (currentSnapshot == null) {
+      return 0;
+    }
+    long targetSizeBytes =
+        PropertyUtil.propertyAsLong(
+            table.properties(),
+            org.apache.iceberg.TableProperties.MANIFEST_TARGET_SIZE_BYTES,
+            org.apache.iceberg.TableProperties.MANIFEST_TARGET_SIZE_BYTES_DEFAULT);
+    List<ManifestFile> smallManifests =
+        currentSnapshot.dataManifests(table.io()).stream()
+            .filter(manifest -> manifest.length() < targetSizeBytes)
+            .collect(Collectors.toList());
+    if (smallManifests.size() < Math.max(minCount, 2)) {
+      LOG.debug(
+          "{} has {} small manifests, no need to rewrite", table.name(), smallManifests.size());
+      return 0;
+    }
+
+    Set<String> manifestsToRewrite =
+        smallManifests.stream().map(ManifestFile::path).collect(Collectors.toSet());
+    long totalSize = smallManifests.stream().mapToLong(ManifestFile::length).sum();
+    int buckets = (int) Math.max(1, (totalSize + targetSizeBytes - 1) / targetSizeBytes);
+    RewriteManifests rewriteManifests = table.rewriteManifests();
+    rewriteManifests
+        .rewriteIf(manifest -> manifestsToRewrite.contains(manifest.path()))
+        .clusterBy(
+            file ->
+                Math.floorMod(
+                    table.specs().get(file.specId()).partitionToPath(file.partition()).hashCode(),
+                    buckets))
+        .scanManifestsWith(ThreadPools.getWorkerPool())
+        .set(com.netease.arctic.op.SnapshotSummary.SNAPSHOT_PRODUCER, MANIFESTS_REWRITING_PRODUCER);
+    commitWithLock(rewriteManifests);
+    LOG.info(
+        "{} rewrote {} small manifests into {} buckets",
+        table.name(),
+        smallManifests.size(),
+        buckets);
+    return smallManifests.size();
+  }
+
   /**
    * When committing a snapshot, Flink will write a checkpoint id into the snapshot summary, which
    * will be used when Flink job recovers from the checkpoint.
@@ -614,13 +761,27 @@ public class IcebergTableMaintainer implements TableMaintainer {
 
   protected ExpireFiles expiredFileScan(
       DataExpirationConfig expirationConfig, Expression dataFilter, long expireTimestamp) {
+    return expiredFileScan(expirationConfig, dataFilter, expireTimestamp, file -> true);
+  }
+
+  /**
+   * Scan the files to expire, only checking the files in the partitions accepted by the filter
+   *
+   * @param partitionFilter whether the partition of a file may have files to expire
+   */
+  protected ExpireFiles expiredFileScan(
+      DataExpirationConfig expirationConfig,
+      Expression dataFilter,
+      long expireTimestamp,
+      Predicate<ContentFile<?>> partitionFilter) {
     Map<StructLike, DataFileFreshness> partitionFreshness = Maps.newConcurrentMap();
     ExpireFiles expiredFiles = new ExpireFiles();
     try (CloseableIterable<FileEntry> entries = fileScan(table, dataFilter, expirationConfig)) {
       Queue<FileEntry> fileEntries = new LinkedTransferQueue<>();
       entries.forEach(
           e -> {
-            if (mayExpired(e, partitionFreshness, expireTimestamp)) {
+            if (partitionFilter.test(e.getFile())
+                && mayExpired(e, partitionFreshness, expireTimestamp)) {
               fileEntries.add(e);
             }
           });
@@ -684,13 +845,13 @@ public class IcebergTableMaintainer implements TableMaintainer {
     DeleteFiles delete = table.newDelete();
     dataFiles.forEach(delete::deleteFile);
     delete.set(com.netease.arctic.op.SnapshotSummary.SNAPSHOT_PRODUCER, "DATA_EXPIRATION");
-    delete.commit();
+    commitWithLock(delete);
     // expire delete files
     if (!deleteFiles.isEmpty()) {
       RewriteFiles rewriteFiles = table.newRewrite().validateFromSnapshot(snapshotId);
       deleteFiles.forEach(rewriteFiles::deleteFile);
       rewriteFiles.set(com.netease.arctic.op.SnapshotSummary.SNAPSHOT_PRODUCER, "DATA_EXPIRATION");
-      rewriteFiles.commit();
+      commitWithLock(rewriteFiles);
     }
 
     // TODO: persistent table expiration record. Contains some meta information such as table_id,
@@ -709,6 +870,64 @@ public class IcebergTableMaintainer implements TableMaintainer {
         deleteFiles.stream().map(ContentFile::path).collect(Collectors.joining(",")));
   }
 
+  /**
+   * Drops the partitions matched by a partition expression by metadata, without scanning their
+   * files. The commit fails if any data is added into the partitions since the snapshot, since the
+   * new data may not be expired.
+   *
+   * @param partitionFilter an expression aligned with the partitions, see {@link
+   *     DataExpirationIndex#partitionExpression}
+   * @param fromSnapshotId the snapshot at which all the data of the partitions are expired
+   */
+  void expirePartitions(Expression partitionFilter, long fromSnapshotId, long expireTimestamp) {
+    if (partitionFilter.op() == Expression.Operation.FALSE) {
+      return;
+    }
+    OverwriteFiles overwriteFiles =
+        table
+            .newOverwrite()
+            .overwriteByRowFilter(partitionFilter)
+            .validateFromSnapshot(fromSnapshotId)
+            .conflictDetectionFilter(partitionFilter)
+            .validateNoConflictingData();
+    overwriteFiles.set(com.netease.arctic.op.SnapshotSummary.SNAPSHOT_PRODUCER, "DATA_EXPIRATION");
+    commitWithLock(overwriteFiles);
+
+    LOG.info(
+        "Expired the partitions of table {} older than {} by metadata, matched by {}",
+        table.name(),
+        expireTimestamp,
+        partitionFilter);
+  }
+
+  /**
+   * Commit a maintenance update holding the commit lock of the table if there is one, so it does
+   * not conflict with an optimizing commit. The lock is waited for in a bounded time, and the
+   * update fails if it is not acquired.
+   */
+  protected void commitWithLock(PendingUpdate<?> update) {
+    if (commitLock == null) {
+      update.commit();
+      return;
+    }
+    try {
+      if (!commitLock.tryLock(COMMIT_LOCK_TIMEOUT, TimeUnit.MILLISECONDS)) {
+        throw new IllegalStateException(
+            String.format(
+                "Commit lock of table %s is not acquired in %d ms",
+                table.name(), COMMIT_LOCK_TIMEOUT));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while acquiring commit lock of " + table.name());
+    }
+    try {
+      update.commit();
+    } finally {
+      commitLock.unlock();
+    }
+  }
+
   public static class ExpireFiles {
     Queue<DataFile> dataFiles;
     Queue<DeleteFile> deleteFiles;
@@ -831,7 +1050,7 @@ public class IcebergTableMaintainer implements TableMaintainer {
     }
   }
 
-  private static Literal<Long> getExpireTimestampLiteral(
+  static Literal<Long> getExpireTimestampLiteral(
       ContentFile<?> contentFile,
       Types.NestedField field,
       DateTimeFormatter formatter,
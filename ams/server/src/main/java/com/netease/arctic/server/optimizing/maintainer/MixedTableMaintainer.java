@@ -21,14 +21,13 @@ package com.netease.arctic.server.optimizing.maintainer;
 import static com.netease.arctic.utils.ArcticTableUtil.BLOB_TYPE_OPTIMIZED_SEQUENCE_EXIST;
 import static org.apache.iceberg.relocated.com.google.common.primitives.Longs.min;
 
-import com.netease.arctic.IcebergFileEntry;
 import com.netease.arctic.data.FileNameRules;
 import com.netease.arctic.hive.utils.TableTypeUtil;
-import com.netease.arctic.scan.TableEntriesScan;
 import com.netease.arctic.server.table.DataExpirationConfig;
 import com.netease.arctic.server.table.TableRuntime;
 import com.netease.arctic.server.utils.HiveLocationUtil;
 import com.netease.arctic.server.utils.IcebergTableUtil;
+import com.netease.arctic.server.utils.ServerThreadPools;
 import com.netease.arctic.table.ArcticTable;
 import com.netease.arctic.table.BaseTable;
 import com.netease.arctic.table.ChangeTable;
@@ -42,11 +41,15 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.apache.iceberg.ContentFile;
 import org.apache.iceberg.DataFile;
 import org.apache.iceberg.DeleteFiles;
-import org.apache.iceberg.FileContent;
+import org.apache.iceberg.ManifestFile;
+import org.apache.iceberg.ManifestFiles;
+import org.apache.iceberg.ManifestReader;
+import org.apache.iceberg.PartitionSpec;
 import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.StructLike;
 import org.apache.iceberg.Table;
 import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.Expressions;
 import org.apache.iceberg.expressions.Literal;
 import org.apache.iceberg.io.CloseableIterable;
 import org.apache.iceberg.relocated.com.google.common.annotations.VisibleForTesting;
@@ -55,21 +58,29 @@ import org.apache.iceberg.relocated.com.google.common.collect.Sets;
 import org.apache.iceberg.relocated.com.google.common.primitives.Longs;
 import org.apache.iceberg.types.Types;
 import org.apache.iceberg.util.StructLikeMap;
+import org.apache.iceberg.util.Tasks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /** Table maintainer for mixed-iceberg and mixed-hive tables. */
@@ -77,6 +88,10 @@ public class MixedTableMaintainer implements TableMaintainer {
 
   private static final Logger LOG = LoggerFactory.getLogger(MixedTableMaintainer.class);
 
+  static final String BASE_INDEX_KEY = "base";
+
+  static final String CHANGE_INDEX_KEY = "change";
+
   private final ArcticTable arcticTable;
 
   private ChangeTableMaintainer changeMaintainer;
@@ -89,8 +104,19 @@ public class MixedTableMaintainer implements TableMaintainer {
 
   private final Set<String> hiveFiles;
 
+  @Nullable private final Lock commitLock;
+
   public MixedTableMaintainer(ArcticTable arcticTable) {
+    this(arcticTable, null);
+  }
+
+  /**
+   * @param commitLock the commit lock of the table shared with optimizing, see {@link
+   *     IcebergTableMaintainer#IcebergTableMaintainer(Table, Lock)}
+   */
+  public MixedTableMaintainer(ArcticTable arcticTable, @Nullable Lock commitLock) {
     this.arcticTable = arcticTable;
+    this.commitLock = commitLock;
     if (arcticTable.isKeyedTable()) {
       ChangeTable changeTable = arcticTable.asKeyedTable().changeTable();
       BaseTable baseTable = arcticTable.asKeyedTable().baseTable();
@@ -144,6 +170,14 @@ public class MixedTableMaintainer implements TableMaintainer {
     baseMaintainer.expireSnapshots(mustOlderThan);
   }
 
+  @Override
+  public void rewriteManifests(TableRuntime tableRuntime) {
+    if (changeMaintainer != null) {
+      changeMaintainer.rewriteManifests(tableRuntime);
+    }
+    baseMaintainer.rewriteManifests(tableRuntime);
+  }
+
   @Override
   public void expireData(TableRuntime tableRuntime) {
     try {
@@ -170,7 +204,7 @@ public class MixedTableMaintainer implements TableMaintainer {
 
         startInstant = Instant.ofEpochMilli(latestNonOptimizedTs).atZone(defaultZone).toInstant();
       }
-      expireDataFrom(expirationConfig, startInstant);
+      expireDataFrom(expirationConfig, startInstant, tableRuntime.getDataExpirationIndex());
     } catch (Throwable t) {
       LOG.error("Unexpected purge error for table {} ", tableRuntime.getTableIdentifier(), t);
     }
@@ -178,6 +212,19 @@ public class MixedTableMaintainer implements TableMaintainer {
 
   @VisibleForTesting
   public void expireDataFrom(DataExpirationConfig expirationConfig, Instant instant) {
+    expireDataFrom(expirationConfig, instant, null);
+  }
+
+  /**
+   * Purge data older than the specified timestamp. The partitions without data to expire in both
+   * the change and base store are pruned from the scan by the expiration index, and the partitions
+   * whose data are all expired are dropped by metadata. All the partitions are checked if the index
+   * is null
+   */
+  public void expireDataFrom(
+      DataExpirationConfig expirationConfig,
+      Instant instant,
+      @Nullable DataExpirationIndex expirationIndex) {
     long expireTimestamp = instant.minusMillis(expirationConfig.getRetentionTime()).toEpochMilli();
     Types.NestedField field = arcticTable.schema().findField(expirationConfig.getExpirationField());
     LOG.info(
@@ -191,25 +238,100 @@ public class MixedTableMaintainer implements TableMaintainer {
         IcebergTableMaintainer.getDataExpression(
             arcticTable.schema(), expirationConfig, expireTimestamp);
 
+    Predicate<ContentFile<?>> partitionFilter = file -> true;
+    if (expirationIndex != null) {
+      DataExpirationConfig.ExpireLevel level = expirationConfig.getExpirationLevel();
+      DataExpirationIndex.TableIndex baseIndex =
+          expirationIndex.refresh(BASE_INDEX_KEY, baseMaintainer.getTable(), expirationConfig);
+      DataExpirationIndex.TableIndex changeIndex =
+          changeMaintainer == null
+              ? null
+              : expirationIndex.refresh(
+                  CHANGE_INDEX_KEY, changeMaintainer.getTable(), expirationConfig);
+      if (!baseIndex.mayExpire(level, expireTimestamp)
+          && (changeIndex == null || !changeIndex.mayExpire(level, expireTimestamp))) {
+        LOG.info(
+            "No data older than {} to expire in mixed table {}",
+            expireTimestamp,
+            arcticTable.name());
+        return;
+      }
+      Map<Integer, PartitionSpec> specs = baseMaintainer.getTable().specs();
+      // with a single spec, the partitions whose data are all expired in both the change and base
+      // store are dropped by metadata, except for hive tables, whose overwrite syncs the hive
+      // partitions
+      boolean dropExpiredPartitions =
+          !TableTypeUtil.isHive(arcticTable)
+              && specs.size() == 1
+              && (changeMaintainer == null || changeMaintainer.getTable().specs().size() == 1);
+      if (dropExpiredPartitions) {
+        Predicate<DataExpirationIndex.PartitionBounds> expired =
+            bounds -> bounds.getMaxBound() <= expireTimestamp;
+        if (changeIndex != null) {
+          changeMaintainer.expirePartitions(
+              DataExpirationIndex.partitionExpression(specs, expired, changeIndex, baseIndex),
+              changeIndex.snapshotId(),
+              expireTimestamp);
+        }
+        baseMaintainer.expirePartitions(
+            DataExpirationIndex.partitionExpression(specs, expired, baseIndex, changeIndex),
+            baseIndex.snapshotId(),
+            expireTimestamp);
+      }
+      // the files of a partition in both stores are checked together
+      Predicate<DataExpirationIndex.PartitionBounds> mayExpire =
+          bounds ->
+              DataExpirationIndex.mayExpire(bounds, level, expireTimestamp)
+                  && !(dropExpiredPartitions && bounds.getMaxBound() <= expireTimestamp);
+      Expression partitionExpression =
+          changeIndex == null
+              ? DataExpirationIndex.partitionExpression(specs, mayExpire, baseIndex)
+              : Expressions.or(
+                  DataExpirationIndex.partitionExpression(specs, mayExpire, baseIndex, changeIndex),
+                  DataExpirationIndex.partitionExpression(
+                      specs, mayExpire, changeIndex, baseIndex));
+      if (partitionExpression.op() == Expression.Operation.FALSE) {
+        return;
+      }
+      dataFilter = Expressions.and(dataFilter, partitionExpression);
+      partitionFilter =
+          file ->
+              DataExpirationIndex.mayExpire(
+                  DataExpirationIndex.PartitionBounds.merge(
+                      baseIndex.bounds(file.specId(), file.partition()),
+                      changeIndex == null
+                          ? null
+                          : changeIndex.bounds(file.specId(), file.partition())),
+                  level,
+                  expireTimestamp);
+    }
+
     Pair<IcebergTableMaintainer.ExpireFiles, IcebergTableMaintainer.ExpireFiles> mixedExpiredFiles =
-        mixedExpiredFileScan(expirationConfig, dataFilter, expireTimestamp);
+        mixedExpiredFileScan(expirationConfig, dataFilter, expireTimestamp, partitionFilter);
 
     expireMixedFiles(mixedExpiredFiles.getLeft(), mixedExpiredFiles.getRight(), expireTimestamp);
   }
 
   private Pair<IcebergTableMaintainer.ExpireFiles, IcebergTableMaintainer.ExpireFiles>
       mixedExpiredFileScan(
-          DataExpirationConfig expirationConfig, Expression dataFilter, long expireTimestamp) {
+          DataExpirationConfig expirationConfig,
+          Expression dataFilter,
+          long expireTimestamp,
+          Predicate<ContentFile<?>> partitionFilter) {
     return arcticTable.isKeyedTable()
-        ? keyedExpiredFileScan(expirationConfig, dataFilter, expireTimestamp)
+        ? keyedExpiredFileScan(expirationConfig, dataFilter, expireTimestamp, partitionFilter)
         : Pair.of(
             new IcebergTableMaintainer.ExpireFiles(),
-            getBaseMaintainer().expiredFileScan(expirationConfig, dataFilter, expireTimestamp));
+            getBaseMaintainer()
+                .expiredFileScan(expirationConfig, dataFilter, expireTimestamp, partitionFilter));
   }
 
   private Pair<IcebergTableMaintainer.ExpireFiles, IcebergTableMaintainer.ExpireFiles>
       keyedExpiredFileScan(
-          DataExpirationConfig expirationConfig, Expression dataFilter, long expireTimestamp) {
+          DataExpirationConfig expirationConfig,
+          Expression dataFilter,
+          long expireTimestamp,
+          Predicate<ContentFile<?>> partitionFilter) {
     Map<StructLike, IcebergTableMaintainer.DataFileFreshness> partitionFreshness =
         Maps.newConcurrentMap();
 
@@ -235,7 +357,8 @@ public class MixedTableMaintainer implements TableMaintainer {
       Queue<MixedFileEntry> fileEntries = new LinkedTransferQueue<>();
       entries.forEach(
           e -> {
-            if (IcebergTableMaintainer.mayExpired(e, partitionFreshness, expireTimestamp)) {
+            if (partitionFilter.test(e.getFile())
+                && IcebergTableMaintainer.mayExpired(e, partitionFreshness, expireTimestamp)) {
               fileEntries.add(e);
             }
           });
@@ -308,7 +431,7 @@ public class MixedTableMaintainer implements TableMaintainer {
     private final UnkeyedTable unkeyedTable;
 
     public ChangeTableMaintainer(UnkeyedTable unkeyedTable) {
-      super(unkeyedTable);
+      super(unkeyedTable, commitLock);
       this.unkeyedTable = unkeyedTable;
     }
 
@@ -354,32 +477,70 @@ public class MixedTableMaintainer implements TableMaintainer {
     }
 
     public void expireFiles(long ttlPoint) {
-      List<IcebergFileEntry> expiredDataFileEntries = getExpiredDataFileEntries(ttlPoint);
-      deleteChangeFile(expiredDataFileEntries);
+      List<DataFile> expiredDataFiles = getExpiredDataFiles(ttlPoint);
+      deleteChangeFile(expiredDataFiles);
     }
 
-    private List<IcebergFileEntry> getExpiredDataFileEntries(long ttlPoint) {
-      TableEntriesScan entriesScan =
-          TableEntriesScan.builder(unkeyedTable).includeFileContent(FileContent.DATA).build();
-      List<IcebergFileEntry> changeTTLFileEntries = new ArrayList<>();
-
-      try (CloseableIterable<IcebergFileEntry> entries = entriesScan.entries()) {
-        entries.forEach(
-            entry -> {
-              Snapshot snapshot = unkeyedTable.snapshot(entry.getSnapshotId());
-              if (snapshot == null || snapshot.timestampMillis() < ttlPoint) {
-                changeTTLFileEntries.add(entry);
-              }
-            });
-      } catch (IOException e) {
-        throw new UncheckedIOException("Failed to close manifest entry scan of " + table.name(), e);
+    /**
+     * Change files are only appended, so the data sequence number of a change file is the sequence
+     * number of the snapshot adding it. Manifests only containing files added by unexpired
+     * snapshots are skipped by their min sequence number, the others are read in parallel.
+     */
+    @VisibleForTesting
+    List<DataFile> getExpiredDataFiles(long ttlPoint) {
+      Snapshot currentSnapshot = unkeyedTable.currentSnapshot();
+      if (currentSnapshot == null) {
+        return Collections.emptyList();
       }
-      return changeTTLFileEntries;
+      Map<Long, Snapshot> snapshotsBySequence = new HashMap<>();
+      long minRetainedSequence = Long.MAX_VALUE;
+      long maxExpiredSequence = -1;
+      for (Snapshot snapshot : unkeyedTable.snapshots()) {
+        snapshotsBySequence.put(snapshot.sequenceNumber(), snapshot);
+        minRetainedSequence = Math.min(minRetainedSequence, snapshot.sequenceNumber());
+        if (snapshot.timestampMillis() < ttlPoint) {
+          maxExpiredSequence = Math.max(maxExpiredSequence, snapshot.sequenceNumber());
+        }
+      }
+      // files added by snapshots that have already been expired are expired too
+      long maxSequenceToRead = Math.max(maxExpiredSequence, minRetainedSequence - 1);
+      List<ManifestFile> dataManifests = currentSnapshot.dataManifests(unkeyedTable.io());
+      List<ManifestFile> manifests =
+          dataManifests.stream()
+              .filter(manifest -> manifest.minSequenceNumber() <= maxSequenceToRead)
+              .collect(Collectors.toList());
+
+      Queue<DataFile> expiredDataFiles = new ConcurrentLinkedQueue<>();
+      Tasks.foreach(manifests)
+          .executeWith(ServerThreadPools.getSnapshotExpiringPool())
+          .stopOnFailure()
+          .throwFailureWhenFinished()
+          .run(
+              manifest -> {
+                try (ManifestReader<DataFile> reader =
+                    ManifestFiles.read(manifest, unkeyedTable.io(), unkeyedTable.specs())) {
+                  for (DataFile dataFile : reader) {
+                    Snapshot snapshot = snapshotsBySequence.get(dataFile.dataSequenceNumber());
+                    if (snapshot == null || snapshot.timestampMillis() < ttlPoint) {
+                      expiredDataFiles.add(dataFile.copyWithoutStats());
+                    }
+                  }
+                } catch (IOException e) {
+                  throw new UncheckedIOException(
+                      "Failed to close manifest reader of " + manifest.path(), e);
+                }
+              });
+      LOG.debug(
+          "{} read {} of {} data manifests to find expired change files",
+          table.name(),
+          manifests.size(),
+          dataManifests.size());
+      return new ArrayList<>(expiredDataFiles);
     }
 
-    private void deleteChangeFile(List<IcebergFileEntry> expiredDataFileEntries) {
+    private void deleteChangeFile(List<DataFile> expiredDataFiles) {
       KeyedTable keyedTable = arcticTable.asKeyedTable();
-      if (CollectionUtils.isEmpty(expiredDataFileEntries)) {
+      if (CollectionUtils.isEmpty(expiredDataFiles)) {
         return;
       }
 
@@ -389,49 +550,44 @@ public class MixedTableMaintainer implements TableMaintainer {
         return;
       }
 
-      Map<String, List<IcebergFileEntry>> partitionDataFileMap =
-          expiredDataFileEntries.stream()
+      Map<String, List<DataFile>> partitionDataFileMap =
+          expiredDataFiles.stream()
               .collect(
                   Collectors.groupingBy(
-                      entry -> keyedTable.spec().partitionToPath(entry.getFile().partition()),
+                      dataFile -> keyedTable.spec().partitionToPath(dataFile.partition()),
                       Collectors.toList()));
 
       List<DataFile> changeDeleteFiles = new ArrayList<>();
       if (keyedTable.spec().isUnpartitioned()) {
-        List<IcebergFileEntry> partitionDataFiles =
+        List<DataFile> partitionDataFiles =
             partitionDataFileMap.get(
-                keyedTable
-                    .spec()
-                    .partitionToPath(expiredDataFileEntries.get(0).getFile().partition()));
+                keyedTable.spec().partitionToPath(expiredDataFiles.get(0).partition()));
 
         Long optimizedSequence = optimizedSequences.get(TablePropertyUtil.EMPTY_STRUCT);
         if (optimizedSequence != null && CollectionUtils.isNotEmpty(partitionDataFiles)) {
           changeDeleteFiles.addAll(
               partitionDataFiles.stream()
                   .filter(
-                      entry ->
+                      dataFile ->
                           FileNameRules.parseChangeTransactionId(
-                                  entry.getFile().path().toString(), entry.getSequenceNumber())
+                                  dataFile.path().toString(), dataFile.dataSequenceNumber())
                               <= optimizedSequence)
-                  .map(entry -> (DataFile) entry.getFile())
                   .collect(Collectors.toList()));
         }
       } else {
         optimizedSequences.forEach(
             (key, value) -> {
-              List<IcebergFileEntry> partitionDataFiles =
+              List<DataFile> partitionDataFiles =
                   partitionDataFileMap.get(keyedTable.spec().partitionToPath(key));
 
               if (CollectionUtils.isNotEmpty(partitionDataFiles)) {
                 changeDeleteFiles.addAll(
                     partitionDataFiles.stream()
                         .filter(
-                            entry ->
+                            dataFile ->
                                 FileNameRules.parseChangeTransactionId(
-                                        entry.getFile().path().toString(),
-                                        entry.getSequenceNumber())
+                                        dataFile.path().toString(), dataFile.dataSequenceNumber())
                                     <= value)
-                        .map(entry -> (DataFile) entry.getFile())
                         .collect(Collectors.toList()));
               }
             });
@@ -471,7 +627,7 @@ public class MixedTableMaintainer implements TableMaintainer {
   public class BaseTableMaintainer extends IcebergTableMaintainer {
 
     public BaseTableMaintainer(UnkeyedTable unkeyedTable) {
-      super(unkeyedTable);
+      super(unkeyedTable, commitLock);
     }
 
     @Override
@@ -24,6 +24,8 @@ import com.netease.arctic.server.table.TableRuntime;
 import com.netease.arctic.table.ArcticTable;
 import org.apache.iceberg.Table;
 
+import java.util.concurrent.locks.Lock;
+
 /**
  * API for maintaining table.
  *
@@ -57,12 +59,25 @@ public interface TableMaintainer {
   /** Auto create tags for table. */
   void autoCreateTags(TableRuntime tableRuntime);
 
+  /** Compact the small manifests of table, so that commits rewrite fewer manifests. */
+  default void rewriteManifests(TableRuntime tableRuntime) {
+    // DO nothing by default
+  }
+
   static TableMaintainer ofTable(AmoroTable<?> amoroTable) {
+    return ofTable(amoroTable, null);
+  }
+
+  /**
+   * Create the maintainer of a table, whose metadata commits are done holding the commit lock if it
+   * is given.
+   */
+  static TableMaintainer ofTable(AmoroTable<?> amoroTable, Lock commitLock) {
     TableFormat format = amoroTable.format();
     if (format == TableFormat.MIXED_HIVE || format == TableFormat.MIXED_ICEBERG) {
-      return new MixedTableMaintainer((ArcticTable) amoroTable.originalTable());
+      return new MixedTableMaintainer((ArcticTable) amoroTable.originalTable(), commitLock);
     } else if (format == TableFormat.ICEBERG) {
-      return new IcebergTableMaintainer((Table) amoroTable.originalTable());
+      return new IcebergTableMaintainer((Table) amoroTable.originalTable(), commitLock);
     } else {
       throw new RuntimeException("Unsupported table type" + amoroTable.originalTable().getClass());
     }
@@ -31,6 +31,8 @@ import org.apache.iceberg.relocated.com.google.common.collect.Maps;
 import org.apache.iceberg.relocated.com.google.common.collect.Sets;
 import org.apache.iceberg.util.BinPacking;
 
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -272,48 +274,177 @@ public abstract class AbstractPartitionPlan implements PartitionEvaluator {
     }
   }
 
+  /**
+   * Bin-pack the data files by their cost, which is the size of the data files plus the size of the
+   * distinct delete files they read. Data files reading any common delete file are grouped, and
+   * every group is split by the cost of each split, so a delete file is only read again by another
+   * split when the data files reading it exceed the target cost of a task.
+   */
   protected class BinPackingTaskSplitter implements TaskSplitter {
 
     @Override
     public List<SplitTask> splitTasks(int targetTaskCount) {
-      // bin-packing
-      List<FileTask> allDataFiles = Lists.newArrayList();
+      long targetTaskCost = Math.max(config.getTargetSize(), config.getMaxTaskSize());
+      List<FileTask> fileTasks = Lists.newArrayList();
       rewriteDataFiles.forEach(
-          (dataFile, deleteFiles) -> allDataFiles.add(new FileTask(dataFile, deleteFiles, true)));
+          (dataFile, deleteFiles) -> fileTasks.add(new FileTask(dataFile, deleteFiles, true)));
       rewritePosDataFiles.forEach(
-          (dataFile, deleteFiles) -> allDataFiles.add(new FileTask(dataFile, deleteFiles, false)));
+          (dataFile, deleteFiles) -> fileTasks.add(new FileTask(dataFile, deleteFiles, false)));
 
-      List<List<FileTask>> packed =
-          new BinPacking.ListPacker<FileTask>(
-                  Math.max(config.getTargetSize(), config.getMaxTaskSize()),
-                  Integer.MAX_VALUE,
-                  false)
-              .pack(allDataFiles, f -> f.getFile().fileSizeInBytes());
+      List<FileTaskGroup> splits = Lists.newArrayList();
+      groupByOverlappedDeletes(fileTasks)
+          .forEach(group -> splits.addAll(splitByCost(group, targetTaskCost)));
+
+      // bin-packing, splits of different groups read different delete files, so their costs add up
+      List<List<FileTaskGroup>> packed =
+          new BinPacking.ListPacker<FileTaskGroup>(targetTaskCost, Integer.MAX_VALUE, false)
+              .pack(splits, FileTaskGroup::cost);
 
       // collect
       List<SplitTask> results = Lists.newArrayListWithCapacity(packed.size());
-      for (List<FileTask> fileTasks : packed) {
+      for (List<FileTaskGroup> taskGroups : packed) {
         Set<DataFile> rewriteDataFiles = Sets.newHashSet();
         Set<DataFile> rewritePosDataFiles = Sets.newHashSet();
         Set<ContentFile<?>> deleteFiles = Sets.newHashSet();
 
-        fileTasks.stream()
-            .filter(FileTask::isRewriteDataFile)
+        taskGroups.stream()
+            .flatMap(group -> group.getFileTasks().stream())
             .forEach(
                 f -> {
-                  rewriteDataFiles.add(f.getFile());
-                  deleteFiles.addAll(f.getDeleteFiles());
-                });
-        fileTasks.stream()
-            .filter(FileTask::isRewritePosDataFile)
-            .forEach(
-                f -> {
-                  rewritePosDataFiles.add(f.getFile());
+                  if (f.isRewriteDataFile()) {
+                    rewriteDataFiles.add(f.getFile());
+                  } else {
+                    rewritePosDataFiles.add(f.getFile());
+                  }
                   deleteFiles.addAll(f.getDeleteFiles());
                 });
         results.add(new SplitTask(rewriteDataFiles, rewritePosDataFiles, deleteFiles));
       }
       return results;
     }
+
+    /** Group the data files transitively reading common delete files, with union-find. */
+    private Collection<List<FileTask>> groupByOverlappedDeletes(List<FileTask> fileTasks) {
+      Map<String, String> parents = Maps.newHashMap();
+      for (FileTask fileTask : fileTasks) {
+        String first = null;
+        for (ContentFile<?> delete : fileTask.getDeleteFiles()) {
+          String path = delete.path().toString();
+          parents.putIfAbsent(path, path);
+          if (first == null) {
+            first = path;
+          } else {
+            parents.put(findRoot(parents, path), findRoot(parents, first));
+          }
+        }
+      }
+      // data files without delete files are grouped under the null key
+      Map<String, List<FileTask>> groups = Maps.newLinkedHashMap();
+      for (FileTask fileTask : fileTasks) {
+        String root =
+            fileTask.getDeleteFiles().isEmpty()
+                ? null
+                : findRoot(parents, fileTask.getDeleteFiles().get(0).path().toString());
+        groups.computeIfAbsent(root, k -> Lists.newArrayList()).add(fileTask);
+      }
+      return groups.values();
+    }
+
+    private String findRoot(Map<String, String> parents, String path) {
+      String root = path;
+      while (!root.equals(parents.get(root))) {
+        root = parents.get(root);
+      }
+      // compress the path
+      String node = path;
+      while (!node.equals(root)) {
+        String parent = parents.get(node);
+        parents.put(node, root);
+        node = parent;
+      }
+      return root;
+    }
+
+    /**
+     * Split the data files of a group in order, adding a file to the current split while its cost
+     * stays in the target. A file only reading delete files the split already reads adds its data
+     * size only, as moving it to another split would read the delete files again.
+     */
+    private List<FileTaskGroup> splitByCost(List<FileTask> fileTasks, long targetTaskCost) {
+      // put the data files reading the same delete files next to each other
+      Map<FileTask, String> deleteKeys = Maps.newIdentityHashMap();
+      fileTasks.forEach(
+          f ->
+              deleteKeys.put(
+                  f,
+                  f.getDeleteFiles().stream()
+                      .map(delete -> delete.path().toString())
+                      .sorted()
+                      .collect(Collectors.joining(","))));
+      fileTasks.sort(Comparator.comparing(deleteKeys::get));
+
+      List<FileTaskGroup> splits = Lists.newArrayList();
+      List<FileTask> current = Lists.newArrayList();
+      Set<String> currentDeletes = Sets.newHashSet();
+      long dataSize = 0;
+      long deleteSize = 0;
+      for (FileTask fileTask : fileTasks) {
+        long fileSize = fileTask.getFile().fileSizeInBytes();
+        long newDeleteSize = newDeleteSize(fileTask, currentDeletes);
+        boolean fits =
+            newDeleteSize == 0
+                ? dataSize + fileSize <= targetTaskCost
+                : dataSize + deleteSize + fileSize + newDeleteSize <= targetTaskCost;
+        if (!current.isEmpty() && !fits) {
+          splits.add(new FileTaskGroup(current));
+          current = Lists.newArrayList();
+          currentDeletes.clear();
+          dataSize = 0;
+          deleteSize = 0;
+          newDeleteSize = newDeleteSize(fileTask, currentDeletes);
+        }
+        current.add(fileTask);
+        fileTask.getDeleteFiles().forEach(delete -> currentDeletes.add(delete.path().toString()));
+        dataSize += fileSize;
+        deleteSize += newDeleteSize;
+      }
+      if (!current.isEmpty()) {
+        splits.add(new FileTaskGroup(current));
+      }
+      return splits;
+    }
+
+    private long newDeleteSize(FileTask fileTask, Set<String> readDeletes) {
+      Map<String, Long> newDeletes = Maps.newHashMap();
+      fileTask.getDeleteFiles().stream()
+          .filter(delete -> !readDeletes.contains(delete.path().toString()))
+          .forEach(delete -> newDeletes.put(delete.path().toString(), delete.fileSizeInBytes()));
+      return newDeletes.values().stream().mapToLong(Long::longValue).sum();
+    }
+  }
+
+  /** Data files packed into the same task, and the cost of reading them and their delete files. */
+  private static class FileTaskGroup {
+    private final List<FileTask> fileTasks;
+    private final long cost;
+
+    FileTaskGroup(List<FileTask> fileTasks) {
+      this.fileTasks = fileTasks;
+      Map<String, Long> deleteSizes = Maps.newHashMap();
+      fileTasks.stream()
+          .flatMap(f -> f.getDeleteFiles().stream())
+          .forEach(delete -> deleteSizes.put(delete.path().toString(), delete.fileSizeInBytes()));
+      this.cost =
+          deleteSizes.values().stream().mapToLong(Long::longValue).sum()
+              + fileTasks.stream().mapToLong(f -> f.getFile().fileSizeInBytes()).sum();
+    }
+
+    List<FileTask> getFileTasks() {
+      return fileTasks;
+    }
+
+    long cost() {
+      return cost;
+    }
   }
 }
@@ -21,6 +21,8 @@ package com.netease.arctic.server.persistence;
 import com.google.common.annotations.VisibleForTesting;
 import com.netease.arctic.server.exception.ArcticRuntimeException;
 import com.netease.arctic.server.exception.PersistenceException;
+import com.netease.arctic.server.metrics.AmsMetricRegistry;
+import com.netease.arctic.server.metrics.DurationHistogram;
 import org.apache.ibatis.session.TransactionIsolationLevel;
 import org.apache.iceberg.relocated.com.google.common.base.Preconditions;
 
@@ -31,6 +33,21 @@ import java.util.function.Supplier;
 
 public abstract class PersistentBase {
 
+  private static final String METRIC_DURATION = "ams_persistence_duration_seconds";
+  private static final String MAPPER_LABEL = "mapper";
+
+  // histograms of database calls by mapper, resolved once per mapper class
+  private static final ClassValue<DurationHistogram> MAPPER_DURATIONS =
+      new ClassValue<DurationHistogram>() {
+        @Override
+        protected DurationHistogram computeValue(Class<?> mapperClz) {
+          return AmsMetricRegistry.getInstance()
+              .histogram(METRIC_DURATION, MAPPER_LABEL, mapperClz.getSimpleName());
+        }
+      };
+  private static final DurationHistogram TRANSACTION_DURATION =
+      AmsMetricRegistry.getInstance().histogram(METRIC_DURATION, MAPPER_LABEL, "transaction");
+
   protected PersistentBase() {}
 
   @VisibleForTesting
@@ -43,7 +60,8 @@ public abstract class PersistentBase {
   }
 
   protected final <T> void doAs(Class<T> mapperClz, Consumer<T> consumer) {
-    try (NestedSqlSession session = beginSession()) {
+    try (DurationHistogram.Context ignored = MAPPER_DURATIONS.get(mapperClz).time();
+        NestedSqlSession session = beginSession()) {
       try {
         T mapper = getMapper(session, mapperClz);
         consumer.accept(mapper);
@@ -56,7 +74,8 @@ public abstract class PersistentBase {
   }
 
   protected final void doAsTransaction(Runnable... operations) {
-    try (NestedSqlSession session = beginSession()) {
+    try (DurationHistogram.Context ignored = TRANSACTION_DURATION.time();
+        NestedSqlSession session = beginSession()) {
       try {
         Arrays.stream(operations).forEach(Runnable::run);
         session.commit();
@@ -68,7 +87,8 @@ public abstract class PersistentBase {
   }
 
   protected final <T, R> R getAs(Class<T> mapperClz, Function<T, R> func) {
-    try (NestedSqlSession session = beginSession()) {
+    try (DurationHistogram.Context ignored = MAPPER_DURATIONS.get(mapperClz).time();
+        NestedSqlSession session = beginSession()) {
       try {
         T mapper = getMapper(session, mapperClz);
         return func.apply(mapper);
@@ -82,7 +102,8 @@ public abstract class PersistentBase {
       Class<T> mapperClz,
       Function<T, Integer> func,
       Supplier<? extends ArcticRuntimeException> errorSupplier) {
-    try (NestedSqlSession session = beginSession()) {
+    try (DurationHistogram.Context ignored = MAPPER_DURATIONS.get(mapperClz).time();
+        NestedSqlSession session = beginSession()) {
       try {
         int result = func.apply(getMapper(session, mapperClz));
         if (result == 0) {
@@ -0,0 +1,347 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.server.resource;
+
+import com.netease.arctic.ams.api.OptimizerProperties;
+import com.netease.arctic.ams.api.resource.Resource;
+import com.netease.arctic.ams.api.resource.ResourceContainer;
+import com.netease.arctic.ams.api.resource.ResourceGroup;
+import com.netease.arctic.ams.api.resource.ResourceType;
+import com.netease.arctic.server.optimizing.OptimizingQueue;
+import com.netease.arctic.utils.CompatiblePropertyUtil;
+import org.apache.iceberg.relocated.com.google.common.annotations.VisibleForTesting;
+import org.apache.iceberg.relocated.com.google.common.base.Preconditions;
+import org.apache.iceberg.relocated.com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Scales the optimizers of the resource groups with {@link
+ * OptimizerProperties#OPTIMIZER_AUTOSCALE_ENABLED} by the backlog of their optimizing queues.
+ *
+ * <p>The demand of a group is the number of pending and running tasks plus the number of tables
+ * waiting to be planned, and its capacity is the thread count of the registered optimizers plus the
+ * resources still starting. Optimizers are requested from the {@link ResourceContainer} of the
+ * group when the demand exceeds the capacity, and released only when the queue has fully drained,
+ * so running tasks are never killed. Both directions are limited by the min/max parallelism of the
+ * group and by its cool-down. Requested resources that do not register within {@link
+ * OptimizerProperties#OPTIMIZER_AUTOSCALE_START_TIMEOUT} are released and forgotten.
+ */
+public class OptimizerAutoScaler {
+
+  private static final Logger LOG = LoggerFactory.getLogger(OptimizerAutoScaler.class);
+
+  private final OptimizerManager optimizerManager;
+  private final Function<String, Optional<OptimizingQueue>> queueProvider;
+  private final Function<String, ResourceContainer> containerProvider;
+  private final long interval;
+  private final Map<String, Long> lastScaleTimes = new ConcurrentHashMap<>();
+  // resource id -> the first time the resource was found without a registered optimizer
+  private final Map<String, Long> startingResources = new ConcurrentHashMap<>();
+  private ScheduledExecutorService executor;
+
+  public OptimizerAutoScaler(
+      OptimizerManager optimizerManager,
+      Function<String, Optional<OptimizingQueue>> queueProvider,
+      long interval) {
+    this(optimizerManager, queueProvider, ResourceContainers::get, interval);
+  }
+
+  @VisibleForTesting
+  OptimizerAutoScaler(
+      OptimizerManager optimizerManager,
+      Function<String, Optional<OptimizingQueue>> queueProvider,
+      Function<String, ResourceContainer> containerProvider,
+      long interval) {
+    this.optimizerManager = optimizerManager;
+    this.queueProvider = queueProvider;
+    this.containerProvider = containerProvider;
+    this.interval = interval;
+  }
+
+  /**
+   * Validate the autoscaling properties of a resource group.
+   *
+   * @throws IllegalArgumentException if the parallelism bounds are invalid
+   */
+  public static void validateProperties(Map<String, String> properties) {
+    if (properties == null) {
+      return;
+    }
+    int minParallelism =
+        CompatiblePropertyUtil.propertyAsInt(
+            properties,
+            OptimizerProperties.OPTIMIZER_AUTOSCALE_MIN_PARALLELISM,
+            OptimizerProperties.OPTIMIZER_AUTOSCALE_MIN_PARALLELISM_DEFAULT);
+    int maxParallelism =
+        CompatiblePropertyUtil.propertyAsInt(
+            properties,
+            OptimizerProperties.OPTIMIZER_AUTOSCALE_MAX_PARALLELISM,
+            OptimizerProperties.OPTIMIZER_AUTOSCALE_MAX_PARALLELISM_DEFAULT);
+    int stepParallelism =
+        CompatiblePropertyUtil.propertyAsInt(
+            properties,
+            OptimizerProperties.OPTIMIZER_AUTOSCALE_STEP_PARALLELISM,
+            OptimizerProperties.OPTIMIZER_AUTOSCALE_STEP_PARALLELISM_DEFAULT);
+    Preconditions.checkArgument(
+        minParallelism >= 0,
+        "%s must not be negative",
+        OptimizerProperties.OPTIMIZER_AUTOSCALE_MIN_PARALLELISM);
+    Preconditions.checkArgument(
+        minParallelism <= maxParallelism,
+        "%s %s must not be greater than %s %s",
+        OptimizerProperties.OPTIMIZER_AUTOSCALE_MIN_PARALLELISM,
+        minParallelism,
+        OptimizerProperties.OPTIMIZER_AUTOSCALE_MAX_PARALLELISM,
+        maxParallelism);
+    Preconditions.checkArgument(
+        stepParallelism > 0,
+        "%s must be positive",
+        OptimizerProperties.OPTIMIZER_AUTOSCALE_STEP_PARALLELISM);
+    Preconditions.checkArgument(
+        CompatiblePropertyUtil.propertyAsLong(
+                properties,
+                OptimizerProperties.OPTIMIZER_AUTOSCALE_START_TIMEOUT,
+                OptimizerProperties.OPTIMIZER_AUTOSCALE_START_TIMEOUT_DEFAULT)
+            > 0,
+        "%s must be positive",
+        OptimizerProperties.OPTIMIZER_AUTOSCALE_START_TIMEOUT);
+  }
+
+  public void start() {
+    if (interval <= 0) {
+      LOG.info("Optimizer autoscaling is disabled by a non-positive interval");
+      return;
+    }
+    executor =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("optimizer-autoscaler-thread")
+                .setDaemon(true)
+                .build());
+    executor.scheduleWithFixedDelay(this::scaleAll, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  public void dispose() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  private void scaleAll() {
+    for (ResourceGroup group : optimizerManager.listResourceGroups()) {
+      try {
+        scale(group);
+      } catch (Throwable t) {
+        LOG.error("Failed to autoscale optimizers of group {}", group.getName(), t);
+      }
+    }
+  }
+
+  @VisibleForTesting
+  void scale(ResourceGroup group) {
+    Map<String, String> properties = group.getProperties();
+    if (ResourceContainers.EXTERNAL_CONTAINER_NAME.equals(group.getContainer())
+        || !CompatiblePropertyUtil.propertyAsBoolean(
+            properties,
+            OptimizerProperties.OPTIMIZER_AUTOSCALE_ENABLED,
+            OptimizerProperties.OPTIMIZER_AUTOSCALE_ENABLED_DEFAULT)) {
+      return;
+    }
+    OptimizingQueue queue = queueProvider.apply(group.getName()).orElse(null);
+    if (queue == null) {
+      return;
+    }
+    int minParallelism =
+        CompatiblePropertyUtil.propertyAsInt(
+            properties,
+            OptimizerProperties.OPTIMIZER_AUTOSCALE_MIN_PARALLELISM,
+            OptimizerProperties.OPTIMIZER_AUTOSCALE_MIN_PARALLELISM_DEFAULT);
+    int maxParallelism =
+        CompatiblePropertyUtil.propertyAsInt(
+            properties,
+            OptimizerProperties.OPTIMIZER_AUTOSCALE_MAX_PARALLELISM,
+            OptimizerProperties.OPTIMIZER_AUTOSCALE_MAX_PARALLELISM_DEFAULT);
+    int stepParallelism =
+        CompatiblePropertyUtil.propertyAsInt(
+            properties,
+            OptimizerProperties.OPTIMIZER_AUTOSCALE_STEP_PARALLELISM,
+            OptimizerProperties.OPTIMIZER_AUTOSCALE_STEP_PARALLELISM_DEFAULT);
+    long coolDown =
+        CompatiblePropertyUtil.propertyAsLong(
+            properties,
+            OptimizerProperties.OPTIMIZER_AUTOSCALE_COOL_DOWN,
+            OptimizerProperties.OPTIMIZER_AUTOSCALE_COOL_DOWN_DEFAULT);
+    long startTimeout =
+        CompatiblePropertyUtil.propertyAsLong(
+            properties,
+            OptimizerProperties.OPTIMIZER_AUTOSCALE_START_TIMEOUT,
+            OptimizerProperties.OPTIMIZER_AUTOSCALE_START_TIMEOUT_DEFAULT);
+
+    if (minParallelism > maxParallelism) {
+      LOG.warn(
+          "Skip autoscaling group {} as its min parallelism {} is greater than its max parallelism {}",
+          group.getName(),
+          minParallelism,
+          maxParallelism);
+      return;
+    }
+
+    long now = System.currentTimeMillis();
+    if (now - lastScaleTimes.getOrDefault(group.getName(), 0L) < coolDown) {
+      return;
+    }
+
+    List<OptimizerInstance> optimizers = optimizerManager.listOptimizers(group.getName());
+    List<Resource> resources = optimizerManager.listResourcesByGroup(group.getName());
+    Set<String> registeredResourceIds =
+        optimizers.stream()
+            .map(OptimizerInstance::getResourceId)
+            .filter(id -> id != null && !id.isEmpty())
+            .collect(Collectors.toSet());
+    startingResources.keySet().removeIf(registeredResourceIds::contains);
+    int capacity = optimizers.stream().mapToInt(OptimizerInstance::getThreadCount).sum();
+    for (Resource resource : resources) {
+      if (!registeredResourceIds.contains(resource.getResourceId())) {
+        long firstSeen = startingResources.computeIfAbsent(resource.getResourceId(), id -> now);
+        // the resource is regarded as failed to start if it has not registered in time
+        if (now - firstSeen < startTimeout) {
+          capacity += resource.getThreadCount();
+        } else if (isAutoscaled(resource)) {
+          expireResource(group, resource);
+        }
+      }
+    }
+
+    int pendingTasks = queue.getPendingTaskCount();
+    int runningTasks = queue.getRunningTaskCount();
+    int demand = pendingTasks + runningTasks + queue.getPendingTableCount();
+    int scaleOut =
+        scaleOutParallelism(minParallelism, maxParallelism, stepParallelism, capacity, demand);
+    if (scaleOut > 0) {
+      requestOptimizer(group, scaleOut);
+      LOG.info(
+          "Scaled out {} threads for group {}, capacity: {}, pending tasks: {}, running tasks: {}",
+          scaleOut,
+          group.getName(),
+          capacity,
+          pendingTasks,
+          runningTasks);
+      lastScaleTimes.put(group.getName(), now);
+    } else if (demand == 0
+        && releaseOptimizer(group, resources, optimizers, capacity - minParallelism)) {
+      lastScaleTimes.put(group.getName(), now);
+    }
+  }
+
+  /**
+   * Returns the threads to request, bounded by the step, the max parallelism and the demand. A
+   * group below its min parallelism is scaled to the min parallelism at once.
+   */
+  @VisibleForTesting
+  static int scaleOutParallelism(
+      int minParallelism, int maxParallelism, int stepParallelism, int capacity, int demand) {
+    if (capacity < minParallelism) {
+      return Math.max(0, Math.min(minParallelism, maxParallelism) - capacity);
+    }
+    int target = Math.min(maxParallelism, demand);
+    return target > capacity ? Math.min(Math.max(stepParallelism, 1), target - capacity) : 0;
+  }
+
+  private void requestOptimizer(ResourceGroup group, int threadCount) {
+    Map<String, String> properties = new HashMap<>(group.getProperties());
+    properties.put(OptimizerProperties.RESOURCE_AUTOSCALED, "true");
+    Resource resource =
+        new Resource.Builder(group.getContainer(), group.getName(), ResourceType.OPTIMIZER)
+            .setProperties(properties)
+            .setThreadCount(threadCount)
+            .build();
+    containerProvider.apply(resource.getContainerName()).requestResource(resource);
+    optimizerManager.createResource(resource);
+  }
+
+  /**
+   * Release one registered optimizer requested by the autoscaler, whose threads do not exceed the
+   * releasable threads. Optimizers started manually are never released.
+   */
+  private boolean releaseOptimizer(
+      ResourceGroup group,
+      List<Resource> resources,
+      List<OptimizerInstance> optimizers,
+      int releasableThreads) {
+    for (Resource resource : resources) {
+      if (!isAutoscaled(resource) || resource.getThreadCount() > releasableThreads) {
+        continue;
+      }
+      Optional<OptimizerInstance> optimizer =
+          optimizers.stream()
+              .filter(instance -> resource.getResourceId().equals(instance.getResourceId()))
+              .findFirst();
+      if (optimizer.isPresent()) {
+        resource.getProperties().putAll(optimizer.get().getProperties());
+        containerProvider.apply(resource.getContainerName()).releaseOptimizer(resource);
+        optimizerManager.deleteResource(resource.getResourceId());
+        optimizerManager.deleteOptimizer(group.getName(), resource.getResourceId());
+        LOG.info(
+            "Released optimizer {} with {} threads of idle group {}",
+            resource.getResourceId(),
+            resource.getThreadCount(),
+            group.getName());
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Release a resource requested by the autoscaler that has never registered. The container may not
+   * be able to release it without the properties reported by the optimizer, like the job id of a
+   * local optimizer, so the resource is forgotten even if releasing fails.
+   */
+  private void expireResource(ResourceGroup group, Resource resource) {
+    LOG.warn(
+        "Optimizer {} of group {} has not registered in time, release it",
+        resource.getResourceId(),
+        group.getName());
+    try {
+      containerProvider.apply(resource.getContainerName()).releaseOptimizer(resource);
+    } catch (Throwable t) {
+      LOG.warn("Failed to release unregistered optimizer {}", resource.getResourceId(), t);
+    }
+    optimizerManager.deleteResource(resource.getResourceId());
+    startingResources.remove(resource.getResourceId());
+  }
+
+  private static boolean isAutoscaled(Resource resource) {
+    return Boolean.parseBoolean(
+        resource.getProperties().get(OptimizerProperties.RESOURCE_AUTOSCALED));
+  }
+}
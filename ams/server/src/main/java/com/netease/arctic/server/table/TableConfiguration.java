@@ -17,6 +17,8 @@ public class TableConfiguration {
   private boolean cleanOrphanEnabled;
   private long orphanExistingMinutes;
   private boolean deleteDanglingDeleteFilesEnabled;
+  private boolean rewriteManifestsEnabled;
+  private int rewriteManifestsMinCount;
   private OptimizingConfig optimizingConfig;
   private DataExpirationConfig expiringDataConfig;
   private TagConfiguration tagConfiguration;
@@ -81,6 +83,24 @@ public class TableConfiguration {
     return deleteDanglingDeleteFilesEnabled;
   }
 
+  public boolean isRewriteManifestsEnabled() {
+    return rewriteManifestsEnabled;
+  }
+
+  public TableConfiguration setRewriteManifestsEnabled(boolean rewriteManifestsEnabled) {
+    this.rewriteManifestsEnabled = rewriteManifestsEnabled;
+    return this;
+  }
+
+  public int getRewriteManifestsMinCount() {
+    return rewriteManifestsMinCount;
+  }
+
+  public TableConfiguration setRewriteManifestsMinCount(int rewriteManifestsMinCount) {
+    this.rewriteManifestsMinCount = rewriteManifestsMinCount;
+    return this;
+  }
+
   public TableConfiguration setDeleteDanglingDeleteFilesEnabled(
       boolean deleteDanglingDeleteFilesEnabled) {
     this.deleteDanglingDeleteFilesEnabled = deleteDanglingDeleteFilesEnabled;
@@ -116,6 +136,8 @@ public class TableConfiguration {
         && cleanOrphanEnabled == that.cleanOrphanEnabled
         && orphanExistingMinutes == that.orphanExistingMinutes
         && deleteDanglingDeleteFilesEnabled == that.deleteDanglingDeleteFilesEnabled
+        && rewriteManifestsEnabled == that.rewriteManifestsEnabled
+        && rewriteManifestsMinCount == that.rewriteManifestsMinCount
         && Objects.equal(optimizingConfig, that.optimizingConfig)
         && Objects.equal(expiringDataConfig, that.expiringDataConfig)
         && Objects.equal(tagConfiguration, that.tagConfiguration);
@@ -130,6 +152,8 @@ public class TableConfiguration {
         cleanOrphanEnabled,
         orphanExistingMinutes,
         deleteDanglingDeleteFilesEnabled,
+        rewriteManifestsEnabled,
+        rewriteManifestsMinCount,
         optimizingConfig,
         expiringDataConfig,
         tagConfiguration);
@@ -167,6 +191,16 @@ public class TableConfiguration {
                 properties,
                 TableProperties.ENABLE_DANGLING_DELETE_FILES_CLEAN,
                 TableProperties.ENABLE_DANGLING_DELETE_FILES_CLEAN_DEFAULT))
+        .setRewriteManifestsEnabled(
+            CompatiblePropertyUtil.propertyAsBoolean(
+                properties,
+                TableProperties.ENABLE_REWRITE_MANIFESTS,
+                TableProperties.ENABLE_REWRITE_MANIFESTS_DEFAULT))
+        .setRewriteManifestsMinCount(
+            CompatiblePropertyUtil.propertyAsInt(
+                properties,
+                TableProperties.REWRITE_MANIFESTS_MIN_COUNT,
+                TableProperties.REWRITE_MANIFESTS_MIN_COUNT_DEFAULT))
         .setOptimizingConfig(OptimizingConfig.parseOptimizingConfig(properties))
         .setExpiringDataConfig(DataExpirationConfig.parse(properties))
         .setTagConfiguration(TagConfiguration.parse(properties));
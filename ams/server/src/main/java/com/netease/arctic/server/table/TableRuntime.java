@@ -29,6 +29,7 @@ import com.netease.arctic.server.optimizing.OptimizingProcess;
 import com.netease.arctic.server.optimizing.OptimizingStatus;
 import com.netease.arctic.server.optimizing.OptimizingType;
 import com.netease.arctic.server.optimizing.TaskRuntime;
+import com.netease.arctic.server.optimizing.maintainer.DataExpirationIndex;
 import com.netease.arctic.server.optimizing.plan.OptimizingEvaluator;
 import com.netease.arctic.server.persistence.StatedPersistentBase;
 import com.netease.arctic.server.persistence.mapper.OptimizingMapper;
@@ -55,6 +56,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
@@ -90,8 +92,10 @@ public class TableRuntime extends StatedPersistentBase {
   @StateField private volatile long processId;
   @StateField private volatile OptimizingEvaluator.PendingInput pendingInput;
   private volatile long lastPlanTime;
+  private final DataExpirationIndex dataExpirationIndex = new DataExpirationIndex();
 
   private final ReentrantLock blockerLock = new ReentrantLock();
+  private final ReentrantLock commitLock = new ReentrantLock();
 
   protected TableRuntime(
       ServerTableIdentifier tableIdentifier,
@@ -352,6 +356,14 @@ public class TableRuntime extends StatedPersistentBase {
     return optimizingProcess;
   }
 
+  /**
+   * Lock held while AMS commits to the table. The optimizing commit and the maintenance commits
+   * take turns on it, so they never conflict with each other and only retry on external writers.
+   */
+  public Lock getCommitLock() {
+    return commitLock;
+  }
+
   public long getCurrentSnapshotId() {
     return currentSnapshotId;
   }
@@ -440,6 +452,10 @@ public class TableRuntime extends StatedPersistentBase {
     this.lastPlanTime = lastPlanTime;
   }
 
+  public DataExpirationIndex getDataExpirationIndex() {
+    return dataExpirationIndex;
+  }
+
   @Override
   public String toString() {
     return MoreObjects.toStringHelper(this)
@@ -11,6 +11,7 @@ public class AsyncTableExecutors {
   private TableRuntimeRefreshExecutor tableRefreshingExecutor;
   private OrphanFilesCleaningExecutor orphanFilesCleaningExecutor;
   private DanglingDeleteFilesCleaningExecutor danglingDeleteFilesCleaningExecutor;
+  private ManifestsRewritingExecutor manifestsRewritingExecutor;
   private BlockerExpiringExecutor blockerExpiringExecutor;
   private OptimizingCommitExecutor optimizingCommitExecutor;
   private OptimizingExpiringExecutor optimizingExpiringExecutor;
@@ -23,6 +24,7 @@ public class AsyncTableExecutors {
   }
 
   public void setup(TableManager tableManager, Configurations conf) {
+    TableMaintenanceLimiter.getInstance().setup(conf);
     if (conf.getBoolean(ArcticManagementConf.EXPIRE_SNAPSHOTS_ENABLED)) {
       this.snapshotsExpiringExecutor =
           new SnapshotsExpiringExecutor(
@@ -39,6 +41,11 @@ public class AsyncTableExecutors {
               tableManager,
               conf.getInteger(ArcticManagementConf.CLEAN_DANGLING_DELETE_FILES_THREAD_COUNT));
     }
+    if (conf.getBoolean(ArcticManagementConf.REWRITE_MANIFESTS_ENABLED)) {
+      this.manifestsRewritingExecutor =
+          new ManifestsRewritingExecutor(
+              tableManager, conf.getInteger(ArcticManagementConf.REWRITE_MANIFESTS_THREAD_COUNT));
+    }
     this.optimizingCommitExecutor =
         new OptimizingCommitExecutor(
             tableManager, conf.getInteger(ArcticManagementConf.OPTIMIZING_COMMIT_THREAD_COUNT));
@@ -86,6 +93,10 @@ public class AsyncTableExecutors {
     return danglingDeleteFilesCleaningExecutor;
   }
 
+  public ManifestsRewritingExecutor getManifestsRewritingExecutor() {
+    return manifestsRewritingExecutor;
+  }
+
   public BlockerExpiringExecutor getBlockerExpiringExecutor() {
     return blockerExpiringExecutor;
   }
@@ -19,6 +19,8 @@
 package com.netease.arctic.server.table.executor;
 
 import com.netease.arctic.AmoroTable;
+import com.netease.arctic.server.metrics.AmsMetricRegistry;
+import com.netease.arctic.server.metrics.DurationHistogram;
 import com.netease.arctic.server.optimizing.OptimizingStatus;
 import com.netease.arctic.server.table.RuntimeHandlerChain;
 import com.netease.arctic.server.table.TableConfiguration;
@@ -32,8 +34,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 public abstract class BaseTableExecutor extends RuntimeHandlerChain {
@@ -41,19 +42,36 @@ public abstract class BaseTableExecutor extends RuntimeHandlerChain {
   protected final Logger logger = LoggerFactory.getLogger(getClass());
 
   private static final long START_DELAY = 10 * 1000L;
+  private static final long MAINTENANCE_RETRY_DELAY = 5 * 1000L;
 
-  private final ScheduledExecutorService executor;
+  private static final String EXECUTOR_LABEL = "executor";
+  private static final String METRIC_SCHEDULED_TASKS = "ams_table_executor_scheduled_tasks";
+  private static final String METRIC_ACTIVE_THREADS = "ams_table_executor_active_threads";
+  private static final String METRIC_EXECUTE_DURATION = "ams_table_executor_duration_seconds";
+  private static final String METRIC_EXECUTE_LAG = "ams_table_executor_lag_seconds";
+
+  private final ScheduledThreadPoolExecutor executor;
   private final TableManager tableManager;
+  private final DurationHistogram executeDuration;
+  private final DurationHistogram executeLag;
 
   protected BaseTableExecutor(TableManager tableManager, int poolSize) {
     this.tableManager = tableManager;
     this.executor =
-        Executors.newScheduledThreadPool(
+        new ScheduledThreadPoolExecutor(
             poolSize,
             new ThreadFactoryBuilder()
                 .setDaemon(false)
                 .setNameFormat("async-" + getThreadName() + "-%d")
                 .build());
+    AmsMetricRegistry registry = AmsMetricRegistry.getInstance();
+    String executorName = getThreadName();
+    registry.gauge(
+        METRIC_SCHEDULED_TASKS, () -> executor.getQueue().size(), EXECUTOR_LABEL, executorName);
+    registry.gauge(METRIC_ACTIVE_THREADS, executor::getActiveCount, EXECUTOR_LABEL, executorName);
+    this.executeDuration =
+        registry.histogram(METRIC_EXECUTE_DURATION, EXECUTOR_LABEL, executorName);
+    this.executeLag = registry.histogram(METRIC_EXECUTE_LAG, EXECUTOR_LABEL, executorName);
   }
 
   @Override
@@ -62,17 +80,37 @@ public abstract class BaseTableExecutor extends RuntimeHandlerChain {
         .map(tableRuntimeMeta -> tableRuntimeMeta.getTableRuntime())
         .filter(tableRuntime -> enabled(tableRuntime))
         .forEach(
-            tableRuntime ->
-                executor.schedule(
-                    () -> executeTask(tableRuntime), getStartDelay(), TimeUnit.MILLISECONDS));
+            tableRuntime -> {
+              long delay = getStartDelay();
+              if (isMaintenance()) {
+                delay +=
+                    TableMaintenanceLimiter.getInstance()
+                        .startJitter(getNextExecutingTime(tableRuntime));
+              }
+              schedule(tableRuntime, delay);
+            });
     logger.info("Table executor {} initialized", getClass().getSimpleName());
   }
 
-  private void executeTask(TableRuntime tableRuntime) {
+  private void executeTask(TableRuntime tableRuntime, long plannedTime) {
     if (isExecutable(tableRuntime)) {
-      try {
+      TableMaintenanceLimiter.Permit permit = null;
+      if (isMaintenance()) {
+        permit = TableMaintenanceLimiter.getInstance().tryAcquire();
+        if (permit == null) {
+          // too many maintenance tasks are running, try again later instead of blocking the thread
+          schedule(tableRuntime, MAINTENANCE_RETRY_DELAY, plannedTime);
+          return;
+        }
+      }
+      executeLag.update(
+          Math.max(0, System.currentTimeMillis() - plannedTime), TimeUnit.MILLISECONDS);
+      try (DurationHistogram.Context ignored = executeDuration.time()) {
         execute(tableRuntime);
       } finally {
+        if (permit != null) {
+          permit.release();
+        }
         scheduleIfNecessary(tableRuntime, getNextExecutingTime(tableRuntime));
       }
     }
@@ -80,16 +118,34 @@ public abstract class BaseTableExecutor extends RuntimeHandlerChain {
 
   protected final void scheduleIfNecessary(TableRuntime tableRuntime, long millisecondsTime) {
     if (isExecutable(tableRuntime)) {
-      executor.schedule(() -> executeTask(tableRuntime), millisecondsTime, TimeUnit.MILLISECONDS);
+      schedule(tableRuntime, millisecondsTime);
     }
   }
 
+  private void schedule(TableRuntime tableRuntime, long millisecondsTime) {
+    schedule(tableRuntime, millisecondsTime, System.currentTimeMillis() + millisecondsTime);
+  }
+
+  private void schedule(TableRuntime tableRuntime, long millisecondsTime, long plannedTime) {
+    executor.schedule(
+        () -> executeTask(tableRuntime, plannedTime), millisecondsTime, TimeUnit.MILLISECONDS);
+  }
+
   protected abstract long getNextExecutingTime(TableRuntime tableRuntime);
 
   protected abstract boolean enabled(TableRuntime tableRuntime);
 
   protected abstract void execute(TableRuntime tableRuntime);
 
+  /**
+   * Whether the executor maintains the table files, like expiring snapshots or cleaning orphan
+   * files. Maintenance executions are limited by {@link TableMaintenanceLimiter} and spread out
+   * after AMS starts, executors that only handle the states of AMS should return false.
+   */
+  protected boolean isMaintenance() {
+    return true;
+  }
+
   protected String getThreadName() {
     return String.join("-", StringUtils.splitByCharacterTypeCamelCase(getClass().getSimpleName()))
         .toLowerCase(Locale.ROOT);
@@ -120,6 +176,11 @@ public abstract class BaseTableExecutor extends RuntimeHandlerChain {
   @Override
   protected void doDispose() {
     executor.shutdownNow();
+    AmsMetricRegistry registry = AmsMetricRegistry.getInstance();
+    registry.remove(METRIC_SCHEDULED_TASKS, EXECUTOR_LABEL, getThreadName());
+    registry.remove(METRIC_ACTIVE_THREADS, EXECUTOR_LABEL, getThreadName());
+    registry.remove(METRIC_EXECUTE_DURATION, EXECUTOR_LABEL, getThreadName());
+    registry.remove(METRIC_EXECUTE_LAG, EXECUTOR_LABEL, getThreadName());
     logger.info("dispose thread pool for threads {}", getThreadName());
   }
 
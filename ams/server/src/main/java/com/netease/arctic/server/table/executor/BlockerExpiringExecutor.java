@@ -38,6 +38,11 @@ public class BlockerExpiringExecutor extends BaseTableExecutor {
     return INTERVAL;
   }
 
+  @Override
+  protected boolean isMaintenance() {
+    return false;
+  }
+
   @Override
   protected boolean enabled(TableRuntime tableRuntime) {
     return true;
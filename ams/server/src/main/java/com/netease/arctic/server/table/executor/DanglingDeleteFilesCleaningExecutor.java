@@ -59,7 +59,7 @@ public class DanglingDeleteFilesCleaningExecutor extends BaseTableExecutor {
     try {
       LOG.info("{} start cleaning dangling delete files", tableRuntime.getTableIdentifier());
       AmoroTable<?> amoroTable = loadTable(tableRuntime);
-      TableMaintainer tableMaintainer = ofTable(amoroTable);
+      TableMaintainer tableMaintainer = ofTable(amoroTable, tableRuntime.getCommitLock());
       tableMaintainer.cleanDanglingDeleteFiles(tableRuntime);
     } catch (Throwable t) {
       LOG.error("{} failed to clean dangling delete file", tableRuntime.getTableIdentifier(), t);
@@ -58,7 +58,8 @@ public class DataExpiringExecutor extends BaseTableExecutor {
   protected void execute(TableRuntime tableRuntime) {
     try {
       AmoroTable<?> amoroTable = loadTable(tableRuntime);
-      TableMaintainer tableMaintainer = TableMaintainer.ofTable(amoroTable);
+      TableMaintainer tableMaintainer =
+          TableMaintainer.ofTable(amoroTable, tableRuntime.getCommitLock());
       tableMaintainer.expireData(tableRuntime);
     } catch (Throwable t) {
       LOG.error("unexpected expire error of table {} ", tableRuntime.getTableIdentifier(), t);
@@ -20,6 +20,11 @@ public class OptimizingCommitExecutor extends BaseTableExecutor {
     return INTERVAL;
   }
 
+  @Override
+  protected boolean isMaintenance() {
+    return false;
+  }
+
   @Override
   protected boolean enabled(TableRuntime tableRuntime) {
     return tableRuntime.getOptimizingStatus() == OptimizingStatus.COMMITTING;
@@ -44,6 +44,11 @@ public class OptimizingExpiringExecutor extends BaseTableExecutor {
     return INTERVAL;
   }
 
+  @Override
+  protected boolean isMaintenance() {
+    return false;
+  }
+
   @Override
   protected boolean enabled(TableRuntime tableRuntime) {
     return true;
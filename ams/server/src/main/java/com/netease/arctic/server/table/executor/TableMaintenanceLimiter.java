@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.server.table.executor;
+
+import com.netease.arctic.server.ArcticManagementConf;
+import com.netease.arctic.server.metrics.AmsMetricRegistry;
+import com.netease.arctic.server.utils.Configurations;
+import org.apache.iceberg.relocated.com.google.common.annotations.VisibleForTesting;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Limits the table maintenance executed by all the {@link BaseTableExecutor}s together. Each
+ * executor has its own thread pool, so without a global limit the maintenance of all executors may
+ * hit the storage and the metastore at the same time, especially right after AMS starts.
+ */
+public class TableMaintenanceLimiter {
+
+  private static final String METRIC_RUNNING_TASKS = "ams_table_maintenance_running_tasks";
+
+  private static final TableMaintenanceLimiter INSTANCE = new TableMaintenanceLimiter();
+
+  private static final Permit UNLIMITED = new Permit(null);
+
+  private volatile Semaphore permits;
+  private volatile int maxConcurrentTasks;
+  private volatile long startSpreadMillis;
+
+  @VisibleForTesting
+  TableMaintenanceLimiter() {}
+
+  public static TableMaintenanceLimiter getInstance() {
+    return INSTANCE;
+  }
+
+  public void setup(Configurations conf) {
+    this.maxConcurrentTasks =
+        conf.getInteger(ArcticManagementConf.TABLE_MAINTENANCE_MAX_CONCURRENT_TASKS);
+    this.permits = maxConcurrentTasks > 0 ? new Semaphore(maxConcurrentTasks) : null;
+    this.startSpreadMillis =
+        conf.get(ArcticManagementConf.TABLE_MAINTENANCE_START_SPREAD).toMillis();
+    AmsMetricRegistry.getInstance().gauge(METRIC_RUNNING_TASKS, this::runningTasks);
+  }
+
+  /**
+   * Try to acquire a permit of running a maintenance task without blocking.
+   *
+   * @return the permit to release after running, or null if too many tasks are running and the task
+   *     should be rescheduled
+   */
+  public Permit tryAcquire() {
+    Semaphore semaphore = permits;
+    if (semaphore == null) {
+      return UNLIMITED;
+    }
+    return semaphore.tryAcquire() ? new Permit(semaphore) : null;
+  }
+
+  /**
+   * Returns a random delay for the first maintenance of a table after AMS starts, bounded by the
+   * start spread and the interval of the maintenance.
+   */
+  public long startJitter(long interval) {
+    long bound = Math.min(startSpreadMillis, interval);
+    return bound > 0 ? ThreadLocalRandom.current().nextLong(bound) : 0;
+  }
+
+  private int runningTasks() {
+    Semaphore semaphore = permits;
+    return semaphore == null ? 0 : maxConcurrentTasks - semaphore.availablePermits();
+  }
+
+  /**
+   * A permit of running a maintenance task. It is released to the semaphore it was acquired from,
+   * so a permit acquired before {@link #setup(Configurations)} does not leak into the new limit.
+   */
+  public static class Permit {
+    private final Semaphore semaphore;
+
+    private Permit(Semaphore semaphore) {
+      this.semaphore = semaphore;
+    }
+
+    public void release() {
+      if (semaphore != null) {
+        semaphore.release();
+      }
+    }
+  }
+}
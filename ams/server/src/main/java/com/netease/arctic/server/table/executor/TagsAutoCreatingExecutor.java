@@ -44,6 +44,11 @@ public class TagsAutoCreatingExecutor extends BaseTableExecutor {
     return interval;
   }
 
+  @Override
+  protected boolean isMaintenance() {
+    return false;
+  }
+
   @Override
   protected boolean enabled(TableRuntime tableRuntime) {
     return tableRuntime.getTableConfiguration().getTagConfiguration().isAutoCreateTag()
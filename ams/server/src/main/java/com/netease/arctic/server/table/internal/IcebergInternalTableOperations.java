@@ -81,7 +81,7 @@ public class IcebergInternalTableOperations extends PersistentBase implements Ta
     if (StringUtils.isBlank(metadataFileLocation)) {
       return null;
     }
-    this.current = TableMetadataParser.read(io, metadataFileLocation);
+    this.current = IcebergTableMetadataCache.getInstance().read(io, metadataFileLocation);
     return this.current;
   }
 
@@ -107,6 +107,7 @@ public class IcebergInternalTableOperations extends PersistentBase implements Ta
       com.netease.arctic.server.table.TableMetadata updatedMetadata = doCommit();
       checkCommitSuccess(updatedMetadata, newMetadataFileLocation);
     } catch (Exception e) {
+      IcebergTableMetadataCache.getInstance().invalidate(newMetadataFileLocation);
       io.deleteFile(newMetadataFileLocation);
     } finally {
       this.tableMetadata = null;
@@ -172,6 +173,9 @@ public class IcebergInternalTableOperations extends PersistentBase implements Ta
     }
     OutputFile outputFile = io.newOutputFile(newMetadataFileLocation);
     TableMetadataParser.overwrite(newMetadata, outputFile);
+    // the base metadata is superseded, and the new location may hold an entry of a failed commit
+    IcebergTableMetadataCache.getInstance().invalidate(base.metadataFileLocation());
+    IcebergTableMetadataCache.getInstance().invalidate(newMetadataFileLocation);
 
     updateMetadataLocationProperties(
         amsTableMetadata, base.metadataFileLocation(), newMetadataFileLocation);
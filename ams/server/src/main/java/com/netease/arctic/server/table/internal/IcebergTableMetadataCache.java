@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netease.arctic.server.table.internal;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.netease.arctic.server.ArcticManagementConf;
+import com.netease.arctic.server.metrics.AmsMetricRegistry;
+import com.netease.arctic.server.utils.Configurations;
+import org.apache.iceberg.TableMetadata;
+import org.apache.iceberg.TableMetadataParser;
+import org.apache.iceberg.io.FileIO;
+import org.apache.iceberg.io.InputFile;
+import org.apache.iceberg.relocated.com.google.common.annotations.VisibleForTesting;
+import org.apache.iceberg.relocated.com.google.common.base.Preconditions;
+import org.apache.iceberg.relocated.com.google.common.io.ByteStreams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A process-wide cache of parsed iceberg {@link TableMetadata} of internal tables, keyed by the
+ * location of the metadata file.
+ *
+ * <p>Metadata files are never modified once written, so a cached entry is always consistent with
+ * its file. The cache is shared by all the components of AMS reading internal tables, like the REST
+ * catalog, the table refreshing executor and the table maintainers. The entries are weighed by the
+ * length of the metadata JSON after decompression, as an estimate of the parsed size, since every
+ * snapshot, schema and partition spec of the parsed metadata is written in it.
+ */
+public class IcebergTableMetadataCache {
+  private static final Logger LOG = LoggerFactory.getLogger(IcebergTableMetadataCache.class);
+
+  private static final IcebergTableMetadataCache INSTANCE =
+      new IcebergTableMetadataCache(
+          ArcticManagementConf.TABLE_METADATA_CACHE_MAX_SIZE.defaultValue());
+
+  private volatile Cache<String, CachedMetadata> cache;
+  private final AtomicLong bytesSaved = new AtomicLong();
+
+  @VisibleForTesting
+  IcebergTableMetadataCache(long maxSize) {
+    this.cache = buildCache(maxSize);
+  }
+
+  public static IcebergTableMetadataCache getInstance() {
+    return INSTANCE;
+  }
+
+  /** Rebuild the cache with the size configured in {@link ArcticManagementConf}. */
+  public void setup(Configurations conf) {
+    long maxSize = conf.getLong(ArcticManagementConf.TABLE_METADATA_CACHE_MAX_SIZE);
+    Preconditions.checkArgument(
+        maxSize >= 0,
+        "%s must not be negative",
+        ArcticManagementConf.TABLE_METADATA_CACHE_MAX_SIZE.key());
+    this.cache = buildCache(maxSize);
+    registerMetrics(AmsMetricRegistry.getInstance());
+    LOG.info("Table metadata cache is set up with max size {} chars of metadata JSON", maxSize);
+  }
+
+  private void registerMetrics(AmsMetricRegistry registry) {
+    registry.gauge("ams_table_metadata_cache_hit_count", this::hitCount);
+    registry.gauge("ams_table_metadata_cache_miss_count", this::missCount);
+    registry.gauge("ams_table_metadata_cache_hit_rate", this::hitRate);
+    registry.gauge("ams_table_metadata_cache_bytes_saved", this::bytesSaved);
+    registry.gauge("ams_table_metadata_cache_entries", this::size);
+  }
+
+  private static Cache<String, CachedMetadata> buildCache(long maxSize) {
+    if (maxSize == 0) {
+      return null;
+    }
+    return Caffeine.newBuilder()
+        .maximumWeight(maxSize)
+        .weigher(
+            (String location, CachedMetadata metadata) ->
+                (int) Math.min(metadata.jsonLength, Integer.MAX_VALUE))
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Returns the table metadata of the metadata file, it is read and parsed only if it is not
+   * cached. Concurrent reads of the same file are parsed only once.
+   */
+  public TableMetadata read(FileIO io, String metadataFileLocation) {
+    Cache<String, CachedMetadata> current = this.cache;
+    if (current == null) {
+      return TableMetadataParser.read(io, metadataFileLocation);
+    }
+    boolean[] loaded = {false};
+    CachedMetadata cached =
+        current.get(
+            metadataFileLocation,
+            location -> {
+              loaded[0] = true;
+              return load(io, location);
+            });
+    if (!loaded[0]) {
+      bytesSaved.addAndGet(cached.fileSize);
+    }
+    return cached.metadata;
+  }
+
+  /**
+   * Read the metadata file like {@link TableMetadataParser#read(FileIO, InputFile)}, keeping the
+   * sizes of the file and of the JSON from the read bytes instead of asking the file system again.
+   */
+  private static CachedMetadata load(FileIO io, String location) {
+    InputFile file = io.newInputFile(location);
+    byte[] fileBytes;
+    String json;
+    try {
+      try (InputStream in = file.newStream()) {
+        fileBytes = ByteStreams.toByteArray(in);
+      }
+      if (TableMetadataParser.Codec.fromFileName(location) == TableMetadataParser.Codec.GZIP) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(fileBytes))) {
+          json = new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+        }
+      } else {
+        json = new String(fileBytes, StandardCharsets.UTF_8);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read file: " + location, e);
+    }
+    TableMetadata metadata = TableMetadataParser.fromJson(location, json);
+    return new CachedMetadata(metadata, fileBytes.length, json.length());
+  }
+
+  /** Invalidate the table metadata of the metadata file. */
+  public void invalidate(String metadataFileLocation) {
+    Cache<String, CachedMetadata> current = this.cache;
+    if (current != null && metadataFileLocation != null) {
+      current.invalidate(metadataFileLocation);
+    }
+  }
+
+  public void invalidateAll() {
+    Cache<String, CachedMetadata> current = this.cache;
+    if (current != null) {
+      current.invalidateAll();
+    }
+  }
+
+  public long hitCount() {
+    Cache<String, CachedMetadata> current = this.cache;
+    return current == null ? 0 : current.stats().hitCount();
+  }
+
+  public long missCount() {
+    Cache<String, CachedMetadata> current = this.cache;
+    return current == null ? 0 : current.stats().missCount();
+  }
+
+  public double hitRate() {
+    Cache<String, CachedMetadata> current = this.cache;
+    return current == null ? 0 : current.stats().hitRate();
+  }
+
+  /** Returns the total size of metadata files that were not read again due to cache hits. */
+  public long bytesSaved() {
+    return bytesSaved.get();
+  }
+
+  public long size() {
+    Cache<String, CachedMetadata> current = this.cache;
+    return current == null ? 0 : current.estimatedSize();
+  }
+
+  private static class CachedMetadata {
+    private final TableMetadata metadata;
+    private final long fileSize;
+    private final long jsonLength;
+
+    private CachedMetadata(TableMetadata metadata, long fileSize, long jsonLength) {
+      this.metadata = metadata;
+      this.fileSize = fileSize;
+      this.jsonLength = jsonLength;
+    }
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.server.utils;
+
+import org.apache.iceberg.relocated.com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.iceberg.util.ThreadPools;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread pools of AMS for blocking file system IO, kept apart from {@link
+ * ThreadPools#getWorkerPool()} which the Iceberg library uses for planning and manifest reading of
+ * the whole process.
+ */
+public class ServerThreadPools {
+
+  /** System property of the number of threads of the optimizing file IO pool. */
+  public static final String OPTIMIZING_FILE_IO_THREADS = "amoro.optimizing.file-io.num-threads";
+
+  /** System property of the number of threads of the optimizing output pool. */
+  public static final String OPTIMIZING_OUTPUT_THREADS = "amoro.optimizing.output.num-threads";
+
+  /** System property of the number of threads of the snapshot expiring pool. */
+  public static final String SNAPSHOT_EXPIRING_THREADS = "amoro.snapshot-expiring.num-threads";
+
+  private static final int OPTIMIZING_FILE_IO_QUEUE_SIZE = 1024;
+  private static final int OPTIMIZING_OUTPUT_QUEUE_SIZE = 1024;
+  private static final int SNAPSHOT_EXPIRING_QUEUE_SIZE = 1024;
+
+  private static final ExecutorService OPTIMIZING_FILE_IO_POOL =
+      newBoundedPool(
+          "optimizing-file-io-%d",
+          Integer.getInteger(
+              OPTIMIZING_FILE_IO_THREADS, Math.max(4, Runtime.getRuntime().availableProcessors())),
+          OPTIMIZING_FILE_IO_QUEUE_SIZE,
+          new ThreadPoolExecutor.CallerRunsPolicy());
+
+  private static final ExecutorService OPTIMIZING_OUTPUT_POOL =
+      newBoundedPool(
+          "optimizing-output-%d",
+          Integer.getInteger(
+              OPTIMIZING_OUTPUT_THREADS, Math.max(4, Runtime.getRuntime().availableProcessors())),
+          OPTIMIZING_OUTPUT_QUEUE_SIZE,
+          new ThreadPoolExecutor.AbortPolicy());
+
+  private static final ExecutorService SNAPSHOT_EXPIRING_POOL =
+      newBoundedPool(
+          "snapshot-expiring-%d",
+          Integer.getInteger(
+              SNAPSHOT_EXPIRING_THREADS, Math.max(4, Runtime.getRuntime().availableProcessors())),
+          SNAPSHOT_EXPIRING_QUEUE_SIZE,
+          new ThreadPoolExecutor.CallerRunsPolicy());
+
+  private ServerThreadPools() {}
+
+  /**
+   * Returns the pool for validating, moving and deleting the output files of optimizing tasks while
+   * committing. When the queue is full, the task runs on the submitting thread, which throttles the
+   * submitter.
+   */
+  public static ExecutorService getOptimizingFileIOPool() {
+    return OPTIMIZING_FILE_IO_POOL;
+  }
+
+  /**
+   * Returns the pool for validating and discarding the output files of optimizing tasks as the
+   * optimizers report them. The reports are handled holding the lock of the optimizing process, so
+   * the task is rejected when the queue is full instead of running on the submitting thread, and
+   * the submitter should defer the work.
+   */
+  public static ExecutorService getOptimizingOutputPool() {
+    return OPTIMIZING_OUTPUT_POOL;
+  }
+
+  /**
+   * Returns the pool for planning snapshot expiration, reading the manifests of expired files and
+   * deleting them, so a large expiration does not starve the planning of optimizing.
+   */
+  public static ExecutorService getSnapshotExpiringPool() {
+    return SNAPSHOT_EXPIRING_POOL;
+  }
+
+  private static ExecutorService newBoundedPool(
+      String nameFormat, int threads, int queueSize, RejectedExecutionHandler rejectedHandler) {
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueSize),
+            new ThreadFactoryBuilder().setNameFormat(nameFormat).setDaemon(true).build(),
+            rejectedHandler);
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+}
@@ -19,6 +19,7 @@
 package com.netease.arctic.server.manager;
 
 import static com.netease.arctic.ams.api.Environments.AMORO_HOME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -33,8 +34,11 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class TestMetricsManager {
 
@@ -99,13 +103,119 @@ public class TestMetricsManager {
         };
 
     manager.emit(metrics);
+    assertTrue(manager.flush(5000));
     assertTrue(emitter1.isEmitted());
     assertFalse(emitter2.isEmitted());
   }
 
+  @Test
+  public void testDropWhenQueueIsFull() throws InterruptedException {
+    Map<String, String> properties = new HashMap<>();
+    properties.put("impl", "com.netease.arctic.server.manager.TestMetricsManager$BlockingEmitter");
+    properties.put(MetricsManager.EMIT_QUEUE_SIZE, "1");
+    MetricsManager blockingManager =
+        new MetricsManager("config/path") {
+          protected Map<String, String> loadProperties(String pluginName) {
+            return properties;
+          }
+        };
+    blockingManager.install("blocking");
+    BlockingEmitter blockingEmitter = (BlockingEmitter) blockingManager.get("blocking");
+    try {
+      for (int i = 0; i < 5; i++) {
+        blockingManager.emit(new TestMetrics());
+      }
+      MetricsManager.AsyncEmitter asyncEmitter = blockingManager.asyncEmitters().iterator().next();
+      // at most one is being emitted and one is in the queue
+      assertTrue(asyncEmitter.droppedCount() >= 3);
+
+      blockingEmitter.latch.countDown();
+      assertTrue(blockingManager.flush(5000));
+      assertEquals(5, asyncEmitter.emittedCount() + asyncEmitter.droppedCount());
+      assertEquals(0, asyncEmitter.queueSize());
+    } finally {
+      blockingEmitter.latch.countDown();
+      blockingManager.close();
+    }
+  }
+
+  @Test
+  public void testLoadPropertiesOnceAndFlushAll() {
+    AtomicInteger loaded = new AtomicInteger();
+    MetricsManager countingManager =
+        new MetricsManager("config/path") {
+          protected Map<String, String> loadProperties(String pluginName) {
+            loaded.incrementAndGet();
+            return Collections.singletonMap(
+                "impl", "com.netease.arctic.server.manager.TestMetricsManager$MetricsEmitterTest");
+          }
+        };
+    countingManager.install("counting");
+    try {
+      assertEquals(1, loaded.get());
+      ((MetricsEmitterTest) countingManager.get("counting")).setAccept(true);
+      for (int i = 0; i < 1000; i++) {
+        countingManager.emit(new TestMetrics());
+      }
+      assertTrue(countingManager.flush(5000));
+      MetricsManager.AsyncEmitter asyncEmitter = countingManager.asyncEmitters().iterator().next();
+      assertEquals(0, asyncEmitter.queueSize());
+      assertEquals(1000, asyncEmitter.emittedCount() + asyncEmitter.droppedCount());
+    } finally {
+      countingManager.close();
+    }
+  }
+
+  private static class TestMetrics implements MetricsContent<String> {
+    @Override
+    public String name() {
+      return "test";
+    }
+
+    @Override
+    public MetricType type() {
+      return null;
+    }
+
+    @Override
+    public String data() {
+      return null;
+    }
+  }
+
+  public static class BlockingEmitter implements MetricsEmitter {
+
+    private final CountDownLatch latch = new CountDownLatch(1);
+
+    @Override
+    public String name() {
+      return "blocking";
+    }
+
+    @Override
+    public void open(Map<String, String> properties) {}
+
+    @Override
+    public void emit(MetricsContent<?> metrics) {
+      try {
+        latch.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    @Override
+    public boolean accept(MetricsContent<?> metrics) {
+      return true;
+    }
+
+    @Override
+    public void close() {}
+  }
+
   public static class MetricsEmitterTest implements MetricsEmitter {
 
-    private boolean emitted = false;
+    private volatile boolean emitted = false;
     private boolean accept = false;
 
     @Override
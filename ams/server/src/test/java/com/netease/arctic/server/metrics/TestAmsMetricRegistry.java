@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.server.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.netease.arctic.ams.api.TableFormat;
+import com.netease.arctic.server.table.ServerTableIdentifier;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class TestAmsMetricRegistry {
+
+  @Test
+  public void testFormat() {
+    AmsMetricRegistry registry = new AmsMetricRegistry(10);
+    registry.counter("test_requests_total", "method", "poll").inc(3);
+    registry.gauge("test_queue_size", () -> 5, "group", "a\"b");
+    DurationHistogram histogram = registry.histogram("test_duration_seconds");
+    histogram.update(2, TimeUnit.SECONDS);
+
+    String text = PrometheusFormatter.format(registry.getMetrics());
+    assertTrue(text.contains("# TYPE test_requests_total counter\n"));
+    assertTrue(text.contains("test_requests_total{method=\"poll\"} 3\n"));
+    assertTrue(text.contains("# TYPE test_queue_size gauge\n"));
+    assertTrue(text.contains("test_queue_size{group=\"a\\\"b\"} 5\n"));
+    assertTrue(text.contains("# TYPE test_duration_seconds summary\n"));
+    assertTrue(text.contains("test_duration_seconds{quantile=\"0.99\"} 2.0\n"));
+    assertTrue(text.contains("test_duration_seconds_sum 2.0\n"));
+    assertTrue(text.contains("test_duration_seconds_count 1\n"));
+  }
+
+  @Test
+  public void testGetOrCreate() {
+    AmsMetricRegistry registry = new AmsMetricRegistry(10);
+    assertSame(registry.counter("test_total", "k", "v"), registry.counter("test_total", "k", "v"));
+    assertThrows(IllegalArgumentException.class, () -> registry.histogram("test_total", "k", "v"));
+    assertThrows(IllegalArgumentException.class, () -> registry.counter("illegal-name"));
+    assertThrows(IllegalArgumentException.class, () -> registry.counter("test_total", "k"));
+
+    registry.remove("test_total", "k", "v");
+    assertTrue(registry.getMetrics().isEmpty());
+  }
+
+  @Test
+  public void testTableLabelsAreCapped() {
+    AmsMetricRegistry registry = new AmsMetricRegistry(2);
+    ServerTableIdentifier table1 = ServerTableIdentifier.of("c", "db", "t1", TableFormat.ICEBERG);
+    ServerTableIdentifier table2 = ServerTableIdentifier.of("c", "db", "t2", TableFormat.ICEBERG);
+    ServerTableIdentifier table3 = ServerTableIdentifier.of("c", "db", "t3", TableFormat.ICEBERG);
+
+    assertEquals("c.db.t1", registry.tableLabel(table1));
+    assertEquals("c.db.t2", registry.tableLabel(table2));
+    assertEquals(AmsMetricRegistry.OTHER_TABLES, registry.tableLabel(table3));
+    assertEquals("c.db.t1", registry.tableLabel(table1));
+
+    registry.tableHistogram("test_duration_seconds", table1).update(1, TimeUnit.MILLISECONDS);
+    registry.removeTable(table1);
+    assertFalse(
+        PrometheusFormatter.format(registry.getMetrics()).contains("c.db.t1"),
+        "Metrics of the removed table should be removed");
+    assertEquals("c.db.t3", registry.tableLabel(table3));
+  }
+}
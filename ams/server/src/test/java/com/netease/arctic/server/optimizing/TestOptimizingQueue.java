@@ -27,8 +27,11 @@ import com.netease.arctic.ams.api.resource.ResourceGroup;
 import com.netease.arctic.catalog.BasicCatalogTestHelper;
 import com.netease.arctic.catalog.CatalogTestHelper;
 import com.netease.arctic.io.MixedDataTestHelpers;
+import com.netease.arctic.optimizing.OptimizingInputProperties;
 import com.netease.arctic.optimizing.RewriteFilesOutput;
 import com.netease.arctic.optimizing.TableOptimizing;
+import com.netease.arctic.server.exception.DuplicateRuntimeException;
+import com.netease.arctic.server.exception.PersistenceException;
 import com.netease.arctic.server.resource.OptimizerThread;
 import com.netease.arctic.server.resource.QuotaProvider;
 import com.netease.arctic.server.table.AMSTableTestBase;
@@ -41,6 +44,7 @@ import com.netease.arctic.table.UnkeyedTable;
 import com.netease.arctic.utils.SerializationUtil;
 import org.apache.iceberg.AppendFiles;
 import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DataFiles;
 import org.apache.iceberg.data.Record;
 import org.apache.iceberg.relocated.com.google.common.collect.Lists;
 import org.junit.Assert;
@@ -48,9 +52,13 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 
@@ -70,6 +78,15 @@ public class TestOptimizingQueue extends AMSTableTestBase {
         }
       };
 
+  private final OptimizerThread speculativeThread =
+      new OptimizerThread(2, null) {
+
+        @Override
+        public String getToken() {
+          return "speculative";
+        }
+      };
+
   public TestOptimizingQueue(CatalogTestHelper catalogTestHelper, TableTestHelper tableTestHelper) {
     super(catalogTestHelper, tableTestHelper, true);
   }
@@ -207,6 +224,35 @@ public class TestOptimizingQueue extends AMSTableTestBase {
     Assert.assertEquals(0, queue.collectTasks().size());
   }
 
+  @Test
+  public void testCommitTaskWithLostOutputFile() {
+    TableRuntimeMeta tableRuntimeMeta = initTableWithFiles();
+    OptimizingQueue queue = buildOptimizingGroupService(tableRuntimeMeta);
+    ArcticTable arcticTable =
+        (ArcticTable) tableService().loadTable(serverTableIdentifier()).originalTable();
+
+    TaskRuntime task = queue.pollTask(MAX_POLLING_TIME);
+    Assert.assertNotNull(task);
+    task.schedule(optimizerThread);
+    task.ack(optimizerThread);
+    DataFile inputFile = task.getInput().rewrittenDataFiles()[0];
+    DataFile lostFile =
+        DataFiles.builder(arcticTable.spec())
+            .copy(inputFile)
+            .withPath(inputFile.path() + ".lost")
+            .build();
+    OptimizingTaskResult result = new OptimizingTaskResult(task.getTaskId(), 1);
+    result.setTaskOutput(
+        SerializationUtil.simpleSerialize(
+            new RewriteFilesOutput(new DataFile[] {lostFile}, null, null)));
+    task.complete(optimizerThread, result);
+    Assert.assertEquals(TaskRuntime.Status.SUCCESS, task.getStatus());
+
+    OptimizingProcess optimizingProcess = tableRuntimeMeta.getTableRuntime().getOptimizingProcess();
+    optimizingProcess.commit();
+    Assert.assertEquals(OptimizingProcess.Status.FAILED, optimizingProcess.getStatus());
+  }
+
   @Test
   public void testCollectingTasks() {
     TableRuntimeMeta tableRuntimeMeta = initTableWithFiles();
@@ -221,6 +267,177 @@ public class TestOptimizingQueue extends AMSTableTestBase {
         1, queue.collectTasks(t -> t.getStatus() == TaskRuntime.Status.SCHEDULED).size());
   }
 
+  @Test
+  public void testCollectingTasksByToken() {
+    TableRuntimeMeta tableRuntimeMeta = initTableWithFiles();
+    OptimizingQueue queue = buildOptimizingGroupService(tableRuntimeMeta);
+    Assert.assertEquals(0, queue.collectTasks(optimizerThread.getToken(), t -> true).size());
+
+    TaskRuntime task = queue.pollTask(MAX_POLLING_TIME);
+    Assert.assertNotNull(task);
+    queue.scheduleTask(task, optimizerThread);
+    Assert.assertEquals(1, queue.collectTasks(optimizerThread.getToken(), t -> true).size());
+    Assert.assertEquals(0, queue.collectTasks("other", t -> true).size());
+
+    queue.retryTask(task);
+    Assert.assertEquals(0, queue.collectTasks(optimizerThread.getToken(), t -> true).size());
+  }
+
+  @Test
+  public void testSpeculativeAttemptWins() throws InterruptedException {
+    TableRuntimeMeta tableRuntimeMeta = initTableWithFiles();
+    OptimizingQueue queue = buildOptimizingGroupService(tableRuntimeMeta);
+    TaskRuntime task = pollAndAckTask(queue);
+
+    Assert.assertTrue(task.trySpeculating(speculativeThread));
+    // only one speculative attempt at a time
+    Assert.assertFalse(task.trySpeculating(speculativeThread));
+    task.ack(speculativeThread);
+    Assert.assertEquals(TaskRuntime.Status.ACKED, task.getStatus());
+    Assert.assertEquals(optimizerThread.getToken(), task.getToken());
+
+    task.complete(
+        speculativeThread,
+        buildOptimizingTaskResult(task.getTaskId(), speculativeThread.getThreadId()));
+    Assert.assertEquals(TaskRuntime.Status.SUCCESS, task.getStatus());
+    Assert.assertFalse(task.isSpeculating());
+    // kept until the losing attempt completes
+    Assert.assertSame(task, queue.getTask(task.getTaskId()));
+
+    // the losing attempt completes after the winner, its output is deleted
+    String lostOutput = createOutputFile(task);
+    task.complete(
+        optimizerThread,
+        buildOptimizingTaskResult(task, optimizerThread.getThreadId(), lostOutput));
+    Assert.assertEquals(TaskRuntime.Status.SUCCESS, task.getStatus());
+    Assert.assertNull(queue.getTask(task.getTaskId()));
+    assertDeleted(lostOutput);
+  }
+
+  @Test
+  public void testLosingAttemptFails() {
+    TableRuntimeMeta tableRuntimeMeta = initTableWithFiles();
+    OptimizingQueue queue = buildOptimizingGroupService(tableRuntimeMeta);
+    TaskRuntime task = pollAndAckTask(queue);
+    Assert.assertTrue(task.trySpeculating(speculativeThread));
+
+    task.complete(
+        optimizerThread,
+        buildOptimizingTaskResult(task.getTaskId(), optimizerThread.getThreadId()));
+    Assert.assertEquals(TaskRuntime.Status.SUCCESS, task.getStatus());
+    Assert.assertSame(task, queue.getTask(task.getTaskId()));
+
+    // the failure of the losing attempt does not change the result
+    task.complete(
+        speculativeThread,
+        buildOptimizingTaskFailed(task.getTaskId(), speculativeThread.getThreadId()));
+    Assert.assertEquals(TaskRuntime.Status.SUCCESS, task.getStatus());
+    Assert.assertNull(task.getFailReason());
+    Assert.assertNull(queue.getTask(task.getTaskId()));
+  }
+
+  @Test
+  public void testAttemptFailsWhileSpeculating() {
+    TableRuntimeMeta tableRuntimeMeta = initTableWithFiles();
+    OptimizingQueue queue = buildOptimizingGroupService(tableRuntimeMeta);
+    TaskRuntime task = pollAndAckTask(queue);
+
+    // the original attempt keeps running when the speculative one fails
+    Assert.assertTrue(task.trySpeculating(speculativeThread));
+    task.complete(
+        speculativeThread,
+        buildOptimizingTaskFailed(task.getTaskId(), speculativeThread.getThreadId()));
+    Assert.assertEquals(TaskRuntime.Status.ACKED, task.getStatus());
+    Assert.assertFalse(task.isSpeculating());
+    Assert.assertEquals(optimizerThread.getToken(), task.getToken());
+
+    // the speculative attempt takes over when the original one fails
+    Assert.assertTrue(task.trySpeculating(speculativeThread));
+    task.complete(
+        optimizerThread,
+        buildOptimizingTaskFailed(task.getTaskId(), optimizerThread.getThreadId()));
+    Assert.assertEquals(TaskRuntime.Status.ACKED, task.getStatus());
+    Assert.assertFalse(task.isSpeculating());
+    Assert.assertEquals(speculativeThread.getToken(), task.getToken());
+
+    task.complete(
+        speculativeThread,
+        buildOptimizingTaskResult(task.getTaskId(), speculativeThread.getThreadId()));
+    Assert.assertEquals(TaskRuntime.Status.SUCCESS, task.getStatus());
+    Assert.assertNull(queue.getTask(task.getTaskId()));
+  }
+
+  @Test
+  public void testOptimizerExpiredWhileSpeculating() {
+    TableRuntimeMeta tableRuntimeMeta = initTableWithFiles();
+    OptimizingQueue queue = buildOptimizingGroupService(tableRuntimeMeta);
+    TaskRuntime task = pollAndAckTask(queue);
+    Assert.assertTrue(task.trySpeculating(speculativeThread));
+
+    // the optimizer keeper cancels the speculation when the speculative optimizer expires
+    task.cancelSpeculation();
+    Assert.assertFalse(task.isSpeculating());
+    Assert.assertEquals(optimizerThread.getToken(), task.getToken());
+
+    // the late result of the expired attempt is rejected
+    Assert.assertThrows(
+        DuplicateRuntimeException.class,
+        () ->
+            task.complete(
+                speculativeThread,
+                buildOptimizingTaskResult(task.getTaskId(), speculativeThread.getThreadId())));
+    Assert.assertEquals(TaskRuntime.Status.ACKED, task.getStatus());
+
+    // the task can be speculated again, and the expiring of the original optimizer retries it
+    Assert.assertTrue(task.trySpeculating(speculativeThread));
+    String originalToken = optimizerThread.getToken();
+    queue
+        .collectTasks(originalToken, t -> originalToken.equals(t.getToken()))
+        .forEach(queue::retryTask);
+    Assert.assertEquals(TaskRuntime.Status.PLANNED, task.getStatus());
+    Assert.assertFalse(task.isSpeculating());
+    Assert.assertThrows(
+        PersistenceException.class,
+        () ->
+            task.complete(
+                speculativeThread,
+                buildOptimizingTaskResult(task.getTaskId(), speculativeThread.getThreadId())));
+    Assert.assertEquals(TaskRuntime.Status.PLANNED, task.getStatus());
+  }
+
+  @Test
+  public void testNotSpeculateTaskWritingHiveLocation() {
+    TableRuntimeMeta tableRuntimeMeta = initTableWithFiles();
+    OptimizingQueue queue = buildOptimizingGroupService(tableRuntimeMeta);
+    TaskRuntime task = pollAndAckTask(queue);
+    Assert.assertTrue(task.isSpeculatable());
+
+    Map<String, String> properties = new HashMap<>(task.getProperties());
+    properties.put(OptimizingInputProperties.OUTPUT_DIR, "hive_subdirectory");
+    task.setProperties(properties);
+    Assert.assertFalse(task.isSpeculatable());
+    Assert.assertFalse(task.trySpeculating(speculativeThread));
+  }
+
+  @Test
+  public void testStragglerThreshold() {
+    // not enough tasks have succeeded
+    Assert.assertEquals(
+        Long.MAX_VALUE,
+        OptimizingQueue.stragglerThreshold(Collections.emptyList(), 4, 3.0, 0.75, 0));
+    Assert.assertEquals(
+        Long.MAX_VALUE,
+        OptimizingQueue.stragglerThreshold(Lists.newArrayList(10L, 20L), 4, 3.0, 0.75, 0));
+    // multiple of the median duration
+    Assert.assertEquals(
+        60L,
+        OptimizingQueue.stragglerThreshold(Lists.newArrayList(30L, 10L, 20L), 4, 3.0, 0.75, 0));
+    // bounded by the min runtime
+    Assert.assertEquals(
+        100L,
+        OptimizingQueue.stragglerThreshold(Lists.newArrayList(30L, 10L, 20L), 4, 3.0, 0.75, 100));
+  }
+
   private TableRuntimeMeta initTableWithFiles() {
     ArcticTable arcticTable =
         (ArcticTable) tableService().loadTable(serverTableIdentifier()).originalTable();
@@ -269,6 +486,52 @@ public class TestOptimizingQueue extends AMSTableTestBase {
     return optimizingTaskResult;
   }
 
+  private OptimizingTaskResult buildOptimizingTaskResult(
+      TaskRuntime task, int threadId, String outputPath) {
+    ArcticTable arcticTable =
+        (ArcticTable) tableService().loadTable(serverTableIdentifier()).originalTable();
+    DataFile inputFile = task.getInput().rewrittenDataFiles()[0];
+    DataFile outputFile =
+        DataFiles.builder(arcticTable.spec()).copy(inputFile).withPath(outputPath).build();
+    OptimizingTaskResult optimizingTaskResult =
+        new OptimizingTaskResult(task.getTaskId(), threadId);
+    optimizingTaskResult.setTaskOutput(
+        SerializationUtil.simpleSerialize(
+            new RewriteFilesOutput(new DataFile[] {outputFile}, null, null)));
+    return optimizingTaskResult;
+  }
+
+  private TaskRuntime pollAndAckTask(OptimizingQueue queue) {
+    TaskRuntime task = queue.pollTask(MAX_POLLING_TIME);
+    Assert.assertNotNull(task);
+    queue.scheduleTask(task, optimizerThread);
+    task.ack(optimizerThread);
+    return task;
+  }
+
+  private String createOutputFile(TaskRuntime task) {
+    ArcticTable arcticTable =
+        (ArcticTable) tableService().loadTable(serverTableIdentifier()).originalTable();
+    String path = arcticTable.location() + "/data/speculative-" + task.getTaskId() + ".parquet";
+    try {
+      arcticTable.io().newOutputFile(path).createOrOverwrite().close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return path;
+  }
+
+  private void assertDeleted(String path) throws InterruptedException {
+    ArcticTable arcticTable =
+        (ArcticTable) tableService().loadTable(serverTableIdentifier()).originalTable();
+    long deadline = System.currentTimeMillis() + MAX_POLLING_TIME;
+    // the output of the losing attempt is deleted asynchronously
+    while (arcticTable.io().exists(path) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+    }
+    Assert.assertFalse(arcticTable.io().exists(path));
+  }
+
   private OptimizingTaskResult buildOptimizingTaskFailed(OptimizingTaskId taskId, int threadId) {
     OptimizingTaskResult optimizingTaskResult = new OptimizingTaskResult(taskId, threadId);
     optimizingTaskResult.setErrorMessage("error");
@@ -26,10 +26,12 @@ import com.netease.arctic.catalog.CatalogTestHelper;
 import com.netease.arctic.catalog.TableTestBase;
 import com.netease.arctic.optimizing.RewriteFilesInput;
 import com.netease.arctic.optimizing.RewriteFilesOutput;
+import com.netease.arctic.server.ArcticServiceConstants;
 import com.netease.arctic.server.exception.OptimizingCommitException;
 import com.netease.arctic.server.optimizing.TaskRuntime;
 import com.netease.arctic.server.optimizing.UnKeyedTableCommit;
 import com.netease.arctic.table.ArcticTable;
+import com.netease.arctic.table.TableProperties;
 import org.apache.iceberg.ContentFile;
 import org.apache.iceberg.DataFile;
 import org.apache.iceberg.DataFiles;
@@ -41,6 +43,8 @@ import org.apache.iceberg.PartitionSpec;
 import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.StructLike;
 import org.apache.iceberg.data.GenericRecord;
+import org.apache.iceberg.exceptions.CommitFailedException;
+import org.apache.iceberg.exceptions.ValidationException;
 import org.apache.iceberg.io.CloseableIterable;
 import org.junit.Assert;
 import org.junit.Before;
@@ -54,6 +58,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @RunWith(Parameterized.class)
 public class TestUnKeyedTableCommit extends TableTestBase {
@@ -234,6 +239,49 @@ public class TestUnKeyedTableCommit extends TableTestBase {
     // checkFile(new ContentFile[] {baseDataFile9, basePosFile8});
   }
 
+  @Test
+  public void testRetryConflictingCommit() {
+    getArcticTable()
+        .updateProperties()
+        .set(TableProperties.SELF_OPTIMIZING_COMMIT_RETRY_NUMBER, "2")
+        .commit();
+    RetryingCommit commit = new RetryingCommit(getArcticTable());
+
+    // succeed on the last retry
+    AtomicInteger attempts = new AtomicInteger();
+    commit.commitWithRetry(
+        () -> {
+          if (attempts.incrementAndGet() <= 2) {
+            throw new CommitFailedException("conflict");
+          }
+        });
+    Assert.assertEquals(3, attempts.get());
+
+    // fail after the retries are exhausted
+    attempts.set(0);
+    Assert.assertThrows(
+        CommitFailedException.class,
+        () ->
+            commit.commitWithRetry(
+                () -> {
+                  attempts.incrementAndGet();
+                  throw new CommitFailedException("conflict");
+                }));
+    Assert.assertEquals(3, attempts.get());
+
+    // other failures are not retried
+    attempts.set(0);
+    Assert.assertThrows(
+        ValidationException.class,
+        () ->
+            commit.commitWithRetry(
+                () -> {
+                  attempts.incrementAndGet();
+                  throw new ValidationException("conflicting files");
+                }));
+    Assert.assertEquals(1, attempts.get());
+  }
+
   protected void addFile(DataFile dataFile) {
     arcticTable.asUnkeyedTable().newAppend().appendFile(dataFile).commit();
   }
@@ -362,4 +410,16 @@ public class TestUnKeyedTableCommit extends TableTestBase {
         .withFormat(FileFormat.PARQUET)
         .build();
   }
+
+  private static class RetryingCommit extends UnKeyedTableCommit {
+
+    RetryingCommit(ArcticTable table) {
+      super(ArcticServiceConstants.INVALID_SNAPSHOT_ID, table, Collections.emptyList());
+    }
+
+    @Override
+    public void commitWithRetry(Runnable commit) {
+      super.commitWithRetry(commit);
+    }
+  }
 }
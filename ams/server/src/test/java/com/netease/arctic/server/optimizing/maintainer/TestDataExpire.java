@@ -30,7 +30,9 @@ import com.netease.arctic.catalog.CatalogTestHelper;
 import com.netease.arctic.data.ChangeAction;
 import com.netease.arctic.data.DataFileType;
 import com.netease.arctic.data.PrimaryKeyedFile;
+import com.netease.arctic.hive.utils.TableTypeUtil;
 import com.netease.arctic.io.MixedDataTestHelpers;
+import com.netease.arctic.op.SnapshotSummary;
 import com.netease.arctic.server.optimizing.OptimizingTestHelpers;
 import com.netease.arctic.server.optimizing.scan.KeyedTableFileScanHelper;
 import com.netease.arctic.server.optimizing.scan.TableFileScanHelper;
@@ -43,12 +45,15 @@ import com.netease.arctic.table.ArcticTable;
 import com.netease.arctic.table.KeyedTable;
 import com.netease.arctic.table.PrimaryKeySpec;
 import com.netease.arctic.table.TableProperties;
+import com.netease.arctic.table.UnkeyedTable;
 import com.netease.arctic.utils.CompatiblePropertyUtil;
 import com.netease.arctic.utils.ContentFiles;
 import org.apache.iceberg.ContentFile;
+import org.apache.iceberg.DataOperations;
 import org.apache.iceberg.DeleteFile;
 import org.apache.iceberg.PartitionSpec;
 import org.apache.iceberg.Schema;
+import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.data.Record;
 import org.apache.iceberg.expressions.Expressions;
 import org.apache.iceberg.io.CloseableIterable;
@@ -160,6 +165,8 @@ public class TestDataExpire extends ExecutorTestBase {
   public static final PartitionSpec SPEC2 =
       PartitionSpec.builderFor(TABLE_SCHEMA2).identity("op_time").build();
 
+  private DataExpirationIndex expirationIndex;
+
   public TestDataExpire(CatalogTestHelper catalogTestHelper, TableTestHelper tableTestHelper) {
     super(catalogTestHelper, tableTestHelper);
   }
@@ -243,7 +250,8 @@ public class TestDataExpire extends ExecutorTestBase {
             .atZone(
                 IcebergTableMaintainer.getDefaultZoneId(
                     keyedTable.schema().findField(config.getExpirationField())))
-            .toInstant());
+            .toInstant(),
+        expirationIndex);
 
     CloseableIterable<TableFileScanHelper.FileScanResult> scanAfterExpire =
         buildKeyedFileScanHelper().scan();
@@ -326,7 +334,8 @@ public class TestDataExpire extends ExecutorTestBase {
             .atZone(
                 IcebergTableMaintainer.getDefaultZoneId(
                     keyedTable.schema().findField(config.getExpirationField())))
-            .toInstant());
+            .toInstant(),
+        expirationIndex);
 
     CloseableIterable<TableFileScanHelper.FileScanResult> scanAfterExpire =
         buildKeyedFileScanHelper().scan();
@@ -376,6 +385,98 @@ public class TestDataExpire extends ExecutorTestBase {
     Assert.assertEquals(expected, result);
   }
 
+  @Test
+  public void testPartitionLevelWithIndex() {
+    expirationIndex = new DataExpirationIndex();
+    testPartitionLevel();
+  }
+
+  @Test
+  public void testFileLevelWithIndex() {
+    expirationIndex = new DataExpirationIndex();
+    testFileLevel();
+  }
+
+  @Test
+  public void testIncrementalIndex() {
+    ArcticTable table = getArcticTable();
+    table
+        .updateProperties()
+        .set(TableProperties.DATA_EXPIRATION_FIELD, "ts")
+        .set(TableProperties.DATA_EXPIRATION_LEVEL, DataExpirationConfig.ExpireLevel.FILE.name())
+        .commit();
+    expirationIndex = new DataExpirationIndex();
+    UnkeyedTable baseTable =
+        table.isKeyedTable() ? table.asKeyedTable().baseTable() : table.asUnkeyedTable();
+
+    Record freshRecord =
+        createRecord(1, "111", parseMillis("2022-01-03T12:00:00"), "2022-01-03T12:00:00");
+    OptimizingTestHelpers.appendBase(
+        table, tableTestHelper().writeBaseStore(table, 0, Lists.newArrayList(freshRecord), false));
+    DataExpirationConfig config = new DataExpirationConfig(table);
+
+    // no data to expire, nothing is committed
+    long snapshotId = IcebergTableUtil.getSnapshotId(baseTable, true);
+    getMaintainerAndExpire(config, "2022-01-03T18:00:00.000");
+    Assert.assertEquals(snapshotId, IcebergTableUtil.getSnapshotId(baseTable, true));
+
+    // the data appended later is added to the index and expired
+    Record expiredRecord =
+        createRecord(2, "222", parseMillis("2022-01-01T12:00:00"), "2022-01-01T12:00:00");
+    OptimizingTestHelpers.appendBase(
+        table,
+        tableTestHelper().writeBaseStore(table, 0, Lists.newArrayList(expiredRecord), false));
+    getMaintainerAndExpire(config, "2022-01-03T18:00:00.000");
+    Assert.assertEquals(Lists.newArrayList(freshRecord), readSortedBaseRecords(table));
+
+    // the expired data is removed from the index
+    DataExpirationIndex.TableIndex index =
+        expirationIndex.refresh(
+            getTestFormat().equals(TableFormat.ICEBERG)
+                ? baseTable.name()
+                : MixedTableMaintainer.BASE_INDEX_KEY,
+            baseTable,
+            config);
+    Assert.assertEquals(IcebergTableUtil.getSnapshotId(baseTable, true), index.snapshotId());
+    Assert.assertFalse(
+        index.mayExpire(DataExpirationConfig.ExpireLevel.FILE, parseMillis("2022-01-02T18:00:00")));
+    Assert.assertTrue(
+        index.mayExpire(DataExpirationConfig.ExpireLevel.FILE, parseMillis("2022-01-03T12:00:00")));
+  }
+
+  @Test
+  public void testDropExpiredPartitionsByMetadata() {
+    ArcticTable table = getArcticTable();
+    if (!tableTestHelper().partitionSpec().isPartitioned() || TableTypeUtil.isHive(table)) {
+      return;
+    }
+    expirationIndex = new DataExpirationIndex();
+    UnkeyedTable baseTable =
+        table.isKeyedTable() ? table.asKeyedTable().baseTable() : table.asUnkeyedTable();
+
+    Record expiredRecord =
+        createRecord(1, "111", parseMillis("2022-01-01T12:00:00"), "2022-01-01T12:00:00");
+    Record freshRecord =
+        createRecord(2, "222", parseMillis("2022-01-03T12:00:00"), "2022-01-03T12:00:00");
+    OptimizingTestHelpers.appendBase(
+        table,
+        tableTestHelper()
+            .writeBaseStore(table, 0, Lists.newArrayList(expiredRecord, freshRecord), false));
+    DataExpirationConfig config = new DataExpirationConfig(table);
+
+    // the partition of the expired data is dropped by a row filter, without deleting the files
+    getMaintainerAndExpire(config, "2022-01-03T18:00:00.000");
+    Snapshot snapshot = baseTable.currentSnapshot();
+    Assert.assertEquals(DataOperations.OVERWRITE, snapshot.operation());
+    Assert.assertEquals(
+        "DATA_EXPIRATION", snapshot.summary().get(SnapshotSummary.SNAPSHOT_PRODUCER));
+    Assert.assertEquals(Lists.newArrayList(freshRecord), readSortedBaseRecords(table));
+
+    // nothing is committed if no partition is expired
+    getMaintainerAndExpire(config, "2022-01-03T18:00:00.000");
+    Assert.assertEquals(snapshot.snapshotId(), baseTable.currentSnapshot().snapshotId());
+  }
+
   protected void getMaintainerAndExpire(DataExpirationConfig config, String datetime) {
     if (getTestFormat().equals(TableFormat.ICEBERG)) {
       IcebergTableMaintainer icebergTableMaintainer =
@@ -386,7 +487,8 @@ public class TestDataExpire extends ExecutorTestBase {
               .atZone(
                   IcebergTableMaintainer.getDefaultZoneId(
                       getArcticTable().schema().findField(config.getExpirationField())))
-              .toInstant());
+              .toInstant(),
+          expirationIndex);
     } else {
       MixedTableMaintainer mixedTableMaintainer = new MixedTableMaintainer(getArcticTable());
       mixedTableMaintainer.expireDataFrom(
@@ -395,7 +497,8 @@ public class TestDataExpire extends ExecutorTestBase {
               .atZone(
                   IcebergTableMaintainer.getDefaultZoneId(
                       getArcticTable().schema().findField(config.getExpirationField())))
-              .toInstant());
+              .toInstant(),
+          expirationIndex);
     }
   }
 
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.server.optimizing.maintainer;
+
+import com.netease.arctic.BasicTableTestHelper;
+import com.netease.arctic.TableTestHelper;
+import com.netease.arctic.ams.api.TableFormat;
+import com.netease.arctic.catalog.BasicCatalogTestHelper;
+import com.netease.arctic.catalog.CatalogTestHelper;
+import com.netease.arctic.op.SnapshotSummary;
+import com.netease.arctic.server.table.executor.ExecutorTestBase;
+import com.netease.arctic.table.UnkeyedTable;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.relocated.com.google.common.collect.Sets;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Set;
+
+@RunWith(Parameterized.class)
+public class TestManifestsRewriteIceberg extends ExecutorTestBase {
+
+  @Parameterized.Parameters(name = "{0}, {1}")
+  public static Object[] parameters() {
+    return new Object[][] {
+      {new BasicCatalogTestHelper(TableFormat.ICEBERG), new BasicTableTestHelper(false, true)},
+      {new BasicCatalogTestHelper(TableFormat.ICEBERG), new BasicTableTestHelper(false, false)}
+    };
+  }
+
+  public TestManifestsRewriteIceberg(
+      CatalogTestHelper catalogTestHelper, TableTestHelper tableTestHelper) {
+    super(catalogTestHelper, tableTestHelper);
+  }
+
+  @Test
+  public void testRewriteManifests() {
+    UnkeyedTable table = getArcticTable().asUnkeyedTable();
+    writeAndCommitBaseStore(table);
+    writeAndCommitBaseStore(table);
+    writeAndCommitBaseStore(table);
+    Assert.assertEquals(3, table.currentSnapshot().dataManifests(table.io()).size());
+    Set<String> dataFiles = dataFilePaths(table);
+
+    IcebergTableMaintainer tableMaintainer = new IcebergTableMaintainer(table);
+    Assert.assertEquals(3, tableMaintainer.rewriteManifests(2));
+    table.refresh();
+    Snapshot snapshot = table.currentSnapshot();
+    Assert.assertEquals(1, snapshot.dataManifests(table.io()).size());
+    Assert.assertEquals(
+        IcebergTableMaintainer.MANIFESTS_REWRITING_PRODUCER,
+        snapshot.summary().get(SnapshotSummary.SNAPSHOT_PRODUCER));
+    Assert.assertEquals(dataFiles, dataFilePaths(table));
+  }
+
+  @Test
+  public void testNotRewriteLessThanMinCount() {
+    UnkeyedTable table = getArcticTable().asUnkeyedTable();
+    writeAndCommitBaseStore(table);
+    writeAndCommitBaseStore(table);
+    writeAndCommitBaseStore(table);
+    long snapshotId = table.currentSnapshot().snapshotId();
+
+    IcebergTableMaintainer tableMaintainer = new IcebergTableMaintainer(table);
+    Assert.assertEquals(0, tableMaintainer.rewriteManifests(4));
+    table.refresh();
+    Assert.assertEquals(snapshotId, table.currentSnapshot().snapshotId());
+  }
+
+  @Test
+  public void testNotRewriteLargeManifests() {
+    UnkeyedTable table = getArcticTable().asUnkeyedTable();
+    writeAndCommitBaseStore(table);
+    writeAndCommitBaseStore(table);
+    table
+        .updateProperties()
+        .set(org.apache.iceberg.TableProperties.MANIFEST_TARGET_SIZE_BYTES, "1")
+        .commit();
+
+    IcebergTableMaintainer tableMaintainer = new IcebergTableMaintainer(table);
+    Assert.assertEquals(0, tableMaintainer.rewriteManifests(2));
+    Assert.assertEquals(2, table.currentSnapshot().dataManifests(table.io()).size());
+  }
+
+  private static Set<String> dataFilePaths(UnkeyedTable table) {
+    Set<String> paths = Sets.newHashSet();
+    table.newScan().planFiles().forEach(task -> paths.add(task.file().path().toString()));
+    return paths;
+  }
+}
@@ -424,6 +424,34 @@ public class TestSnapshotExpire extends ExecutorTestBase {
     Assert.assertEquals(2, Iterables.size(testKeyedTable.changeTable().snapshots()));
   }
 
+  @Test
+  public void testExpireChangeFilesOfStraddlingManifest() {
+    Assume.assumeTrue(isKeyedTable());
+    KeyedTable testKeyedTable = getArcticTable().asKeyedTable();
+    UnkeyedTable changeTable = testKeyedTable.changeTable();
+
+    List<DataFile> s1Files = insertChangeDataFiles(testKeyedTable, 1);
+    long firstCommitTime = changeTable.currentSnapshot().timestampMillis();
+    waitUntilAfter(firstCommitTime);
+    insertChangeDataFiles(testKeyedTable, 2);
+    long secondCommitTime = changeTable.currentSnapshot().timestampMillis();
+    // merge the manifests of the two commits, so the manifest straddles the ttl point
+    changeTable.rewriteManifests().clusterBy(file -> "all").commit();
+    waitUntilAfter(changeTable.currentSnapshot().timestampMillis());
+    insertChangeDataFiles(testKeyedTable, 3);
+    Assert.assertEquals(2, changeTable.currentSnapshot().dataManifests(changeTable.io()).size());
+
+    MixedTableMaintainer.ChangeTableMaintainer changeMaintainer =
+        new MixedTableMaintainer(testKeyedTable).getChangeMaintainer();
+    Assert.assertEquals(
+        s1Files.stream().map(DataFile::path).collect(Collectors.toSet()),
+        changeMaintainer.getExpiredDataFiles(secondCommitTime).stream()
+            .map(DataFile::path)
+            .collect(Collectors.toSet()));
+    // no snapshot is expired, all manifests are skipped
+    Assert.assertTrue(changeMaintainer.getExpiredDataFiles(firstCommitTime).isEmpty());
+  }
+
   @NotNull
   private static Set<CharSequence> getDataFiles(KeyedTable testKeyedTable) {
     Set<CharSequence> dataFiles = new HashSet<>();
@@ -23,9 +23,12 @@ import com.netease.arctic.TableTestHelper;
 import com.netease.arctic.catalog.CatalogTestHelper;
 import com.netease.arctic.catalog.TableTestBase;
 import com.netease.arctic.data.DataTreeNode;
+import com.netease.arctic.data.FileNameRules;
 import com.netease.arctic.data.PrimaryKeyedFile;
 import com.netease.arctic.hive.optimizing.MixFormatRewriteExecutorFactory;
 import com.netease.arctic.io.MixedDataTestHelpers;
+import com.netease.arctic.io.writer.GenericTaskWriters;
+import com.netease.arctic.io.writer.SortedPosDeleteWriter;
 import com.netease.arctic.optimizing.OptimizingInputProperties;
 import com.netease.arctic.server.ArcticServiceConstants;
 import com.netease.arctic.server.dashboard.utils.AmsUtil;
@@ -302,6 +305,121 @@ public abstract class MixedTablePlanTestBase extends TableTestBase {
         deleteFiles);
   }
 
+  public void testSplitTasksByOverlappedDeletesBase() {
+    openFullOptimizing();
+    DataFile fileA = appendBaseFile(1, 10);
+    DataFile fileB = appendBaseFile(11, 20);
+    // A reads X, B reads X and Z
+    DeleteFile deleteX = appendSharedPosDelete(Lists.newArrayList(fileA, fileB));
+    DeleteFile deleteZ = appendSharedPosDelete(Lists.newArrayList(fileB));
+    long taskCost = sizeOf(fileA, fileB, deleteX, deleteZ);
+    updateTargetTaskCost(taskCost);
+
+    // both files are in one task reading X once
+    List<TaskDescriptor> taskDescriptors = planWithCurrentFiles();
+    Assert.assertEquals(1, taskDescriptors.size());
+    assertTask(
+        taskDescriptors.get(0),
+        Lists.newArrayList(fileA, fileB),
+        Collections.emptyList(),
+        Collections.emptyList(),
+        Lists.newArrayList(deleteX, deleteZ));
+    Assert.assertEquals(taskCost, sizeOf(taskDescriptors.get(0)));
+  }
+
+  public void testSplitTasksByDeleteCostBase() {
+    openFullOptimizing();
+    DataFile fileA = appendBaseFile(1, 10);
+    DataFile fileB = appendBaseFile(11, 20);
+    DataFile fileC = appendBaseFile(21, 30);
+    DataFile fileD = appendBaseFile(31, 40);
+    DeleteFile deleteX = appendSharedPosDelete(Lists.newArrayList(fileA, fileB));
+    DeleteFile deleteY = appendSharedPosDelete(Lists.newArrayList(fileC, fileD));
+    long costAB = sizeOf(fileA, fileB, deleteX);
+    long costCD = sizeOf(fileC, fileD, deleteY);
+    updateTargetTaskCost(Math.max(costAB, costCD));
+
+    // every task only reads the delete files of its own data files
+    List<TaskDescriptor> taskDescriptors = planWithCurrentFiles();
+    Assert.assertEquals(2, taskDescriptors.size());
+    TaskDescriptor taskAB =
+        taskDescriptors.stream()
+            .filter(task -> containsFile(task.getInput().rewrittenDataFiles(), fileA))
+            .findFirst()
+            .orElseThrow(AssertionError::new);
+    TaskDescriptor taskCD =
+        taskDescriptors.stream()
+            .filter(task -> containsFile(task.getInput().rewrittenDataFiles(), fileC))
+            .findFirst()
+            .orElseThrow(AssertionError::new);
+    assertTask(
+        taskAB,
+        Lists.newArrayList(fileA, fileB),
+        Collections.emptyList(),
+        Collections.emptyList(),
+        Lists.newArrayList(deleteX));
+    assertTask(
+        taskCD,
+        Lists.newArrayList(fileC, fileD),
+        Collections.emptyList(),
+        Collections.emptyList(),
+        Lists.newArrayList(deleteY));
+    Assert.assertEquals(costAB, sizeOf(taskAB));
+    Assert.assertEquals(costCD, sizeOf(taskCD));
+  }
+
+  private DataFile appendBaseFile(int fromId, int toId) {
+    List<Record> newRecords =
+        OptimizingTestHelpers.generateRecord(
+            tableTestHelper(), fromId, toId, "2022-01-01T12:00:00");
+    long transactionId = beginTransaction();
+    List<DataFile> dataFiles =
+        OptimizingTestHelpers.appendBase(
+            getArcticTable(),
+            tableTestHelper().writeBaseStore(getArcticTable(), transactionId, newRecords, false));
+    Assert.assertEquals(1, dataFiles.size());
+    return dataFiles.get(0);
+  }
+
+  /** Write one position delete file deleting the first row of each data file. */
+  private DeleteFile appendSharedPosDelete(List<DataFile> dataFiles) {
+    DataFile first = dataFiles.get(0);
+    DataTreeNode node = FileNameRules.parseFileNodeFromFileName(first.path().toString());
+    GenericTaskWriters.Builder builder = GenericTaskWriters.builderFor(getArcticTable());
+    if (isKeyedTable()) {
+      builder.withTransactionId(beginTransaction());
+    }
+    try (SortedPosDeleteWriter<Record> writer =
+        builder.buildBasePosDeleteWriter(node.mask(), node.index(), first.partition())) {
+      for (DataFile dataFile : dataFiles) {
+        writer.delete(dataFile.path().toString(), 0);
+      }
+      List<DeleteFile> deleteFiles = writer.complete();
+      Assert.assertEquals(1, deleteFiles.size());
+      return OptimizingTestHelpers.appendBasePosDelete(getArcticTable(), deleteFiles).get(0);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void updateTargetTaskCost(long cost) {
+    updateTableProperty(TableProperties.SELF_OPTIMIZING_TARGET_SIZE, cost + "");
+    updateTableProperty(TableProperties.SELF_OPTIMIZING_MAX_TASK_SIZE, cost + "");
+  }
+
+  private static long sizeOf(ContentFile<?>... files) {
+    return Arrays.stream(files).mapToLong(ContentFile::fileSizeInBytes).sum();
+  }
+
+  private static long sizeOf(TaskDescriptor task) {
+    return sizeOf(task.getInput().rewrittenDataFiles())
+        + sizeOf(task.getInput().rewrittenDeleteFiles());
+  }
+
+  private static boolean containsFile(ContentFile<?>[] files, ContentFile<?> file) {
+    return Arrays.stream(files).anyMatch(f -> f.path().toString().equals(file.path().toString()));
+  }
+
   private List<DeleteFile> appendPosDelete(long transactionId, List<DataFile> dataFiles, int pos) {
     return appendPosDelete(transactionId, dataFiles, pos, pos);
   }
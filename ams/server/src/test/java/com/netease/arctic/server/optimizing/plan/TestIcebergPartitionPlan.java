@@ -52,6 +52,16 @@ public class TestIcebergPartitionPlan extends TestUnkeyedPartitionPlan {
     testOnlyOneFragmentFileBase();
   }
 
+  @Test
+  public void testSplitTasksByOverlappedDeletes() {
+    testSplitTasksByOverlappedDeletesBase();
+  }
+
+  @Test
+  public void testSplitTasksByDeleteCost() {
+    testSplitTasksByDeleteCostBase();
+  }
+
   @Override
   protected AbstractPartitionPlan getPartitionPlan() {
     return new IcebergPartitionPlan(
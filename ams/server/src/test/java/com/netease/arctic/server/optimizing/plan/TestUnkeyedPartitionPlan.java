@@ -72,6 +72,16 @@ public class TestUnkeyedPartitionPlan extends MixedTablePlanTestBase {
     testOnlyOneFragmentFileBase();
   }
 
+  @Test
+  public void testSplitTasksByOverlappedDeletes() {
+    testSplitTasksByOverlappedDeletesBase();
+  }
+
+  @Test
+  public void testSplitTasksByDeleteCost() {
+    testSplitTasksByDeleteCostBase();
+  }
+
   @Override
   protected AbstractPartitionPlan getPartitionPlan() {
     return new MixedIcebergPartitionPlan(
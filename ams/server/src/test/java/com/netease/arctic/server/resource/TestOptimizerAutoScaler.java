@@ -0,0 +1,307 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.server.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.netease.arctic.ams.api.OptimizerProperties;
+import com.netease.arctic.ams.api.OptimizerRegisterInfo;
+import com.netease.arctic.ams.api.resource.Resource;
+import com.netease.arctic.ams.api.resource.ResourceContainer;
+import com.netease.arctic.ams.api.resource.ResourceGroup;
+import com.netease.arctic.ams.api.resource.ResourceType;
+import com.netease.arctic.server.manager.LocalOptimizerContainer;
+import com.netease.arctic.server.optimizing.OptimizingQueue;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+public class TestOptimizerAutoScaler {
+
+  private static final String CONTAINER = "test-container";
+  private static final String GROUP = "test-group";
+
+  private OptimizerManager optimizerManager;
+  private OptimizingQueue queue;
+  private ResourceContainer container;
+  private OptimizerAutoScaler autoScaler;
+
+  @BeforeEach
+  public void setup() {
+    optimizerManager = Mockito.mock(OptimizerManager.class);
+    queue = Mockito.mock(OptimizingQueue.class);
+    container = Mockito.mock(ResourceContainer.class);
+    autoScaler =
+        new OptimizerAutoScaler(
+            optimizerManager, group -> Optional.of(queue), name -> container, 1000);
+  }
+
+  @Test
+  public void testScaleOutParallelism() {
+    // no backlog
+    assertEquals(0, OptimizerAutoScaler.scaleOutParallelism(0, 16, 4, 0, 0));
+    // scaled by step
+    assertEquals(4, OptimizerAutoScaler.scaleOutParallelism(0, 16, 4, 0, 10));
+    // scaled by demand
+    assertEquals(2, OptimizerAutoScaler.scaleOutParallelism(0, 16, 4, 8, 10));
+    // bounded by max parallelism
+    assertEquals(1, OptimizerAutoScaler.scaleOutParallelism(0, 16, 4, 15, 100));
+    assertEquals(0, OptimizerAutoScaler.scaleOutParallelism(0, 16, 4, 16, 100));
+    // scaled to min parallelism at once
+    assertEquals(6, OptimizerAutoScaler.scaleOutParallelism(8, 16, 4, 2, 0));
+    // never scaled past max parallelism
+    assertEquals(2, OptimizerAutoScaler.scaleOutParallelism(8, 4, 4, 2, 0));
+    assertEquals(0, OptimizerAutoScaler.scaleOutParallelism(8, 4, 4, 4, 0));
+  }
+
+  @Test
+  public void testValidateProperties() {
+    OptimizerAutoScaler.validateProperties(properties(2, 8));
+    OptimizerAutoScaler.validateProperties(properties(8, 8));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> OptimizerAutoScaler.validateProperties(properties(8, 4)));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> OptimizerAutoScaler.validateProperties(properties(-1, 4)));
+  }
+
+  @Test
+  public void testScaleOutWithCoolDown() {
+    ResourceGroup group = group(properties(0, 16));
+    mockQueue(10, 0);
+    mockOptimizers(Collections.emptyList(), new ArrayList<>());
+
+    autoScaler.scale(group);
+    ArgumentCaptor<Resource> requested = ArgumentCaptor.forClass(Resource.class);
+    Mockito.verify(container).requestResource(requested.capture());
+    Mockito.verify(optimizerManager).createResource(requested.getValue());
+    assertEquals(4, requested.getValue().getThreadCount());
+    assertEquals(
+        "true", requested.getValue().getProperties().get(OptimizerProperties.RESOURCE_AUTOSCALED));
+
+    // in the cool-down
+    autoScaler.scale(group);
+    Mockito.verify(container, Mockito.times(1)).requestResource(Mockito.any());
+  }
+
+  @Test
+  public void testNotScaleInvalidGroup() {
+    ResourceGroup group = group(properties(8, 4));
+    mockQueue(10, 0);
+    mockOptimizers(Collections.emptyList(), new ArrayList<>());
+
+    autoScaler.scale(group);
+    Mockito.verify(container, Mockito.never()).requestResource(Mockito.any());
+  }
+
+  @Test
+  public void testStartingResourceCountsAsCapacity() {
+    ResourceGroup group = group(properties(0, 16));
+    mockQueue(4, 0);
+    Resource starting = resource(4, true);
+    mockOptimizers(Collections.emptyList(), Collections.singletonList(starting));
+
+    // the starting resource serves the demand
+    autoScaler.scale(group);
+    Mockito.verify(container, Mockito.never()).requestResource(Mockito.any());
+  }
+
+  @Test
+  public void testReleaseIdleOptimizer() {
+    Resource autoscaled = resource(4, true);
+    Resource manual = resource(4, false);
+    mockQueue(0, 0);
+    mockOptimizers(
+        Lists.newArrayList(optimizer(autoscaled), optimizer(manual)),
+        Lists.newArrayList(manual, autoscaled));
+
+    // min parallelism keeps all the threads
+    autoScaler.scale(group(properties(8, 16)));
+    Mockito.verify(container, Mockito.never()).releaseOptimizer(Mockito.any());
+
+    // only the autoscaled optimizer is released
+    autoScaler.scale(group(properties(4, 16)));
+    Mockito.verify(container).releaseOptimizer(autoscaled);
+    Mockito.verify(optimizerManager).deleteResource(autoscaled.getResourceId());
+    Mockito.verify(optimizerManager).deleteOptimizer(GROUP, autoscaled.getResourceId());
+    Mockito.verify(container, Mockito.never()).releaseOptimizer(manual);
+  }
+
+  @Test
+  public void testNotReleaseWithBacklog() {
+    Resource autoscaled = resource(4, true);
+    mockQueue(0, 1);
+    mockOptimizers(Lists.newArrayList(optimizer(autoscaled)), Lists.newArrayList(autoscaled));
+
+    autoScaler.scale(group(properties(0, 16)));
+    Mockito.verify(container, Mockito.never()).releaseOptimizer(Mockito.any());
+    Mockito.verify(container, Mockito.never()).requestResource(Mockito.any());
+  }
+
+  @Test
+  public void testExpireUnregisteredResource() throws InterruptedException {
+    Map<String, String> properties = properties(0, 16);
+    properties.put(OptimizerProperties.OPTIMIZER_AUTOSCALE_START_TIMEOUT, "1");
+    Resource autoscaled = resource(4, true);
+    Resource manual = resource(4, false);
+    mockQueue(0, 0);
+    mockOptimizers(Collections.emptyList(), Lists.newArrayList(autoscaled, manual));
+
+    autoScaler.scale(group(properties));
+    Thread.sleep(10);
+    // only the autoscaled resource is released once it has not registered in time
+    autoScaler.scale(group(properties));
+    Mockito.verify(container).releaseOptimizer(autoscaled);
+    Mockito.verify(optimizerManager).deleteResource(autoscaled.getResourceId());
+    Mockito.verify(container, Mockito.never()).releaseOptimizer(manual);
+    Mockito.verify(optimizerManager, Mockito.never()).deleteResource(manual.getResourceId());
+  }
+
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  public void testScaleWithLocalOptimizerContainer(@TempDir File amsHome) throws Exception {
+    // the optimizer script only records its arguments
+    File startedFile = new File(amsHome, "started");
+    File script = new File(amsHome, "bin/optimizer.sh");
+    assertTrue(script.getParentFile().mkdirs());
+    Files.write(
+        script.toPath(),
+        ("#!/bin/sh\necho \"$@\" >> " + startedFile.getAbsolutePath() + "\n")
+            .getBytes(StandardCharsets.UTF_8));
+    assertTrue(script.setExecutable(true));
+    LocalOptimizerContainer localContainer = new LocalOptimizerContainer();
+    Map<String, String> containerProperties = new HashMap<>();
+    containerProperties.put(OptimizerProperties.AMS_HOME, amsHome.getAbsolutePath());
+    containerProperties.put(OptimizerProperties.AMS_OPTIMIZER_URI, "thrift://127.0.0.1:1261");
+    localContainer.init(CONTAINER, containerProperties);
+    autoScaler =
+        new OptimizerAutoScaler(
+            optimizerManager, group -> Optional.of(queue), name -> localContainer, 1000);
+
+    Map<String, String> properties = properties(0, 16);
+    properties.put(OptimizerProperties.OPTIMIZER_AUTOSCALE_COOL_DOWN, "0");
+    properties.put(OptimizerProperties.OPTIMIZER_AUTOSCALE_START_TIMEOUT, "1");
+    properties.put(LocalOptimizerContainer.JOB_MEMORY_PROPERTY, "1024");
+    ResourceGroup group = group(properties);
+    List<Resource> resources = new ArrayList<>();
+    mockQueue(10, 0);
+    mockOptimizers(Collections.emptyList(), resources);
+    ArgumentCaptor<Resource> created = ArgumentCaptor.forClass(Resource.class);
+
+    // scale out by starting a local optimizer
+    autoScaler.scale(group);
+    Mockito.verify(optimizerManager).createResource(created.capture());
+    Resource unregistered = created.getValue();
+    String started = new String(Files.readAllBytes(startedFile.toPath()), StandardCharsets.UTF_8);
+    assertTrue(started.contains("-p 4 -g " + GROUP + " -id " + unregistered.getResourceId()));
+
+    // the optimizer never registers, it is forgotten although it has no job id to be killed
+    resources.add(unregistered);
+    Thread.sleep(10);
+    autoScaler.scale(group);
+    Mockito.verify(optimizerManager).deleteResource(unregistered.getResourceId());
+    Mockito.verify(optimizerManager, Mockito.times(2)).createResource(created.capture());
+    Resource registered = created.getValue();
+
+    // the registered optimizer is killed once the queue has drained
+    Process optimizerProcess = new ProcessBuilder("sleep", "300").start();
+    try {
+      OptimizerInstance optimizer = optimizer(registered);
+      optimizer
+          .getProperties()
+          .put(Resource.PROPERTY_JOB_ID, String.valueOf(optimizerProcess.pid()));
+      resources.clear();
+      resources.add(registered);
+      mockQueue(0, 0);
+      mockOptimizers(Collections.singletonList(optimizer), resources);
+      autoScaler.scale(group);
+      assertTrue(optimizerProcess.waitFor(10, TimeUnit.SECONDS));
+      Mockito.verify(optimizerManager).deleteResource(registered.getResourceId());
+      Mockito.verify(optimizerManager).deleteOptimizer(GROUP, registered.getResourceId());
+    } finally {
+      optimizerProcess.destroyForcibly();
+    }
+  }
+
+  private void mockQueue(int pendingTasks, int runningTasks) {
+    Mockito.when(queue.getPendingTaskCount()).thenReturn(pendingTasks);
+    Mockito.when(queue.getRunningTaskCount()).thenReturn(runningTasks);
+    Mockito.when(queue.getPendingTableCount()).thenReturn(0);
+  }
+
+  private void mockOptimizers(List<OptimizerInstance> optimizers, List<Resource> resources) {
+    Mockito.when(optimizerManager.listOptimizers(GROUP)).thenReturn(optimizers);
+    Mockito.when(optimizerManager.listResourcesByGroup(GROUP)).thenReturn(resources);
+  }
+
+  private static Map<String, String> properties(int minParallelism, int maxParallelism) {
+    Map<String, String> properties = new HashMap<>();
+    properties.put(OptimizerProperties.OPTIMIZER_AUTOSCALE_ENABLED, "true");
+    properties.put(
+        OptimizerProperties.OPTIMIZER_AUTOSCALE_MIN_PARALLELISM, String.valueOf(minParallelism));
+    properties.put(
+        OptimizerProperties.OPTIMIZER_AUTOSCALE_MAX_PARALLELISM, String.valueOf(maxParallelism));
+    properties.put(OptimizerProperties.OPTIMIZER_AUTOSCALE_STEP_PARALLELISM, "4");
+    properties.put(OptimizerProperties.OPTIMIZER_AUTOSCALE_COOL_DOWN, "3600000");
+    return properties;
+  }
+
+  private static ResourceGroup group(Map<String, String> properties) {
+    return new ResourceGroup.Builder(GROUP, CONTAINER).addProperties(properties).build();
+  }
+
+  private static Resource resource(int threadCount, boolean autoscaled) {
+    Resource.Builder builder =
+        new Resource.Builder(CONTAINER, GROUP, ResourceType.OPTIMIZER).setThreadCount(threadCount);
+    if (autoscaled) {
+      builder.addProperties(OptimizerProperties.RESOURCE_AUTOSCALED, "true");
+    }
+    return builder.build();
+  }
+
+  private static OptimizerInstance optimizer(Resource resource) {
+    OptimizerRegisterInfo registerInfo =
+        new OptimizerRegisterInfo()
+            .setResourceId(resource.getResourceId())
+            .setGroupName(GROUP)
+            .setThreadCount(resource.getThreadCount())
+            .setProperties(new HashMap<>())
+            .setStartTime(System.currentTimeMillis());
+    return new OptimizerInstance(registerInfo, CONTAINER);
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.server.table.executor;
+
+import com.netease.arctic.server.ArcticManagementConf;
+import com.netease.arctic.server.utils.Configurations;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+
+public class TestTableMaintenanceLimiter {
+
+  @Test
+  public void testLimitConcurrentTasks() {
+    TableMaintenanceLimiter limiter = newLimiter(2);
+    TableMaintenanceLimiter.Permit permit1 = limiter.tryAcquire();
+    TableMaintenanceLimiter.Permit permit2 = limiter.tryAcquire();
+    Assert.assertNotNull(permit1);
+    Assert.assertNotNull(permit2);
+    Assert.assertNull(limiter.tryAcquire());
+
+    permit1.release();
+    TableMaintenanceLimiter.Permit permit3 = limiter.tryAcquire();
+    Assert.assertNotNull(permit3);
+    Assert.assertNull(limiter.tryAcquire());
+  }
+
+  @Test
+  public void testReleaseAfterSetupAgain() {
+    TableMaintenanceLimiter limiter = newLimiter(1);
+    TableMaintenanceLimiter.Permit oldPermit = limiter.tryAcquire();
+    Assert.assertNotNull(oldPermit);
+
+    limiter.setup(conf(1));
+    Assert.assertNotNull(limiter.tryAcquire());
+    // the old permit goes back to the old semaphore and does not raise the new limit
+    oldPermit.release();
+    Assert.assertNull(limiter.tryAcquire());
+  }
+
+  @Test
+  public void testUnlimited() {
+    TableMaintenanceLimiter limiter = newLimiter(0);
+    for (int i = 0; i < 100; i++) {
+      Assert.assertNotNull(limiter.tryAcquire());
+    }
+  }
+
+  @Test
+  public void testStartJitter() {
+    TableMaintenanceLimiter limiter = newLimiter(1);
+    for (int i = 0; i < 100; i++) {
+      long jitter = limiter.startJitter(1000);
+      Assert.assertTrue(jitter >= 0 && jitter < 1000);
+    }
+    Assert.assertEquals(0, limiter.startJitter(0));
+  }
+
+  private static TableMaintenanceLimiter newLimiter(int maxConcurrentTasks) {
+    TableMaintenanceLimiter limiter = new TableMaintenanceLimiter();
+    limiter.setup(conf(maxConcurrentTasks));
+    return limiter;
+  }
+
+  private static Configurations conf(int maxConcurrentTasks) {
+    Configurations conf = new Configurations();
+    conf.setInteger(
+        ArcticManagementConf.TABLE_MAINTENANCE_MAX_CONCURRENT_TASKS, maxConcurrentTasks);
+    conf.set(ArcticManagementConf.TABLE_MAINTENANCE_START_SPREAD, Duration.ofMinutes(10));
+    return conf;
+  }
+}
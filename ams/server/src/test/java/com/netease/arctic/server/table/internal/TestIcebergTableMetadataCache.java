@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netease.arctic.server.table.internal;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.TableMetadata;
+import org.apache.iceberg.TableMetadataParser;
+import org.apache.iceberg.hadoop.HadoopFileIO;
+import org.apache.iceberg.io.FileIO;
+import org.apache.iceberg.relocated.com.google.common.collect.ImmutableMap;
+import org.apache.iceberg.types.Types;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+public class TestIcebergTableMetadataCache {
+
+  @Rule public TemporaryFolder temp = new TemporaryFolder();
+
+  private final FileIO io = new HadoopFileIO(new Configuration());
+  private String metadataFileLocation;
+
+  @Before
+  public void writeMetadata() throws IOException {
+    File tableDir = temp.newFolder();
+    Schema schema = new Schema(Types.NestedField.required(1, "id", Types.IntegerType.get()));
+    TableMetadata metadata =
+        TableMetadata.newTableMetadata(
+            schema, PartitionSpec.unpartitioned(), tableDir.toURI().toString(), ImmutableMap.of());
+    metadataFileLocation = new File(tableDir, "v1.metadata.json").toURI().toString();
+    TableMetadataParser.write(metadata, io.newOutputFile(metadataFileLocation));
+  }
+
+  @Test
+  public void testReadFromCache() {
+    IcebergTableMetadataCache cache = new IcebergTableMetadataCache(1024 * 1024);
+    TableMetadata metadata = cache.read(io, metadataFileLocation);
+    Assert.assertEquals(metadataFileLocation, metadata.metadataFileLocation());
+    Assert.assertEquals(1, cache.missCount());
+    Assert.assertEquals(0, cache.bytesSaved());
+
+    Assert.assertSame(metadata, cache.read(io, metadataFileLocation));
+    Assert.assertEquals(1, cache.hitCount());
+    Assert.assertEquals(io.newInputFile(metadataFileLocation).getLength(), cache.bytesSaved());
+
+    cache.invalidate(metadataFileLocation);
+    Assert.assertNotSame(metadata, cache.read(io, metadataFileLocation));
+    Assert.assertEquals(2, cache.missCount());
+  }
+
+  @Test
+  public void testReadCompressedMetadata() throws IOException {
+    TableMetadata written = TableMetadataParser.read(io, metadataFileLocation);
+    String compressedLocation =
+        new File(temp.newFolder(), "v1.gz.metadata.json").toURI().toString();
+    TableMetadataParser.write(written, io.newOutputFile(compressedLocation));
+
+    IcebergTableMetadataCache cache = new IcebergTableMetadataCache(1024 * 1024);
+    TableMetadata metadata = cache.read(io, compressedLocation);
+    Assert.assertEquals(compressedLocation, metadata.metadataFileLocation());
+    Assert.assertEquals(written.uuid(), metadata.uuid());
+
+    Assert.assertSame(metadata, cache.read(io, compressedLocation));
+    Assert.assertEquals(io.newInputFile(compressedLocation).getLength(), cache.bytesSaved());
+  }
+
+  @Test
+  public void testCacheDisabled() {
+    IcebergTableMetadataCache cache = new IcebergTableMetadataCache(0);
+    TableMetadata metadata = cache.read(io, metadataFileLocation);
+    Assert.assertNotSame(metadata, cache.read(io, metadataFileLocation));
+    Assert.assertEquals(0, cache.hitCount());
+    Assert.assertEquals(0, cache.size());
+  }
+}
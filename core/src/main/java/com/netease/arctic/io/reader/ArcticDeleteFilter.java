@@ -31,6 +31,7 @@ import com.netease.arctic.table.PrimaryKeySpec;
 import com.netease.arctic.utils.NodeFilter;
 import com.netease.arctic.utils.map.StructLikeBaseMap;
 import com.netease.arctic.utils.map.StructLikeCollections;
+import com.netease.arctic.utils.map.StructLikeSpillableMap;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.iceberg.Accessor;
 import org.apache.iceberg.DeleteFile;
@@ -65,6 +66,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -109,6 +112,10 @@ public abstract class ArcticDeleteFilter<T> {
 
   private StructLikeCollections structLikeCollections = StructLikeCollections.DEFAULT;
 
+  private long deleteLoadNanos;
+  private long eqDeleteSpilledBytes;
+  private long eqDeletePeakMemorySize;
+
   protected ArcticDeleteFilter(
       KeyedTableScanTask keyedTableScanTask,
       Schema tableSchema,
@@ -184,6 +191,21 @@ public abstract class ArcticDeleteFilter<T> {
         requiredSchema.accessorForField(org.apache.iceberg.MetadataColumns.FILE_PATH.fieldId());
   }
 
+  /** Time spent loading delete files in milliseconds. */
+  public long deleteLoadDuration() {
+    return TimeUnit.NANOSECONDS.toMillis(deleteLoadNanos);
+  }
+
+  /** Bytes of the equality delete map spilled to disk. */
+  public long eqDeleteSpilledBytes() {
+    return eqDeleteSpilledBytes;
+  }
+
+  /** Estimated peak memory of the equality delete map, only available when the map is spillable. */
+  public long eqDeletePeakMemorySize() {
+    return eqDeletePeakMemorySize;
+  }
+
   public Schema requiredSchema() {
     return requiredSchema;
   }
@@ -243,11 +265,86 @@ public abstract class ArcticDeleteFilter<T> {
       return record -> false;
     }
 
-    Schema pkSchema = TypeUtil.select(requiredSchema, primaryKeyId);
-    // a projection to select and reorder fields of the file schema to match the delete rows
-    StructProjection deletePKProjectRow = StructProjection.create(deleteSchema, pkSchema);
+    long startNanos = System.nanoTime();
+    Schema pkSchema = primaryKeySchema();
     StructProjection dataPKProjectRow = StructProjection.create(requiredSchema, pkSchema);
 
+    StructLikeBaseMap<ChangedLsn> structLikeMap =
+        structLikeCollections.createStructLikeMap(pkSchema.asStruct());
+    // init map
+    readEqualityDeletes(
+        (deletePK, deleteLsn) -> {
+          ChangedLsn old = structLikeMap.get(deletePK);
+          if (old == null || old.compareTo(deleteLsn) <= 0) {
+            structLikeMap.put(deletePK, deleteLsn);
+          }
+        });
+    deleteLoadNanos += System.nanoTime() - startNanos;
+    if (structLikeMap instanceof StructLikeSpillableMap) {
+      eqDeleteSpilledBytes = ((StructLikeSpillableMap<ChangedLsn>) structLikeMap).spilledBytes();
+      eqDeletePeakMemorySize =
+          ((StructLikeSpillableMap<ChangedLsn>) structLikeMap).peakMemorySize();
+    }
+
+    Predicate<T> isInDeleteSet =
+        record -> {
+          StructLike data = asStructLike(record);
+          StructLike dataPk = dataPKProjectRow.copyFor(data);
+          ChangedLsn dataLSN = dataLSN(data);
+          ChangedLsn deleteLsn = structLikeMap.get(dataPk);
+          if (deleteLsn == null) {
+            return false;
+          }
+
+          return deleteLsn.compareTo(dataLSN) > 0;
+        };
+
+    this.eqPredicate = new CloseablePredicate<>(isInDeleteSet, structLikeMap);
+    return isInDeleteSet;
+  }
+
+  /** @return Whether equality deletes are kept in spillable collections. */
+  public boolean isEqualityDeleteSpillable() {
+    return structLikeCollections.isSpillable();
+  }
+
+  /**
+   * @return The predicate of the records deleted by equality deletes, the deletes are kept in the
+   *     {@link StructLikeCollections} of the filter and released by {@link #close()}.
+   */
+  public Predicate<T> equalityDeletePredicate() {
+    return applyEqDeletes();
+  }
+
+  /** Release the collections holding equality deletes. */
+  public void close() throws IOException {
+    if (eqPredicate != null) {
+      eqPredicate.close();
+      eqPredicate = null;
+    }
+  }
+
+  /** @return The schema of primary key fields, in the order of {@link #requiredSchema()}. */
+  public Schema primaryKeySchema() {
+    return TypeUtil.select(requiredSchema, primaryKeyId);
+  }
+
+  /**
+   * Read all equality delete records of the task and pass each of them to the consumer.
+   *
+   * <p>The primary key passed to the consumer follows {@link #primaryKeySchema()} and holds
+   * internal values, it is only valid during the call and must be copied if retained.
+   *
+   * @param consumer accept the primary key and the {@link ChangedLsn} of a delete record
+   */
+  public void readEqualityDeletes(BiConsumer<StructLike, ChangedLsn> consumer) {
+    if (eqDeletes.isEmpty()) {
+      return;
+    }
+
+    // a projection to select and reorder fields of the file schema to match the delete rows
+    StructProjection deletePKProjectRow = StructProjection.create(deleteSchema, primaryKeySchema());
+
     Iterable<CloseableIterable<Record>> deleteRecords =
         Iterables.transform(eqDeletes, this::openDeletes);
 
@@ -263,9 +360,6 @@ public abstract class ArcticDeleteFilter<T> {
     CloseableIterable<StructLike> structLikeIterable =
         CloseableIterable.transform(records, internalRecordWrapper::copyFor);
 
-    StructLikeBaseMap<ChangedLsn> structLikeMap =
-        structLikeCollections.createStructLikeMap(pkSchema.asStruct());
-    // init map
     try (CloseableIterable<StructLike> deletes = structLikeIterable) {
       Iterator<StructLike> it =
           getArcticFileIo() == null
@@ -273,33 +367,11 @@ public abstract class ArcticDeleteFilter<T> {
               : getArcticFileIo().doAs(deletes::iterator);
       while (it.hasNext()) {
         StructLike structLike = it.next();
-        StructLike deletePK = deletePKProjectRow.copyFor(structLike);
-        ChangedLsn deleteLsn = deleteLSN(structLike);
-
-        ChangedLsn old = structLikeMap.get(deletePK);
-        if (old == null || old.compareTo(deleteLsn) <= 0) {
-          structLikeMap.put(deletePK, deleteLsn);
-        }
+        consumer.accept(deletePKProjectRow.copyFor(structLike), deleteLSN(structLike));
       }
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
-
-    Predicate<T> isInDeleteSet =
-        record -> {
-          StructLike data = asStructLike(record);
-          StructLike dataPk = dataPKProjectRow.copyFor(data);
-          ChangedLsn dataLSN = dataLSN(data);
-          ChangedLsn deleteLsn = structLikeMap.get(dataPk);
-          if (deleteLsn == null) {
-            return false;
-          }
-
-          return deleteLsn.compareTo(dataLSN) > 0;
-        };
-
-    this.eqPredicate = new CloseablePredicate<>(isInDeleteSet, structLikeMap);
-    return isInDeleteSet;
   }
 
   private CloseableIterable<T> applyEqDeletes(
@@ -367,8 +439,44 @@ public abstract class ArcticDeleteFilter<T> {
       return record -> false;
     }
 
+    loadPositionDeletes();
+
+    return item -> {
+      Set<Long> posSet;
+      if (currentDataPath != null) {
+        if (currentPosSet == null) {
+          currentPosSet = positionMap.get(currentDataPath);
+        }
+        posSet = currentPosSet;
+      } else {
+        posSet = positionMap.get(filePath(item));
+      }
+
+      if (posSet == null) {
+        return false;
+      }
+      return posSet.contains(pos(item));
+    };
+  }
+
+  /**
+   * Get the deleted positions of a data file in the task.
+   *
+   * @param dataPath the path of the data file
+   * @return the deleted positions, or null if no row of the data file is deleted
+   */
+  public Set<Long> positionDeletes(String dataPath) {
+    if (posDeletes.isEmpty()) {
+      return null;
+    }
+    loadPositionDeletes();
+    return positionMap.get(dataPath);
+  }
+
+  private void loadPositionDeletes() {
     // if there are fewer deletes than a reasonable number to keep in memory, use a set
     if (positionMap == null) {
+      long startNanos = System.nanoTime();
       positionMap = new HashMap<>();
       List<CloseableIterable<Record>> deletes = Lists.transform(posDeletes, this::openPosDeletes);
       CloseableIterator<Record> iterator = CloseableIterable.concat(deletes).iterator();
@@ -385,24 +493,8 @@ public abstract class ArcticDeleteFilter<T> {
         }
         posSet.add((Long) POSITION_ACCESSOR.get(deleteRecord));
       }
+      deleteLoadNanos += System.nanoTime() - startNanos;
     }
-
-    return item -> {
-      Set<Long> posSet;
-      if (currentDataPath != null) {
-        if (currentPosSet == null) {
-          currentPosSet = positionMap.get(currentDataPath);
-        }
-        posSet = currentPosSet;
-      } else {
-        posSet = positionMap.get(filePath(item));
-      }
-
-      if (posSet == null) {
-        return false;
-      }
-      return posSet.contains(pos(item));
-    };
   }
 
   private CloseableIterable<T> apply(CloseableIterable<T> records, Predicate<T> predicate) {
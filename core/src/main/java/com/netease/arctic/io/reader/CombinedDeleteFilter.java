@@ -24,6 +24,7 @@ import com.netease.arctic.optimizing.RewriteFilesInput;
 import com.netease.arctic.utils.ContentFiles;
 import com.netease.arctic.utils.map.StructLikeBaseMap;
 import com.netease.arctic.utils.map.StructLikeCollections;
+import com.netease.arctic.utils.map.StructLikeSpillableMap;
 import org.apache.iceberg.Accessor;
 import org.apache.iceberg.ContentFile;
 import org.apache.iceberg.DeleteFile;
@@ -64,6 +65,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -108,6 +110,10 @@ public abstract class CombinedDeleteFilter<T extends StructLike> {
   private final long dataRecordCnt;
   private final boolean filterEqDelete;
 
+  private long deleteLoadNanos;
+  private long eqDeleteSpilledBytes;
+  private long eqDeletePeakMemorySize;
+
   protected CombinedDeleteFilter(
       RewriteFilesInput rewriteFilesInput,
       Schema tableSchema,
@@ -176,6 +182,21 @@ public abstract class CombinedDeleteFilter<T extends StructLike> {
 
   protected abstract ArcticFileIO getArcticFileIo();
 
+  /** Time spent loading delete files in milliseconds. */
+  public long deleteLoadDuration() {
+    return TimeUnit.NANOSECONDS.toMillis(deleteLoadNanos);
+  }
+
+  /** Bytes of the equality delete map spilled to disk. */
+  public long eqDeleteSpilledBytes() {
+    return eqDeleteSpilledBytes;
+  }
+
+  /** Estimated peak memory of the equality delete map, only available when the map is spillable. */
+  public long eqDeletePeakMemorySize() {
+    return eqDeletePeakMemorySize;
+  }
+
   public Set<Integer> deleteIds() {
     return deleteIds;
   }
@@ -226,6 +247,7 @@ public abstract class CombinedDeleteFilter<T extends StructLike> {
       return record -> false;
     }
 
+    long startNanos = System.nanoTime();
     InternalRecordWrapper internalRecordWrapper =
         new InternalRecordWrapper(deleteSchema.asStruct());
 
@@ -286,6 +308,11 @@ public abstract class CombinedDeleteFilter<T extends StructLike> {
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
+    deleteLoadNanos += System.nanoTime() - startNanos;
+    if (structLikeMap instanceof StructLikeSpillableMap) {
+      eqDeleteSpilledBytes = ((StructLikeSpillableMap<Long>) structLikeMap).spilledBytes();
+      eqDeletePeakMemorySize = ((StructLikeSpillableMap<Long>) structLikeMap).peakMemorySize();
+    }
 
     Predicate<StructForDelete<T>> isInDeleteSet =
         structForDelete -> {
@@ -341,6 +368,7 @@ public abstract class CombinedDeleteFilter<T extends StructLike> {
     }
 
     if (positionMap == null) {
+      long startNanos = System.nanoTime();
       positionMap = new HashMap<>();
       List<CloseableIterable<Record>> deletes = Lists.transform(posDeletes, this::openPosDeletes);
       CloseableIterator<Record> iterator = CloseableIterable.concat(deletes).iterator();
@@ -353,6 +381,7 @@ public abstract class CombinedDeleteFilter<T extends StructLike> {
         Roaring64Bitmap posBitMap = positionMap.computeIfAbsent(path, k -> new Roaring64Bitmap());
         posBitMap.add((Long) POSITION_ACCESSOR.get(deleteRecord));
       }
+      deleteLoadNanos += System.nanoTime() - startNanos;
     }
 
     return structLikeForDelete -> {
@@ -20,6 +20,7 @@ package com.netease.arctic.io.reader;
 
 import com.netease.arctic.io.ArcticFileIO;
 import com.netease.arctic.optimizing.OptimizingDataReader;
+import com.netease.arctic.optimizing.OptimizingTaskSummary;
 import com.netease.arctic.optimizing.RewriteFilesInput;
 import com.netease.arctic.scan.CombinedIcebergScanTask;
 import com.netease.arctic.utils.map.StructLikeCollections;
@@ -150,6 +151,14 @@ public class GenericCombinedIcebergDataReader implements OptimizingDataReader {
     return iterable;
   }
 
+  @Override
+  public void collectSummary(OptimizingTaskSummary summary) {
+    summary.setDeleteLoadDuration(deleteFilter.deleteLoadDuration());
+    summary.setSpillSize(deleteFilter.eqDeleteSpilledBytes());
+    summary.setPeakMemorySize(deleteFilter.eqDeletePeakMemorySize());
+  }
+
+  @Override
   public void close() {
     deleteFilter.close();
   }
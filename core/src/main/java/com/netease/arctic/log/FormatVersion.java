@@ -26,7 +26,10 @@ import java.util.Arrays;
 
 /** Log format version. */
 public enum FormatVersion {
-  FORMAT_VERSION_V1(new MessageBytes().append(MAGIC_NUMBER).append((byte) 1).toBytes());
+  /** Actual values are serialized as JSON. */
+  FORMAT_VERSION_V1(new MessageBytes().append(MAGIC_NUMBER).append((byte) 1).toBytes()),
+  /** Actual values are serialized in a compact schema-driven binary encoding. */
+  FORMAT_VERSION_V2(new MessageBytes().append(MAGIC_NUMBER).append((byte) 2).toBytes());
 
   /**
    * the version of log format, contains a fixed magic number and actual version number, the byte
@@ -67,4 +70,17 @@ public enum FormatVersion {
     }
     return null;
   }
+
+  /**
+   * Returns the format version of the value of table property {@code log-store.data-version}, like
+   * "v1" or "v2".
+   */
+  public static FormatVersion fromProperty(String dataVersion) {
+    for (FormatVersion formatVersion : FormatVersion.values()) {
+      if (("v" + formatVersion.versionNum).equalsIgnoreCase(dataVersion)) {
+        return formatVersion;
+      }
+    }
+    throw new UnsupportedOperationException("Unsupported log data version: " + dataVersion);
+  }
 }
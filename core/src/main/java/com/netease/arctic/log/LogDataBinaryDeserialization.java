@@ -0,0 +1,285 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.log;
+
+import static com.netease.arctic.utils.FlipUtil.convertToBoolean;
+import static org.apache.iceberg.relocated.com.google.common.base.Preconditions.checkArgument;
+
+import com.netease.arctic.log.data.LogArrayData;
+import com.netease.arctic.log.data.LogMapData;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.types.Type;
+import org.apache.iceberg.types.Types;
+
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deserialization that deserializes binary bytes of {@link FormatVersion#FORMAT_VERSION_V2}
+ * serialized by {@link LogDataBinarySerialization} into an instance of {@link LogData} through
+ * {@link LogData.Factory#create(Object, Object...)}.
+ *
+ * <p>Values are decoded from the message bytes directly, without any intermediate tree.
+ */
+public class LogDataBinaryDeserialization<T> implements Serializable {
+  private static final long serialVersionUID = 3716271806785306529L;
+  private static final int ROW_BEGINNING_POS = 18;
+
+  private final Schema schema;
+  private final LogData.Factory<T> factory;
+  private final LogArrayData.Factory arrayFactory;
+  private final LogMapData.Factory mapFactory;
+
+  private transient ValueReader rowReader;
+  private transient BinaryInput input;
+
+  public LogDataBinaryDeserialization(
+      Schema schema,
+      LogData.Factory<T> factory,
+      LogArrayData.Factory arrayFactory,
+      LogMapData.Factory mapFactory) {
+    this.schema = schema;
+    this.factory = factory;
+    this.arrayFactory = arrayFactory;
+    this.mapFactory = mapFactory;
+  }
+
+  public void init() {
+    if (rowReader == null) {
+      rowReader = createStructReader(schema.asStruct());
+      input = new BinaryInput();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public LogData<T> deserialize(byte[] message) {
+    checkArgument(message != null, "message is null.");
+    checkArgument(message.length >= ROW_BEGINNING_POS, "message is illegal.");
+    init();
+    input.reset(message);
+    byte[] versionBytes = input.readBytes(4);
+    byte[] upstreamIdBytes = input.readBytes(4);
+    long epicNo = input.readLong();
+    boolean flip = convertToBoolean(input.readByte());
+    byte changeActionByte = input.readByte();
+
+    if (flip) {
+      // we can ignore actual value which should be empty, when flip is true.
+      return factory.create(null, versionBytes, upstreamIdBytes, epicNo, true, changeActionByte);
+    }
+
+    T actualValue = (T) rowReader.read(input);
+    return factory.create(
+        actualValue, versionBytes, upstreamIdBytes, epicNo, false, changeActionByte);
+  }
+
+  /** Reader that reads a non-null value from the input. */
+  private interface ValueReader {
+    Object read(BinaryInput in);
+  }
+
+  private ValueReader createReader(Type type) {
+    switch (type.typeId()) {
+      case BOOLEAN:
+        return in -> in.readByte() != 0;
+      case INTEGER:
+      case DATE:
+        return in -> (int) in.readVarLong();
+      case LONG:
+      case TIME:
+        return BinaryInput::readVarLong;
+      case FLOAT:
+        return in -> Float.intBitsToFloat(in.readInt());
+      case DOUBLE:
+        return in -> Double.longBitsToDouble(in.readLong());
+      case TIMESTAMP:
+        Types.TimestampType timestamp = (Types.TimestampType) type;
+        if (timestamp.shouldAdjustToUTC()) {
+          return in -> Instant.ofEpochSecond(in.readVarLong(), in.readVarLong());
+        } else {
+          return in ->
+              LocalDateTime.ofEpochSecond(in.readVarLong(), (int) in.readVarLong(), ZoneOffset.UTC);
+        }
+      case STRING:
+        return BinaryInput::readString;
+      case UUID:
+      case FIXED:
+      case BINARY:
+        return BinaryInput::readBinary;
+      case DECIMAL:
+        return in -> {
+          int scale = (int) in.readVarLong();
+          return new BigDecimal(new BigInteger(in.readBinary()), scale);
+        };
+      case LIST:
+        return createListReader(type.asNestedType().asListType());
+      case MAP:
+        return createMapReader(type.asNestedType().asMapType());
+      case STRUCT:
+        return createStructReader(type.asNestedType().asStructType());
+      default:
+        throw new UnsupportedOperationException("Not Support to parse type: " + type);
+    }
+  }
+
+  private ValueReader createStructReader(Types.StructType structType) {
+    final List<Types.NestedField> fields = structType.fields();
+    final int fieldCount = fields.size();
+    final Type[] fieldTypes = fields.stream().map(Types.NestedField::type).toArray(Type[]::new);
+    final ValueReader[] fieldReaders =
+        Arrays.stream(fieldTypes).map(this::createReader).toArray(ValueReader[]::new);
+
+    return in -> {
+      int bitmapOffset = in.skipBitmap(fieldCount);
+      Object[] struct = new Object[fieldCount];
+      for (int i = 0; i < fieldCount; i++) {
+        if (!in.isNull(bitmapOffset, i)) {
+          struct[i] = fieldReaders[i].read(in);
+        }
+      }
+      return factory.createActualValue(struct, fieldTypes);
+    };
+  }
+
+  private ValueReader createListReader(Types.ListType listType) {
+    final Type elementType = listType.elementType();
+    final ValueReader elementReader = createReader(elementType);
+    return in -> {
+      int size = (int) in.readVarLong();
+      return arrayFactory.create(readElements(in, size, elementType, elementReader));
+    };
+  }
+
+  private ValueReader createMapReader(Types.MapType mapType) {
+    final Type keyType = mapType.keyType();
+    final Type valueType = mapType.valueType();
+    final ValueReader keyReader = createReader(keyType);
+    final ValueReader valueReader = createReader(valueType);
+    return in -> {
+      int size = (int) in.readVarLong();
+      Object[] keys = readElements(in, size, keyType, keyReader);
+      Object[] values = readElements(in, size, valueType, valueReader);
+      Map<Object, Object> result = new HashMap<>(Math.max(16, (int) (size / 0.75f) + 1));
+      for (int i = 0; i < size; i++) {
+        result.put(keys[i], values[i]);
+      }
+      return mapFactory.create(result);
+    };
+  }
+
+  private Object[] readElements(
+      BinaryInput in, int size, Type elementType, ValueReader elementReader) {
+    int bitmapOffset = in.skipBitmap(size);
+    Object[] array = null;
+    for (int i = 0; i < size; i++) {
+      if (in.isNull(bitmapOffset, i)) {
+        continue;
+      }
+      Object value = factory.convertIfNecessary(elementType, elementReader.read(in));
+      if (value != null) {
+        if (array == null) {
+          // keep the array type the same as the json deserialization
+          array = (Object[]) Array.newInstance(value.getClass(), size);
+        }
+        array[i] = value;
+      }
+    }
+    return array == null ? new Object[size] : array;
+  }
+
+  /** A cursor over the message bytes, which is reused between messages. */
+  private static class BinaryInput {
+    private byte[] buffer;
+    private int position;
+
+    void reset(byte[] message) {
+      this.buffer = message;
+      this.position = 0;
+    }
+
+    byte readByte() {
+      return buffer[position++];
+    }
+
+    byte[] readBytes(int length) {
+      byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+      position += length;
+      return bytes;
+    }
+
+    byte[] readBinary() {
+      return readBytes((int) readVarLong());
+    }
+
+    String readString() {
+      int length = (int) readVarLong();
+      String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+      position += length;
+      return value;
+    }
+
+    int readInt() {
+      int value = 0;
+      for (int i = 0; i < 4; i++) {
+        value = (value << 8) | (buffer[position++] & 0xFF);
+      }
+      return value;
+    }
+
+    long readLong() {
+      long value = 0;
+      for (int i = 0; i < 8; i++) {
+        value = (value << 8) | (buffer[position++] & 0xFF);
+      }
+      return value;
+    }
+
+    long readVarLong() {
+      long zigzag = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = buffer[position++];
+        zigzag |= (long) (b & 0x7F) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    int skipBitmap(int count) {
+      int offset = position;
+      position += (count + 7) >>> 3;
+      return offset;
+    }
+
+    boolean isNull(int bitmapOffset, int index) {
+      return (buffer[bitmapOffset + (index >>> 3)] & (1 << (index & 7))) != 0;
+    }
+  }
+}
@@ -0,0 +1,298 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.log;
+
+import com.netease.arctic.log.data.LogArrayData;
+import com.netease.arctic.log.data.LogMapData;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.types.Type;
+import org.apache.iceberg.types.Types;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Serialization that serializes an instance of {@link LogData} into binary bytes of {@link
+ * FormatVersion#FORMAT_VERSION_V2}.
+ *
+ * <p>The actual value is encoded in the order of the schema fields without field names. A struct,
+ * list or map is encoded as a null bitmap followed by the non-null values, integers are encoded as
+ * zigzag variable-length integers, strings and bytes are prefixed with their lengths. The output
+ * buffer is reused between records.
+ */
+public class LogDataBinarySerialization<T> implements Serializable {
+  private static final long serialVersionUID = -2466418512340384016L;
+
+  private final Schema schema;
+  private final LogData.FieldGetterFactory<T> fieldGetterFactory;
+
+  private transient ValueWriter rowWriter;
+  private transient BinaryOutput output;
+
+  public LogDataBinarySerialization(
+      Schema schema, LogData.FieldGetterFactory<T> fieldGetterFactory) {
+    this.schema = schema;
+    this.fieldGetterFactory = fieldGetterFactory;
+  }
+
+  public void init() {
+    if (this.rowWriter == null) {
+      this.rowWriter = createStructWriter(schema.asStruct());
+      this.output = new BinaryOutput();
+    }
+  }
+
+  public byte[] serialize(LogData<T> element) {
+    init();
+    // 4 bytes version + 4 bytes upstreamId + 8 bytes EpicNo + 1 byte flip + 1 byte rowKind + n
+    // bytes object data
+    output.reset();
+    output.writeBytes(element.getVersionBytes());
+    output.writeBytes(element.getUpstreamIdBytes());
+    output.writeLong(element.getEpicNo());
+    output.writeByte(element.getFlipByte());
+    output.writeByte(element.getChangeActionByte());
+
+    if (!element.getFlip()) {
+      // would ignore serializing actual value if flip is true.
+      try {
+        rowWriter.write(element.getActualValue(), output);
+      } catch (Throwable t) {
+        throw new RuntimeException("Could not serialize row '" + element + "'. ", t);
+      }
+    }
+    return output.toBytes();
+  }
+
+  /** Writer that writes a non-null value into the output. */
+  private interface ValueWriter {
+    void write(Object value, BinaryOutput out);
+  }
+
+  private ValueWriter createWriter(Type type) {
+    switch (type.typeId()) {
+      case BOOLEAN:
+        return (value, out) -> out.writeByte((Boolean) value ? (byte) 1 : (byte) 0);
+      case INTEGER:
+      case DATE:
+        return (value, out) -> out.writeVarLong(((Number) value).intValue());
+      case LONG:
+      case TIME:
+        return (value, out) -> out.writeVarLong(((Number) value).longValue());
+      case FLOAT:
+        return (value, out) -> out.writeInt(Float.floatToIntBits(((Number) value).floatValue()));
+      case DOUBLE:
+        return (value, out) ->
+            out.writeLong(Double.doubleToLongBits(((Number) value).doubleValue()));
+      case TIMESTAMP:
+        Types.TimestampType timestamp = (Types.TimestampType) type;
+        if (timestamp.shouldAdjustToUTC()) {
+          return (value, out) -> {
+            Instant instant = (Instant) value;
+            out.writeVarLong(instant.getEpochSecond());
+            out.writeVarLong(instant.getNano());
+          };
+        } else {
+          return (value, out) -> {
+            LocalDateTime localDateTime = (LocalDateTime) value;
+            out.writeVarLong(localDateTime.toEpochSecond(ZoneOffset.UTC));
+            out.writeVarLong(localDateTime.getNano());
+          };
+        }
+      case STRING:
+        return (value, out) -> out.writeBinary(value.toString().getBytes(StandardCharsets.UTF_8));
+      case UUID:
+      case FIXED:
+      case BINARY:
+        return (value, out) -> out.writeBinary((byte[]) value);
+      case DECIMAL:
+        return (value, out) -> {
+          BigDecimal decimal = (BigDecimal) value;
+          out.writeVarLong(decimal.scale());
+          out.writeBinary(decimal.unscaledValue().toByteArray());
+        };
+      case LIST:
+        return createListWriter(type.asNestedType().asListType());
+      case MAP:
+        return createMapWriter(type.asNestedType().asMapType());
+      case STRUCT:
+        return createStructWriter(type.asNestedType().asStructType());
+      default:
+        throw new UnsupportedOperationException("Not Support to parse type: " + type);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private ValueWriter createStructWriter(Types.StructType structType) {
+    final List<Types.NestedField> fields = structType.fields();
+    final int fieldCount = fields.size();
+    final String[] fieldNames = new String[fieldCount];
+    final ValueWriter[] fieldWriters = new ValueWriter[fieldCount];
+    final LogData.FieldGetter<T>[] fieldGetters = new LogData.FieldGetter[fieldCount];
+    for (int i = 0; i < fieldCount; i++) {
+      Type fieldType = fields.get(i).type();
+      fieldNames[i] = fields.get(i).name();
+      fieldWriters[i] = createWriter(fieldType);
+      fieldGetters[i] = fieldGetterFactory.createFieldGetter(fieldType, i);
+    }
+
+    return (value, out) -> {
+      T row = (T) value;
+      int bitmapOffset = out.reserveBitmap(fieldCount);
+      for (int i = 0; i < fieldCount; i++) {
+        try {
+          Object field = fieldGetters[i].getFieldOrNull(row, i);
+          if (field == null) {
+            out.setNull(bitmapOffset, i);
+          } else {
+            fieldWriters[i].write(field, out);
+          }
+        } catch (Throwable t) {
+          throw new RuntimeException(
+              String.format("Fail to serialize at field: %s.", fieldNames[i]), t);
+        }
+      }
+    };
+  }
+
+  private ValueWriter createListWriter(Types.ListType listType) {
+    Types.NestedField elementField = listType.field(listType.elementId());
+    final ValueWriter elementWriter = createWriter(elementField.type());
+    final LogArrayData.ElementGetter elementGetter = LogArrayData.createElementGetter(elementField);
+    return (value, out) -> {
+      LogArrayData array = (LogArrayData) value;
+      out.writeVarLong(array.size());
+      writeElements(array, array.size(), elementGetter, elementWriter, out);
+    };
+  }
+
+  private ValueWriter createMapWriter(Types.MapType mapType) {
+    Types.NestedField keyField = mapType.field(mapType.keyId());
+    Types.NestedField valueField = mapType.field(mapType.valueId());
+    final ValueWriter keyWriter = createWriter(keyField.type());
+    final ValueWriter valueWriter = createWriter(valueField.type());
+    final LogArrayData.ElementGetter keyGetter = LogArrayData.createElementGetter(keyField);
+    final LogArrayData.ElementGetter valueGetter = LogArrayData.createElementGetter(valueField);
+    return (value, out) -> {
+      LogMapData map = (LogMapData) value;
+      int size = map.size();
+      out.writeVarLong(size);
+      writeElements(map.keyArray(), size, keyGetter, keyWriter, out);
+      writeElements(map.valueArray(), size, valueGetter, valueWriter, out);
+    };
+  }
+
+  private static void writeElements(
+      LogArrayData array,
+      int size,
+      LogArrayData.ElementGetter elementGetter,
+      ValueWriter elementWriter,
+      BinaryOutput out) {
+    int bitmapOffset = out.reserveBitmap(size);
+    for (int i = 0; i < size; i++) {
+      Object element = elementGetter.getElementOrNull(array, i);
+      if (element == null) {
+        out.setNull(bitmapOffset, i);
+      } else {
+        elementWriter.write(element, out);
+      }
+    }
+  }
+
+  /** A growable byte buffer which is reused between records. */
+  private static class BinaryOutput {
+    private byte[] buffer = new byte[256];
+    private int position = 0;
+
+    void reset() {
+      position = 0;
+    }
+
+    byte[] toBytes() {
+      return Arrays.copyOf(buffer, position);
+    }
+
+    private void ensureCapacity(int length) {
+      if (position + length > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + length));
+      }
+    }
+
+    void writeByte(byte value) {
+      ensureCapacity(1);
+      buffer[position++] = value;
+    }
+
+    void writeBytes(byte[] bytes) {
+      ensureCapacity(bytes.length);
+      System.arraycopy(bytes, 0, buffer, position, bytes.length);
+      position += bytes.length;
+    }
+
+    void writeBinary(byte[] bytes) {
+      writeVarLong(bytes.length);
+      writeBytes(bytes);
+    }
+
+    void writeInt(int value) {
+      ensureCapacity(4);
+      for (int shift = 24; shift >= 0; shift -= 8) {
+        buffer[position++] = (byte) (value >>> shift);
+      }
+    }
+
+    void writeLong(long value) {
+      ensureCapacity(8);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        buffer[position++] = (byte) (value >>> shift);
+      }
+    }
+
+    /** Writes a zigzag encoded variable-length long, small absolute values take fewer bytes. */
+    void writeVarLong(long value) {
+      ensureCapacity(10);
+      long zigzag = (value << 1) ^ (value >> 63);
+      while ((zigzag & ~0x7FL) != 0) {
+        buffer[position++] = (byte) ((zigzag & 0x7F) | 0x80);
+        zigzag >>>= 7;
+      }
+      buffer[position++] = (byte) zigzag;
+    }
+
+    /** Reserves a zeroed null bitmap for {@code count} values and returns its offset. */
+    int reserveBitmap(int count) {
+      int length = (count + 7) >>> 3;
+      ensureCapacity(length);
+      int offset = position;
+      Arrays.fill(buffer, offset, offset + length, (byte) 0);
+      position += length;
+      return offset;
+    }
+
+    void setNull(int bitmapOffset, int index) {
+      buffer[bitmapOffset + (index >>> 3)] |= (byte) (1 << (index & 7));
+    }
+  }
+}
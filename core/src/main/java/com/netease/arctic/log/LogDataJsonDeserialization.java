@@ -39,7 +39,9 @@ import java.io.Serializable;
 
 /**
  * Deserialization that deserializes a JSON bytes array into an instance of {@link LogData} through
- * {@link LogData.Factory#create(Object, Object...)}
+ * {@link LogData.Factory#create(Object, Object...)}. Messages of {@link
+ * FormatVersion#FORMAT_VERSION_V2} are deserialized by {@link LogDataBinaryDeserialization}, so
+ * both versions could be read from the same topic.
  */
 public class LogDataJsonDeserialization<T> implements Serializable {
   private static final long serialVersionUID = -5741370033707067127L;
@@ -48,6 +50,7 @@ public class LogDataJsonDeserialization<T> implements Serializable {
 
   private final JsonToLogDataConverters.JsonToLogDataConverter<T> jsonToLogDataConverter;
   private final LogData.Factory<T> factory;
+  private final LogDataBinaryDeserialization<T> binaryDeserialization;
 
   /** Object mapper for parsing the JSON. */
   private final ObjectMapper objectMapper = new ObjectMapper();
@@ -58,6 +61,8 @@ public class LogDataJsonDeserialization<T> implements Serializable {
       LogArrayData.Factory arrayFactory,
       LogMapData.Factory mapFactory) {
     this.factory = factory;
+    this.binaryDeserialization =
+        new LogDataBinaryDeserialization<>(schema, factory, arrayFactory, mapFactory);
     this.jsonToLogDataConverter =
         new JsonToLogDataConverters<>(factory, arrayFactory, mapFactory)
             .createConverter(schema.asStruct());
@@ -87,6 +92,9 @@ public class LogDataJsonDeserialization<T> implements Serializable {
     try {
       checkArgument(message != null, "message is null.");
       checkArgument(message.length >= ROW_BEGINNING_POS, "message is illegal.");
+      if (isBinaryFormat(message)) {
+        return binaryDeserialization.deserialize(message);
+      }
       byte[] versionBytes = Bytes.subByte(message, 0, 4);
       byte[] upstreamIdBytes = Bytes.subByte(message, 4, 4);
       long epicNo = Longs.fromByteArray(Bytes.subByte(message, 8, 8));
@@ -101,8 +109,8 @@ public class LogDataJsonDeserialization<T> implements Serializable {
         return factory.create(null, versionBytes, upstreamIdBytes, epicNo, true, changeActionByte);
       }
 
-      byte[] actualValueBytes = Bytes.subByte(message, 18, message.length - 18);
-      final JsonNode root = objectMapper.readTree(actualValueBytes);
+      final JsonNode root =
+          objectMapper.readTree(message, ROW_BEGINNING_POS, message.length - ROW_BEGINNING_POS);
       actualValue = (T) jsonToLogDataConverter.convert(root, null);
       return factory.create(
           actualValue, versionBytes, upstreamIdBytes, epicNo, false, changeActionByte);
@@ -111,4 +119,14 @@ public class LogDataJsonDeserialization<T> implements Serializable {
       throw t;
     }
   }
+
+  private static boolean isBinaryFormat(byte[] message) {
+    byte[] v2 = FormatVersion.FORMAT_VERSION_V2.asBytes();
+    for (int i = 0; i < v2.length; i++) {
+      if (message[i] != v2[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
 }
@@ -24,8 +24,12 @@ import com.netease.arctic.log.LogData.FieldGetterFactory;
 import org.apache.iceberg.Schema;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
-/** Serialization that serializes an instance of {@link LogData} into a JSON bytes. */
+/**
+ * Serialization that serializes an instance of {@link LogData} into a JSON bytes. Elements of
+ * {@link FormatVersion#FORMAT_VERSION_V2} are serialized by {@link LogDataBinarySerialization}.
+ */
 public class LogDataJsonSerialization<T> implements Serializable {
   private static final long serialVersionUID = 66420071549145794L;
   private transient LogDataToJsonConverters.LogDataToJsonConverter<T> logDataToJsonConverter;
@@ -41,6 +45,8 @@ public class LogDataJsonSerialization<T> implements Serializable {
   private transient LogDataToJsonConverters.LogDataToJsonConverter.FormatConverterContext
       converterContext;
 
+  private transient LogDataBinarySerialization<T> binarySerialization;
+
   public LogDataJsonSerialization(Schema schema, FieldGetterFactory<T> fieldGetterFactory) {
     this.schema = schema;
     this.fieldGetterFactory = fieldGetterFactory;
@@ -54,6 +60,12 @@ public class LogDataJsonSerialization<T> implements Serializable {
   }
 
   public byte[] serialize(LogData<T> element) {
+    if (Arrays.equals(FormatVersion.FORMAT_VERSION_V2.asBytes(), element.getVersionBytes())) {
+      if (binarySerialization == null) {
+        binarySerialization = new LogDataBinarySerialization<>(schema, fieldGetterFactory);
+      }
+      return binarySerialization.serialize(element);
+    }
     // 4 bytes version + 4 bytes upstreamId + 8 bytes EpicNo + 1 byte flip + 1 byte rowKind + n
     // bytes object data
     MessageBytes messageBytes = new MessageBytes();
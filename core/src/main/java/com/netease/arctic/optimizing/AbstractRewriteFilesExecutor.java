@@ -30,17 +30,20 @@ import com.netease.arctic.utils.map.StructLikeCollections;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.iceberg.ContentFile;
 import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DataFiles;
 import org.apache.iceberg.DeleteFile;
 import org.apache.iceberg.FileContent;
 import org.apache.iceberg.FileFormat;
 import org.apache.iceberg.MetadataColumns;
 import org.apache.iceberg.MetricsModes;
 import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.SortOrder;
 import org.apache.iceberg.StructLike;
 import org.apache.iceberg.data.GenericAppenderFactory;
 import org.apache.iceberg.data.Record;
 import org.apache.iceberg.deletes.PositionDelete;
 import org.apache.iceberg.encryption.EncryptionManager;
+import org.apache.iceberg.io.CloseableIterable;
 import org.apache.iceberg.io.CloseableIterator;
 import org.apache.iceberg.io.DeleteWriteResult;
 import org.apache.iceberg.io.FileAppenderFactory;
@@ -51,10 +54,11 @@ import org.apache.iceberg.util.PropertyUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * An abstract OptimizingExecutor implementation that rewrites the rewrittenDataFiles in
@@ -75,6 +79,13 @@ public abstract class AbstractRewriteFilesExecutor
 
   protected StructLikeCollections structLikeCollections;
 
+  // execution profile, the reading time includes the time loading delete files
+  private long readAndWriteNanos;
+  private long writeNanos;
+  private long outputCloseNanos;
+  private long readRecordCnt;
+  private long writeRecordCnt;
+
   public AbstractRewriteFilesExecutor(
       RewriteFilesInput input, ArcticTable table, StructLikeCollections structLikeCollections) {
     this.input = input;
@@ -119,10 +130,12 @@ public abstract class AbstractRewriteFilesExecutor
   private List<DeleteFile> equalityToPosition() throws Exception {
     FileWriter<PositionDelete<Record>, DeleteWriteResult> posDeleteWriter = posWriter();
 
+    long startNanos = System.nanoTime();
     try (CloseableIterator<Record> iterator = dataReader.readDeletedData().iterator()) {
       PositionDelete<Record> positionDelete = PositionDelete.create();
       while (iterator.hasNext()) {
         Record record = iterator.next();
+        readRecordCnt++;
         String filePath = (String) record.getField(MetadataColumns.FILE_PATH.name());
         Long rowPosition = (Long) record.getField(MetadataColumns.ROW_POSITION.name());
         positionDelete.set(filePath, rowPosition, null);
@@ -132,10 +145,16 @@ public abstract class AbstractRewriteFilesExecutor
                   (Long) record.getField(com.netease.arctic.table.MetadataColumns.TREE_NODE_NAME));
           ((SetTreeNode) posDeleteWriter).setTreeNode(dataTreeNode);
         }
+        long writeStartNanos = System.nanoTime();
         posDeleteWriter.write(positionDelete);
+        writeNanos += System.nanoTime() - writeStartNanos;
+        writeRecordCnt++;
       }
     } finally {
+      long closeStartNanos = System.nanoTime();
+      readAndWriteNanos += closeStartNanos - startNanos;
       posDeleteWriter.close();
+      outputCloseNanos += System.nanoTime() - closeStartNanos;
     }
 
     return posDeleteWriter.result().deleteFiles();
@@ -144,21 +163,59 @@ public abstract class AbstractRewriteFilesExecutor
   private List<DataFile> rewriterDataFiles() throws Exception {
     List<DataFile> result = Lists.newArrayList();
     TaskWriter<Record> writer = dataWriter();
+    OptimizingSortOrder sortOrder = OptimizingSortOrder.of(table);
 
-    try (CloseableIterator<Record> records = dataReader.readData().iterator()) {
+    long startNanos = System.nanoTime();
+    try (CloseableIterable<Record> data = readData(sortOrder);
+        CloseableIterator<Record> records = data.iterator()) {
       while (records.hasNext()) {
         Record record = records.next();
+        readRecordCnt++;
+        long writeStartNanos = System.nanoTime();
         writer.write(record);
+        writeNanos += System.nanoTime() - writeStartNanos;
+        writeRecordCnt++;
       }
     } finally {
+      long closeStartNanos = System.nanoTime();
+      readAndWriteNanos += closeStartNanos - startNanos;
       writer.close();
+      outputCloseNanos += System.nanoTime() - closeStartNanos;
     }
 
-    result.addAll(Arrays.asList(writer.dataFiles()));
+    SortOrder tableSortOrder = sortOrder.tableSortOrder(table);
+    for (DataFile dataFile : writer.dataFiles()) {
+      if (tableSortOrder != null) {
+        dataFile =
+            DataFiles.builder(table.spec()).copy(dataFile).withSortOrder(tableSortOrder).build();
+      }
+      result.add(dataFile);
+    }
 
     return result;
   }
 
+  /**
+   * Reads the data sorted by the sort order of the optimizing output, spilling the records by the
+   * spill map settings of the task. If spilling is disabled, the records beyond {@link
+   * ExternalRecordSorter#DEFAULT_MAX_IN_MEMORY_SIZE_IN_BYTES} are still spilled to the temporary
+   * directory rather than buffering the whole task in memory.
+   */
+  private CloseableIterable<Record> readData(OptimizingSortOrder sortOrder) throws IOException {
+    if (!sortOrder.isSorted()) {
+      return dataReader.readData();
+    }
+    LOG.info("Sort the output of table {} by {}", table.id(), sortOrder);
+    ExternalRecordSorter sorter =
+        new ExternalRecordSorter(
+            sortOrder::sortKey,
+            structLikeCollections.isSpillable()
+                ? structLikeCollections.maxInMemorySizeInBytes()
+                : null,
+            structLikeCollections.backendBaseDir());
+    return sorter.sort(dataReader.readData());
+  }
+
   protected FileFormat dataFileFormat() {
     String formatAsString =
         table.properties().getOrDefault(DEFAULT_FILE_FORMAT, DEFAULT_FILE_FORMAT_DEFAULT);
@@ -240,6 +297,18 @@ public abstract class AbstractRewriteFilesExecutor
     summary.setPosDeleteFileTotalSize(posDeleteFileTotalSize);
     summary.setExecuteDuration(duration);
 
+    dataReader.collectSummary(summary);
+    long deleteLoadDuration = summary.getDeleteLoadDuration();
+    long writeDuration = TimeUnit.NANOSECONDS.toMillis(writeNanos);
+    summary.setReadDuration(
+        Math.max(
+            TimeUnit.NANOSECONDS.toMillis(readAndWriteNanos) - writeDuration - deleteLoadDuration,
+            0));
+    summary.setWriteDuration(writeDuration);
+    summary.setOutputCloseDuration(TimeUnit.NANOSECONDS.toMillis(outputCloseNanos));
+    summary.setReadRecordCnt(readRecordCnt);
+    summary.setWriteRecordCnt(writeRecordCnt);
+
     return summary.getSummary();
   }
 }
@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.optimizing;
+
+import com.netease.arctic.ArcticIOException;
+import com.netease.arctic.utils.map.RocksDBBackend;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.avro.AvroSchemaUtil;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.data.avro.DataReader;
+import org.apache.iceberg.data.avro.DataWriter;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.io.CloseableIterator;
+import org.apache.iceberg.relocated.com.google.common.primitives.UnsignedBytes;
+import org.apache.iceberg.types.Types;
+
+import javax.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Sorts records by their sort keys, see {@link OptimizingSortOrder#sortKey(Record)}.
+ *
+ * <p>Records are serialized and buffered in memory. Once the buffer exceeds the max in-memory size,
+ * it is spilled to a column family of {@link RocksDBBackend}, which keeps the records ordered by
+ * their keys on disk, and the sorted records are read from it at last. Records of equal keys keep
+ * the order they are added. The column family is dropped if the sorting fails.
+ */
+public class ExternalRecordSorter {
+
+  /** The max in-memory size if not specified, since a rewrite task may read a lot of records. */
+  public static final long DEFAULT_MAX_IN_MEMORY_SIZE_IN_BYTES = 128L * 1024 * 1024;
+
+  // estimated memory of a buffered entry besides the key and the value
+  private static final int ENTRY_OVERHEAD = 64;
+  private static final Comparator<byte[]> KEY_COMPARATOR =
+      UnsignedBytes.lexicographicalComparator();
+
+  private final Function<Record, byte[]> sortKey;
+  private final long maxInMemorySizeInBytes;
+  private final String backendBaseDir;
+
+  private RecordSerializer serializer;
+  private RocksDBBackend rocksDB;
+  private String columnFamily;
+  private long spilledBytes;
+
+  /**
+   * @param sortKey the function calculating the sort key of a record
+   * @param maxInMemorySizeInBytes the max size of records buffered in memory, or null to use {@link
+   *     #DEFAULT_MAX_IN_MEMORY_SIZE_IN_BYTES}
+   * @param backendBaseDir the directory of the RocksDB spilling records, or null to use the
+   *     temporary directory
+   */
+  public ExternalRecordSorter(
+      Function<Record, byte[]> sortKey,
+      @Nullable Long maxInMemorySizeInBytes,
+      @Nullable String backendBaseDir) {
+    this.sortKey = sortKey;
+    this.maxInMemorySizeInBytes =
+        maxInMemorySizeInBytes == null
+            ? DEFAULT_MAX_IN_MEMORY_SIZE_IN_BYTES
+            : maxInMemorySizeInBytes;
+    this.backendBaseDir = backendBaseDir;
+  }
+
+  /**
+   * Reads all the records and returns them sorted. The spilled records are dropped when the result
+   * is closed.
+   */
+  public CloseableIterable<Record> sort(CloseableIterable<Record> records) throws IOException {
+    List<Entry> buffer = new ArrayList<>();
+    long bufferSize = 0;
+    long sequence = 0;
+    try {
+      try (CloseableIterator<Record> iterator = records.iterator()) {
+        while (iterator.hasNext()) {
+          Record record = iterator.next();
+          if (serializer == null) {
+            serializer = new RecordSerializer(record.struct());
+          }
+          Entry entry = new Entry(sortKey.apply(record), sequence++, serializer.serialize(record));
+          buffer.add(entry);
+          bufferSize += entry.key.length + entry.value.length + ENTRY_OVERHEAD;
+          if (bufferSize > maxInMemorySizeInBytes) {
+            spill(buffer);
+            buffer.clear();
+            bufferSize = 0;
+          }
+        }
+      }
+
+      if (columnFamily == null) {
+        buffer.sort(Comparator.comparing((Entry entry) -> entry.key, KEY_COMPARATOR));
+        return CloseableIterable.transform(
+            CloseableIterable.withNoopClose(buffer), entry -> serializer.deserialize(entry.value));
+      }
+      spill(buffer);
+      buffer.clear();
+    } catch (IOException | RuntimeException e) {
+      // nobody closes the spilled records of a failed sorting
+      dropSpilledRecords();
+      throw e;
+    }
+    return new SpilledRecords();
+  }
+
+  /** Number of bytes of the records spilled to disk. */
+  public long spilledBytes() {
+    return spilledBytes;
+  }
+
+  private void spill(List<Entry> entries) {
+    if (columnFamily == null) {
+      rocksDB = RocksDBBackend.getOrCreateInstance(backendBaseDir);
+      columnFamily = UUID.randomUUID().toString();
+      rocksDB.addColumnFamily(columnFamily);
+    }
+    for (Entry entry : entries) {
+      // the sequence makes the keys unique and keeps the order of equal keys
+      byte[] key =
+          ByteBuffer.allocate(entry.key.length + Long.BYTES)
+              .put(entry.key)
+              .putLong(entry.sequence)
+              .array();
+      rocksDB.put(columnFamily, key, entry.value);
+      spilledBytes += key.length + entry.value.length;
+    }
+  }
+
+  private void dropSpilledRecords() {
+    if (columnFamily != null) {
+      rocksDB.dropColumnFamily(columnFamily);
+      columnFamily = null;
+    }
+  }
+
+  private static class Entry {
+    private final byte[] key;
+    private final long sequence;
+    private final byte[] value;
+
+    private Entry(byte[] key, long sequence, byte[] value) {
+      this.key = key;
+      this.sequence = sequence;
+      this.value = value;
+    }
+  }
+
+  private class SpilledRecords implements CloseableIterable<Record> {
+
+    private final List<RocksDBBackend.ValueIterator> iterators = new ArrayList<>();
+
+    @Override
+    public CloseableIterator<Record> iterator() {
+      RocksDBBackend.ValueIterator values =
+          (RocksDBBackend.ValueIterator) rocksDB.values(columnFamily);
+      iterators.add(values);
+      return CloseableIterator.withClose(
+          new Iterator<Record>() {
+            @Override
+            public boolean hasNext() {
+              return values.hasNext();
+            }
+
+            @Override
+            public Record next() {
+              return serializer.deserialize(values.next());
+            }
+          });
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        for (RocksDBBackend.ValueIterator iterator : iterators) {
+          iterator.close();
+        }
+      } catch (Exception e) {
+        throw new IOException("Failed to close the iterator of spilled records", e);
+      } finally {
+        iterators.clear();
+        dropSpilledRecords();
+      }
+    }
+  }
+
+  /** Serializes records by the avro binary encoding of the iceberg generic data. */
+  private static class RecordSerializer {
+    private final DataWriter<Record> writer;
+    private final DataReader<Record> reader;
+    private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    private BinaryEncoder encoder;
+    private BinaryDecoder decoder;
+
+    private RecordSerializer(Types.StructType type) {
+      Schema schema = new Schema(type.fields());
+      org.apache.avro.Schema avroSchema = AvroSchemaUtil.convert(schema, "record");
+      this.writer = DataWriter.create(avroSchema);
+      this.reader = DataReader.create(schema, avroSchema);
+      reader.setSchema(avroSchema);
+    }
+
+    private byte[] serialize(Record record) {
+      outputStream.reset();
+      encoder = EncoderFactory.get().directBinaryEncoder(outputStream, encoder);
+      try {
+        writer.write(record, encoder);
+      } catch (IOException e) {
+        throw new ArcticIOException(e);
+      }
+      return outputStream.toByteArray();
+    }
+
+    private Record deserialize(byte[] bytes) {
+      decoder = DecoderFactory.get().binaryDecoder(bytes, decoder);
+      try {
+        return reader.read(null, decoder);
+      } catch (IOException e) {
+        throw new ArcticIOException(e);
+      }
+    }
+  }
+}
@@ -38,6 +38,9 @@ public interface OptimizingDataReader extends Closeable {
    */
   CloseableIterable<Record> readDeletedData();
 
+  /** Add the statistics of reading, like the time spent loading delete files, to the summary. */
+  default void collectSummary(OptimizingTaskSummary summary) {}
+
   /** Close the reader */
   void close();
 }
@@ -0,0 +1,418 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.optimizing;
+
+import com.netease.arctic.table.ArcticTable;
+import com.netease.arctic.table.TableProperties;
+import org.apache.iceberg.Accessor;
+import org.apache.iceberg.NullOrder;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.SortDirection;
+import org.apache.iceberg.SortField;
+import org.apache.iceberg.SortOrder;
+import org.apache.iceberg.StructLike;
+import org.apache.iceberg.data.InternalRecordWrapper;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.relocated.com.google.common.base.Preconditions;
+import org.apache.iceberg.types.Type;
+import org.apache.iceberg.types.Types;
+import org.apache.iceberg.util.ByteBuffers;
+import org.apache.iceberg.util.SerializableFunction;
+import org.apache.iceberg.util.ZOrderByteUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * The order of the records written by the optimizing tasks, configured by {@link
+ * TableProperties#SELF_OPTIMIZING_SORT_ORDER}. It is either a linear order or a Z-order of some
+ * columns.
+ *
+ * <p>Records are sorted by their sort keys, which are byte arrays encoded so that the unsigned
+ * lexicographical order of the keys is the order of the records. This allows the keys to be spilled
+ * and sorted by an ordered key-value store, see {@link ExternalRecordSorter}.
+ */
+public class OptimizingSortOrder {
+
+  public static final String NONE = "none";
+  public static final String PRIMARY_KEY = "primary-key";
+  public static final String TABLE = "table";
+
+  private static final String Z_ORDER_PREFIX = "zorder(";
+  private static final int Z_ORDER_COLUMN_BYTES = ZOrderByteUtils.PRIMITIVE_BUFFER_SIZE;
+  private static final byte NULL_FIRST = 0x00;
+  private static final byte NOT_NULL = 0x01;
+  private static final byte NULL_LAST = 0x02;
+
+  private static final OptimizingSortOrder UNSORTED =
+      new OptimizingSortOrder(SortOrder.unsorted(), null);
+
+  // the linear order, unsorted for a Z-order
+  private final SortOrder sortOrder;
+  private final List<Types.NestedField> zOrderColumns;
+
+  private Types.StructType recordType;
+  private InternalRecordWrapper internalWrapper;
+  private List<Accessor<StructLike>> accessors;
+  private List<SerializableFunction<Object, Object>> transforms;
+  private List<Type> keyTypes;
+  private CharsetEncoder encoder;
+
+  private OptimizingSortOrder(SortOrder sortOrder, List<Types.NestedField> zOrderColumns) {
+    this.sortOrder = sortOrder;
+    this.zOrderColumns = zOrderColumns;
+  }
+
+  public static OptimizingSortOrder unsorted() {
+    return UNSORTED;
+  }
+
+  public static OptimizingSortOrder linear(SortOrder sortOrder) {
+    for (SortField field : sortOrder.fields()) {
+      Type sourceType = sortOrder.schema().findType(field.sourceId());
+      checkSortable(field.transform().getResultType(sourceType));
+    }
+    return sortOrder.isSorted() ? new OptimizingSortOrder(sortOrder, null) : UNSORTED;
+  }
+
+  public static OptimizingSortOrder zOrder(Schema schema, List<String> columns) {
+    Preconditions.checkArgument(!columns.isEmpty(), "Z-order requires at least one column");
+    List<Types.NestedField> fields = new ArrayList<>(columns.size());
+    for (String column : columns) {
+      Types.NestedField field = schema.caseInsensitiveFindField(column);
+      Preconditions.checkArgument(field != null, "Cannot find z-order column %s", column);
+      checkSortable(field.type());
+      fields.add(field);
+    }
+    return new OptimizingSortOrder(SortOrder.unsorted(), fields);
+  }
+
+  /**
+   * Resolves the sort order of the optimizing output of a table by {@link
+   * TableProperties#SELF_OPTIMIZING_SORT_ORDER}, which is one of:
+   *
+   * <ul>
+   *   <li>{@code none}: records are written in the order they are read
+   *   <li>{@code primary-key}: ascending by the primary key of a keyed table
+   *   <li>{@code table}: by the sort order of the table
+   *   <li>{@code zorder(c1, c2, ...)}: by the Z-order of the columns
+   *   <li>{@code c1 [asc|desc] [nulls first|nulls last], ...}: by the columns
+   * </ul>
+   */
+  public static OptimizingSortOrder of(ArcticTable table) {
+    String value =
+        table
+            .properties()
+            .getOrDefault(
+                TableProperties.SELF_OPTIMIZING_SORT_ORDER,
+                TableProperties.SELF_OPTIMIZING_SORT_ORDER_DEFAULT)
+            .trim();
+    String lowerCaseValue = value.toLowerCase(Locale.ROOT);
+    Schema schema = table.schema();
+    if (lowerCaseValue.isEmpty() || NONE.equals(lowerCaseValue)) {
+      return UNSORTED;
+    } else if (PRIMARY_KEY.equals(lowerCaseValue)) {
+      Preconditions.checkArgument(
+          table.isKeyedTable(), "Cannot sort by primary key of unkeyed table %s", table.name());
+      SortOrder.Builder builder = SortOrder.builderFor(schema);
+      table
+          .asKeyedTable()
+          .primaryKeySpec()
+          .fieldNames()
+          .forEach(name -> builder.asc(name, NullOrder.NULLS_FIRST));
+      return linear(builder.build());
+    } else if (TABLE.equals(lowerCaseValue)) {
+      return linear(
+          table.isKeyedTable()
+              ? table.asKeyedTable().baseTable().sortOrder()
+              : table.asUnkeyedTable().sortOrder());
+    } else if (lowerCaseValue.startsWith(Z_ORDER_PREFIX) && lowerCaseValue.endsWith(")")) {
+      String columns = value.substring(Z_ORDER_PREFIX.length(), value.length() - 1);
+      return zOrder(
+          schema,
+          Arrays.stream(columns.split(","))
+              .map(String::trim)
+              .filter(column -> !column.isEmpty())
+              .collect(Collectors.toList()));
+    } else {
+      return linear(parseLinearOrder(schema, value));
+    }
+  }
+
+  private static SortOrder parseLinearOrder(Schema schema, String value) {
+    SortOrder.Builder builder = SortOrder.builderFor(schema).caseSensitive(false);
+    for (String field : value.split(",")) {
+      String[] tokens = field.trim().toLowerCase(Locale.ROOT).split("\\s+");
+      Preconditions.checkArgument(
+          !tokens[0].isEmpty() && tokens.length <= 4, "Invalid sort order: %s", value);
+      SortDirection direction = SortDirection.ASC;
+      int pos = 1;
+      if (pos < tokens.length && ("asc".equals(tokens[pos]) || "desc".equals(tokens[pos]))) {
+        direction = SortDirection.valueOf(tokens[pos].toUpperCase(Locale.ROOT));
+        pos++;
+      }
+      // nulls are first in ascending order and last in descending order by default
+      NullOrder nullOrder =
+          direction == SortDirection.ASC ? NullOrder.NULLS_FIRST : NullOrder.NULLS_LAST;
+      if (pos + 1 < tokens.length && "nulls".equals(tokens[pos])) {
+        Preconditions.checkArgument(
+            "first".equals(tokens[pos + 1]) || "last".equals(tokens[pos + 1]),
+            "Invalid sort order: %s",
+            value);
+        nullOrder = "first".equals(tokens[pos + 1]) ? NullOrder.NULLS_FIRST : NullOrder.NULLS_LAST;
+        pos += 2;
+      }
+      Preconditions.checkArgument(pos == tokens.length, "Invalid sort order: %s", value);
+      builder.sortBy(tokens[0], direction, nullOrder);
+    }
+    return builder.build();
+  }
+
+  private static Map<Integer, SortOrder> tableSortOrders(ArcticTable table) {
+    return table.isKeyedTable()
+        ? table.asKeyedTable().baseTable().sortOrders()
+        : table.asUnkeyedTable().sortOrders();
+  }
+
+  private static void checkSortable(Type type) {
+    switch (type.typeId()) {
+      case BOOLEAN:
+      case INTEGER:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+      case DATE:
+      case TIME:
+      case TIMESTAMP:
+      case STRING:
+      case UUID:
+      case FIXED:
+      case BINARY:
+        return;
+      case DECIMAL:
+        Preconditions.checkArgument(
+            ((Types.DecimalType) type).precision() <= 18,
+            "Cannot sort by decimal with precision over 18: %s",
+            type);
+        return;
+      default:
+        throw new IllegalArgumentException("Cannot sort by type " + type);
+    }
+  }
+
+  public boolean isSorted() {
+    return sortOrder.isSorted() || zOrderColumns != null;
+  }
+
+  /**
+   * Returns the sort order of the table equal to this order, whose id is recorded in the written
+   * data files, or null if this order is not a sort order of the table, e.g. a Z-order.
+   */
+  public SortOrder tableSortOrder(ArcticTable table) {
+    if (!sortOrder.isSorted()) {
+      return null;
+    }
+    return tableSortOrders(table).values().stream()
+        .filter(sortOrder::sameOrder)
+        .findFirst()
+        .orElse(null);
+  }
+
+  /** Returns the sort key of a record. The record is not kept, so it may be reused by readers. */
+  public byte[] sortKey(Record record) {
+    Preconditions.checkState(isSorted(), "Cannot get the sort key of unsorted order");
+    if (record.struct() != recordType && !record.struct().equals(recordType)) {
+      bind(record.struct());
+    }
+    StructLike internalRecord = internalWrapper.wrap(record);
+    if (zOrderColumns != null) {
+      return zOrderKey(internalRecord);
+    }
+    ByteArrayOutputStream key = new ByteArrayOutputStream();
+    for (int i = 0; i < accessors.size(); i++) {
+      SortField field = sortOrder.fields().get(i);
+      Object value = transforms.get(i).apply(accessors.get(i).get(internalRecord));
+      if (value == null) {
+        key.write(field.nullOrder() == NullOrder.NULLS_FIRST ? NULL_FIRST : NULL_LAST);
+        continue;
+      }
+      key.write(NOT_NULL);
+      byte[] valueKey = valueKey(keyTypes.get(i), value);
+      if (field.direction() == SortDirection.DESC) {
+        for (int j = 0; j < valueKey.length; j++) {
+          valueKey[j] = (byte) ~valueKey[j];
+        }
+      }
+      key.write(valueKey, 0, valueKey.length);
+    }
+    return key.toByteArray();
+  }
+
+  @SuppressWarnings("unchecked")
+  private void bind(Types.StructType type) {
+    Schema schema = new Schema(type.fields());
+    List<Integer> sourceIds =
+        zOrderColumns != null
+            ? zOrderColumns.stream().map(Types.NestedField::fieldId).collect(Collectors.toList())
+            : sortOrder.fields().stream().map(SortField::sourceId).collect(Collectors.toList());
+    accessors = new ArrayList<>(sourceIds.size());
+    transforms = new ArrayList<>(sourceIds.size());
+    keyTypes = new ArrayList<>(sourceIds.size());
+    for (int i = 0; i < sourceIds.size(); i++) {
+      Accessor<StructLike> accessor = schema.accessorForField(sourceIds.get(i));
+      Preconditions.checkArgument(
+          accessor != null, "Cannot find sort field %s in %s", sourceIds.get(i), type);
+      accessors.add(accessor);
+      if (zOrderColumns != null) {
+        transforms.add(value -> value);
+        keyTypes.add(accessor.type());
+      } else {
+        SortField field = sortOrder.fields().get(i);
+        transforms.add(
+            (SerializableFunction<Object, Object>) field.transform().bind(accessor.type()));
+        keyTypes.add(field.transform().getResultType(accessor.type()));
+      }
+    }
+    this.internalWrapper = new InternalRecordWrapper(type);
+    this.encoder = StandardCharsets.UTF_8.newEncoder();
+    this.recordType = type;
+  }
+
+  private byte[] zOrderKey(StructLike internalRecord) {
+    byte[][] columns = new byte[accessors.size()][];
+    for (int i = 0; i < accessors.size(); i++) {
+      columns[i] = zOrderColumnKey(keyTypes.get(i), accessors.get(i).get(internalRecord));
+    }
+    return ZOrderByteUtils.interleaveBits(
+        columns,
+        columns.length * Z_ORDER_COLUMN_BYTES,
+        ByteBuffer.allocate(columns.length * Z_ORDER_COLUMN_BYTES));
+  }
+
+  private byte[] zOrderColumnKey(Type type, Object value) {
+    ByteBuffer buffer = ByteBuffer.allocate(Z_ORDER_COLUMN_BYTES);
+    if (value == null) {
+      return buffer.array();
+    }
+    switch (type.typeId()) {
+      case STRING:
+        return ZOrderByteUtils.stringToOrderedBytes(
+                value.toString(), Z_ORDER_COLUMN_BYTES, buffer, encoder)
+            .array();
+      case UUID:
+      case FIXED:
+      case BINARY:
+        return ZOrderByteUtils.byteTruncateOrFill(valueBytes(value), Z_ORDER_COLUMN_BYTES, buffer)
+            .array();
+      default:
+        return primitiveKey(type, value, buffer);
+    }
+  }
+
+  /**
+   * Encodes a non-null value. All encodings are either fixed length or terminated, so the keys of
+   * the following fields are compared only if the values are equal.
+   */
+  private static byte[] valueKey(Type type, Object value) {
+    ByteArrayOutputStream key = new ByteArrayOutputStream();
+    switch (type.typeId()) {
+      case STRING:
+      case UUID:
+      case FIXED:
+      case BINARY:
+        // escape 0x00 as 0x00 0xFF and terminate by 0x00 0x00, which is less than any escaped byte
+        for (byte b : valueBytes(value)) {
+          key.write(b);
+          if (b == 0) {
+            key.write(0xFF);
+          }
+        }
+        key.write(0);
+        key.write(0);
+        break;
+      default:
+        byte[] bytes =
+            primitiveKey(type, value, ByteBuffer.allocate(ZOrderByteUtils.PRIMITIVE_BUFFER_SIZE));
+        key.write(bytes, 0, bytes.length);
+    }
+    return key.toByteArray();
+  }
+
+  private static byte[] primitiveKey(Type type, Object value, ByteBuffer buffer) {
+    switch (type.typeId()) {
+      case BOOLEAN:
+        return ZOrderByteUtils.tinyintToOrderedBytes((byte) ((Boolean) value ? 1 : 0), buffer)
+            .array();
+      case INTEGER:
+      case DATE:
+        return ZOrderByteUtils.intToOrderedBytes((Integer) value, buffer).array();
+      case LONG:
+      case TIME:
+      case TIMESTAMP:
+        return ZOrderByteUtils.longToOrderedBytes((Long) value, buffer).array();
+      case FLOAT:
+        return ZOrderByteUtils.floatToOrderedBytes((Float) value, buffer).array();
+      case DOUBLE:
+        return ZOrderByteUtils.doubleToOrderedBytes((Double) value, buffer).array();
+      case DECIMAL:
+        // the scale of all values is the one of the type, so the unscaled values are ordered
+        return ZOrderByteUtils.longToOrderedBytes(
+                ((BigDecimal) value).unscaledValue().longValueExact(), buffer)
+            .array();
+      default:
+        throw new IllegalArgumentException("Cannot sort by type " + type);
+    }
+  }
+
+  private static byte[] valueBytes(Object value) {
+    if (value instanceof CharSequence) {
+      return value.toString().getBytes(StandardCharsets.UTF_8);
+    } else if (value instanceof UUID) {
+      UUID uuid = (UUID) value;
+      return ByteBuffer.allocate(16)
+          .putLong(uuid.getMostSignificantBits())
+          .putLong(uuid.getLeastSignificantBits())
+          .array();
+    } else if (value instanceof ByteBuffer) {
+      return ByteBuffers.toByteArray((ByteBuffer) value);
+    } else {
+      return (byte[]) value;
+    }
+  }
+
+  @Override
+  public String toString() {
+    if (zOrderColumns != null) {
+      return "zorder("
+          + zOrderColumns.stream().map(Types.NestedField::name).collect(Collectors.joining(", "))
+          + ")";
+    }
+    return sortOrder.toString();
+  }
+}
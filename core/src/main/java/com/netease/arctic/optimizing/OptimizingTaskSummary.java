@@ -37,6 +37,27 @@ public class OptimizingTaskSummary {
 
   public static final String EXECUTE_DURATION = "executor_duration";
 
+  /** Time spent reading and merging input records, excluding loading delete files. */
+  public static final String READ_DURATION = "read_duration";
+
+  /** Time spent loading delete files into the equality delete map and position bitmaps. */
+  public static final String DELETE_LOAD_DURATION = "delete_load_duration";
+
+  public static final String WRITE_DURATION = "write_duration";
+
+  /** Time spent closing writers, which flushes and uploads the output files. */
+  public static final String OUTPUT_CLOSE_DURATION = "output_close_duration";
+
+  public static final String READ_RECORD_CNT = "read_record_cnt";
+
+  public static final String WRITE_RECORD_CNT = "write_record_cnt";
+
+  /** Bytes of the equality delete map spilled to disk. */
+  public static final String SPILL_SIZE = "spill_size";
+
+  /** Estimated peak memory used by the in-memory part of the equality delete map. */
+  public static final String PEAK_MEMORY_SIZE = "peak_memory_size";
+
   private final Map<String, String> summary = new HashMap<>();
 
   public void setDataFileCnt(int dataFileCnt) {
@@ -67,6 +88,42 @@ public class OptimizingTaskSummary {
     summary.put(EXECUTE_DURATION, String.valueOf(executeDuration));
   }
 
+  public void setReadDuration(long readDuration) {
+    summary.put(READ_DURATION, String.valueOf(readDuration));
+  }
+
+  public void setDeleteLoadDuration(long deleteLoadDuration) {
+    summary.put(DELETE_LOAD_DURATION, String.valueOf(deleteLoadDuration));
+  }
+
+  public long getDeleteLoadDuration() {
+    return Long.parseLong(summary.getOrDefault(DELETE_LOAD_DURATION, "0"));
+  }
+
+  public void setWriteDuration(long writeDuration) {
+    summary.put(WRITE_DURATION, String.valueOf(writeDuration));
+  }
+
+  public void setOutputCloseDuration(long outputCloseDuration) {
+    summary.put(OUTPUT_CLOSE_DURATION, String.valueOf(outputCloseDuration));
+  }
+
+  public void setReadRecordCnt(long readRecordCnt) {
+    summary.put(READ_RECORD_CNT, String.valueOf(readRecordCnt));
+  }
+
+  public void setWriteRecordCnt(long writeRecordCnt) {
+    summary.put(WRITE_RECORD_CNT, String.valueOf(writeRecordCnt));
+  }
+
+  public void setSpillSize(long spillSize) {
+    summary.put(SPILL_SIZE, String.valueOf(spillSize));
+  }
+
+  public void setPeakMemorySize(long peakMemorySize) {
+    summary.put(PEAK_MEMORY_SIZE, String.valueOf(peakMemorySize));
+  }
+
   public Map<String, String> getSummary() {
     return summary;
   }
@@ -21,6 +21,7 @@ package com.netease.arctic.scan;
 import com.netease.arctic.data.DataTreeNode;
 import com.netease.arctic.data.DefaultKeyedFile;
 import com.netease.arctic.scan.expressions.BasicPartitionEvaluator;
+import com.netease.arctic.scan.expressions.PrimaryKeyNodeEvaluator;
 import com.netease.arctic.table.BasicKeyedTable;
 import com.netease.arctic.table.TableProperties;
 import com.netease.arctic.utils.ArcticTableUtil;
@@ -61,7 +62,9 @@ public class BasicKeyedTableScan implements KeyedTableScan {
   private final long openFileCost;
   private final long splitSize;
   private Double splitTaskByDeleteRatio;
+  private SplitCostModel splitCostModel;
   private Expression expression;
+  private PrimaryKeyNodeEvaluator nodeEvaluator;
 
   public BasicKeyedTableScan(BasicKeyedTable table) {
     this.table = table;
@@ -83,7 +86,8 @@ public class BasicKeyedTableScan implements KeyedTableScan {
 
   /**
    * Config this scan with filter by the {@link Expression}. For Change Table, only filters related
-   * to partition will take effect.
+   * to partition will take effect. Equality and IN filters on all the primary key fields also skip
+   * the tree nodes which can not contain the keys.
    *
    * @param expr a filter expression
    * @return scan based on this with results filtered by the expression
@@ -112,6 +116,12 @@ public class BasicKeyedTableScan implements KeyedTableScan {
       changeFileList = CloseableIterable.empty();
     }
 
+    nodeEvaluator = new PrimaryKeyNodeEvaluator(table.schema(), table.primaryKeySpec(), expression);
+    if (!nodeEvaluator.isAlwaysTrue()) {
+      LOG.info(
+          "planning table {} only nodes containing the primary keys of {}", table.id(), expression);
+    }
+
     // 1. group files by partition
     StructLikeMap<Collection<ArcticFileScanTask>> partitionedFiles =
         groupFilesByPartition(table.spec(), changeFileList, baseFileList);
@@ -132,6 +142,12 @@ public class BasicKeyedTableScan implements KeyedTableScan {
     return this;
   }
 
+  @Override
+  public KeyedTableScan enableSplitTaskByCost(SplitCostModel splitCostModel) {
+    this.splitCostModel = splitCostModel;
+    return this;
+  }
+
   private CloseableIterable<ArcticFileScanTask> planBaseFiles() {
     TableScan scan = table.baseTable().newScan();
     if (this.expression != null) {
@@ -173,6 +189,15 @@ public class BasicKeyedTableScan implements KeyedTableScan {
               continue;
             }
 
+            if (splitCostModel != null) {
+              if (splitCostModel.cost(task) <= splitSize) {
+                splitTasks.add(task);
+              } else {
+                splitByCost(task);
+              }
+              continue;
+            }
+
             if (splitTaskByDeleteRatio != null) {
               long deleteWeight =
                   task.arcticEquityDeletes().stream()
@@ -216,6 +241,21 @@ public class BasicKeyedTableScan implements KeyedTableScan {
     splitTasks.addAll(Lists.newArrayList(tasksIterable));
   }
 
+  private void splitByCost(NodeFileScanTask task) {
+    long dataTargetCost = splitCostModel.dataTargetCost(splitCostModel.deleteCost(task), splitSize);
+    Function<ArcticFileScanTask, Long> weightFunc = splitCostModel::dataCost;
+    CloseableIterable<ArcticFileScanTask> splitFiles =
+        CloseableIterable.withNoopClose(task.dataTasks());
+    CloseableIterable<NodeFileScanTask> tasksIterable =
+        CloseableIterable.transform(
+            CloseableIterable.combine(
+                new BinPacking.PackingIterable<>(
+                    splitFiles, dataTargetCost, lookBack, weightFunc, true),
+                splitFiles),
+            datafiles -> packingTask(datafiles, task.arcticEquityDeletes()));
+    splitTasks.addAll(Lists.newArrayList(tasksIterable));
+  }
+
   public CloseableIterable<NodeFileScanTask> splitNode(
       CloseableIterable<ArcticFileScanTask> splitFiles,
       List<ArcticFileScanTask> deleteFiles,
@@ -243,7 +283,10 @@ public class BasicKeyedTableScan implements KeyedTableScan {
       long splitSize,
       int lookback,
       long openFileCost) {
-    Function<NodeFileScanTask, Long> weightFunc = file -> Math.max(file.cost(), openFileCost);
+    Function<NodeFileScanTask, Long> weightFunc =
+        splitCostModel == null
+            ? file -> Math.max(file.cost(), openFileCost)
+            : file -> Math.max(splitCostModel.cost(file), openFileCost);
     return CloseableIterable.transform(
         CloseableIterable.combine(
             new BinPacking.PackingIterable<>(splitFiles, splitSize, lookback, weightFunc, true),
@@ -274,7 +317,7 @@ public class BasicKeyedTableScan implements KeyedTableScan {
 
     nodeFileScanTaskMap.forEach(
         (treeNode, nodeFileScanTask) -> {
-          if (!nodeFileScanTask.isDataNode()) {
+          if (!isPlannedDataNode(nodeFileScanTask)) {
             return;
           }
 
@@ -295,7 +338,7 @@ public class BasicKeyedTableScan implements KeyedTableScan {
     List<NodeFileScanTask> fileScanTaskList = new ArrayList<>();
     nodeFileScanTaskMap.forEach(
         (treeNode, nodeFileScanTask) -> {
-          if (!nodeFileScanTask.isDataNode()) {
+          if (!isPlannedDataNode(nodeFileScanTask)) {
             return;
           }
           fileScanTaskList.add(nodeFileScanTask);
@@ -304,6 +347,14 @@ public class BasicKeyedTableScan implements KeyedTableScan {
     fileScanTasks.put(partition, fileScanTaskList);
   }
 
+  /**
+   * Data nodes which can not contain the primary keys of the filter are skipped, while their delete
+   * files are still attached to the remaining data nodes.
+   */
+  private boolean isPlannedDataNode(NodeFileScanTask nodeFileScanTask) {
+    return nodeFileScanTask.isDataNode() && nodeEvaluator.eval(nodeFileScanTask.treeNode());
+  }
+
   public StructLikeMap<Collection<ArcticFileScanTask>> groupFilesByPartition(
       PartitionSpec partitionSpec,
       CloseableIterable<ArcticFileScanTask> changeTasks,
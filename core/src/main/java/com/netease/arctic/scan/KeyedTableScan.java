@@ -45,4 +45,11 @@ public interface KeyedTableScan {
    * possible during execution.
    */
   KeyedTableScan enableSplitTaskByDeleteRatio(double splitTaskByDeleteRatio);
+
+  /**
+   * To enable the feature of splitting and combining tasks by the {@link SplitCostModel}, which
+   * takes records of change files and equality delete files re-read by each task into account. If
+   * enabled, it takes precedence over splitting tasks by delete ratio.
+   */
+  KeyedTableScan enableSplitTaskByCost(SplitCostModel splitCostModel);
 }
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.scan;
+
+import com.netease.arctic.data.DataFileType;
+import org.apache.iceberg.relocated.com.google.common.base.Preconditions;
+
+import java.io.Serializable;
+
+/**
+ * Estimate the cost of reading a {@link KeyedTableScanTask} in bytes, taking merge-on-read into
+ * account.
+ *
+ * <p>Besides the file size, every record of a change file costs {@code changeRecordCost}, since
+ * insert records are merged and equality delete records are loaded into memory. All equality delete
+ * files of a tree node are read again by every task split from the node, so the delete cost is paid
+ * once per task.
+ */
+public class SplitCostModel implements Serializable {
+
+  private final long openFileCost;
+  private final long changeRecordCost;
+
+  public SplitCostModel(long openFileCost, long changeRecordCost) {
+    Preconditions.checkArgument(openFileCost >= 0, "Open file cost must not be negative");
+    Preconditions.checkArgument(changeRecordCost >= 0, "Change record cost must not be negative");
+    this.openFileCost = openFileCost;
+    this.changeRecordCost = changeRecordCost;
+  }
+
+  /** Returns the cost of reading a base file or an insert file. */
+  public long dataCost(ArcticFileScanTask task) {
+    long cost = Math.max(task.file().fileSizeInBytes(), openFileCost);
+    if (task.file().type() == DataFileType.INSERT_FILE) {
+      cost += task.file().recordCount() * changeRecordCost;
+    }
+    return cost;
+  }
+
+  /** Returns the cost of reading all equality delete files of the task. */
+  public long deleteCost(KeyedTableScanTask task) {
+    long cost = 0;
+    for (ArcticFileScanTask delete : task.arcticEquityDeletes()) {
+      cost +=
+          Math.max(delete.file().fileSizeInBytes(), openFileCost)
+              + delete.file().recordCount() * changeRecordCost;
+    }
+    return cost;
+  }
+
+  /** Returns the cost of reading the task, including data files and equality delete files. */
+  public long cost(KeyedTableScanTask task) {
+    long cost = deleteCost(task);
+    for (ArcticFileScanTask data : task.dataTasks()) {
+      cost += dataCost(data);
+    }
+    return cost;
+  }
+
+  /**
+   * Returns the target cost of data files in each task split from a tree node, so that the task
+   * cost including the repeated delete cost approaches the target cost.
+   *
+   * <p>The data cost of a task is never less than its delete cost, which bounds the amplification
+   * of re-reading delete files to twice the node cost.
+   */
+  public long dataTargetCost(long deleteCost, long targetCost) {
+    return Math.max(targetCost - deleteCost, Math.max(deleteCost, openFileCost));
+  }
+}
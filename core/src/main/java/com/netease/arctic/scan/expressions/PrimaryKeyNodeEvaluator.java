@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.scan.expressions;
+
+import com.netease.arctic.data.DataTreeNode;
+import com.netease.arctic.data.PrimaryKeyData;
+import com.netease.arctic.table.PrimaryKeySpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.exceptions.ValidationException;
+import org.apache.iceberg.expressions.Binder;
+import org.apache.iceberg.expressions.BoundPredicate;
+import org.apache.iceberg.expressions.BoundReference;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.ExpressionVisitors;
+import org.apache.iceberg.expressions.UnboundPredicate;
+import org.apache.iceberg.types.Type;
+import org.apache.iceberg.types.Types;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Evaluates whether a {@link DataTreeNode} may contain rows matching a filter expression.
+ *
+ * <p>If the expression restricts every primary key field to a few values by equality or IN
+ * predicates, the tree nodes of all the key combinations are calculated the same way as the writer
+ * does by {@link PrimaryKeyData#treeNode(long)}, and only the nodes containing one of them may
+ * match. Otherwise, all the nodes may match.
+ */
+public class PrimaryKeyNodeEvaluator {
+
+  /** Stop pruning if the expression matches more keys than this. */
+  private static final int MAX_KEY_COMBINATIONS = 1024;
+
+  private final List<Integer> keyHashes;
+
+  public PrimaryKeyNodeEvaluator(
+      Schema schema, PrimaryKeySpec primaryKeySpec, Expression expression) {
+    this.keyHashes = keyHashes(schema, primaryKeySpec, expression);
+  }
+
+  /** Returns false only if the node can not contain any row matching the expression. */
+  public boolean eval(DataTreeNode node) {
+    if (keyHashes == null) {
+      return true;
+    }
+    for (int hash : keyHashes) {
+      if ((hash & node.mask()) == node.index()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns true if the expression does not restrict the primary key, so all nodes may match. */
+  public boolean isAlwaysTrue() {
+    return keyHashes == null;
+  }
+
+  private static List<Integer> keyHashes(
+      Schema schema, PrimaryKeySpec primaryKeySpec, Expression expression) {
+    if (expression == null || !primaryKeySpec.primaryKeyExisted()) {
+      return null;
+    }
+    Expression bound;
+    try {
+      bound =
+          Binder.bind(
+              schema.asStruct(), ExpressionVisitors.visit(expression, RewriteNot.get()), false);
+    } catch (ValidationException e) {
+      return null;
+    }
+    Map<Integer, Set<Object>> keyValues = ExpressionVisitors.visit(bound, new KeyValuesVisitor());
+
+    List<PrimaryKeySpec.PrimaryKeyField> fields = primaryKeySpec.fields();
+    List<Set<Object>> valuesOfFields = new ArrayList<>(fields.size());
+    long combinations = 1;
+    for (PrimaryKeySpec.PrimaryKeyField field : fields) {
+      Types.NestedField column = schema.findField(field.fieldName());
+      Set<Object> values = column == null ? null : keyValues.get(column.fieldId());
+      if (values == null || !isHashStable(column.type())) {
+        return null;
+      }
+      combinations *= values.size();
+      if (combinations > MAX_KEY_COMBINATIONS) {
+        return null;
+      }
+      valuesOfFields.add(values);
+    }
+
+    PrimaryKeyData primaryKey = new PrimaryKeyData(primaryKeySpec, schema);
+    List<Integer> hashes = new ArrayList<>();
+    collectHashes(primaryKey, valuesOfFields, 0, hashes);
+    return hashes;
+  }
+
+  private static void collectHashes(
+      PrimaryKeyData primaryKey, List<Set<Object>> valuesOfFields, int pos, List<Integer> hashes) {
+    if (pos == valuesOfFields.size()) {
+      hashes.add(primaryKey.hashCode());
+      return;
+    }
+    for (Object value : valuesOfFields.get(pos)) {
+      primaryKey.set(pos, value);
+      collectHashes(primaryKey, valuesOfFields, pos + 1, hashes);
+    }
+  }
+
+  /**
+   * Only the types whose values are represented by the same java objects in the writers of all
+   * engines, so the hash code of a literal equals the one of the written value.
+   */
+  private static boolean isHashStable(Type type) {
+    switch (type.typeId()) {
+      case INTEGER:
+      case LONG:
+      case DATE:
+      case STRING:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static Object normalize(Object value) {
+    return value instanceof CharSequence ? value.toString() : value;
+  }
+
+  /**
+   * Collects the values allowed for each field by equality and IN predicates. A field missing in
+   * the result is not restricted.
+   */
+  private static class KeyValuesVisitor
+      extends ExpressionVisitors.ExpressionVisitor<Map<Integer, Set<Object>>> {
+
+    @Override
+    public Map<Integer, Set<Object>> alwaysTrue() {
+      return Collections.emptyMap();
+    }
+
+    @Override
+    public Map<Integer, Set<Object>> alwaysFalse() {
+      return Collections.emptyMap();
+    }
+
+    @Override
+    public Map<Integer, Set<Object>> not(Map<Integer, Set<Object>> result) {
+      throw new UnsupportedOperationException("[BUG] evaluate called on expression with a not");
+    }
+
+    @Override
+    public Map<Integer, Set<Object>> and(
+        Map<Integer, Set<Object>> leftResult, Map<Integer, Set<Object>> rightResult) {
+      Map<Integer, Set<Object>> result = new HashMap<>(leftResult);
+      rightResult.forEach(
+          (fieldId, values) -> {
+            Set<Object> leftValues = result.get(fieldId);
+            if (leftValues == null) {
+              result.put(fieldId, values);
+            } else {
+              Set<Object> intersection = new HashSet<>(leftValues);
+              intersection.retainAll(values);
+              result.put(fieldId, intersection);
+            }
+          });
+      return result;
+    }
+
+    @Override
+    public Map<Integer, Set<Object>> or(
+        Map<Integer, Set<Object>> leftResult, Map<Integer, Set<Object>> rightResult) {
+      Map<Integer, Set<Object>> result = new HashMap<>();
+      leftResult.forEach(
+          (fieldId, values) -> {
+            Set<Object> rightValues = rightResult.get(fieldId);
+            if (rightValues != null) {
+              Set<Object> union = new HashSet<>(values);
+              union.addAll(rightValues);
+              result.put(fieldId, union);
+            }
+          });
+      return result;
+    }
+
+    @Override
+    public <T> Map<Integer, Set<Object>> predicate(BoundPredicate<T> pred) {
+      if (!(pred.term() instanceof BoundReference)) {
+        return Collections.emptyMap();
+      }
+      int fieldId = ((BoundReference<T>) pred.term()).fieldId();
+      Set<Object> values = new HashSet<>();
+      switch (pred.op()) {
+        case EQ:
+          values.add(normalize(pred.asLiteralPredicate().literal().value()));
+          break;
+        case IN:
+          pred.asSetPredicate().literalSet().forEach(value -> values.add(normalize(value)));
+          break;
+        default:
+          return Collections.emptyMap();
+      }
+      return Collections.singletonMap(fieldId, values);
+    }
+
+    @Override
+    public <T> Map<Integer, Set<Object>> predicate(UnboundPredicate<T> pred) {
+      throw new IllegalStateException("Found unbound predicate: " + pred);
+    }
+  }
+}
@@ -83,6 +83,10 @@ public class TableProperties {
       "self-optimizing.execute.num-retries";
   public static final int SELF_OPTIMIZING_EXECUTE_RETRY_NUMBER_DEFAULT = 5;
 
+  public static final String SELF_OPTIMIZING_COMMIT_RETRY_NUMBER =
+      "self-optimizing.commit.num-retries";
+  public static final int SELF_OPTIMIZING_COMMIT_RETRY_NUMBER_DEFAULT = 10;
+
   public static final String SELF_OPTIMIZING_TARGET_SIZE = "self-optimizing.target-size";
   public static final long SELF_OPTIMIZING_TARGET_SIZE_DEFAULT = 134217728; // 128 MB
 
@@ -115,6 +119,14 @@ public class TableProperties {
       "self-optimizing.full.rewrite-all-files";
   public static final boolean SELF_OPTIMIZING_FULL_REWRITE_ALL_FILES_DEFAULT = true;
 
+  /**
+   * The order of the records written by optimizing, one of none, primary-key, table, zorder(c1, c2,
+   * ...) or a list of columns like 'c1 desc nulls last, c2'.
+   */
+  public static final String SELF_OPTIMIZING_SORT_ORDER = "self-optimizing.sort-order";
+
+  public static final String SELF_OPTIMIZING_SORT_ORDER_DEFAULT = "none";
+
   /** deprecated table optimize related properties */
   @Deprecated public static final String ENABLE_OPTIMIZE = "optimize.enable";
 
@@ -169,6 +181,12 @@ public class TableProperties {
       "clean-dangling-delete-files.enabled";
   public static final boolean ENABLE_DANGLING_DELETE_FILES_CLEAN_DEFAULT = true;
 
+  public static final String ENABLE_REWRITE_MANIFESTS = "rewrite-manifests.enabled";
+  public static final boolean ENABLE_REWRITE_MANIFESTS_DEFAULT = false;
+
+  public static final String REWRITE_MANIFESTS_MIN_COUNT = "rewrite-manifests.min-count";
+  public static final int REWRITE_MANIFESTS_MIN_COUNT_DEFAULT = 100;
+
   public static final String ENABLE_ORPHAN_CLEAN = "clean-orphan-file.enabled";
   public static final boolean ENABLE_ORPHAN_CLEAN_DEFAULT = false;
   @Deprecated public static final String ENABLE_ORPHAN_CLEAN_LEGACY = "clean-orphan-file.enable";
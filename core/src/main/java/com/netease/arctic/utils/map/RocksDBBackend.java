@@ -36,6 +36,8 @@ import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
 import org.rocksdb.Statistics;
 import org.rocksdb.TtlDB;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,6 +47,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -252,6 +255,22 @@ public class RocksDBBackend {
     }
   }
 
+  /**
+   * Apply a batch of PUT and DELETE operations atomically, skipping the write-ahead log. It is
+   * intended for bulk loading, where the data could be loaded again if the process crashes.
+   *
+   * @param writeBatch the operations to apply
+   */
+  public void write(WriteBatch writeBatch) {
+    Preconditions.checkArgument(!closed);
+    try (WriteOptions writeOptions = new WriteOptions().setDisableWAL(true)) {
+      totalBytesWritten += writeBatch.getDataSize();
+      rocksDB.write(writeOptions, writeBatch);
+    } catch (Exception e) {
+      throw new ArcticIOException(e);
+    }
+  }
+
   /**
    * Perform a single Delete operation.
    *
@@ -329,6 +348,24 @@ public class RocksDBBackend {
     }
   }
 
+  /**
+   * Retrieve the values of the keys by a single multi-get, which is faster than getting the keys
+   * one by one when the blocks are not cached.
+   *
+   * @param columnFamilyHandle Column Family Handle
+   * @param keys Keys to be retrieved
+   * @return the values in the order of the keys, null if the key is not found
+   */
+  public List<byte[]> multiGet(ColumnFamilyHandle columnFamilyHandle, List<byte[]> keys) {
+    Preconditions.checkArgument(!closed);
+    try {
+      Preconditions.checkNotNull(columnFamilyHandle, "Column Family Handle couldn't be null!");
+      return rocksDB.multiGetAsList(Collections.nCopies(keys.size(), columnFamilyHandle), keys);
+    } catch (Exception e) {
+      throw new ArcticIOException(e);
+    }
+  }
+
   public RocksDB getDB() {
     return rocksDB;
   }
@@ -39,6 +39,7 @@ public class SimpleSpillableMap<K, T> implements SimpleMap<K, T> {
   private Map<K, T> memoryMap;
   private Optional<SimpleSpilledMap<K, T>> diskBasedMap = Optional.empty();
   private long currentInMemoryMapSize;
+  private long peakInMemoryMapSize;
   private long estimatedPayloadSize = 0;
   private int putCount = 0;
 
@@ -92,6 +93,16 @@ public class SimpleSpillableMap<K, T> implements SimpleMap<K, T> {
     return currentInMemoryMapSize;
   }
 
+  /** Approximate peak memory footprint of the in-memory map. */
+  public long getPeakMemoryMapSpaceSize() {
+    return Math.max(peakInMemoryMapSize, currentInMemoryMapSize);
+  }
+
+  /** Number of bytes of the keys and values spilled to disk by this map. */
+  public long getSpilledBytes() {
+    return diskBasedMap.map(SimpleSpilledMap::spilledBytes).orElse(0L);
+  }
+
   public boolean containsKey(K key) {
     return memoryMap.containsKey(key)
         || diskBasedMap.map(diskMap -> diskMap.containsKey(key)).orElse(false);
@@ -113,6 +124,7 @@ public class SimpleSpillableMap<K, T> implements SimpleMap<K, T> {
                   + (keySizeEstimator.sizeEstimate(key) + valueSizeEstimator.sizeEstimate(value))
                       * 0.1);
       this.currentInMemoryMapSize = this.memoryMap.size() * this.estimatedPayloadSize;
+      this.peakInMemoryMapSize = Math.max(peakInMemoryMapSize, currentInMemoryMapSize);
     }
 
     if (memoryMap.containsKey(key)) {
@@ -123,6 +135,7 @@ public class SimpleSpillableMap<K, T> implements SimpleMap<K, T> {
     if (this.currentInMemoryMapSize < maxInMemorySizeInBytes) {
       if (memoryMap.put(key, value) == null) {
         currentInMemoryMapSize += this.estimatedPayloadSize;
+        peakInMemoryMapSize = Math.max(peakInMemoryMapSize, currentInMemoryMapSize);
       }
     } else {
       if (!diskBasedMap.isPresent()) {
@@ -157,6 +170,8 @@ public class SimpleSpillableMap<K, T> implements SimpleMap<K, T> {
 
     private final SerializationUtil.SimpleSerializer<T> valueSerializer;
 
+    private long spilledBytes;
+
     public SimpleSpilledMap(
         SerializationUtil.SimpleSerializer<K> keySerializer,
         SerializationUtil.SimpleSerializer<T> valueSerializer,
@@ -176,7 +191,10 @@ public class SimpleSpillableMap<K, T> implements SimpleMap<K, T> {
     }
 
     public void put(K key, T value) {
-      rocksDB.put(columnFamily, keySerializer.serialize(key), valueSerializer.serialize(value));
+      byte[] keyBytes = keySerializer.serialize(key);
+      byte[] valueBytes = valueSerializer.serialize(value);
+      rocksDB.put(columnFamily, keyBytes, valueBytes);
+      spilledBytes += keyBytes.length + valueBytes.length;
     }
 
     public void delete(K key) {
@@ -190,5 +208,9 @@ public class SimpleSpillableMap<K, T> implements SimpleMap<K, T> {
     public long sizeOfFileOnDiskInBytes() {
       return rocksDB.getTotalBytesWritten();
     }
+
+    public long spilledBytes() {
+      return spilledBytes;
+    }
   }
 }
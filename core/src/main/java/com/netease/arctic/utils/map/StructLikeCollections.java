@@ -49,6 +49,18 @@ public class StructLikeCollections implements Serializable {
     this.backendBaseDir = backendBaseDir;
   }
 
+  public boolean isSpillable() {
+    return enableSpillableMap;
+  }
+
+  public Long maxInMemorySizeInBytes() {
+    return maxInMemorySizeInBytes;
+  }
+
+  public String backendBaseDir() {
+    return backendBaseDir;
+  }
+
   public <T> StructLikeBaseMap<T> createStructLikeMap(Types.StructType type) {
     if (!enableSpillableMap) {
       return StructLikeMemoryMap.create(type);
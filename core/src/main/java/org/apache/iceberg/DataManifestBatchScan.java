@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.iceberg;
+
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.Expressions;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.relocated.com.google.common.base.Preconditions;
+
+import java.util.List;
+
+/**
+ * Plan the data files of a table snapshot batch by batch of data manifests, so that the files of a
+ * big snapshot can be consumed before the whole snapshot is planned.
+ *
+ * <p>Data manifests are planned in the order of the manifest list, which is stable for a snapshot,
+ * so the index of the next data manifest to plan is enough to resume planning. All delete manifests
+ * are read for every batch, to apply delete files to the data files of the batch.
+ */
+public class DataManifestBatchScan {
+  private final Table table;
+  private final long snapshotId;
+  private final List<ManifestFile> dataManifests;
+  private final List<ManifestFile> deleteManifests;
+  private Expression filter = Expressions.alwaysTrue();
+  private boolean caseSensitive = true;
+
+  public DataManifestBatchScan(Table table, long snapshotId) {
+    Snapshot snapshot = table.snapshot(snapshotId);
+    Preconditions.checkArgument(
+        snapshot != null, "Cannot find snapshot %s of table %s", snapshotId, table.name());
+    this.table = table;
+    this.snapshotId = snapshotId;
+    this.dataManifests = snapshot.dataManifests(table.io());
+    this.deleteManifests = snapshot.deleteManifests(table.io());
+  }
+
+  public DataManifestBatchScan filter(Expression expr) {
+    this.filter = Expressions.and(filter, expr);
+    return this;
+  }
+
+  public DataManifestBatchScan caseSensitive(boolean caseSensitive) {
+    this.caseSensitive = caseSensitive;
+    return this;
+  }
+
+  public long snapshotId() {
+    return snapshotId;
+  }
+
+  public int dataManifestCount() {
+    return dataManifests.size();
+  }
+
+  /**
+   * Plan the data files in data manifests from {@code fromIndex}, inclusive, to {@code toIndex},
+   * exclusive.
+   */
+  public CloseableIterable<FileScanTask> planFiles(int fromIndex, int toIndex) {
+    Preconditions.checkArgument(
+        fromIndex >= 0 && fromIndex <= toIndex && toIndex <= dataManifests.size(),
+        "Invalid data manifest range [%s, %s) of %s manifests",
+        fromIndex,
+        toIndex,
+        dataManifests.size());
+    if (fromIndex == toIndex) {
+      return CloseableIterable.empty();
+    }
+    return new ManifestGroup(table.io(), dataManifests.subList(fromIndex, toIndex), deleteManifests)
+        .caseSensitive(caseSensitive)
+        .select(BaseScan.SCAN_COLUMNS)
+        .filterData(filter)
+        .specsById(table.specs())
+        .ignoreDeleted()
+        .planFiles();
+  }
+}
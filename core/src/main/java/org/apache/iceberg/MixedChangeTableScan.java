@@ -24,11 +24,17 @@ import com.netease.arctic.scan.ChangeTableIncrementalScan;
 import com.netease.arctic.utils.TablePropertyUtil;
 import org.apache.iceberg.expressions.Expression;
 import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.io.FileIO;
 import org.apache.iceberg.util.StructLikeMap;
 
+import java.util.List;
+
 /**
  * Table scan for {@link com.netease.arctic.table.ChangeTable}, support filter files with data
  * sequence number and return {@link BasicArcticFileScanTask}.
+ *
+ * <p>Data manifests are pruned by their sequence numbers before they are read, so that an
+ * incremental scan only opens the manifests committed after the scanned-from sequence.
  */
 public class MixedChangeTableScan extends DataTableScan implements ChangeTableIncrementalScan {
   private StructLikeMap<Long> fromPartitionSequence;
@@ -60,6 +66,7 @@ public class MixedChangeTableScan extends DataTableScan implements ChangeTableIn
       Table table, Schema schema, TableScanContext context) {
     MixedChangeTableScan scan = new MixedChangeTableScan(table, schema, context);
     scan.fromPartitionSequence = this.fromPartitionSequence;
+    scan.fromSequence = this.fromSequence;
     scan.toSequence = this.toSequence;
     return scan;
   }
@@ -94,7 +101,7 @@ public class MixedChangeTableScan extends DataTableScan implements ChangeTableIn
   public CloseableIterable<FileScanTask> doPlanFiles() {
     CloseableIterable<FileScanTask> filteredTasks =
         CloseableIterable.filter(
-            super.doPlanFiles(),
+            planManifests(),
             fileScanTask -> {
               StructLike partition = fileScanTask.file().partition();
               long sequenceNumber = fileScanTask.file().dataSequenceNumber();
@@ -107,6 +114,70 @@ public class MixedChangeTableScan extends DataTableScan implements ChangeTableIn
                 DefaultKeyedFile.parseChange(fileScanTask.file()), null, table().spec(), null));
   }
 
+  private CloseableIterable<FileScanTask> planManifests() {
+    Snapshot snapshot = snapshot();
+    FileIO io = table().io();
+    List<ManifestFile> dataManifests = snapshot.dataManifests(io);
+    List<ManifestFile> deleteManifests = snapshot.deleteManifests(io);
+    scanMetrics().totalDataManifests().increment(dataManifests.size());
+    scanMetrics().totalDeleteManifests().increment(deleteManifests.size());
+
+    Long minFromSequence = minFromSequence();
+    ManifestGroup manifestGroup =
+        new ManifestGroup(io, dataManifests, deleteManifests)
+            .caseSensitive(isCaseSensitive())
+            .select(scanColumns())
+            .filterData(filter())
+            .filterManifests(manifest -> shouldKeepManifest(manifest, minFromSequence))
+            .specsById(table().specs())
+            .scanMetrics(scanMetrics())
+            .ignoreDeleted();
+
+    if (shouldIgnoreResiduals()) {
+      manifestGroup = manifestGroup.ignoreResiduals();
+    }
+
+    if (dataManifests.size() > 1 && shouldPlanWithExecutor()) {
+      manifestGroup = manifestGroup.planWith(planExecutor());
+    }
+
+    return manifestGroup.planFiles();
+  }
+
+  /**
+   * A manifest never contains live files with a data sequence number bigger than its own sequence
+   * number, and never contains live files with a data sequence number smaller than its min sequence
+   * number, so manifests out of the scanned sequence range can be skipped.
+   */
+  private boolean shouldKeepManifest(ManifestFile manifest, Long minFromSequence) {
+    if (biggerThanToSequence(manifest.minSequenceNumber())) {
+      return false;
+    }
+    return minFromSequence == null || manifest.sequenceNumber() > minFromSequence;
+  }
+
+  /**
+   * Returns the smallest from sequence of all partitions, or null if files of some partitions
+   * should be scanned from the beginning.
+   */
+  private Long minFromSequence() {
+    if (table().spec().isUnpartitioned()) {
+      return scanFromSequence(TablePropertyUtil.EMPTY_STRUCT);
+    }
+    if (fromPartitionSequence == null || fromPartitionSequence.isEmpty()) {
+      return fromSequence;
+    }
+    if (fromSequence == null) {
+      // partitions not in fromPartitionSequence are scanned from the beginning
+      return null;
+    }
+    long minSequence = fromSequence;
+    for (Long sequence : fromPartitionSequence.values()) {
+      minSequence = Math.min(minSequence, sequence);
+    }
+    return minSequence;
+  }
+
   private boolean shouldKeepFile(StructLike partition, long sequence) {
     if (biggerThanToSequence(sequence)) {
       return false;
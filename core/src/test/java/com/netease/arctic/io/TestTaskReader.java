@@ -117,27 +117,25 @@ public class TestTaskReader extends TableDataTestBase {
                 .readKeyedTable(getArcticTable().asKeyedTable(), filter, null, useDiskMap, false));
 
     List<KeyedTableScanTask> readTasks = planReadTask(filter);
-    Assert.assertEquals(2, readTasks.size());
+    Assert.assertEquals(1, readTasks.size());
 
-    // expect: (id=1),(id=6), change store can only be filtered by partition expression now.
+    // expect: (id=1), nodes of the change store not containing the primary key are skipped.
     Set<Record> expectRecords = Sets.newHashSet();
     expectRecords.add(allRecords.get(0));
-    expectRecords.add(allRecords.get(5));
     Assert.assertEquals(expectRecords, records);
 
     // where id = 1 or id = 3
     filter = Expressions.or(Expressions.equal("id", 1), Expressions.equal("id", 3));
     readTasks = planReadTask(filter);
-    Assert.assertEquals(3, readTasks.size());
+    Assert.assertEquals(2, readTasks.size());
     records =
         Sets.newHashSet(
             tableTestHelper()
                 .readKeyedTable(getArcticTable().asKeyedTable(), filter, null, useDiskMap, false));
-    // expect: (id=1),(id=3),(id=6), change store can only be filtered by partition expression now.
+    // expect: (id=1),(id=3)
     expectRecords.clear();
     expectRecords.add(allRecords.get(0));
     expectRecords.add(allRecords.get(2));
-    expectRecords.add(allRecords.get(5));
     Assert.assertEquals(expectRecords, records);
   }
 
@@ -195,6 +195,13 @@ public class IcebergRewriteExecutorTest extends TableTestBase {
       Record last = Iterables.getLast(records);
       Assert.assertEquals(last.get(1), 1L);
     }
+
+    Map<String, String> summary = output.summary();
+    Assert.assertEquals("3", summary.get(OptimizingTaskSummary.WRITE_RECORD_CNT));
+    Assert.assertEquals("3", summary.get(OptimizingTaskSummary.READ_RECORD_CNT));
+    Assert.assertNotNull(summary.get(OptimizingTaskSummary.READ_DURATION));
+    Assert.assertNotNull(summary.get(OptimizingTaskSummary.DELETE_LOAD_DURATION));
+    Assert.assertNotNull(summary.get(OptimizingTaskSummary.OUTPUT_CLOSE_DURATION));
   }
 
   @Test
@@ -228,6 +235,33 @@ public class IcebergRewriteExecutorTest extends TableTestBase {
     Assert.assertTrue(output.getDeleteFiles() == null || output.getDeleteFiles().length == 0);
   }
 
+  @Test
+  public void readOnlyDataSortedByTableOrder() throws IOException {
+    getArcticTable().asUnkeyedTable().replaceSortOrder().desc("id").commit();
+    getArcticTable()
+        .updateProperties()
+        .set(com.netease.arctic.table.TableProperties.SELF_OPTIMIZING_SORT_ORDER, "table")
+        .commit();
+    IcebergRewriteExecutor executor =
+        new IcebergRewriteExecutor(dataScanTask, getArcticTable(), StructLikeCollections.DEFAULT);
+
+    RewriteFilesOutput output = executor.execute();
+
+    DataFile dataFile = output.getDataFiles()[0];
+    Assert.assertEquals(
+        getArcticTable().asUnkeyedTable().sortOrder().orderId(), dataFile.sortOrderId().intValue());
+    try (CloseableIterable<Record> records =
+        openFile(
+            dataFile.path().toString(),
+            dataFile.format(),
+            getArcticTable().schema(),
+            new HashMap<>())) {
+      List<Integer> ids = Lists.newArrayList();
+      records.forEach(record -> ids.add((Integer) record.get(0)));
+      Assert.assertEquals(Arrays.asList(3, 2, 1), ids);
+    }
+  }
+
   private CloseableIterable<Record> openFile(
       String path, FileFormat fileFormat, Schema fileProjection, Map<Integer, ?> idToConstant) {
     InputFile input = getArcticTable().io().newInputFile(path);
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.optimizing;
+
+import com.netease.arctic.utils.map.RocksDBBackend;
+import org.apache.iceberg.NullOrder;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.SortOrder;
+import org.apache.iceberg.data.GenericRecord;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.apache.iceberg.types.Types;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+public class TestExternalRecordSorter {
+
+  private static final Schema SCHEMA =
+      new Schema(
+          Types.NestedField.required(1, "id", Types.IntegerType.get()),
+          Types.NestedField.optional(2, "name", Types.StringType.get()),
+          Types.NestedField.optional(3, "ts", Types.LongType.get()));
+
+  @Test
+  public void testSortInMemory() throws IOException {
+    OptimizingSortOrder sortOrder =
+        OptimizingSortOrder.linear(
+            SortOrder.builderFor(SCHEMA)
+                .desc("name", NullOrder.NULLS_LAST)
+                .asc("id", NullOrder.NULLS_FIRST)
+                .build());
+    List<Record> records =
+        Arrays.asList(
+            record(3, "a", 0L),
+            record(1, null, 0L),
+            record(2, "ab", 0L),
+            record(0, "a", 0L),
+            record(4, "", 0L),
+            record(-1, "b", 0L));
+
+    ExternalRecordSorter sorter = new ExternalRecordSorter(sortOrder::sortKey, null, null);
+    Assert.assertEquals(Arrays.asList(-1, 2, 0, 3, 4, 1), sortedIds(sorter, records));
+    Assert.assertEquals(0, sorter.spilledBytes());
+  }
+
+  @Test
+  public void testSortWithSpill() throws IOException {
+    OptimizingSortOrder sortOrder =
+        OptimizingSortOrder.linear(
+            SortOrder.builderFor(SCHEMA)
+                .desc("ts", NullOrder.NULLS_FIRST)
+                .asc("id", NullOrder.NULLS_FIRST)
+                .build());
+    Random random = new Random(0);
+    List<Record> records = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      long ts = random.nextInt(100) - 50;
+      records.add(record(i, "name" + i, i % 10 == 0 ? null : ts));
+    }
+    List<Integer> expected =
+        records.stream()
+            .sorted(
+                Comparator.comparing(
+                        (Record record) -> (Long) record.getField("ts"),
+                        Comparator.nullsFirst(Comparator.<Long>reverseOrder()))
+                    .thenComparing(record -> (Integer) record.getField("id")))
+            .map(record -> (Integer) record.getField("id"))
+            .collect(Collectors.toList());
+
+    ExternalRecordSorter sorter = new ExternalRecordSorter(sortOrder::sortKey, 1024L, null);
+    Assert.assertEquals(expected, sortedIds(sorter, records));
+    Assert.assertTrue(sorter.spilledBytes() > 0);
+  }
+
+  @Test
+  public void testSortByZOrder() throws IOException {
+    OptimizingSortOrder sortOrder = OptimizingSortOrder.zOrder(SCHEMA, Arrays.asList("id", "ts"));
+    List<Record> records = new ArrayList<>();
+    for (int id = 0; id < 4; id++) {
+      for (long ts = 0; ts < 4; ts++) {
+        records.add(record(id, null, ts));
+      }
+    }
+
+    ExternalRecordSorter sorter = new ExternalRecordSorter(sortOrder::sortKey, null, null);
+    List<Record> sorted;
+    try (CloseableIterable<Record> result = sorter.sort(CloseableIterable.withNoopClose(records))) {
+      sorted = Lists.newArrayList(result);
+    }
+    // each quadrant of the 4 x 4 grid is clustered together
+    for (int quadrant = 0; quadrant < 4; quadrant++) {
+      for (Record record : sorted.subList(quadrant * 4, quadrant * 4 + 4)) {
+        int id = (Integer) record.getField("id");
+        long ts = (Long) record.getField("ts");
+        Assert.assertEquals(quadrant, (id / 2) * 2 + ts / 2);
+      }
+    }
+  }
+
+  @Test
+  public void testDropSpilledRecordsOnFailure() {
+    OptimizingSortOrder sortOrder =
+        OptimizingSortOrder.linear(
+            SortOrder.builderFor(SCHEMA).asc("id", NullOrder.NULLS_FIRST).build());
+    List<Record> records = new ArrayList<>();
+    for (int id = 0; id < 100; id++) {
+      records.add(record(id, "name" + id, (long) id));
+    }
+    // fails after the first records are spilled
+    CloseableIterable<Record> failingRecords =
+        CloseableIterable.transform(
+            CloseableIterable.withNoopClose(records),
+            record -> {
+              if ((Integer) record.getField("id") == 90) {
+                throw new IllegalStateException("Failed to read");
+              }
+              return record;
+            });
+    RocksDBBackend rocksDB = RocksDBBackend.getOrCreateInstance(null);
+    int columnFamilies = rocksDB.listColumnFamilies().size();
+
+    ExternalRecordSorter sorter = new ExternalRecordSorter(sortOrder::sortKey, 1024L, null);
+    Assert.assertThrows(IllegalStateException.class, () -> sorter.sort(failingRecords));
+    Assert.assertTrue(sorter.spilledBytes() > 0);
+    Assert.assertEquals(columnFamilies, rocksDB.listColumnFamilies().size());
+  }
+
+  private static List<Integer> sortedIds(ExternalRecordSorter sorter, List<Record> records)
+      throws IOException {
+    try (CloseableIterable<Record> result = sorter.sort(CloseableIterable.withNoopClose(records))) {
+      List<Integer> ids = new ArrayList<>();
+      result.forEach(record -> ids.add((Integer) record.getField("id")));
+      return ids;
+    }
+  }
+
+  private static Record record(int id, String name, Long ts) {
+    Record record = GenericRecord.create(SCHEMA);
+    record.setField("id", id);
+    record.setField("name", name);
+    record.setField("ts", ts);
+    return record;
+  }
+}
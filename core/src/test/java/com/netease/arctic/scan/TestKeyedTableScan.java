@@ -24,6 +24,8 @@ import com.netease.arctic.io.writer.GenericChangeTaskWriter;
 import com.netease.arctic.io.writer.GenericTaskWriters;
 import org.apache.iceberg.AppendFiles;
 import org.apache.iceberg.data.Record;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.Expressions;
 import org.apache.iceberg.io.CloseableIterable;
 import org.apache.iceberg.io.CloseableIterator;
 import org.apache.iceberg.io.WriteResult;
@@ -46,10 +48,26 @@ public class TestKeyedTableScan extends TableDataTestBase {
     assertFileCount(6, 2, 1);
   }
 
+  @Test
+  public void testScanSkipNodesByPrimaryKey() throws IOException {
+    // (id=5) and (id=6) are written into different nodes of the change store
+    assertFileCount(Expressions.equal("id", 5), 0, 1, 1);
+    assertFileCount(Expressions.equal("id", 6), 0, 1, 0);
+    assertFileCount(Expressions.in("id", 5, 6), 0, 2, 1);
+    // filters not on the primary key do not skip nodes of the change store
+    assertFileCount(Expressions.equal("name", "mary"), 0, 2, 1);
+  }
+
   private void assertFileCount(int baseFileCnt, int insertFileCnt, int equDeleteFileCnt)
       throws IOException {
+    assertFileCount(Expressions.alwaysTrue(), baseFileCnt, insertFileCnt, equDeleteFileCnt);
+  }
+
+  private void assertFileCount(
+      Expression expression, int baseFileCnt, int insertFileCnt, int equDeleteFileCnt)
+      throws IOException {
     CloseableIterable<CombinedScanTask> combinedScanTasks =
-        getArcticTable().asKeyedTable().newScan().planTasks();
+        getArcticTable().asKeyedTable().newScan().filter(expression).planTasks();
     final List<ArcticFileScanTask> allBaseTasks = new ArrayList<>();
     final List<ArcticFileScanTask> allInsertTasks = new ArrayList<>();
     final List<ArcticFileScanTask> allEquDeleteTasks = new ArrayList<>();
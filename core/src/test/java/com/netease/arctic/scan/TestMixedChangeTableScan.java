@@ -22,6 +22,7 @@ import com.netease.arctic.io.TableDataTestBase;
 import com.netease.arctic.utils.ArcticDataFiles;
 import org.apache.iceberg.FileScanTask;
 import org.apache.iceberg.StructLike;
+import org.apache.iceberg.expressions.Expressions;
 import org.apache.iceberg.io.CloseableIterable;
 import org.apache.iceberg.util.StructLikeMap;
 import org.junit.Assert;
@@ -64,6 +65,20 @@ public class TestMixedChangeTableScan extends TableDataTestBase {
     }
   }
 
+  @Test
+  public void testIncrementalScanFromSequenceWithFilter() throws IOException {
+    ChangeTableIncrementalScan changeTableIncrementalScan =
+        getArcticTable()
+            .asKeyedTable()
+            .changeTable()
+            .newScan()
+            .fromSequence(1L)
+            .filter(Expressions.alwaysTrue());
+    try (CloseableIterable<FileScanTask> tasks = changeTableIncrementalScan.planFiles()) {
+      assertFilesSequence(tasks, 1, 2, 2);
+    }
+  }
+
   @Test
   public void testIncrementalScanTo() throws IOException {
     ChangeTableIncrementalScan changeTableIncrementalScan =
@@ -18,10 +18,12 @@
 
 package com.netease.arctic.scan;
 
+import com.netease.arctic.data.DataFileType;
 import com.netease.arctic.io.MixedDataTestHelpers;
 import com.netease.arctic.io.TableDataTestBase;
 import com.netease.arctic.io.writer.GenericChangeTaskWriter;
 import com.netease.arctic.io.writer.GenericTaskWriters;
+import com.netease.arctic.table.TableProperties;
 import org.apache.iceberg.AppendFiles;
 import org.apache.iceberg.data.Record;
 import org.apache.iceberg.io.CloseableIterable;
@@ -61,6 +63,79 @@ public class TestScanSplitTask extends TableDataTestBase {
     }
   }
 
+  @Test
+  public void testSplitTaskByCost() throws IOException {
+    writeInsertFileIntoBaseStore();
+    writeInsertFileIntoBaseStore();
+    long openFileCost = TableProperties.SPLIT_OPEN_FILE_COST_DEFAULT;
+    {
+      // all tasks are cheaper than the split size, so the plan is the same as the normal one
+      CloseableIterable<CombinedScanTask> combinedScanTasks =
+          getArcticTable()
+              .asKeyedTable()
+              .newScan()
+              .enableSplitTaskByCost(new SplitCostModel(openFileCost, 0))
+              .planTasks();
+      for (CombinedScanTask combinedScanTask : combinedScanTasks) {
+        Assert.assertEquals(7, combinedScanTask.tasks().size());
+      }
+    }
+    getArcticTable()
+        .updateProperties()
+        .set(TableProperties.SPLIT_SIZE, String.valueOf(openFileCost * 2))
+        .commit();
+    {
+      SplitCostModel costModel = new SplitCostModel(openFileCost, 0);
+      CloseableIterable<CombinedScanTask> combinedScanTasks =
+          getArcticTable().asKeyedTable().newScan().enableSplitTaskByCost(costModel).planTasks();
+      for (CombinedScanTask combinedScanTask : combinedScanTasks) {
+        for (KeyedTableScanTask task : combinedScanTask.tasks()) {
+          // a task is split until its data cost reaches its delete cost
+          long deleteCost = costModel.deleteCost(task);
+          long dataCost = costModel.cost(task) - deleteCost;
+          // equality deletes make a task heavier than its data files alone
+          Assert.assertEquals(!task.arcticEquityDeletes().isEmpty(), deleteCost > 0);
+          if (task.dataTasks().size() > 1) {
+            Assert.assertTrue(dataCost <= Math.max(openFileCost * 2 - deleteCost, deleteCost));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCostOfSingleFileTaskWithHeavyDeletes() throws IOException {
+    long openFileCost = TableProperties.SPLIT_OPEN_FILE_COST_DEFAULT;
+    // every change record costs as much as opening a file, so the equality deletes outweigh the
+    // tiny base files
+    SplitCostModel costModel = new SplitCostModel(openFileCost, openFileCost);
+    getArcticTable()
+        .updateProperties()
+        .set(TableProperties.SPLIT_SIZE, String.valueOf(openFileCost))
+        .commit();
+    int checkedTasks = 0;
+    try (CloseableIterable<CombinedScanTask> combinedScanTasks =
+        getArcticTable().asKeyedTable().newScan().enableSplitTaskByCost(costModel).planTasks()) {
+      for (CombinedScanTask combinedScanTask : combinedScanTasks) {
+        for (KeyedTableScanTask task : combinedScanTask.tasks()) {
+          if (task.dataTasks().size() != 1
+              || task.arcticEquityDeletes().isEmpty()
+              || task.dataTasks().get(0).file().type() != DataFileType.BASE_FILE) {
+            continue;
+          }
+          // a single file task can not be split, its cost is still ordered by the deletes
+          long dataCost = costModel.dataCost(task.dataTasks().get(0));
+          long deleteCost = costModel.deleteCost(task);
+          Assert.assertTrue(dataCost < deleteCost);
+          Assert.assertTrue(deleteCost < costModel.cost(task));
+          Assert.assertEquals(dataCost + deleteCost, costModel.cost(task));
+          checkedTasks++;
+        }
+      }
+    }
+    Assert.assertTrue(checkedTasks > 0);
+  }
+
   private void writeInsertFileIntoBaseStore() throws IOException {
     ImmutableList.Builder<Record> builder = ImmutableList.builder();
     builder.add(MixedDataTestHelpers.createRecord(7, "mary", 0, "2022-01-01T12:00:00"));
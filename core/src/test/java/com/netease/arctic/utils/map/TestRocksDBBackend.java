@@ -84,6 +84,23 @@ public class TestRocksDBBackend {
     rocksDBBackend.dropColumnFamily(CF_NAME);
   }
 
+  @Test
+  public void testMultiGet() {
+    RocksDBBackend rocksDBBackend = RocksDBBackend.getOrCreateInstance();
+    rocksDBBackend.addColumnFamily(CF_NAME);
+    rocksDBBackend.put(CF_NAME, "k1".getBytes(), "v1".getBytes());
+    rocksDBBackend.put(CF_NAME, "k3".getBytes(), "v3".getBytes());
+    List<byte[]> values =
+        rocksDBBackend.multiGet(
+            rocksDBBackend.getColumnFamilyHandle(CF_NAME),
+            Arrays.asList("k1".getBytes(), "k2".getBytes(), "k3".getBytes()));
+    Assert.assertEquals(3, values.size());
+    Assert.assertArrayEquals("v1".getBytes(), values.get(0));
+    Assert.assertNull(values.get(1));
+    Assert.assertArrayEquals("v3".getBytes(), values.get(2));
+    rocksDBBackend.dropColumnFamily(CF_NAME);
+  }
+
   @Test
   public void testClose() {
     RocksDBBackend rocksDBBackend = RocksDBBackend.getOrCreateInstance();
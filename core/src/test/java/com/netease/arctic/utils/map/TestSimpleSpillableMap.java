@@ -30,6 +30,7 @@ public class TestSimpleSpillableMap {
   public void testMemoryMap() {
     SimpleSpillableMap<Key, Value> map = testMap(10, 10);
     Assert.assertEquals(0, map.getSizeOfFileOnDiskInBytes());
+    Assert.assertEquals(0, map.getSpilledBytes());
     map.close();
   }
 
@@ -64,7 +65,9 @@ public class TestSimpleSpillableMap {
       actualMap.put(key, value);
     }
     Assert.assertTrue(actualMap.getSizeOfFileOnDiskInBytes() > 0);
+    Assert.assertTrue(actualMap.getSpilledBytes() > 0);
     Assert.assertTrue(actualMap.getMemoryMapSize() < expectedMap.size());
+    Assert.assertTrue(actualMap.getPeakMemoryMapSpaceSize() >= actualMap.getMemoryMapSpaceSize());
     assertSimpleMaps(actualMap, expectedMap);
 
     // update new value
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.iceberg;
+
+import org.apache.iceberg.expressions.Expressions;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.relocated.com.google.common.collect.Iterables;
+import org.apache.iceberg.relocated.com.google.common.collect.Sets;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+
+@RunWith(Parameterized.class)
+public class TestDataManifestBatchScan extends TableTestBase {
+  @Parameterized.Parameters(name = "formatVersion = {0}")
+  public static Object[] parameters() {
+    return new Object[] {1, 2};
+  }
+
+  public TestDataManifestBatchScan(int formatVersion) {
+    super(formatVersion);
+  }
+
+  @Test
+  public void testPlanInBatches() throws IOException {
+    table.newFastAppend().appendFile(FILE_A).commit();
+    table.newFastAppend().appendFile(FILE_B).commit();
+    table.newFastAppend().appendFile(FILE_C).commit();
+
+    DataManifestBatchScan scan =
+        new DataManifestBatchScan(table, table.currentSnapshot().snapshotId());
+    Assert.assertEquals(3, scan.dataManifestCount());
+
+    Set<String> plannedFiles = Sets.newHashSet();
+    for (int i = 0; i < scan.dataManifestCount(); i++) {
+      Set<String> batchFiles = pathSet(scan.planFiles(i, i + 1));
+      Assert.assertEquals(1, batchFiles.size());
+      plannedFiles.addAll(batchFiles);
+    }
+    Assert.assertEquals(pathSet(FILE_A, FILE_B, FILE_C), plannedFiles);
+    Assert.assertEquals(plannedFiles, pathSet(scan.planFiles(0, scan.dataManifestCount())));
+  }
+
+  @Test
+  public void testPlanWithFilter() throws IOException {
+    table.newFastAppend().appendFile(FILE_A).appendFile(FILE_B).commit();
+    table.newFastAppend().appendFile(FILE_C).commit();
+
+    DataManifestBatchScan scan =
+        new DataManifestBatchScan(table, table.currentSnapshot().snapshotId())
+            .filter(Expressions.equal(Expressions.bucket("data", 16), 1));
+    Assert.assertEquals(pathSet(FILE_B), pathSet(scan.planFiles(0, scan.dataManifestCount())));
+  }
+
+  @Test
+  public void testApplyDeletesToEveryBatch() throws IOException {
+    Assume.assumeTrue(formatVersion == 2);
+    table.newFastAppend().appendFile(FILE_A).commit();
+    table.newFastAppend().appendFile(FILE_B).commit();
+    table.newRowDelta().addDeletes(FILE_A_DELETES).addDeletes(FILE_B_DELETES).commit();
+
+    DataManifestBatchScan scan =
+        new DataManifestBatchScan(table, table.currentSnapshot().snapshotId());
+    for (int i = 0; i < scan.dataManifestCount(); i++) {
+      try (CloseableIterable<FileScanTask> tasks = scan.planFiles(i, i + 1)) {
+        FileScanTask task = Iterables.getOnlyElement(tasks);
+        Assert.assertEquals(1, task.deletes().size());
+      }
+    }
+  }
+
+  private Set<String> pathSet(DataFile... files) {
+    return Sets.newHashSet(
+        Iterables.transform(Arrays.asList(files), file -> file.path().toString()));
+  }
+
+  private Set<String> pathSet(CloseableIterable<FileScanTask> tasks) throws IOException {
+    try (CloseableIterable<FileScanTask> closeable = tasks) {
+      return Sets.newHashSet(Iterables.transform(closeable, task -> task.file().path().toString()));
+    }
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.flink.lookup;
+
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.functions.AsyncLookupFunction;
+import org.apache.flink.table.functions.FunctionContext;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An asynchronous lookup function for {@link RowData} type, which reads the lookup cache in a
+ * dedicated thread instead of the task thread.
+ */
+public class ArcticRowDataAsyncLookupFunction extends AsyncLookupFunction {
+  private static final long serialVersionUID = 1L;
+  private final BasicLookupFunction<RowData> basicLookupFunction;
+
+  public ArcticRowDataAsyncLookupFunction(BasicLookupFunction<RowData> basicLookupFunction) {
+    this.basicLookupFunction = basicLookupFunction;
+  }
+
+  @Override
+  public void open(FunctionContext context) throws Exception {
+    basicLookupFunction.open(context);
+  }
+
+  @Override
+  public CompletableFuture<Collection<RowData>> asyncLookup(RowData keyRow) {
+    return basicLookupFunction.asyncLookup(keyRow).thenApply(rows -> rows);
+  }
+
+  @Override
+  public void close() throws Exception {
+    basicLookupFunction.close();
+  }
+}
@@ -67,6 +67,10 @@ public class ArcticRowDataLookupFunction extends LookupFunction {
             readerFunction);
   }
 
+  public ArcticRowDataLookupFunction(BasicLookupFunction<RowData> basicLookupFunction) {
+    this.basicLookupFunction = basicLookupFunction;
+  }
+
   @Override
   public void open(FunctionContext context) throws IOException {
     basicLookupFunction.open(context);
@@ -20,10 +20,14 @@ package com.netease.arctic.flink.lookup;
 
 import static com.netease.arctic.flink.lookup.LookupMetrics.GROUP_NAME_LOOKUP;
 import static com.netease.arctic.flink.lookup.LookupMetrics.LOADING_TIME_MS;
+import static com.netease.arctic.flink.table.descriptors.ArcticValidator.LOOKUP_ASYNC;
+import static com.netease.arctic.flink.table.descriptors.ArcticValidator.LOOKUP_ASYNC_MAX_BATCH_SIZE;
+import static com.netease.arctic.flink.table.descriptors.ArcticValidator.LOOKUP_KEY_PARTITIONED;
 import static com.netease.arctic.flink.table.descriptors.ArcticValidator.LOOKUP_RELOADING_INTERVAL;
 import static com.netease.arctic.flink.util.ArcticUtils.loadArcticTable;
 import static org.apache.flink.util.Preconditions.checkArgument;
 
+import com.netease.arctic.data.DataTreeNode;
 import com.netease.arctic.flink.read.MixedIncrementalLoader;
 import com.netease.arctic.flink.read.hybrid.enumerator.MergeOnReadIncrementalPlanner;
 import com.netease.arctic.flink.read.hybrid.reader.DataIteratorReaderFunction;
@@ -48,9 +52,15 @@ import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
@@ -62,6 +72,7 @@ import java.util.function.Predicate;
 public class BasicLookupFunction<T> implements Serializable {
   private static final Logger LOG = LoggerFactory.getLogger(BasicLookupFunction.class);
   private static final long serialVersionUID = 1671720424494168710L;
+  private static final long EXECUTOR_TERMINATION_TIMEOUT_SECONDS = 60;
   private ArcticTable arcticTable;
   private KVTable<T> kvTable;
   private final List<String> joinKeys;
@@ -77,6 +88,15 @@ public class BasicLookupFunction<T> implements Serializable {
   private final TableFactory<T> kvTableFactory;
   private final AbstractAdaptHiveKeyedDataReader<T> flinkArcticMORDataReader;
   private final DataIteratorReaderFunction<T> readerFunction;
+  private final boolean keyPartitioned;
+  private transient LookupKeyPartitioner lookupKeyPartitioner;
+  private transient int subtaskIndex;
+  private transient int parallelism;
+  private final boolean async;
+  private final int asyncMaxBatchSize;
+  private transient BlockingQueue<PendingLookup<T>> pendingLookups;
+  private transient ExecutorService lookupExecutor;
+  private transient volatile boolean closed;
 
   private transient ScheduledExecutorService executor;
   private final AtomicReference<Throwable> failureThrowable = new AtomicReference<>();
@@ -108,6 +128,18 @@ public class BasicLookupFunction<T> implements Serializable {
     this.predicate = predicate;
     this.flinkArcticMORDataReader = flinkArcticMORDataReader;
     this.readerFunction = readerFunction;
+    this.keyPartitioned = config.get(LOOKUP_KEY_PARTITIONED);
+    this.async = config.get(LOOKUP_ASYNC);
+    this.asyncMaxBatchSize = config.get(LOOKUP_ASYNC_MAX_BATCH_SIZE);
+    checkArgument(asyncMaxBatchSize > 0, "lookup.async.max-batch-size must be greater than 0");
+    checkArgument(
+        !keyPartitioned
+            || new HashSet<>(joinKeys)
+                .equals(new HashSet<>(arcticTable.asKeyedTable().primaryKeySpec().fieldNames())),
+        String.format(
+            "Key-partitioned lookup join requires the join keys %s to be the primary key of table"
+                + " [%s].",
+            joinKeys, arcticTable.name()));
   }
 
   /**
@@ -136,6 +168,28 @@ public class BasicLookupFunction<T> implements Serializable {
     lookupLoadingTimeMs = new AtomicLong();
     metricGroup.gauge(LOADING_TIME_MS, () -> lookupLoadingTimeMs.get());
 
+    Predicate<T> rowPredicate = predicate;
+    Predicate<DataTreeNode> nodeFilter = node -> true;
+    if (keyPartitioned) {
+      StreamingRuntimeContext runtimeContext = getRuntimeContext(context);
+      subtaskIndex = runtimeContext.getIndexOfThisSubtask();
+      parallelism = runtimeContext.getNumberOfParallelSubtasks();
+      lookupKeyPartitioner = LookupKeyPartitioner.of(arcticTable.asKeyedTable(), joinKeys);
+      LookupKeyPartitioner rowPartitioner =
+          new LookupKeyPartitioner(arcticTable.asKeyedTable().primaryKeySpec(), projectSchema);
+      // the rows loaded by the lookup join are always RowData
+      Predicate<T> ownedRow =
+          row -> rowPartitioner.partition((RowData) row, parallelism) == subtaskIndex;
+      rowPredicate = predicate == null ? ownedRow : predicate.and(ownedRow);
+      nodeFilter = node -> LookupKeyPartitioner.mayContain(node, subtaskIndex, parallelism);
+      LOG.info(
+          "Key-partitioned lookup join, subtask {} of {} only loads its keys, skipping files by"
+              + " tree nodes: {}.",
+          subtaskIndex,
+          parallelism,
+          Integer.bitCount(parallelism) == 1);
+    }
+
     LOG.info("projected schema {}.\n table schema {}.", projectSchema, arcticTable.schema());
     kvTable =
         kvTableFactory.create(
@@ -144,7 +198,7 @@ public class BasicLookupFunction<T> implements Serializable {
             joinKeys,
             projectSchema,
             config,
-            predicate);
+            rowPredicate);
     kvTable.open();
 
     this.incrementalLoader =
@@ -152,7 +206,8 @@ public class BasicLookupFunction<T> implements Serializable {
             new MergeOnReadIncrementalPlanner(loader),
             flinkArcticMORDataReader,
             readerFunction,
-            filters);
+            filters,
+            nodeFilter);
   }
 
   public void start() {
@@ -176,10 +231,20 @@ public class BasicLookupFunction<T> implements Serializable {
         0,
         reloadIntervalSeconds,
         TimeUnit.MILLISECONDS);
+
+    if (async) {
+      // a single thread reads the kvTable, since the serializers of the kvTable are not thread-safe
+      this.pendingLookups = new LinkedBlockingQueue<>();
+      this.lookupExecutor =
+          Executors.newSingleThreadExecutor(
+              new ExecutorThreadFactory("Arctic-lookup-async-reader"));
+      this.lookupExecutor.execute(this::serveAsyncLookups);
+    }
   }
 
   public List<T> lookup(RowData lookupKey) {
     checkErrorAndRethrow();
+    checkKeyPartition(lookupKey);
     try {
       return kvTable.get(lookupKey);
     } catch (Exception e) {
@@ -187,6 +252,77 @@ public class BasicLookupFunction<T> implements Serializable {
     }
   }
 
+  /**
+   * Lookup asynchronously, the lookups are served by the async reader thread in batches. Only
+   * available if {@link com.netease.arctic.flink.table.descriptors.ArcticValidator#LOOKUP_ASYNC} is
+   * enabled.
+   */
+  public CompletableFuture<List<T>> asyncLookup(RowData lookupKey) {
+    Preconditions.checkState(async, "Async lookup is not enabled");
+    CompletableFuture<List<T>> future = new CompletableFuture<>();
+    try {
+      checkErrorAndRethrow();
+      checkKeyPartition(lookupKey);
+    } catch (RuntimeException e) {
+      future.completeExceptionally(e);
+      return future;
+    }
+    pendingLookups.add(new PendingLookup<>(lookupKey, future));
+    if (closed) {
+      // the async reader thread may have exited before the lookup is added
+      failPendingLookups();
+    }
+    return future;
+  }
+
+  private void serveAsyncLookups() {
+    List<PendingLookup<T>> batch = new ArrayList<>(asyncMaxBatchSize);
+    List<RowData> keys = new ArrayList<>(asyncMaxBatchSize);
+    // the interruption may be swallowed by reading the kvTable, so the closed flag is checked too
+    while (!closed && !Thread.currentThread().isInterrupted()) {
+      try {
+        batch.add(pendingLookups.take());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+      // batch the lookups arrived meanwhile into a multi-get
+      pendingLookups.drainTo(batch, asyncMaxBatchSize - 1);
+      batch.forEach(pendingLookup -> keys.add(pendingLookup.key));
+      try {
+        checkErrorAndRethrow();
+        List<List<T>> results = kvTable.get(keys);
+        for (int i = 0; i < batch.size(); i++) {
+          batch.get(i).future.complete(results.get(i));
+        }
+      } catch (Throwable t) {
+        batch.forEach(pendingLookup -> pendingLookup.future.completeExceptionally(t));
+      }
+      batch.clear();
+      keys.clear();
+    }
+  }
+
+  private void failPendingLookups() {
+    List<PendingLookup<T>> lookups = new ArrayList<>();
+    pendingLookups.drainTo(lookups);
+    lookups.forEach(
+        pendingLookup ->
+            pendingLookup.future.completeExceptionally(
+                new FlinkRuntimeException("The lookup function is closed.")));
+  }
+
+  private void checkKeyPartition(RowData lookupKey) {
+    if (lookupKeyPartitioner != null
+        && lookupKeyPartitioner.partition(lookupKey, parallelism) != subtaskIndex) {
+      throw new FlinkRuntimeException(
+          String.format(
+              "The lookup key %s is not partitioned to subtask %s of %s, the input of the"
+                  + " key-partitioned lookup join must be partitioned by LookupKeyPartitioner.",
+              lookupKey, subtaskIndex, parallelism));
+    }
+  }
+
   /**
    * Check whether it is time to periodically load data to kvTable. Support to use {@link
    * Expression} filters to filter the data.
@@ -234,12 +370,34 @@ public class BasicLookupFunction<T> implements Serializable {
   }
 
   public void close() throws Exception {
+    closed = true;
+    // the loader and the async reader threads must exit before the kvTable is closed, since
+    // accessing a closed RocksDB crashes the process
+    boolean loaderTerminated = shutdownAndAwait(executor);
+    boolean readerTerminated = shutdownAndAwait(lookupExecutor);
+    if (pendingLookups != null) {
+      failPendingLookups();
+    }
     if (kvTable != null) {
-      kvTable.close();
+      if (loaderTerminated && readerTerminated) {
+        kvTable.close();
+      } else {
+        LOG.warn(
+            "The threads of the lookup function of table {} are not terminated in {}s, skip"
+                + " closing the kvTable.",
+            arcticTable.name(),
+            EXECUTOR_TERMINATION_TIMEOUT_SECONDS);
+      }
     }
-    if (executor != null) {
-      executor.shutdownNow();
+  }
+
+  private static boolean shutdownAndAwait(ExecutorService executorService)
+      throws InterruptedException {
+    if (executorService == null) {
+      return true;
     }
+    executorService.shutdownNow();
+    return executorService.awaitTermination(EXECUTOR_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
   }
 
   private void checkErrorAndRethrow() {
@@ -249,6 +407,16 @@ public class BasicLookupFunction<T> implements Serializable {
     }
   }
 
+  private static class PendingLookup<T> {
+    private final RowData key;
+    private final CompletableFuture<List<T>> future;
+
+    private PendingLookup(RowData key, CompletableFuture<List<T>> future) {
+      this.key = key;
+      this.future = future;
+    }
+  }
+
   private String generateRocksDBPath(FunctionContext context, String tableName) {
     String tmpPath = getTmpDirectoryFromTMContainer(context);
     File db = new File(tmpPath, tableName + "-lookup-" + UUID.randomUUID());
@@ -256,12 +424,16 @@ public class BasicLookupFunction<T> implements Serializable {
   }
 
   private static String getTmpDirectoryFromTMContainer(FunctionContext context) {
+    String[] tmpDirectories =
+        getRuntimeContext(context).getTaskManagerRuntimeInfo().getTmpDirectories();
+    return tmpDirectories[ThreadLocalRandom.current().nextInt(tmpDirectories.length)];
+  }
+
+  private static StreamingRuntimeContext getRuntimeContext(FunctionContext context) {
     try {
       Field field = context.getClass().getDeclaredField("context");
       field.setAccessible(true);
-      StreamingRuntimeContext runtimeContext = (StreamingRuntimeContext) field.get(context);
-      String[] tmpDirectories = runtimeContext.getTaskManagerRuntimeInfo().getTmpDirectories();
-      return tmpDirectories[ThreadLocalRandom.current().nextInt(tmpDirectories.length)];
+      return (StreamingRuntimeContext) field.get(context);
     } catch (NoSuchFieldException | IllegalAccessException e) {
       throw new RuntimeException(e);
     }
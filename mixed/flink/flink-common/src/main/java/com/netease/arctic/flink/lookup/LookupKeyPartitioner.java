@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.flink.lookup;
+
+import com.netease.arctic.data.DataTreeNode;
+import com.netease.arctic.data.PrimaryKeyData;
+import com.netease.arctic.flink.shuffle.ShuffleHelper;
+import com.netease.arctic.table.KeyedTable;
+import com.netease.arctic.table.PrimaryKeySpec;
+import org.apache.flink.api.common.functions.Partitioner;
+import org.apache.flink.table.data.RowData;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.flink.FlinkSchemaUtil;
+import org.apache.iceberg.relocated.com.google.common.base.Preconditions;
+import org.apache.iceberg.types.Types;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Partitions rows of a keyed arctic table by the hash of their primary key, which is the same hash
+ * the writers use to assign the rows to {@link DataTreeNode}s.
+ *
+ * <p>It is used by the key-partitioned lookup join, see {@link
+ * com.netease.arctic.flink.table.descriptors.ArcticValidator#LOOKUP_KEY_PARTITIONED}. The input of
+ * the lookup join should be partitioned by it, e.g. {@code
+ * input.partitionCustom(LookupKeyPartitioner.of(table, keyFields), keySelector)}, so each subtask
+ * only looks up and loads the keys partitioned to it.
+ */
+public class LookupKeyPartitioner implements Partitioner<RowData> {
+  private static final long serialVersionUID = 1L;
+
+  private final ShuffleHelper helper;
+
+  /**
+   * @param primaryKeySpec the primary key of the table
+   * @param schema the schema of the partitioned rows, which must contain the primary key fields
+   */
+  public LookupKeyPartitioner(PrimaryKeySpec primaryKeySpec, Schema schema) {
+    Preconditions.checkArgument(
+        primaryKeySpec.primaryKeyExisted(), "Only keyed table supports key-partitioned lookup");
+    this.helper =
+        new ShuffleHelper(
+            true,
+            new PrimaryKeyData(primaryKeySpec, schema),
+            null,
+            FlinkSchemaUtil.convert(schema),
+            schema.asStruct());
+  }
+
+  /**
+   * Creates a partitioner of the rows composed by the fields of the table in the given order, e.g.
+   * the lookup keys.
+   */
+  public static LookupKeyPartitioner of(KeyedTable table, List<String> fieldNames) {
+    List<Types.NestedField> fields =
+        fieldNames.stream()
+            .map(
+                name ->
+                    Preconditions.checkNotNull(
+                        table.schema().findField(name), "Cannot find field %s", name))
+            .collect(Collectors.toList());
+    return new LookupKeyPartitioner(table.primaryKeySpec(), new Schema(fields));
+  }
+
+  @Override
+  public int partition(RowData row, int numPartitions) {
+    helper.open();
+    return partition(helper.hashKeyValue(row), numPartitions);
+  }
+
+  static int partition(int keyHash, int numPartitions) {
+    return keyHash % numPartitions;
+  }
+
+  /**
+   * Returns false only if the tree node can not contain any key of the partition. The files of a
+   * node can be skipped only if the number of partitions is a power of 2, since otherwise the
+   * partition of a key depends on the hash bits beyond the mask of the node.
+   */
+  public static boolean mayContain(DataTreeNode node, int partition, int numPartitions) {
+    if (Integer.bitCount(numPartitions) != 1) {
+      return true;
+    }
+    long partitionMask = numPartitions - 1;
+    return (partition & node.mask()) == (node.index() & partitionMask);
+  }
+}
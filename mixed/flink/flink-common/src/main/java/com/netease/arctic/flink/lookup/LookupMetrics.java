@@ -24,4 +24,7 @@ public class LookupMetrics {
   public static final String LOADING_TIME_MS = "lookup_loading_cost_ms";
   public static final String UNIQUE_CACHE_SIZE = "lookup_unique_index_cache_size";
   public static final String SECONDARY_CACHE_SIZE = "lookup_secondary_index_cache_size";
+  public static final String LOADED_RECORDS = "loaded_records";
+  public static final String LOADING_RECORDS_PER_SECOND = "loading_records_per_second";
+  public static final String CACHE_HIT_RATIO = "cache_hit_ratio";
 }
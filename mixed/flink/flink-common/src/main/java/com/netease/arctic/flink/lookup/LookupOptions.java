@@ -28,6 +28,7 @@ public class LookupOptions implements Serializable {
   private static final long serialVersionUID = -1L;
 
   private final long lruMaximumSize;
+  private final int cacheShardNum;
   private final int writeRecordThreadNum;
   private final Duration ttlAfterWrite;
   private final long blockCacheCapacity;
@@ -35,6 +36,7 @@ public class LookupOptions implements Serializable {
 
   private LookupOptions(Builder builder) {
     this.lruMaximumSize = builder.lruMaximumSize;
+    this.cacheShardNum = builder.cacheShardNum;
     this.writeRecordThreadNum = builder.writeRecordThreadNum;
     this.ttlAfterWrite = builder.ttlAfterWrite;
     this.blockCacheCapacity = builder.blockCacheCapacity;
@@ -45,6 +47,10 @@ public class LookupOptions implements Serializable {
     return lruMaximumSize;
   }
 
+  public int cacheShardNum() {
+    return cacheShardNum;
+  }
+
   public int writeRecordThreadNum() {
     return writeRecordThreadNum;
   }
@@ -70,6 +76,8 @@ public class LookupOptions implements Serializable {
     return "LookupOptions{"
         + "lruMaximumSize="
         + lruMaximumSize
+        + ", cacheShardNum="
+        + cacheShardNum
         + ", writeRecordThreadNum="
         + writeRecordThreadNum
         + ", ttlAfterWrite="
@@ -83,6 +91,7 @@ public class LookupOptions implements Serializable {
 
   public static class Builder {
     private long lruMaximumSize;
+    private int cacheShardNum = 1;
     private int writeRecordThreadNum;
     private Duration ttlAfterWrite;
     private long blockCacheCapacity;
@@ -95,6 +104,13 @@ public class LookupOptions implements Serializable {
       return this;
     }
 
+    /** The maximum number of shards of the LRU cache. */
+    public Builder cacheShardNum(int cacheShardNum) {
+      Preconditions.checkArgument(cacheShardNum > 0, "cacheShardNum must be greater than 0");
+      this.cacheShardNum = cacheShardNum;
+      return this;
+    }
+
     /** Write record thread num. */
     public Builder writeRecordThreadNum(int writeRecordThreadNum) {
       Preconditions.checkArgument(
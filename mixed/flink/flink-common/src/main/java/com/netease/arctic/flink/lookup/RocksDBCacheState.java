@@ -18,6 +18,10 @@
 
 package com.netease.arctic.flink.lookup;
 
+import static com.netease.arctic.flink.lookup.LookupMetrics.CACHE_HIT_RATIO;
+import static com.netease.arctic.flink.lookup.LookupMetrics.LOADED_RECORDS;
+import static com.netease.arctic.flink.lookup.LookupMetrics.LOADING_RECORDS_PER_SECOND;
+
 import com.netease.arctic.ArcticIOException;
 import com.netease.arctic.utils.map.RocksDBBackend;
 import org.apache.flink.annotation.VisibleForTesting;
@@ -32,21 +36,25 @@ import org.apache.flink.util.Preconditions;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.MutableColumnFamilyOptions;
 import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteBatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -55,10 +63,20 @@ import java.util.stream.IntStream;
  * This is an abstract state backed by RocksDB and Guava cache for storing and retrieving key-value
  * pairs of byte arrays.
  *
+ * <p>During the initialization, records are handed over to the writing threads through bounded
+ * queues and written into RocksDB in {@link WriteBatch}es. Each writing thread owns one queue, and
+ * records are routed to the queues by the hash of their keys, so the updates of the same key are
+ * always written by the same thread in their original order. Lookups are served by a {@link
+ * ShardedCache} in front of RocksDB.
+ *
  * @param <V> the type of the cache's values, which are not permitted to be null
  */
 public abstract class RocksDBCacheState<V> {
   private static final Logger LOG = LoggerFactory.getLogger(RocksDBCacheState.class);
+  /** The maximum number of records written into RocksDB in one batch. */
+  static final int WRITE_BATCH_SIZE = 1024;
+
+  private static final long POLL_TIMEOUT_MS = 100;
   protected RocksDBBackend rocksDB;
   protected final boolean secondaryIndexMemoryMapEnabled;
 
@@ -72,7 +90,15 @@ public abstract class RocksDBCacheState<V> {
   private ExecutorService writeRocksDBService;
   private final AtomicBoolean initialized = new AtomicBoolean(false);
   private final AtomicBoolean closed = new AtomicBoolean(false);
-  protected Queue<LookupRecord> lookupRecordsQueue;
+  /** Set when all records have been put into the queue, then the writing threads drain it. */
+  private final AtomicBoolean writeFinishing = new AtomicBoolean(false);
+
+  /** The queues of the writing threads, records of the same key always go to the same queue. */
+  private List<BlockingQueue<LookupRecord>> lookupRecordsQueues;
+
+  private final AtomicLong loadedRecords = new AtomicLong();
+  private volatile long loadingStartTime;
+  private volatile long loadingEndTime;
 
   private final int writeRocksDBThreadNum;
   private List<Future<?>> writeRocksDBThreadFutures;
@@ -108,11 +134,19 @@ public abstract class RocksDBCacheState<V> {
         cacheBuilder.expireAfterWrite(lookupOptions.ttlAfterWrite());
       }
     }
-    guavaCache = CacheBuilder.newBuilder().maximumSize(lookupOptions.lruMaximumSize()).build();
+    guavaCache = ShardedCache.create(lookupOptions.lruMaximumSize(), lookupOptions.cacheShardNum());
 
-    addGauge(columnFamilyName + "_queue_size", () -> lookupRecordsQueue.size());
+    addGauge(columnFamilyName + "_queue_size", this::queueSize);
+    addGauge(columnFamilyName + "_" + LOADED_RECORDS, loadedRecords::get);
+    addGauge(columnFamilyName + "_" + LOADING_RECORDS_PER_SECOND, this::loadingRecordsPerSecond);
+    addGauge(columnFamilyName + "_" + CACHE_HIT_RATIO, () -> guavaCache.stats().hitRate());
 
-    lookupRecordsQueue = new ConcurrentLinkedQueue<>();
+    // bound the queues, so that the loading is throttled to the speed of the writing threads
+    lookupRecordsQueues =
+        IntStream.range(0, writeRocksDBThreadNum)
+            .mapToObj(value -> new LinkedBlockingQueue<LookupRecord>(WRITE_BATCH_SIZE * 4))
+            .collect(Collectors.toList());
+    loadingStartTime = System.currentTimeMillis();
     writeRocksDBThreadFutures =
         IntStream.range(0, writeRocksDBThreadNum)
             .mapToObj(
@@ -121,6 +155,7 @@ public abstract class RocksDBCacheState<V> {
                         new WriteRocksDBTask(
                             String.format(
                                 "writing-rocksDB-cf_%s-thread-%d", columnFamilyName, value),
+                            lookupRecordsQueues.get(value),
                             secondaryIndexMemoryMapEnabled)))
             .collect(Collectors.toList());
   }
@@ -150,37 +185,66 @@ public abstract class RocksDBCacheState<V> {
     return new ByteArrayWrapper(bytes, bytes.length);
   }
 
+  /**
+   * Put the record into the queue of the writing thread its key belongs to, blocking while that
+   * thread falls behind.
+   */
   protected void putIntoQueue(LookupRecord lookupRecord) {
     Preconditions.checkNotNull(lookupRecord);
-    lookupRecordsQueue.add(lookupRecord);
+    BlockingQueue<LookupRecord> queue =
+        lookupRecordsQueues.get(
+            Math.floorMod(Arrays.hashCode(lookupRecord.keyBytes()), lookupRecordsQueues.size()));
+    try {
+      while (!queue.offer(lookupRecord, POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+        // the queue would never be drained if the writing threads failed
+        checkConcurrentFailed();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new FlinkRuntimeException(e);
+    }
   }
 
-  /** Waiting for the writing threads completed. */
+  /**
+   * Waiting for the writing threads completed. The writing threads exit after they have drained the
+   * queue, no more records should be put into the queue after this method is called.
+   */
   public void waitWriteRocksDBDone() {
-    long every5SecondsPrint = Long.MIN_VALUE;
-
-    while (true) {
-      if (lookupRecordsQueue.isEmpty()) {
-        initialized.set(true);
-        break;
-      } else if (every5SecondsPrint < System.currentTimeMillis()) {
-        LOG.info("Currently rocksDB queue size is {}.", lookupRecordsQueue.size());
-        every5SecondsPrint = System.currentTimeMillis() + 5000;
-      }
-    }
-    // Wait for all threads to finish
+    writeFinishing.set(true);
     for (Future<?> future : writeRocksDBThreadFutures) {
-      try {
-        // wait for the task to complete, with a timeout of 5 seconds
-        future.get(5, TimeUnit.SECONDS);
-      } catch (TimeoutException e) {
-        // task took too long, interrupt the thread and terminate the task
-        future.cancel(true);
-      } catch (InterruptedException | ExecutionException e) {
-        // handle other exceptions
-        throw new FlinkRuntimeException(e);
+      while (true) {
+        try {
+          future.get(5, TimeUnit.SECONDS);
+          break;
+        } catch (TimeoutException e) {
+          LOG.info("Currently rocksDB queue size is {}.", queueSize());
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new FlinkRuntimeException(e);
+        } catch (ExecutionException e) {
+          throw new FlinkRuntimeException(e);
+        }
       }
     }
+    checkConcurrentFailed();
+    loadingEndTime = System.currentTimeMillis();
+    initialized.set(true);
+    LOG.info(
+        "Loaded {} records into column family {}, {} records per second.",
+        loadedRecords.get(),
+        columnFamilyName,
+        loadingRecordsPerSecond());
+  }
+
+  private long queueSize() {
+    List<BlockingQueue<LookupRecord>> queues = lookupRecordsQueues;
+    return queues == null ? 0 : queues.stream().mapToLong(BlockingQueue::size).sum();
+  }
+
+  private long loadingRecordsPerSecond() {
+    long end = loadingEndTime > 0 ? loadingEndTime : System.currentTimeMillis();
+    long costMs = Math.max(end - loadingStartTime, 1);
+    return loadedRecords.get() * 1000 / costMs;
   }
 
   public boolean initialized() {
@@ -203,7 +267,7 @@ public abstract class RocksDBCacheState<V> {
   /**
    * Closes the RocksDB instance and cleans up the Guava cache.
    *
-   * <p>Additionally, it shuts down the write-service and clears the RocksDB record queue if they
+   * <p>Additionally, it shuts down the write-service and clears the RocksDB record queues if they
    * exist.
    */
   public void close() {
@@ -214,9 +278,9 @@ public abstract class RocksDBCacheState<V> {
       writeRocksDBService = null;
     }
     closed.set(true);
-    if (lookupRecordsQueue != null) {
-      lookupRecordsQueue.clear();
-      lookupRecordsQueue = null;
+    if (lookupRecordsQueues != null) {
+      lookupRecordsQueues.forEach(BlockingQueue::clear);
+      lookupRecordsQueues = null;
     }
   }
 
@@ -254,36 +318,43 @@ public abstract class RocksDBCacheState<V> {
    *
    * <p>During the initialization phase, the incremental pull approach is also used to retrieve data
    * that include four {@link RowKind} rowKinds, -D, +I, -U, and +U.
+   *
+   * <p>The records are drained from the queue of this thread and written in a {@link WriteBatch} of
+   * up to {@link #WRITE_BATCH_SIZE} records. The task exits when the queue is empty after {@link
+   * #waitWriteRocksDBDone()} is called.
    */
   class WriteRocksDBTask implements Runnable {
 
     private final String name;
+    private final BlockingQueue<LookupRecord> queue;
     private final boolean secondaryIndexMemoryMapEnabled;
 
-    public WriteRocksDBTask(String name, boolean secondaryIndexMemoryMapEnabled) {
+    public WriteRocksDBTask(
+        String name, BlockingQueue<LookupRecord> queue, boolean secondaryIndexMemoryMapEnabled) {
       this.name = name;
+      this.queue = queue;
       this.secondaryIndexMemoryMapEnabled = secondaryIndexMemoryMapEnabled;
     }
 
     @Override
     public void run() {
       LOG.info("{} starting.", name);
-      try {
-        while (!closed.get() && !initialized.get()) {
-          LookupRecord record = lookupRecordsQueue.poll();
-          if (record != null) {
-            switch (record.opType()) {
-              case PUT_BYTES:
-                put(record);
-                break;
-              case DELETE_BYTES:
-                delete(record);
-                break;
-              default:
-                throw new IllegalArgumentException(
-                    String.format("Not support this OpType %s", record.opType()));
+      List<LookupRecord> records = new ArrayList<>(WRITE_BATCH_SIZE);
+      try (WriteBatch writeBatch = new WriteBatch()) {
+        while (!closed.get()) {
+          LookupRecord record = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+          if (record == null) {
+            if (writeFinishing.get() && queue.isEmpty()) {
+              break;
             }
+            continue;
           }
+          records.add(record);
+          queue.drainTo(records, WRITE_BATCH_SIZE - 1);
+          write(records, writeBatch);
+          loadedRecords.addAndGet(records.size());
+          // manually clear the records
+          records.clear();
         }
       } catch (Throwable e) {
         LOG.error("writing failed:", e);
@@ -292,24 +363,39 @@ public abstract class RocksDBCacheState<V> {
       LOG.info("{} stopping.", name);
     }
 
-    private void delete(LookupRecord record) {
+    private void write(List<LookupRecord> records, WriteBatch writeBatch) throws RocksDBException {
       if (secondaryIndexMemoryMapEnabled) {
-        deleteSecondaryCache(record.keyBytes(), record.valueBytes());
-      } else {
-        rocksDB.delete(columnFamilyName, record.keyBytes());
-        // manually clear the record
-        record = null;
+        for (LookupRecord record : records) {
+          switch (record.opType()) {
+            case PUT_BYTES:
+              putSecondaryCache(record.keyBytes(), record.valueBytes());
+              break;
+            case DELETE_BYTES:
+              deleteSecondaryCache(record.keyBytes(), record.valueBytes());
+              break;
+            default:
+              throw new IllegalArgumentException(
+                  String.format("Not support this OpType %s", record.opType()));
+          }
+        }
+        return;
       }
-    }
 
-    private void put(LookupRecord record) {
-      if (secondaryIndexMemoryMapEnabled) {
-        putSecondaryCache(record.keyBytes(), record.valueBytes());
-      } else {
-        rocksDB.put(columnFamilyHandle, record.keyBytes(), record.valueBytes());
-        // manually clear the record
-        record = null;
+      for (LookupRecord record : records) {
+        switch (record.opType()) {
+          case PUT_BYTES:
+            writeBatch.put(columnFamilyHandle, record.keyBytes(), record.valueBytes());
+            break;
+          case DELETE_BYTES:
+            writeBatch.delete(columnFamilyHandle, record.keyBytes());
+            break;
+          default:
+            throw new IllegalArgumentException(
+                String.format("Not support this OpType %s", record.opType()));
+        }
       }
+      rocksDB.write(writeBatch);
+      writeBatch.clear();
     }
   }
 
@@ -27,6 +27,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 /** A class used to store the state of a lookup record. For {@link UniqueIndexTable}. */
@@ -91,6 +93,48 @@ public class RocksDBRecordState extends RocksDBCacheState<byte[]> {
     return Optional.ofNullable(deserializeValue(recordBytes));
   }
 
+  /**
+   * Retrieve the RowData of the keys from guava cache firstly, and fetch the missing values from
+   * the rocksDB by a single multi-get.
+   *
+   * @param keys try to find the records via these keys.
+   * @return the records in the order of the keys.
+   * @throws IOException if serialize the RowData keys failed.
+   */
+  public List<Optional<RowData>> multiGet(List<RowData> keys) throws IOException {
+    List<byte[]> records = new ArrayList<>(keys.size());
+    List<ByteArrayWrapper> missingKeys = new ArrayList<>();
+    List<Integer> missingPositions = new ArrayList<>();
+    for (RowData key : keys) {
+      ByteArrayWrapper keyBytes = wrap(serializeKey(key));
+      byte[] recordBytes = guavaCache.getIfPresent(keyBytes);
+      if (recordBytes == null) {
+        missingKeys.add(keyBytes);
+        missingPositions.add(records.size());
+      }
+      records.add(recordBytes);
+    }
+
+    if (!missingKeys.isEmpty()) {
+      List<byte[]> missingKeyBytes = new ArrayList<>(missingKeys.size());
+      missingKeys.forEach(key -> missingKeyBytes.add(key.bytes));
+      List<byte[]> missingRecords = rocksDB.multiGet(columnFamilyHandle, missingKeyBytes);
+      for (int i = 0; i < missingKeys.size(); i++) {
+        byte[] recordBytes = missingRecords.get(i);
+        if (recordBytes != null) {
+          guavaCache.put(missingKeys.get(i), recordBytes);
+          records.set(missingPositions.get(i), recordBytes);
+        }
+      }
+    }
+
+    List<Optional<RowData>> result = new ArrayList<>(records.size());
+    for (byte[] recordBytes : records) {
+      result.add(Optional.ofNullable(deserializeValue(recordBytes)));
+    }
+    return result;
+  }
+
   /**
    * Putting the serialized RowData key and value into the rocksDB and cache.
    *
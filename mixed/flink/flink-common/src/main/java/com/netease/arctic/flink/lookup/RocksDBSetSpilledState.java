@@ -18,12 +18,15 @@
 
 package com.netease.arctic.flink.lookup;
 
+import com.netease.arctic.ArcticIOException;
 import com.netease.arctic.utils.map.RocksDBBackend;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.shaded.guava30.com.google.common.cache.Cache;
 import org.apache.flink.table.data.RowData;
 import org.apache.iceberg.relocated.com.google.common.collect.Sets;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteBatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -205,19 +208,31 @@ public class RocksDBSetSpilledState extends RocksDBCacheState<Set<ByteArrayWrapp
 
   public void bulkIntoRocksDB() {
     LOG.info("Total size={} in the tmp map, try to bulk into rocksdb", tmpInitializationMap.size());
-    int[] count = {0};
+    int count = 0;
     long start = System.currentTimeMillis();
 
-    tmpInitializationMap.forEach(
-        (byteArrayWrapper, set) -> {
-          rocksDB.put(
-              columnFamilyHandle, byteArrayWrapper.bytes, ByteArraySetSerializer.serialize(set));
-          set = null;
-          count[0] = count[0] + 1;
-          if (count[0] % 100000 == 0) {
-            LOG.info("Ingested {} into rocksdb.", count[0]);
-          }
-        });
+    try (WriteBatch writeBatch = new WriteBatch()) {
+      for (Map.Entry<ByteArrayWrapper, Set<ByteArrayWrapper>> entry :
+          tmpInitializationMap.entrySet()) {
+        writeBatch.put(
+            columnFamilyHandle,
+            entry.getKey().bytes,
+            ByteArraySetSerializer.serialize(entry.getValue()));
+        count++;
+        if (count % WRITE_BATCH_SIZE == 0) {
+          rocksDB.write(writeBatch);
+          writeBatch.clear();
+        }
+        if (count % 100000 == 0) {
+          LOG.info("Ingested {} into rocksdb.", count);
+        }
+      }
+      if (writeBatch.count() > 0) {
+        rocksDB.write(writeBatch);
+      }
+    } catch (RocksDBException e) {
+      throw new ArcticIOException(e);
+    }
     tmpInitializationMap.clear();
 
     LOG.info("Ingested {} completely, cost:{} ms.", count, System.currentTimeMillis() - start);
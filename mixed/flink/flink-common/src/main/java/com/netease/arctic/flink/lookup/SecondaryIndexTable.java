@@ -99,6 +99,16 @@ public class SecondaryIndexTable extends UniqueIndexTable {
     return Collections.emptyList();
   }
 
+  @Override
+  public List<List<RowData>> get(List<RowData> keys) throws IOException {
+    // the secondary keys are not the keys of the record state, so they are looked up one by one
+    List<List<RowData>> results = new ArrayList<>(keys.size());
+    for (RowData key : keys) {
+      results.add(get(key));
+    }
+    return results;
+  }
+
   @Override
   public void upsert(Iterator<RowData> dataStream) throws IOException {
     while (dataStream.hasNext()) {
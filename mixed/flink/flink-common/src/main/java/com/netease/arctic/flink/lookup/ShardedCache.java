@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netease.arctic.flink.lookup;
+
+import org.apache.flink.shaded.guava30.com.google.common.cache.AbstractCache;
+import org.apache.flink.shaded.guava30.com.google.common.cache.Cache;
+import org.apache.flink.shaded.guava30.com.google.common.cache.CacheBuilder;
+import org.apache.flink.shaded.guava30.com.google.common.cache.CacheStats;
+import org.apache.flink.util.Preconditions;
+
+/**
+ * An LRU cache split into independent Guava caches by the hash of keys.
+ *
+ * <p>Each shard is a Guava cache with its own segment locks, so reads, writes and evictions of keys
+ * in different shards never contend, and the lookup threads and the loading threads only contend
+ * when they touch the same shard. Each shard evicts its least recently used entries independently,
+ * and the whole cache holds at most the maximum size of entries.
+ */
+public class ShardedCache<K, V> extends AbstractCache<K, V> {
+  /** A shard holds at least this number of entries, to keep the LRU eviction meaningful. */
+  static final long MIN_SHARD_SIZE = 1024;
+
+  private final Cache<K, V>[] shards;
+  private final int mask;
+
+  @SuppressWarnings("unchecked")
+  private ShardedCache(long maximumSize, int shardNum) {
+    this.shards = new Cache[shardNum];
+    this.mask = shardNum - 1;
+    long shardSize = maximumSize / shardNum;
+    for (int i = 0; i < shardNum; i++) {
+      // distribute the remainder, so that the total size equals the maximum size
+      long size = i < maximumSize % shardNum ? shardSize + 1 : shardSize;
+      shards[i] = CacheBuilder.newBuilder().maximumSize(size).recordStats().build();
+    }
+  }
+
+  /**
+   * Creates a cache with up to {@code maxShardNum} shards. The actual number of shards is a power
+   * of two, and is reduced if a shard would hold fewer than {@link #MIN_SHARD_SIZE} entries.
+   */
+  public static <K, V> ShardedCache<K, V> create(long maximumSize, int maxShardNum) {
+    Preconditions.checkArgument(maximumSize >= 0, "maximumSize must not be negative");
+    Preconditions.checkArgument(maxShardNum > 0, "maxShardNum must be greater than 0");
+    int shardNum = 1;
+    while (shardNum * 2 <= maxShardNum && maximumSize / (shardNum * 2) >= MIN_SHARD_SIZE) {
+      shardNum *= 2;
+    }
+    return new ShardedCache<>(maximumSize, shardNum);
+  }
+
+  int shardNum() {
+    return shards.length;
+  }
+
+  private Cache<K, V> shard(Object key) {
+    int h = key.hashCode();
+    // spread the higher bits, like HashMap
+    return shards[(h ^ (h >>> 16)) & mask];
+  }
+
+  @Override
+  public V getIfPresent(Object key) {
+    return shard(key).getIfPresent(key);
+  }
+
+  @Override
+  public void put(K key, V value) {
+    shard(key).put(key, value);
+  }
+
+  @Override
+  public void invalidate(Object key) {
+    shard(key).invalidate(key);
+  }
+
+  @Override
+  public void invalidateAll() {
+    for (Cache<K, V> shard : shards) {
+      shard.invalidateAll();
+    }
+  }
+
+  @Override
+  public long size() {
+    long size = 0;
+    for (Cache<K, V> shard : shards) {
+      size += shard.size();
+    }
+    return size;
+  }
+
+  @Override
+  public void cleanUp() {
+    for (Cache<K, V> shard : shards) {
+      shard.cleanUp();
+    }
+  }
+
+  @Override
+  public CacheStats stats() {
+    CacheStats stats = shards[0].stats();
+    for (int i = 1; i < shards.length; i++) {
+      stats = stats.plus(shards[i].stats());
+    }
+    return stats;
+  }
+}
@@ -81,6 +81,13 @@ public class UniqueIndexTable implements KVTable<RowData> {
     return record.map(Collections::singletonList).orElse(Collections.emptyList());
   }
 
+  @Override
+  public List<List<RowData>> get(List<RowData> keys) throws IOException {
+    return recordState.multiGet(keys).stream()
+        .map(record -> record.map(Collections::singletonList).orElse(Collections.emptyList()))
+        .collect(Collectors.toList());
+  }
+
   @Override
   public void upsert(Iterator<RowData> dataStream) throws IOException {
     while (dataStream.hasNext()) {
@@ -19,15 +19,18 @@
 package com.netease.arctic.flink.read;
 
 import com.netease.arctic.data.DataFileType;
+import com.netease.arctic.data.DefaultKeyedFile;
 import com.netease.arctic.flink.read.hybrid.split.ArcticSplit;
 import com.netease.arctic.flink.read.hybrid.split.ChangelogSplit;
 import com.netease.arctic.flink.read.hybrid.split.MergeOnReadSplit;
 import com.netease.arctic.flink.read.hybrid.split.SnapshotSplit;
 import com.netease.arctic.scan.ArcticFileScanTask;
+import com.netease.arctic.scan.BasicArcticFileScanTask;
 import com.netease.arctic.scan.ChangeTableIncrementalScan;
 import com.netease.arctic.scan.CombinedScanTask;
 import com.netease.arctic.scan.KeyedTableScan;
 import com.netease.arctic.table.KeyedTable;
+import org.apache.iceberg.DataManifestBatchScan;
 import org.apache.iceberg.FileScanTask;
 import org.apache.iceberg.expressions.Expression;
 import org.apache.iceberg.io.CloseableIterable;
@@ -104,6 +107,40 @@ public class FlinkSplitPlanner {
     return allSplits;
   }
 
+  /**
+   * Plans the base files in a batch of data manifests of the base table, each base file is planned
+   * as a {@link SnapshotSplit}.
+   *
+   * @param baseScan The scan of a base table snapshot.
+   * @param fromManifest The index of the first data manifest to plan, inclusive.
+   * @param toManifest The index of the last data manifest to plan, exclusive.
+   * @param splitCount The atomic integer to track the split count.
+   * @return The list of planned {@link SnapshotSplit}.
+   */
+  public static List<ArcticSplit> planBaseManifests(
+      DataManifestBatchScan baseScan, int fromManifest, int toManifest, AtomicInteger splitCount) {
+    List<ArcticFileScanTask> baseTasks = Lists.newArrayList();
+    try (CloseableIterable<FileScanTask> tasks = baseScan.planFiles(fromManifest, toManifest)) {
+      tasks.forEach(
+          task ->
+              baseTasks.add(
+                  new BasicArcticFileScanTask(
+                      DefaultKeyedFile.parseBase(task.file()),
+                      task.deletes(),
+                      task.spec(),
+                      task.residual())));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    baseTasks.sort(Comparator.comparing(t -> t.file().transactionId()));
+    return baseTasks.stream()
+        .map(
+            arcticFileScanTask ->
+                new SnapshotSplit(
+                    Collections.singleton(arcticFileScanTask), splitCount.incrementAndGet()))
+        .collect(Collectors.toList());
+  }
+
   /**
    * Plans full table scanning for a {@link KeyedTable} with optional filters and a specified split
    * count.
@@ -18,6 +18,7 @@
 
 package com.netease.arctic.flink.read;
 
+import com.netease.arctic.data.DataTreeNode;
 import com.netease.arctic.flink.read.hybrid.enumerator.ArcticEnumeratorOffset;
 import com.netease.arctic.flink.read.hybrid.enumerator.ContinuousEnumerationResult;
 import com.netease.arctic.flink.read.hybrid.enumerator.ContinuousSplitPlanner;
@@ -33,6 +34,7 @@ import java.util.ArrayDeque;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 
 /**
  * This is a mixed-format table(mixed iceberg, mixed-hive) incremental loader.
@@ -44,7 +46,8 @@ import java.util.concurrent.atomic.AtomicReference;
  *
  * <p>Incremental pull approach contains INSERT, DELETE, UPDATE_BEFORE, and UPDATE_AFTER.
  *
- * <p>Support projection and filter push-down to speed up the loading process.
+ * <p>Support projection and filter push-down to speed up the loading process. The splits of the
+ * tree nodes not accepted by the node filter are skipped.
  */
 public class MixedIncrementalLoader<T> implements AutoCloseable {
   private static final Logger LOG = LoggerFactory.getLogger(MixedIncrementalLoader.class);
@@ -54,6 +57,7 @@ public class MixedIncrementalLoader<T> implements AutoCloseable {
   private final List<Expression> filters;
   private final AtomicReference<ArcticEnumeratorOffset> enumeratorPosition;
   private final Queue<ArcticSplit> splitQueue;
+  private Predicate<DataTreeNode> nodeFilter = node -> true;
 
   public MixedIncrementalLoader(
       ContinuousSplitPlanner continuousSplitPlanner,
@@ -68,6 +72,16 @@ public class MixedIncrementalLoader<T> implements AutoCloseable {
     this.splitQueue = new ArrayDeque<>();
   }
 
+  public MixedIncrementalLoader(
+      ContinuousSplitPlanner continuousSplitPlanner,
+      AbstractAdaptHiveKeyedDataReader<T> flinkArcticMORDataReader,
+      DataIteratorReaderFunction<T> readerFunction,
+      List<Expression> filters,
+      Predicate<DataTreeNode> nodeFilter) {
+    this(continuousSplitPlanner, flinkArcticMORDataReader, readerFunction, filters);
+    this.nodeFilter = nodeFilter;
+  }
+
   public MixedIncrementalLoader(
       ContinuousSplitPlanner continuousSplitPlanner,
       DataIteratorReaderFunction<T> readerFunction,
@@ -84,8 +98,13 @@ public class MixedIncrementalLoader<T> implements AutoCloseable {
       ContinuousEnumerationResult planResult =
           continuousSplitPlanner.planSplits(enumeratorPosition.get(), filters);
       if (!planResult.isEmpty()) {
-        planResult.splits().forEach(split -> LOG.info("Putting this split into queue: {}.", split));
-        splitQueue.addAll(planResult.splits());
+        planResult.splits().stream()
+            .filter(this::acceptSplit)
+            .forEach(
+                split -> {
+                  LOG.info("Putting this split into queue: {}.", split);
+                  splitQueue.add(split);
+                });
       }
       if (!planResult.toOffset().isEmpty()) {
         enumeratorPosition.set(planResult.toOffset());
@@ -112,6 +131,23 @@ public class MixedIncrementalLoader<T> implements AutoCloseable {
     return readerFunction.createDataIterator(split);
   }
 
+  private boolean acceptSplit(ArcticSplit split) {
+    DataTreeNode node;
+    if (split.isMergeOnReadSplit()) {
+      // all the data files of a merge-on-read split belong to the same node
+      node = split.asMergeOnReadSplit().keyedTableScanTask().dataTasks().get(0).file().node();
+    } else if (split.isChangelogSplit()) {
+      node = split.dataTreeNode();
+    } else {
+      return true;
+    }
+    if (nodeFilter.test(node)) {
+      return true;
+    }
+    LOG.info("Skipping this split of tree node {}: {}.", node, split);
+    return false;
+  }
+
   @Override
   public void close() throws Exception {
     continuousSplitPlanner.close();
@@ -36,19 +36,33 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
  * According to Mark, Index TreeNodes and subtaskId assigning a split to special subtask to read.
+ *
+ * <p>The splits of the same partition and tree node form a group, which is always read by one
+ * subtask to keep the ordering of the records with the same key. A new group is placed on the
+ * subtask with the least pending records, and an idle group, which has neither pending splits nor a
+ * split being read, migrates to the least loaded subtask when its subtask is overloaded. A split is
+ * being read until the reader reports it finished by a {@link
+ * com.netease.arctic.flink.read.hybrid.split.SplitRequestEvent}.
+ *
+ * <p>After restoring from a checkpoint, the readers may still be reading the splits restored from
+ * their state, whose groups are unknown to the assigner. No group moves until every reader has
+ * reported its restored splits finished: idle groups keep their subtasks, and when the source
+ * parallelism has changed, no split is assigned until all the groups are placed again.
  */
 public class ShuffleSplitAssigner implements SplitAssigner {
   private static final Logger LOG = LoggerFactory.getLogger(ShuffleSplitAssigner.class);
@@ -68,6 +82,18 @@ public class ShuffleSplitAssigner implements SplitAssigner {
   private final Map<Long, Integer> partitionIndexSubtaskMap;
   /** Key is subtaskId, Value is the queue of unAssigned arctic splits. */
   private final Map<Integer, PriorityBlockingQueue<ArcticSplit>> subtaskSplitMap;
+  /** Key is subtaskId, Value is the record count of the unAssigned arctic splits of the subtask. */
+  private final Map<Integer, Long> subtaskPendingRecords = new ConcurrentHashMap<>();
+  /** Key is subtaskId, Value is the number of the groups placed on the subtask. */
+  private final Map<Integer, Integer> subtaskGroupCount = new ConcurrentHashMap<>();
+  /** Key is the partition data and file index, Value is the number of unAssigned splits. */
+  private final Map<Long, Integer> groupPendingSplits = new ConcurrentHashMap<>();
+  /** Key is subtaskId, Value is the splits assigned to the subtask and not finished yet. */
+  private final Map<Integer, List<ReadingSplit>> subtaskReadingSplits = new ConcurrentHashMap<>();
+  /** Key is subtaskId, Value is the ids of the unfinished splits restored by the reader. */
+  private final Map<Integer, Set<String>> subtaskRestoredSplits = new ConcurrentHashMap<>();
+  /** Whether the readers may still be reading the splits restored from the checkpoint. */
+  private volatile boolean awaitingRestoredSplits = false;
 
   private CompletableFuture<Void> availableFuture;
 
@@ -97,6 +123,7 @@ public class ShuffleSplitAssigner implements SplitAssigner {
           "Arctic source restored {} splits from state for table {}",
           enumState.pendingSplits().size(),
           tableName);
+      this.awaitingRestoredSplits = true;
       deserializePartitionIndex(
           Objects.requireNonNull(
               enumState.shuffleSplitRelation(),
@@ -121,12 +148,11 @@ public class ShuffleSplitAssigner implements SplitAssigner {
   }
 
   private Optional<ArcticSplit> getNextSplit(int subTaskId) {
-    int currentParallelism = enumeratorContext.currentParallelism();
-    if (totalParallelism != currentParallelism) {
-      throw new FlinkRuntimeException(
-          String.format(
-              "Source parallelism has been changed, before parallelism is %s, now is %s",
-              totalParallelism, currentParallelism));
+    if (!rescaleIfNeeded()) {
+      LOG.debug(
+          "Subtask {}, waiting for the restored splits to finish before redistributing the splits.",
+          subTaskId);
+      return Optional.empty();
     }
     if (subtaskSplitMap.containsKey(subTaskId)) {
       PriorityBlockingQueue<ArcticSplit> queue = subtaskSplitMap.get(subTaskId);
@@ -146,6 +172,15 @@ public class ShuffleSplitAssigner implements SplitAssigner {
             arcticSplit.taskIndex(),
             totalSplitNum,
             arcticSplit);
+        long groupKey = groupKey(arcticSplit, arcticSplit.dataTreeNode());
+        synchronized (lock) {
+          subtaskPendingRecords.merge(subTaskId, -recordCount(arcticSplit), Long::sum);
+          groupPendingSplits.computeIfPresent(
+              groupKey, (key, count) -> count > 1 ? count - 1 : null);
+          subtaskReadingSplits
+              .computeIfAbsent(subTaskId, id -> new ArrayList<>())
+              .add(new ReadingSplit(arcticSplit.splitId(), groupKey));
+        }
         return Optional.of(arcticSplit);
       }
     } else {
@@ -167,16 +202,98 @@ public class ShuffleSplitAssigner implements SplitAssigner {
     onDiscoveredSplits(splits);
   }
 
+  @Override
+  public void onUnassignedSplits(int subtaskId, Collection<ArcticSplit> splits) {
+    synchronized (lock) {
+      // the failed reader no longer reads the splits given back
+      removeReadingSplits(
+          subtaskId, splits.stream().map(ArcticSplit::splitId).collect(Collectors.toList()));
+    }
+    onUnassignedSplits(splits);
+  }
+
+  @Override
+  public void onCompletedSplits(int subtaskId, Collection<String> completedSplitIds) {
+    synchronized (lock) {
+      Set<String> restoredSplits = subtaskRestoredSplits.get(subtaskId);
+      List<String> readSplitIds = new ArrayList<>();
+      for (String splitId : completedSplitIds) {
+        if (restoredSplits == null || !restoredSplits.remove(splitId)) {
+          readSplitIds.add(splitId);
+        }
+      }
+      removeReadingSplits(subtaskId, readSplitIds);
+      restoredSplitsFinished();
+    }
+  }
+
+  private void removeReadingSplits(int subtaskId, Collection<String> splitIds) {
+    List<ReadingSplit> readingSplits = subtaskReadingSplits.get(subtaskId);
+    if (readingSplits == null) {
+      return;
+    }
+    for (String splitId : splitIds) {
+      for (Iterator<ReadingSplit> iterator = readingSplits.iterator(); iterator.hasNext(); ) {
+        if (iterator.next().splitId.equals(splitId)) {
+          iterator.remove();
+          break;
+        }
+      }
+    }
+    if (readingSplits.isEmpty()) {
+      subtaskReadingSplits.remove(subtaskId);
+    }
+  }
+
+  @Override
+  public void onReaderStarted(int subtaskId, Collection<String> restoredSplitIds) {
+    synchronized (lock) {
+      // the splits assigned to a restarted reader are either given back by onUnassignedSplits, or
+      // restored from its state and still being read, so the reading splits are kept
+      if (awaitingRestoredSplits) {
+        LOG.info("Subtask {} has restored {} splits", subtaskId, restoredSplitIds.size());
+        subtaskRestoredSplits.put(subtaskId, new HashSet<>(restoredSplitIds));
+        restoredSplitsFinished();
+      }
+    }
+  }
+
+  /**
+   * Returns whether all the readers have started and finished the splits restored from their state,
+   * only then groups can move to other subtasks.
+   */
+  private boolean restoredSplitsFinished() {
+    if (!awaitingRestoredSplits) {
+      return true;
+    }
+    for (int subtaskId = 0; subtaskId < enumeratorContext.currentParallelism(); subtaskId++) {
+      Set<String> restoredSplits = subtaskRestoredSplits.get(subtaskId);
+      if (restoredSplits == null || !restoredSplits.isEmpty()) {
+        return false;
+      }
+    }
+    LOG.info("All the readers have finished the splits restored from their state");
+    subtaskRestoredSplits.clear();
+    awaitingRestoredSplits = false;
+    return true;
+  }
+
   void putArcticIntoQueue(final ArcticSplit split) {
     List<DataTreeNode> exactlyTreeNodes = getExactlyTreeNodes(split);
 
     PrimaryKeyedFile file = findAnyFileInArcticSplit(split);
+    long recordCount = recordCount(split);
 
     for (DataTreeNode node : exactlyTreeNodes) {
-      long partitionIndexKey = Math.abs(file.partition().toString().hashCode() + node.index());
-      int subtaskId =
-          partitionIndexSubtaskMap.computeIfAbsent(
-              partitionIndexKey, key -> (partitionIndexSubtaskMap.size() + 1) % totalParallelism);
+      long partitionIndexKey = groupKey(split, node);
+      PriorityBlockingQueue<ArcticSplit> queue;
+      int subtaskId;
+      synchronized (lock) {
+        subtaskId = placeGroup(partitionIndexKey);
+        groupPendingSplits.merge(partitionIndexKey, 1, Integer::sum);
+        subtaskPendingRecords.merge(subtaskId, recordCount, Long::sum);
+        queue = subtaskSplitMap.computeIfAbsent(subtaskId, id -> new PriorityBlockingQueue<>());
+      }
       LOG.info(
           "partition = {}, (mask, index) = ({}, {}), subtaskId = {}",
           file.partition().toString(),
@@ -184,17 +301,112 @@ public class ShuffleSplitAssigner implements SplitAssigner {
           node.index(),
           subtaskId);
 
-      PriorityBlockingQueue<ArcticSplit> queue =
-          subtaskSplitMap.getOrDefault(subtaskId, new PriorityBlockingQueue<>());
       ArcticSplit copiedSplit = split.copy();
       copiedSplit.modifyTreeNode(node);
       LOG.info("put split into queue: {}", copiedSplit);
       queue.add(copiedSplit);
       totalSplitNum = totalSplitNum + 1;
-      subtaskSplitMap.put(subtaskId, queue);
     }
   }
 
+  /**
+   * Returns the subtask of the group. A new group, or an idle group whose subtask is overloaded, is
+   * placed on the subtask with the least pending records, the one with fewer groups if tied.
+   */
+  private int placeGroup(long groupKey) {
+    Integer subtaskId = partitionIndexSubtaskMap.get(groupKey);
+    if (subtaskId != null && (awaitingRestoredSplits || !isGroupIdle(groupKey))) {
+      return subtaskId;
+    }
+    int leastLoaded = leastLoadedSubtask();
+    if (subtaskId != null
+        && (subtaskId == leastLoaded
+            || pendingRecords(subtaskId) <= 2 * pendingRecords(leastLoaded))) {
+      return subtaskId;
+    }
+    if (subtaskId != null) {
+      LOG.info("Migrate idle group {} from subtask {} to {}", groupKey, subtaskId, leastLoaded);
+      subtaskGroupCount.computeIfPresent(subtaskId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+    partitionIndexSubtaskMap.put(groupKey, leastLoaded);
+    subtaskGroupCount.merge(leastLoaded, 1, Integer::sum);
+    return leastLoaded;
+  }
+
+  private boolean isGroupIdle(long groupKey) {
+    return !groupPendingSplits.containsKey(groupKey)
+        && subtaskReadingSplits.values().stream()
+            .flatMap(List::stream)
+            .noneMatch(split -> split.groupKey == groupKey);
+  }
+
+  private int leastLoadedSubtask() {
+    int leastLoaded = 0;
+    for (int subtaskId = 1; subtaskId < totalParallelism; subtaskId++) {
+      long records = pendingRecords(subtaskId);
+      long leastRecords = pendingRecords(leastLoaded);
+      if (records < leastRecords
+          || (records == leastRecords
+              && subtaskGroupCount.getOrDefault(subtaskId, 0)
+                  < subtaskGroupCount.getOrDefault(leastLoaded, 0))) {
+        leastLoaded = subtaskId;
+      }
+    }
+    return leastLoaded;
+  }
+
+  private long pendingRecords(int subtaskId) {
+    return subtaskPendingRecords.getOrDefault(subtaskId, 0L);
+  }
+
+  /**
+   * Place all the groups again when the source parallelism has changed, e.g. the job is restored
+   * with a different parallelism. The unAssigned splits are put into the queues again.
+   *
+   * @return false if the groups can not be placed again yet, since the readers may still be reading
+   *     the splits restored from their state, which Flink redistributes among the new subtasks.
+   */
+  private boolean rescaleIfNeeded() {
+    int currentParallelism = enumeratorContext.currentParallelism();
+    if (totalParallelism == currentParallelism) {
+      return true;
+    }
+    synchronized (lock) {
+      if (totalParallelism == currentParallelism) {
+        return true;
+      }
+      if (!restoredSplitsFinished()) {
+        return false;
+      }
+      LOG.info(
+          "Source parallelism has been changed from {} to {}, redistribute the splits",
+          totalParallelism,
+          currentParallelism);
+      List<ArcticSplit> pendingSplits = new ArrayList<>();
+      subtaskSplitMap.values().forEach(queue -> queue.drainTo(pendingSplits));
+      subtaskSplitMap.clear();
+      partitionIndexSubtaskMap.clear();
+      subtaskPendingRecords.clear();
+      subtaskGroupCount.clear();
+      groupPendingSplits.clear();
+      totalParallelism = currentParallelism;
+      totalSplitNum = totalSplitNum - pendingSplits.size();
+      pendingSplits.stream().sorted().forEach(this::putArcticIntoQueue);
+      return true;
+    }
+  }
+
+  private long groupKey(ArcticSplit split, DataTreeNode node) {
+    PrimaryKeyedFile file = findAnyFileInArcticSplit(split);
+    return Math.abs(file.partition().toString().hashCode() + node.index());
+  }
+
+  private long recordCount(ArcticSplit split) {
+    long recordCount =
+        splitTasks(split).stream().mapToLong(task -> task.file().recordCount()).sum();
+    return Math.max(recordCount, 1);
+  }
+
   @Override
   public Collection<ArcticSplitState> state() {
     List<ArcticSplitState> arcticSplitStates = new ArrayList<>();
@@ -231,6 +443,11 @@ public class ShuffleSplitAssigner implements SplitAssigner {
   public void close() throws IOException {
     subtaskSplitMap.clear();
     partitionIndexSubtaskMap.clear();
+    subtaskPendingRecords.clear();
+    subtaskGroupCount.clear();
+    groupPendingSplits.clear();
+    subtaskReadingSplits.clear();
+    subtaskRestoredSplits.clear();
   }
 
   public long[] serializePartitionIndex() {
@@ -255,7 +472,9 @@ public class ShuffleSplitAssigner implements SplitAssigner {
     this.currentMaskOfTreeNode = shuffleSplitRelation[2] == -1 ? null : shuffleSplitRelation[2];
 
     for (int i = prefixParams; i < shuffleSplitRelation.length; i++) {
-      partitionIndexSubtaskMap.put(shuffleSplitRelation[i], (int) shuffleSplitRelation[++i]);
+      int subtaskId = (int) shuffleSplitRelation[i + 1];
+      partitionIndexSubtaskMap.put(shuffleSplitRelation[i++], subtaskId);
+      subtaskGroupCount.merge(subtaskId, 1, Integer::sum);
     }
   }
 
@@ -312,24 +531,20 @@ public class ShuffleSplitAssigner implements SplitAssigner {
    * @return anyone primary keyed file in the arcticSplit.
    */
   private PrimaryKeyedFile findAnyFileInArcticSplit(ArcticSplit arcticSplit) {
-    AtomicReference<PrimaryKeyedFile> file = new AtomicReference<>();
+    return splitTasks(arcticSplit).stream()
+        .findFirst()
+        .map(ArcticFileScanTask::file)
+        .orElseThrow(() -> new FlinkRuntimeException("Couldn't find a primaryKeyedFile."));
+  }
+
+  private List<ArcticFileScanTask> splitTasks(ArcticSplit arcticSplit) {
     if (arcticSplit.isChangelogSplit()) {
       List<ArcticFileScanTask> arcticSplits =
           new ArrayList<>(arcticSplit.asChangelogSplit().insertTasks());
       arcticSplits.addAll(arcticSplit.asChangelogSplit().deleteTasks());
-      arcticSplits.stream().findFirst().ifPresent(task -> file.set(task.file()));
-      if (file.get() != null) {
-        return file.get();
-      }
-    }
-
-    List<ArcticFileScanTask> arcticSplits =
-        new ArrayList<>(arcticSplit.asSnapshotSplit().insertTasks());
-    arcticSplits.stream().findFirst().ifPresent(task -> file.set(task.file()));
-    if (file.get() != null) {
-      return file.get();
+      return arcticSplits;
     }
-    throw new FlinkRuntimeException("Couldn't find a primaryKeyedFile.");
+    return new ArrayList<>(arcticSplit.asSnapshotSplit().insertTasks());
   }
 
   private synchronized void completeAvailableFuturesIfNeeded() {
@@ -338,4 +553,15 @@ public class ShuffleSplitAssigner implements SplitAssigner {
     }
     availableFuture = null;
   }
+
+  /** A split assigned to a subtask, which has not reported it finished yet. */
+  private static class ReadingSplit {
+    private final String splitId;
+    private final long groupKey;
+
+    private ReadingSplit(String splitId, long groupKey) {
+      this.splitId = splitId;
+      this.groupKey = groupKey;
+    }
+  }
 }
@@ -41,12 +41,25 @@ public interface SplitAssigner extends Closeable {
   /** Forward addSplitsBack event (for failed reader) to assigner */
   void onUnassignedSplits(Collection<ArcticSplit> splits);
 
+  /** Forward the splits given back by the failed reader of the subtask to assigner */
+  default void onUnassignedSplits(int subtaskId, Collection<ArcticSplit> splits) {
+    onUnassignedSplits(splits);
+  }
+
   /**
    * Some assigner (like event time alignment) may rack in-progress splits to advance watermark upon
    * completed splits
    */
   default void onCompletedSplits(Collection<String> completedSplitIds) {}
 
+  /** Forward the splits finished by the reader of the subtask to assigner */
+  default void onCompletedSplits(int subtaskId, Collection<String> completedSplitIds) {
+    onCompletedSplits(completedSplitIds);
+  }
+
+  /** Forward the ids of the splits restored from state by the started reader to assigner */
+  default void onReaderStarted(int subtaskId, Collection<String> restoredSplitIds) {}
+
   Collection<ArcticSplitState> state();
 
   /**
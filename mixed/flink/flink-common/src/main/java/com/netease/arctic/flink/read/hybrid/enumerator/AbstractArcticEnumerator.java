@@ -79,11 +79,12 @@ public abstract class AbstractArcticEnumerator
     if (sourceEvent instanceof SplitRequestEvent) {
       SplitRequestEvent splitRequestEvent = (SplitRequestEvent) sourceEvent;
       LOG.info("Received request split event from subtask {}", subtaskId);
-      assigner.onCompletedSplits(splitRequestEvent.finishedSplitIds());
+      assigner.onCompletedSplits(subtaskId, splitRequestEvent.finishedSplitIds());
       readersAwaitingSplit.put(subtaskId, String.valueOf(splitRequestEvent.requesterHostname()));
       assignSplits();
     } else if (sourceEvent instanceof ReaderStartedEvent) {
       LOG.info("Received ReaderStartEvent from subtask {}", subtaskId);
+      assigner.onReaderStarted(subtaskId, ((ReaderStartedEvent) sourceEvent).restoredSplitIds());
     } else {
       throw new IllegalArgumentException(
           String.format(
@@ -100,7 +101,7 @@ public abstract class AbstractArcticEnumerator
   @Override
   public void addSplitsBack(List<ArcticSplit> splits, int subtaskId) {
     LOG.info("addSplitsBack from subtaskId {}, splits {}.", subtaskId, splits);
-    assigner.onUnassignedSplits(splits);
+    assigner.onUnassignedSplits(subtaskId, splits);
   }
 
   /** return true if enumerator should wait for splits like in the continuous enumerator case. */
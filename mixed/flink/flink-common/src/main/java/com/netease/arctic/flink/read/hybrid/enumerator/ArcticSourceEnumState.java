@@ -34,16 +34,27 @@ public class ArcticSourceEnumState {
   private final Collection<ArcticSplitState> pendingSplits;
   @Nullable private final long[] shuffleSplitRelation;
   @Nullable private final TemporalJoinSplits temporalJoinSplits;
+  @Nullable private final InitialPlanningProgress initialPlanningProgress;
 
   public ArcticSourceEnumState(
       Collection<ArcticSplitState> pendingSplits,
       @Nullable ArcticEnumeratorOffset lastEnumeratedOffset,
       @Nullable long[] shuffleSplitRelation,
       @Nullable TemporalJoinSplits temporalJoinSplits) {
+    this(pendingSplits, lastEnumeratedOffset, shuffleSplitRelation, temporalJoinSplits, null);
+  }
+
+  public ArcticSourceEnumState(
+      Collection<ArcticSplitState> pendingSplits,
+      @Nullable ArcticEnumeratorOffset lastEnumeratedOffset,
+      @Nullable long[] shuffleSplitRelation,
+      @Nullable TemporalJoinSplits temporalJoinSplits,
+      @Nullable InitialPlanningProgress initialPlanningProgress) {
     this.pendingSplits = pendingSplits;
     this.lastEnumeratedOffset = lastEnumeratedOffset;
     this.shuffleSplitRelation = shuffleSplitRelation;
     this.temporalJoinSplits = temporalJoinSplits;
+    this.initialPlanningProgress = initialPlanningProgress;
   }
 
   @Nullable
@@ -64,4 +75,9 @@ public class ArcticSourceEnumState {
   public TemporalJoinSplits temporalJoinSplits() {
     return temporalJoinSplits;
   }
+
+  @Nullable
+  public InitialPlanningProgress initialPlanningProgress() {
+    return initialPlanningProgress;
+  }
 }
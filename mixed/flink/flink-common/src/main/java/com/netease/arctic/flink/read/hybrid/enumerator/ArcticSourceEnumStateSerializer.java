@@ -40,7 +40,7 @@ public class ArcticSourceEnumStateSerializer
 
   private static final Logger LOGGER =
       LoggerFactory.getLogger(ArcticSourceEnumStateSerializer.class);
-  private static final int VERSION = 1;
+  private static final int VERSION = 2;
   private final ArcticSplitSerializer splitSerializer = ArcticSplitSerializer.INSTANCE;
   private final ArcticEnumeratorOffsetSerializer offsetSerializer =
       ArcticEnumeratorOffsetSerializer.INSTANCE;
@@ -55,12 +55,31 @@ public class ArcticSourceEnumStateSerializer
 
   @Override
   public byte[] serialize(ArcticSourceEnumState arcticSourceEnumState) throws IOException {
-    return serializeV1(arcticSourceEnumState);
+    return serializeV2(arcticSourceEnumState);
   }
 
-  private byte[] serializeV1(ArcticSourceEnumState enumState) throws IOException {
+  private byte[] serializeV2(ArcticSourceEnumState enumState) throws IOException {
     DataOutputSerializer out = SERIALIZER_CACHE.get();
+    serializeV1(enumState, out);
+
+    InitialPlanningProgress progress = enumState.initialPlanningProgress();
+    out.writeBoolean(progress != null);
+    if (progress != null) {
+      out.writeBoolean(progress.baseSnapshotId() != null);
+      if (progress.baseSnapshotId() != null) {
+        out.writeLong(progress.baseSnapshotId());
+      }
+      out.writeLong(progress.changeSnapshotId());
+      out.writeInt(progress.plannedManifests());
+    }
 
+    byte[] result = out.getCopyOfBuffer();
+    out.clear();
+    return result;
+  }
+
+  private void serializeV1(ArcticSourceEnumState enumState, DataOutputSerializer out)
+      throws IOException {
     out.writeBoolean(enumState.lastEnumeratedOffset() != null);
     if (enumState.lastEnumeratedOffset() != null) {
       out.writeInt(offsetSerializer.getVersion());
@@ -92,25 +111,44 @@ public class ArcticSourceEnumStateSerializer
       out.writeInt(temporalJoinSplits.length);
       out.write(temporalJoinSplits);
     }
-
-    byte[] result = out.getCopyOfBuffer();
-    out.clear();
-    return result;
   }
 
   @Override
   public ArcticSourceEnumState deserialize(int version, byte[] serialized) throws IOException {
     switch (version) {
       case 1:
-        return deserializeV1(serialized);
+        return deserializeV1(new DataInputDeserializer(serialized));
+      case 2:
+        return deserializeV2(serialized);
       default:
         throw new IOException("Unknown version: " + version);
     }
   }
 
-  private ArcticSourceEnumState deserializeV1(byte[] serialized) throws IOException {
+  private ArcticSourceEnumState deserializeV2(byte[] serialized) throws IOException {
     DataInputDeserializer in = new DataInputDeserializer(serialized);
+    ArcticSourceEnumState enumState = deserializeV1(in);
+
+    InitialPlanningProgress progress = null;
+    if (in.readBoolean()) {
+      Long baseSnapshotId = null;
+      if (in.readBoolean()) {
+        baseSnapshotId = in.readLong();
+      }
+      long changeSnapshotId = in.readLong();
+      int plannedManifests = in.readInt();
+      progress = InitialPlanningProgress.of(baseSnapshotId, changeSnapshotId, plannedManifests);
+    }
+
+    return new ArcticSourceEnumState(
+        enumState.pendingSplits(),
+        enumState.lastEnumeratedOffset(),
+        enumState.shuffleSplitRelation(),
+        enumState.temporalJoinSplits(),
+        progress);
+  }
 
+  private ArcticSourceEnumState deserializeV1(DataInputDeserializer in) throws IOException {
     ArcticEnumeratorOffset enumeratorOffset = null;
     if (in.readBoolean()) {
       int version = in.readInt();
@@ -86,6 +86,11 @@ public class ArcticSourceEnumerator extends AbstractArcticEnumerator {
    * this as the starting position.
    */
   private final AtomicReference<ArcticEnumeratorOffset> enumeratorPosition;
+  /**
+   * The progress of planning the initial snapshot batch by batch, it is null if the initial
+   * snapshot hasn't been planned or has been planned completely.
+   */
+  private final AtomicReference<InitialPlanningProgress> planningProgress;
 
   private final AtomicBoolean lock = new AtomicBoolean(false);
 
@@ -101,11 +106,17 @@ public class ArcticSourceEnumerator extends AbstractArcticEnumerator {
     this.context = enumContext;
     this.splitAssigner = splitAssigner;
     this.scanContext = scanContext;
-    this.continuousSplitPlanner = new ContinuousSplitPlannerImpl(loader);
+    // the temporal join splits of dim table are the splits of the first planning, so the initial
+    // snapshot of dim table is always planned at once.
+    this.continuousSplitPlanner =
+        new ContinuousSplitPlannerImpl(
+            loader, dimTable ? 0 : scanContext.initialPlanningManifestsPerBatch());
     this.snapshotDiscoveryIntervalMs = scanContext.monitorInterval().toMillis();
     this.enumeratorPosition = new AtomicReference<>();
+    this.planningProgress = new AtomicReference<>();
     if (enumState != null) {
       this.enumeratorPosition.set(enumState.lastEnumeratedOffset());
+      this.planningProgress.set(enumState.initialPlanningProgress());
       this.temporalJoinSplits = enumState.temporalJoinSplits();
     }
     this.dimTable = dimTable;
@@ -158,14 +169,18 @@ public class ArcticSourceEnumerator extends AbstractArcticEnumerator {
       return ContinuousEnumerationResult.EMPTY;
     }
     lock.set(true);
-    LOG.info("begin to plan splits current offset {}.", enumeratorPosition.get());
+    LOG.info(
+        "begin to plan splits current offset {}, initial planning progress {}.",
+        enumeratorPosition.get(),
+        planningProgress.get());
     Optional.ofNullable(scanContext.filters())
         .ifPresent(
             filters ->
                 filters.forEach(
                     expression ->
                         LOG.info("Arctic source filter expression: {}.", expression.toString())));
-    return continuousSplitPlanner.planSplits(enumeratorPosition.get(), scanContext.filters());
+    return continuousSplitPlanner.planSplits(
+        enumeratorPosition.get(), planningProgress.get(), scanContext.filters());
   }
 
   private void handleResultOfSplits(ContinuousEnumerationResult enumerationResult, Throwable t) {
@@ -176,14 +191,22 @@ public class ArcticSourceEnumerator extends AbstractArcticEnumerator {
     if (!enumerationResult.isEmpty()) {
       splitAssigner.onDiscoveredSplits(enumerationResult.splits());
     }
+    if (enumerationResult.planningProgress() != null) {
+      planningProgress.set(enumerationResult.planningProgress());
+    }
     if (!enumerationResult.toOffset().isEmpty()) {
       enumeratorPosition.set(enumerationResult.toOffset());
+      planningProgress.set(null);
     }
     LOG.info(
         "handled result of splits, discover splits size {}, latest offset {}.",
         enumerationResult.splits().size(),
         enumeratorPosition.get());
     lock.set(false);
+    if (enumerationResult.planningProgress() != null) {
+      // plan the next batch of the initial snapshot without waiting for the discovery interval
+      context.callAsync(this::planSplits, this::handleResultOfSplits);
+    }
   }
 
   @Override
@@ -247,7 +270,11 @@ public class ArcticSourceEnumerator extends AbstractArcticEnumerator {
       shuffleSplitRelation = ((ShuffleSplitAssigner) splitAssigner).serializePartitionIndex();
     }
     return new ArcticSourceEnumState(
-        splitAssigner.state(), enumeratorPosition.get(), shuffleSplitRelation, temporalJoinSplits);
+        splitAssigner.state(),
+        enumeratorPosition.get(),
+        shuffleSplitRelation,
+        temporalJoinSplits,
+        planningProgress.get());
   }
 
   @Override
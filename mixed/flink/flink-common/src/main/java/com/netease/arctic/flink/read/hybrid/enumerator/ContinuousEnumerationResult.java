@@ -37,6 +37,7 @@ public class ContinuousEnumerationResult {
   private final Collection<ArcticSplit> splits;
   private final ArcticEnumeratorOffset fromOffset;
   private final ArcticEnumeratorOffset toOffset;
+  private final InitialPlanningProgress planningProgress;
 
   /**
    * @param splits should never be null. But it can be an empty collection
@@ -47,11 +48,27 @@ public class ContinuousEnumerationResult {
       Collection<ArcticSplit> splits,
       ArcticEnumeratorOffset fromOffset,
       ArcticEnumeratorOffset toOffset) {
+    this(splits, fromOffset, toOffset, null);
+  }
+
+  /**
+   * @param splits should never be null. But it can be an empty collection
+   * @param fromOffset can be null
+   * @param toOffset should never be null. But it can be an empty offset if the initial planning
+   *     hasn't finished
+   * @param planningProgress the progress of the unfinished initial planning, can be null
+   */
+  public ContinuousEnumerationResult(
+      Collection<ArcticSplit> splits,
+      ArcticEnumeratorOffset fromOffset,
+      ArcticEnumeratorOffset toOffset,
+      InitialPlanningProgress planningProgress) {
     Preconditions.checkArgument(splits != null, "Invalid to splits collection: null");
     Preconditions.checkArgument(toOffset != null, "Invalid end position: null");
     this.splits = splits;
     this.fromOffset = fromOffset;
     this.toOffset = toOffset;
+    this.planningProgress = planningProgress;
   }
 
   public Collection<ArcticSplit> splits() {
@@ -66,6 +83,10 @@ public class ContinuousEnumerationResult {
     return toOffset;
   }
 
+  public InitialPlanningProgress planningProgress() {
+    return planningProgress;
+  }
+
   public boolean isEmpty() {
     return null == splits || splits.isEmpty();
   }
@@ -76,6 +97,7 @@ public class ContinuousEnumerationResult {
         .add("splits", Arrays.toString(splits.toArray()))
         .add("fromPosition", fromOffset)
         .add("toPosition", toOffset)
+        .add("planningProgress", planningProgress)
         .toString();
   }
 }
@@ -41,4 +41,15 @@ public interface ContinuousSplitPlanner extends Closeable {
    */
   ContinuousEnumerationResult planSplits(
       ArcticEnumeratorOffset lastPosition, List<Expression> filters);
+
+  /**
+   * Discover the files appended between {@code lastPosition} and current table snapshot. If {@code
+   * lastPosition} is null, continue planning the initial snapshot from {@code planningProgress}.
+   */
+  default ContinuousEnumerationResult planSplits(
+      ArcticEnumeratorOffset lastPosition,
+      InitialPlanningProgress planningProgress,
+      List<Expression> filters) {
+    return planSplits(lastPosition, filters);
+  }
 }
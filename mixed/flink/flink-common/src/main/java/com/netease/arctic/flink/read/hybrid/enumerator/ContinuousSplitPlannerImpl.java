@@ -29,15 +29,21 @@ import com.netease.arctic.flink.read.hybrid.split.ChangelogSplit;
 import com.netease.arctic.flink.read.hybrid.split.SnapshotSplit;
 import com.netease.arctic.flink.table.ArcticTableLoader;
 import com.netease.arctic.scan.ChangeTableIncrementalScan;
+import com.netease.arctic.scan.expressions.BasicPartitionEvaluator;
 import com.netease.arctic.table.KeyedTable;
+import com.netease.arctic.utils.ArcticTableUtil;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.flink.annotation.Internal;
+import org.apache.iceberg.DataManifestBatchScan;
 import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.Expressions;
+import org.apache.iceberg.util.StructLikeMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -47,6 +53,10 @@ import java.util.concurrent.atomic.AtomicInteger;
  *
  * <p>{@link ContinuousEnumerationResult#splits()} includes the {@link SnapshotSplit}s and {@link
  * ChangelogSplit}s.
+ *
+ * <p>If {@code manifestsPerBatch} is positive, the initial snapshot is planned batch by batch of
+ * base data manifests, so that readers can start reading before the whole snapshot is planned. The
+ * change files are planned after all base data manifests have been planned.
  */
 @Internal
 public class ContinuousSplitPlannerImpl implements ContinuousSplitPlanner {
@@ -55,9 +65,15 @@ public class ContinuousSplitPlannerImpl implements ContinuousSplitPlanner {
   protected transient KeyedTable table;
   protected final ArcticTableLoader loader;
   protected static final AtomicInteger splitCount = new AtomicInteger();
+  protected final int manifestsPerBatch;
 
   public ContinuousSplitPlannerImpl(ArcticTableLoader loader) {
+    this(loader, 0);
+  }
+
+  public ContinuousSplitPlannerImpl(ArcticTableLoader loader, int manifestsPerBatch) {
     this.loader = loader;
+    this.manifestsPerBatch = manifestsPerBatch;
   }
 
   @Override
@@ -70,12 +86,22 @@ public class ContinuousSplitPlannerImpl implements ContinuousSplitPlanner {
   @Override
   public ContinuousEnumerationResult planSplits(
       ArcticEnumeratorOffset lastOffset, List<Expression> filters) {
+    return planSplits(lastOffset, null, filters);
+  }
+
+  @Override
+  public ContinuousEnumerationResult planSplits(
+      ArcticEnumeratorOffset lastOffset,
+      InitialPlanningProgress planningProgress,
+      List<Expression> filters) {
     if (table == null) {
       table = loadArcticTable(loader).asKeyedTable();
     }
     table.refresh();
     if (lastOffset != null) {
       return discoverIncrementalSplits(lastOffset, filters);
+    } else if (manifestsPerBatch > 0) {
+      return discoverInitialSplitsInBatch(planningProgress, filters);
     } else {
       return discoverInitialSplits(filters);
     }
@@ -124,4 +150,98 @@ public class ContinuousSplitPlannerImpl implements ContinuousSplitPlanner {
     return new ContinuousEnumerationResult(
         arcticSplits, null, ArcticEnumeratorOffset.of(changeStartSnapshotId, null));
   }
+
+  protected ContinuousEnumerationResult discoverInitialSplitsInBatch(
+      InitialPlanningProgress planningProgress, List<Expression> filters) {
+    if (planningProgress != null && !isPinnedSnapshotAlive(planningProgress)) {
+      // The restored progress can't be continued, so plan the whole initial snapshot again. Splits
+      // emitted before the failover may be read twice.
+      LOG.warn(
+          "The pinned snapshots of {} have expired in table {}, replan the initial snapshot from "
+              + "the current snapshots.",
+          planningProgress,
+          table);
+      planningProgress = null;
+    }
+    if (planningProgress == null) {
+      Snapshot baseSnapshot = table.baseTable().currentSnapshot();
+      Snapshot changeSnapshot = table.changeTable().currentSnapshot();
+      if (baseSnapshot == null && changeSnapshot == null) {
+        LOG.info("There have no change snapshot, and no base snapshot in table: {}.", table);
+        return ContinuousEnumerationResult.EMPTY;
+      }
+      planningProgress =
+          InitialPlanningProgress.of(
+              baseSnapshot != null ? baseSnapshot.snapshotId() : null,
+              changeSnapshot != null ? changeSnapshot.snapshotId() : EARLIEST_SNAPSHOT_ID,
+              0);
+      LOG.info("Start planning the initial snapshot of table {} by {}.", table, planningProgress);
+    }
+
+    Expression filter = Expressions.alwaysTrue();
+    if (filters != null) {
+      for (Expression expression : filters) {
+        filter = Expressions.and(filter, expression);
+      }
+    }
+
+    List<ArcticSplit> arcticSplits = new ArrayList<>();
+    if (planningProgress.baseSnapshotId() != null) {
+      DataManifestBatchScan baseScan =
+          new DataManifestBatchScan(table.baseTable(), planningProgress.baseSnapshotId())
+              .filter(filter);
+      int fromManifest = planningProgress.plannedManifests();
+      int toManifest = Math.min(fromManifest + manifestsPerBatch, baseScan.dataManifestCount());
+      arcticSplits.addAll(
+          FlinkSplitPlanner.planBaseManifests(baseScan, fromManifest, toManifest, splitCount));
+      planningProgress = planningProgress.advance(toManifest - fromManifest);
+      if (toManifest < baseScan.dataManifestCount()) {
+        LOG.info(
+            "Planned {} base splits of table {}, progress {} of {} data manifests.",
+            arcticSplits.size(),
+            table,
+            toManifest,
+            baseScan.dataManifestCount());
+        return new ContinuousEnumerationResult(
+            arcticSplits, null, ArcticEnumeratorOffset.empty(), planningProgress);
+      }
+    }
+
+    arcticSplits.addAll(planInitialChangeSplits(planningProgress, filter));
+    LOG.info("Finished planning the initial snapshot of table {} by {}.", table, planningProgress);
+    return new ContinuousEnumerationResult(
+        arcticSplits, null, ArcticEnumeratorOffset.of(planningProgress.changeSnapshotId(), null));
+  }
+
+  private boolean isPinnedSnapshotAlive(InitialPlanningProgress planningProgress) {
+    if (planningProgress.baseSnapshotId() != null
+        && table.baseTable().snapshot(planningProgress.baseSnapshotId()) == null) {
+      return false;
+    }
+    return planningProgress.changeSnapshotId() == EARLIEST_SNAPSHOT_ID
+        || table.changeTable().snapshot(planningProgress.changeSnapshotId()) != null;
+  }
+
+  /**
+   * Plan the change files which haven't been optimized into the pinned base snapshot, like {@link
+   * com.netease.arctic.scan.KeyedTableScan} does.
+   */
+  private List<ArcticSplit> planInitialChangeSplits(
+      InitialPlanningProgress planningProgress, Expression filter) {
+    if (planningProgress.changeSnapshotId() == EARLIEST_SNAPSHOT_ID) {
+      return new ArrayList<>();
+    }
+    StructLikeMap<Long> optimizedSequence =
+        planningProgress.baseSnapshotId() != null
+            ? ArcticTableUtil.readOptimizedSequence(table, planningProgress.baseSnapshotId())
+            : ArcticTableUtil.readOptimizedSequence(table);
+    ChangeTableIncrementalScan changeTableScan =
+        table
+            .changeTable()
+            .newScan()
+            .useSnapshot(planningProgress.changeSnapshotId())
+            .fromSequence(optimizedSequence)
+            .filter(new BasicPartitionEvaluator(table.spec()).project(filter));
+    return planChangeTable(changeTableScan, splitCount);
+  }
 }
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.flink.read.hybrid.enumerator;
+
+import org.apache.iceberg.relocated.com.google.common.base.MoreObjects;
+import org.apache.iceberg.relocated.com.google.common.base.Objects;
+
+import javax.annotation.Nullable;
+
+import java.io.Serializable;
+
+/**
+ * The progress of planning the initial snapshot of a keyed table batch by batch of base data
+ * manifests. The base and change snapshots are pinned when the planning starts, so that planning
+ * can be resumed from the next base data manifest after failover.
+ */
+public class InitialPlanningProgress implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  @Nullable private final Long baseSnapshotId;
+  private final long changeSnapshotId;
+  private final int plannedManifests;
+
+  private InitialPlanningProgress(
+      @Nullable Long baseSnapshotId, long changeSnapshotId, int plannedManifests) {
+    this.baseSnapshotId = baseSnapshotId;
+    this.changeSnapshotId = changeSnapshotId;
+    this.plannedManifests = plannedManifests;
+  }
+
+  /**
+   * @param baseSnapshotId the pinned snapshot id of the base table, null if the base table is empty
+   * @param changeSnapshotId the pinned snapshot id of the change table, {@link
+   *     ArcticEnumeratorOffset#EARLIEST_SNAPSHOT_ID} if the change table is empty
+   * @param plannedManifests the number of base data manifests that have been planned
+   */
+  public static InitialPlanningProgress of(
+      @Nullable Long baseSnapshotId, long changeSnapshotId, int plannedManifests) {
+    return new InitialPlanningProgress(baseSnapshotId, changeSnapshotId, plannedManifests);
+  }
+
+  @Nullable
+  public Long baseSnapshotId() {
+    return baseSnapshotId;
+  }
+
+  public long changeSnapshotId() {
+    return changeSnapshotId;
+  }
+
+  public int plannedManifests() {
+    return plannedManifests;
+  }
+
+  public InitialPlanningProgress advance(int manifests) {
+    return new InitialPlanningProgress(
+        baseSnapshotId, changeSnapshotId, plannedManifests + manifests);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(baseSnapshotId, changeSnapshotId, plannedManifests);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    InitialPlanningProgress other = (InitialPlanningProgress) o;
+    return Objects.equal(baseSnapshotId, other.baseSnapshotId)
+        && changeSnapshotId == other.changeSnapshotId
+        && plannedManifests == other.plannedManifests;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("baseSnapshotId", baseSnapshotId)
+        .add("changeSnapshotId", changeSnapshotId)
+        .add("plannedManifests", plannedManifests)
+        .toString();
+  }
+}
@@ -40,8 +40,10 @@ import org.apache.iceberg.relocated.com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -56,6 +58,8 @@ public class ArcticSourceReader<T>
   public ReaderOutput<T> output;
   /** SourceEvents may be received before this#pollNext. */
   private volatile boolean maxWatermarkToBeEmitted = false;
+  /** The ids of the splits restored from state, which are added before the reader starts. */
+  private List<String> restoredSplitIds = new ArrayList<>();
 
   public ArcticSourceReader(
       ReaderFunction<T> readerFunction,
@@ -71,12 +75,23 @@ public class ArcticSourceReader<T>
 
   @Override
   public void start() {
+    // The enumerator handles the events in order, the start is reported before the first split
+    // request, so the split assigned by the request is tracked after the start.
+    context.sendSourceEventToCoordinator(new ReaderStartedEvent(restoredSplitIds));
+    restoredSplitIds = null;
     // We request a split only if we did not get splits during the checkpoint restore.
     // Otherwise, reader restarts will keep requesting more and more splits.
     if (getNumberOfCurrentlyAssignedSplits() == 0) {
       requestSplit(Collections.emptyList());
     }
-    context.sendSourceEventToCoordinator(ReaderStartedEvent.INSTANCE);
+  }
+
+  @Override
+  public void addSplits(List<ArcticSplit> splits) {
+    if (restoredSplitIds != null) {
+      splits.forEach(split -> restoredSplitIds.add(split.splitId()));
+    }
+    super.addSplits(splits);
   }
 
   @Override
@@ -20,9 +20,22 @@ package com.netease.arctic.flink.read.hybrid.reader;
 
 import org.apache.flink.api.connector.source.SourceEvent;
 
-/** It denotes {@link ArcticSourceReader} is starting. */
+import java.util.Collection;
+
+/**
+ * It denotes {@link ArcticSourceReader} is starting, with the ids of the splits it restored from
+ * state.
+ */
 public class ReaderStartedEvent implements SourceEvent {
   private static final long serialVersionUID = 1L;
 
-  public static final ReaderStartedEvent INSTANCE = new ReaderStartedEvent();
+  private final Collection<String> restoredSplitIds;
+
+  public ReaderStartedEvent(Collection<String> restoredSplitIds) {
+    this.restoredSplitIds = restoredSplitIds;
+  }
+
+  public Collection<String> restoredSplitIds() {
+    return restoredSplitIds;
+  }
 }
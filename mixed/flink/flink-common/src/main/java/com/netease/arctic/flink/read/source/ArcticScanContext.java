@@ -23,6 +23,7 @@ package com.netease.arctic.flink.read.source;
 
 import static com.netease.arctic.flink.table.descriptors.ArcticValidator.ARCTIC_READ_FILE;
 import static com.netease.arctic.flink.table.descriptors.ArcticValidator.ARCTIC_READ_MODE;
+import static com.netease.arctic.flink.table.descriptors.ArcticValidator.SCAN_INITIAL_PLANNING_MANIFESTS_PER_BATCH;
 import static com.netease.arctic.flink.table.descriptors.ArcticValidator.SCAN_STARTUP_MODE;
 import static com.netease.arctic.flink.table.descriptors.ArcticValidator.SCAN_STARTUP_MODE_EARLIEST;
 import static com.netease.arctic.flink.table.descriptors.ArcticValidator.SCAN_STARTUP_MODE_LATEST;
@@ -51,6 +52,7 @@ public class ArcticScanContext extends ScanContext implements Serializable {
 
   private final String scanStartupMode;
   private final boolean batchMode;
+  private final int initialPlanningManifestsPerBatch;
 
   protected ArcticScanContext(Builder builder) {
     super(
@@ -81,6 +83,7 @@ public class ArcticScanContext extends ScanContext implements Serializable {
         builder.endTag);
     this.scanStartupMode = builder.scanStartupMode;
     this.batchMode = builder.batchMode;
+    this.initialPlanningManifestsPerBatch = builder.initialPlanningManifestsPerBatch;
   }
 
   public boolean caseSensitive() {
@@ -152,6 +155,10 @@ public class ArcticScanContext extends ScanContext implements Serializable {
     return batchMode;
   }
 
+  public int initialPlanningManifestsPerBatch() {
+    return initialPlanningManifestsPerBatch;
+  }
+
   public static class Builder {
     private boolean caseSensitive = FlinkReadOptions.CASE_SENSITIVE_OPTION.defaultValue();
     private Long snapshotId = FlinkReadOptions.SNAPSHOT_ID.defaultValue();
@@ -190,6 +197,8 @@ public class ArcticScanContext extends ScanContext implements Serializable {
     private String endTag = FlinkReadOptions.END_TAG.defaultValue();
     private String scanStartupMode;
     private boolean batchMode = false;
+    private int initialPlanningManifestsPerBatch =
+        SCAN_INITIAL_PLANNING_MANIFESTS_PER_BATCH.defaultValue();
 
     private Builder() {}
 
@@ -318,6 +327,11 @@ public class ArcticScanContext extends ScanContext implements Serializable {
       return this;
     }
 
+    public Builder initialPlanningManifestsPerBatch(int manifestsPerBatch) {
+      this.initialPlanningManifestsPerBatch = manifestsPerBatch;
+      return this;
+    }
+
     public Builder includeColumnStats(boolean newIncludeColumnStats) {
       this.includeColumnStats = newIncludeColumnStats;
       return this;
@@ -350,6 +364,7 @@ public class ArcticScanContext extends ScanContext implements Serializable {
           .monitorInterval(config.get(MONITOR_INTERVAL))
           .nameMapping(properties.get(DEFAULT_NAME_MAPPING))
           .scanStartupMode(properties.get(SCAN_STARTUP_MODE.key()))
+          .initialPlanningManifestsPerBatch(config.get(SCAN_INITIAL_PLANNING_MANIFESTS_PER_BATCH))
           .includeColumnStats(config.get(INCLUDE_COLUMN_STATS))
           .maxPlanningSnapshotCount(config.get(MAX_PLANNING_SNAPSHOT_COUNT))
           .maxAllowedPlanningFailures(maxAllowedPlanningFailures);
@@ -371,6 +386,10 @@ public class ArcticScanContext extends ScanContext implements Serializable {
           !(isStreaming && batchMode),
           String.format(
               "only support %s = false when execution.runtime-mode is batch", STREAMING.key()));
+      Preconditions.checkArgument(
+          initialPlanningManifestsPerBatch >= 0,
+          String.format(
+              "%s should not be negative", SCAN_INITIAL_PLANNING_MANIFESTS_PER_BATCH.key()));
       return new ArcticScanContext(this);
     }
   }
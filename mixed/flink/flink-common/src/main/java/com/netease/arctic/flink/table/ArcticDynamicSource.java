@@ -18,13 +18,16 @@
 
 package com.netease.arctic.flink.table;
 
+import com.netease.arctic.flink.lookup.ArcticRowDataAsyncLookupFunction;
 import com.netease.arctic.flink.lookup.ArcticRowDataLookupFunction;
+import com.netease.arctic.flink.lookup.BasicLookupFunction;
 import com.netease.arctic.flink.lookup.KVTableFactory;
 import com.netease.arctic.flink.lookup.filter.RowDataPredicate;
 import com.netease.arctic.flink.lookup.filter.RowDataPredicateExpressionVisitor;
 import com.netease.arctic.flink.read.hybrid.reader.DataIteratorReaderFunction;
 import com.netease.arctic.flink.read.hybrid.reader.RowDataReaderFunction;
 import com.netease.arctic.flink.read.source.FlinkArcticMORDataReader;
+import com.netease.arctic.flink.table.descriptors.ArcticValidator;
 import com.netease.arctic.flink.util.FilterUtil;
 import com.netease.arctic.flink.util.IcebergAndFlinkFilters;
 import com.netease.arctic.hive.io.reader.AbstractAdaptHiveKeyedDataReader;
@@ -42,10 +45,12 @@ import org.apache.flink.table.connector.source.abilities.SupportsFilterPushDown;
 import org.apache.flink.table.connector.source.abilities.SupportsLimitPushDown;
 import org.apache.flink.table.connector.source.abilities.SupportsProjectionPushDown;
 import org.apache.flink.table.connector.source.abilities.SupportsWatermarkPushDown;
+import org.apache.flink.table.connector.source.lookup.AsyncLookupFunctionProvider;
 import org.apache.flink.table.connector.source.lookup.LookupFunctionProvider;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.expressions.CallExpression;
 import org.apache.flink.table.expressions.ResolvedExpression;
+import org.apache.flink.table.functions.AsyncLookupFunction;
 import org.apache.flink.table.functions.BuiltInFunctionDefinitions;
 import org.apache.flink.table.functions.FunctionIdentifier;
 import org.apache.flink.table.functions.LookupFunction;
@@ -247,16 +252,26 @@ public class ArcticDynamicSource
       joinKeys[i] = context.getKeys()[i][0];
     }
 
+    if (lookupConfig().get(ArcticValidator.LOOKUP_ASYNC)) {
+      return AsyncLookupFunctionProvider.of(getAsyncLookupFunction(joinKeys));
+    }
     return LookupFunctionProvider.of(getLookupFunction(joinKeys));
   }
 
   protected LookupFunction getLookupFunction(int[] joinKeys) {
+    return new ArcticRowDataLookupFunction(createBasicLookupFunction(joinKeys));
+  }
+
+  protected AsyncLookupFunction getAsyncLookupFunction(int[] joinKeys) {
+    return new ArcticRowDataAsyncLookupFunction(createBasicLookupFunction(joinKeys));
+  }
+
+  private BasicLookupFunction<RowData> createBasicLookupFunction(int[] joinKeys) {
     Schema projectedSchema = getProjectedSchema();
 
     List<String> joinKeyNames = getJoinKeyNames(joinKeys, projectedSchema);
 
-    Configuration config = new Configuration();
-    properties.forEach(config::setString);
+    Configuration config = lookupConfig();
 
     Optional<RowDataPredicate> rowDataPredicate =
         generatePredicate(projectedSchema, flinkExpression);
@@ -266,7 +281,7 @@ public class ArcticDynamicSource
     DataIteratorReaderFunction<RowData> readerFunction =
         generateReaderFunction(arcticTable, projectedSchema);
 
-    return new ArcticRowDataLookupFunction(
+    return new BasicLookupFunction<>(
         KVTableFactory.INSTANCE,
         arcticTable,
         joinKeyNames,
@@ -279,6 +294,12 @@ public class ArcticDynamicSource
         readerFunction);
   }
 
+  private Configuration lookupConfig() {
+    Configuration config = new Configuration();
+    properties.forEach(config::setString);
+    return config;
+  }
+
   protected DataIteratorReaderFunction<RowData> generateReaderFunction(
       ArcticTable arcticTable, Schema projectedSchema) {
     return new RowDataReaderFunction(
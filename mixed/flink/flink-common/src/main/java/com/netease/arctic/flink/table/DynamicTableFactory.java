@@ -22,8 +22,12 @@ import static com.netease.arctic.flink.FlinkSchemaUtil.getPhysicalSchema;
 import static com.netease.arctic.flink.FlinkSchemaUtil.getPhysicalSchemaForDimTable;
 import static com.netease.arctic.flink.catalog.factories.ArcticCatalogFactoryOptions.METASTORE_URL;
 import static com.netease.arctic.flink.table.KafkaConnectorOptionsUtil.getKafkaProperties;
+import static com.netease.arctic.flink.table.descriptors.ArcticValidator.LOOKUP_ASYNC;
+import static com.netease.arctic.flink.table.descriptors.ArcticValidator.LOOKUP_ASYNC_MAX_BATCH_SIZE;
 import static com.netease.arctic.flink.table.descriptors.ArcticValidator.LOOKUP_CACHE_MAX_ROWS;
+import static com.netease.arctic.flink.table.descriptors.ArcticValidator.LOOKUP_CACHE_SHARDS;
 import static com.netease.arctic.flink.table.descriptors.ArcticValidator.LOOKUP_CACHE_TTL_AFTER_WRITE;
+import static com.netease.arctic.flink.table.descriptors.ArcticValidator.LOOKUP_KEY_PARTITIONED;
 import static com.netease.arctic.flink.table.descriptors.ArcticValidator.LOOKUP_RELOADING_INTERVAL;
 import static com.netease.arctic.flink.table.descriptors.ArcticValidator.ROCKSDB_AUTO_COMPACTIONS;
 import static com.netease.arctic.flink.table.descriptors.ArcticValidator.ROCKSDB_BLOCK_CACHE_CAPACITY;
@@ -233,12 +237,17 @@ public class DynamicTableFactory implements DynamicTableSourceFactory, DynamicTa
     options.add(ArcticValidator.ARCTIC_TABLE);
     options.add(ArcticValidator.ARCTIC_DATABASE);
     options.add(ArcticValidator.DIM_TABLE_ENABLE);
+    options.add(ArcticValidator.SCAN_INITIAL_PLANNING_MANIFESTS_PER_BATCH);
     options.add(METASTORE_URL);
 
     // lookup
     options.add(LOOKUP_CACHE_MAX_ROWS);
+    options.add(LOOKUP_CACHE_SHARDS);
     options.add(LOOKUP_RELOADING_INTERVAL);
     options.add(LOOKUP_CACHE_TTL_AFTER_WRITE);
+    options.add(LOOKUP_KEY_PARTITIONED);
+    options.add(LOOKUP_ASYNC);
+    options.add(LOOKUP_ASYNC_MAX_BATCH_SIZE);
 
     options.add(ROCKSDB_AUTO_COMPACTIONS);
     options.add(ROCKSDB_WRITING_THREADS);
@@ -140,6 +140,16 @@ public class ArcticValidator extends ConnectorDescriptorValidator {
           .noDefaultValue()
           .withDescription("Optional timestamp used in case of \"timestamp\" startup mode");
 
+  public static final ConfigOption<Integer> SCAN_INITIAL_PLANNING_MANIFESTS_PER_BATCH =
+      ConfigOptions.key("scan.initial-planning.manifests-per-batch")
+          .intType()
+          .defaultValue(0)
+          .withDescription(
+              "The number of base data manifests planned in each batch when reading the snapshot of"
+                  + " a keyed table in \"earliest\" startup mode. Splits of a batch are assigned to readers"
+                  + " before the next batch is planned, and the planning progress is checkpointed. 0 means"
+                  + " planning the whole snapshot at once.");
+
   public static final ConfigOption<Boolean> SUBMIT_EMPTY_SNAPSHOTS =
       ConfigOptions.key("submit.empty.snapshots")
           .booleanType()
@@ -231,6 +241,15 @@ public class ArcticValidator extends ConnectorDescriptorValidator {
               "The maximum number of rows in the lookup cache, beyond which the oldest row will expire."
                   + " By default, lookup cache is 10000.");
 
+  public static final ConfigOption<Integer> LOOKUP_CACHE_SHARDS =
+      ConfigOptions.key("lookup.cache.shards")
+          .intType()
+          .defaultValue(16)
+          .withDescription(
+              "The maximum number of shards of the lookup cache, the shards are accessed concurrently"
+                  + " and evict the oldest rows independently. A shard holds at least 1024 rows, so a"
+                  + " small cache has fewer shards. By default, lookup cache has up to 16 shards.");
+
   public static final ConfigOption<Duration> LOOKUP_CACHE_TTL_AFTER_WRITE =
       ConfigOptions.key("lookup.cache.ttl-after-write")
           .durationType()
@@ -245,6 +264,36 @@ public class ArcticValidator extends ConnectorDescriptorValidator {
               "Configuration option for specifying the interval in seconds to reload lookup data in RocksDB."
                   + "\nThe default value is 10 seconds.");
 
+  public static final ConfigOption<Boolean> LOOKUP_KEY_PARTITIONED =
+      ConfigOptions.key("lookup.key-partitioned")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "If it is true, each subtask of the lookup join only loads the rows whose primary key"
+                  + " is partitioned to it by LookupKeyPartitioner, and skips the files of tree nodes"
+                  + " not containing such keys when the parallelism is a power of 2. The join keys must"
+                  + " be the primary key, and the input of the lookup join must be partitioned by the"
+                  + " same LookupKeyPartitioner, otherwise the lookup fails. Since the planner of"
+                  + " Flink 1.15 to 1.17 can not partition the input of a lookup join by a custom"
+                  + " partitioner, pure SQL jobs can not use it, their lookups fail fast. The input"
+                  + " must be partitioned by the DataStream API and then forwarded to the lookup join.");
+
+  public static final ConfigOption<Boolean> LOOKUP_ASYNC =
+      ConfigOptions.key("lookup.async")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "If it is true, the lookup join reads the lookup cache asynchronously in a dedicated"
+                  + " thread, batching the concurrent lookups into multi-gets of RocksDB. The result"
+                  + " order and the max concurrent lookups are configured by the Flink options"
+                  + " table.exec.async-lookup.output-mode and table.exec.async-lookup.buffer-capacity.");
+
+  public static final ConfigOption<Integer> LOOKUP_ASYNC_MAX_BATCH_SIZE =
+      ConfigOptions.key("lookup.async.max-batch-size")
+          .intType()
+          .defaultValue(128)
+          .withDescription("The maximum number of lookups read from RocksDB in a batch.");
+
   public static final ConfigOption<Boolean> ROCKSDB_AUTO_COMPACTIONS =
       ConfigOptions.key("rocksdb.auto-compactions")
           .booleanType()
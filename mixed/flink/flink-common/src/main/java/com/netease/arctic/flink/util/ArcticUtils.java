@@ -38,6 +38,7 @@ import com.netease.arctic.flink.write.ArcticLogWriter;
 import com.netease.arctic.flink.write.AutomaticLogWriter;
 import com.netease.arctic.flink.write.hidden.HiddenLogWriter;
 import com.netease.arctic.flink.write.hidden.kafka.HiddenKafkaFactory;
+import com.netease.arctic.log.FormatVersion;
 import com.netease.arctic.table.ArcticTable;
 import com.netease.arctic.table.PrimaryKeySpec;
 import com.netease.arctic.table.TableProperties;
@@ -170,34 +171,40 @@ public class ArcticUtils {
 
     String version =
         properties.getOrDefault(LOG_STORE_DATA_VERSION, LOG_STORE_DATA_VERSION_DEFAULT);
-    if (LOG_STORE_DATA_VERSION_DEFAULT.equals(version)) {
-      if (arcticEmitMode.equals(ArcticValidator.ARCTIC_EMIT_AUTO)) {
-        LOG.info(
-            "arctic emit mode is auto, and we will build automatic log writer: AutomaticLogWriter(v1)");
-        return new AutomaticLogWriter(
-            FlinkSchemaUtil.convert(tableSchema),
-            producerConfig,
-            topic,
-            new HiddenKafkaFactory<>(),
-            LogRecordV1.fieldGetterFactory,
-            IdGenerator.generateUpstreamId(),
-            helper,
-            tableLoader,
-            watermarkWriteGap);
-      }
-
-      LOG.info("build log writer: HiddenLogWriter(v1)");
-      return new HiddenLogWriter(
+    FormatVersion logVersion;
+    try {
+      logVersion = FormatVersion.fromProperty(version);
+    } catch (UnsupportedOperationException e) {
+      throw new UnsupportedOperationException(
+          "don't support log version '" + version + "'. only support 'v1', 'v2' or empty", e);
+    }
+    if (arcticEmitMode.equals(ArcticValidator.ARCTIC_EMIT_AUTO)) {
+      LOG.info(
+          "arctic emit mode is auto, and we will build automatic log writer: AutomaticLogWriter({})",
+          version);
+      return new AutomaticLogWriter(
           FlinkSchemaUtil.convert(tableSchema),
           producerConfig,
           topic,
           new HiddenKafkaFactory<>(),
           LogRecordV1.fieldGetterFactory,
           IdGenerator.generateUpstreamId(),
-          helper);
+          helper,
+          tableLoader,
+          watermarkWriteGap,
+          logVersion);
     }
-    throw new UnsupportedOperationException(
-        "don't support log version '" + version + "'. only support 'v1' or empty");
+
+    LOG.info("build log writer: HiddenLogWriter({})", version);
+    return new HiddenLogWriter(
+        FlinkSchemaUtil.convert(tableSchema),
+        producerConfig,
+        topic,
+        new HiddenKafkaFactory<>(),
+        LogRecordV1.fieldGetterFactory,
+        IdGenerator.generateUpstreamId(),
+        helper,
+        logVersion);
   }
 
   /**
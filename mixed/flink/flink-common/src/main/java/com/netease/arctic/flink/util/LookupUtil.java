@@ -27,6 +27,7 @@ public class LookupUtil {
   public static LookupOptions convertLookupOptions(Configuration config) {
     return new LookupOptions.Builder()
         .lruMaximumSize(config.get(ArcticValidator.LOOKUP_CACHE_MAX_ROWS))
+        .cacheShardNum(config.get(ArcticValidator.LOOKUP_CACHE_SHARDS))
         .writeRecordThreadNum(config.get(ArcticValidator.ROCKSDB_WRITING_THREADS))
         .ttlAfterWrite(config.get(ArcticValidator.LOOKUP_CACHE_TTL_AFTER_WRITE))
         .blockCacheCapacity(config.get(ArcticValidator.ROCKSDB_BLOCK_CACHE_CAPACITY))
@@ -22,6 +22,7 @@ import static com.netease.arctic.flink.shuffle.RowKindUtil.transformFromFlinkRow
 
 import com.netease.arctic.flink.shuffle.LogRecordV1;
 import com.netease.arctic.flink.shuffle.ShuffleHelper;
+import com.netease.arctic.log.FormatVersion;
 import com.netease.arctic.log.LogData;
 import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
 import org.apache.flink.table.data.RowData;
@@ -44,6 +45,19 @@ public class HiddenLogWriter extends AbstractHiddenLogWriter {
     super(schema, producerConfig, topic, factory, fieldGetterFactory, jobId, helper);
   }
 
+  public HiddenLogWriter(
+      Schema schema,
+      Properties producerConfig,
+      String topic,
+      LogMsgFactory<RowData> factory,
+      LogData.FieldGetterFactory<RowData> fieldGetterFactory,
+      byte[] jobId,
+      ShuffleHelper helper,
+      FormatVersion logVersion) {
+    super(schema, producerConfig, topic, factory, fieldGetterFactory, jobId, helper);
+    this.logVersion = logVersion;
+  }
+
   @Override
   public void endInput() throws Exception {
     producer.flush();
@@ -0,0 +1,331 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.flink.lookup;
+
+import static com.netease.arctic.flink.table.descriptors.ArcticValidator.LOOKUP_ASYNC;
+import static com.netease.arctic.flink.table.descriptors.ArcticValidator.LOOKUP_ASYNC_MAX_BATCH_SIZE;
+import static com.netease.arctic.flink.table.descriptors.ArcticValidator.LOOKUP_RELOADING_INTERVAL;
+
+import com.netease.arctic.BasicTableTestHelper;
+import com.netease.arctic.ams.api.TableFormat;
+import com.netease.arctic.catalog.BasicCatalogTestHelper;
+import com.netease.arctic.catalog.TableTestBase;
+import com.netease.arctic.flink.read.hybrid.reader.RowDataReaderFunction;
+import com.netease.arctic.flink.read.source.FlinkArcticMORDataReader;
+import com.netease.arctic.flink.util.DataUtil;
+import com.netease.arctic.flink.write.FlinkTaskWriterBaseTest;
+import com.netease.arctic.table.KeyedTable;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.groups.OperatorMetricGroup;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.streaming.util.MockStreamingRuntimeContext;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.functions.FunctionContext;
+import org.apache.flink.util.ExceptionUtils;
+import org.apache.iceberg.flink.FlinkSchemaUtil;
+import org.apache.iceberg.flink.data.RowDataUtil;
+import org.apache.iceberg.io.TaskWriter;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class TestArcticRowDataAsyncLookupFunction extends TableTestBase
+    implements FlinkTaskWriterBaseTest {
+
+  private static final int ROW_COUNT = 16;
+  private static final int MAX_BATCH_SIZE = 4;
+
+  private BlockingKVTable kvTable;
+  private ArcticRowDataAsyncLookupFunction lookupFunction;
+
+  public TestArcticRowDataAsyncLookupFunction() {
+    super(
+        new BasicCatalogTestHelper(TableFormat.MIXED_ICEBERG),
+        new BasicTableTestHelper(true, false));
+  }
+
+  @Before
+  public void before() throws Exception {
+    write(0, ROW_COUNT, true);
+
+    KeyedTable table = getArcticTable().asKeyedTable();
+    Configuration config = new Configuration();
+    config.set(LOOKUP_ASYNC, true);
+    config.set(LOOKUP_ASYNC_MAX_BATCH_SIZE, MAX_BATCH_SIZE);
+    config.set(LOOKUP_RELOADING_INTERVAL, Duration.ofSeconds(1));
+    TableFactory<RowData> tableFactory =
+        (rowDataStateFactory, primaryKeys, joinKeys, projectSchema, factoryConfig, predicate) -> {
+          kvTable =
+              new BlockingKVTable(
+                  KVTableFactory.INSTANCE.create(
+                      rowDataStateFactory,
+                      primaryKeys,
+                      joinKeys,
+                      projectSchema,
+                      factoryConfig,
+                      predicate));
+          return kvTable;
+        };
+    lookupFunction =
+        new ArcticRowDataAsyncLookupFunction(
+            new BasicLookupFunction<>(
+                tableFactory,
+                table,
+                table.primaryKeySpec().fieldNames(),
+                table.schema(),
+                Collections.emptyList(),
+                getTableLoader(getCatalogName(), getMetastoreUrl(), table),
+                config,
+                null,
+                new FlinkArcticMORDataReader(
+                    table.io(),
+                    table.schema(),
+                    table.schema(),
+                    table.primaryKeySpec(),
+                    null,
+                    true,
+                    RowDataUtil::convertConstant,
+                    true),
+                new RowDataReaderFunction(
+                    new Configuration(),
+                    table.schema(),
+                    table.schema(),
+                    table.primaryKeySpec(),
+                    null,
+                    true,
+                    table.io(),
+                    true)));
+    lookupFunction.open(
+        new FunctionContext(
+            new MockStreamingRuntimeContext(false, 1, 0) {
+              @Override
+              public OperatorMetricGroup getMetricGroup() {
+                return UnregisteredMetricsGroup.createOperatorMetricGroup();
+              }
+            }));
+  }
+
+  @After
+  public void after() throws Exception {
+    if (lookupFunction != null) {
+      lookupFunction.close();
+    }
+  }
+
+  @Test
+  public void testBatchLookupsInOrder() throws Exception {
+    // block the reader thread in the first lookup, so the following lookups are batched
+    kvTable.block();
+    List<CompletableFuture<Collection<RowData>>> futures = new ArrayList<>();
+    futures.add(lookupFunction.asyncLookup(GenericRowData.of(0)));
+    kvTable.awaitBlocked();
+    for (int id = 1; id < ROW_COUNT + 2; id++) {
+      futures.add(lookupFunction.asyncLookup(GenericRowData.of(id)));
+    }
+    kvTable.unblock();
+
+    for (int id = 0; id < futures.size(); id++) {
+      Collection<RowData> rows = futures.get(id).get(10, TimeUnit.SECONDS);
+      if (id < ROW_COUNT) {
+        Assert.assertEquals(1, rows.size());
+        Assert.assertEquals(id, rows.iterator().next().getInt(0));
+      } else {
+        Assert.assertTrue(rows.isEmpty());
+      }
+    }
+    // 1 blocked lookup, then the 17 lookups queued meanwhile in batches of at most 4
+    Assert.assertEquals(Lists.newArrayList(1, 4, 4, 4, 4, 1), kvTable.batchSizes);
+  }
+
+  @Test
+  public void testFailLookupsOnLoadingError() throws Exception {
+    kvTable.failUpserts();
+    write(ROW_COUNT, ROW_COUNT + 1, false);
+
+    // the reloading fails in the background, then the following lookups fail
+    long deadline = System.currentTimeMillis() + 10_000;
+    CompletableFuture<Collection<RowData>> future;
+    do {
+      Assert.assertTrue(System.currentTimeMillis() < deadline);
+      Thread.sleep(100);
+      future = lookupFunction.asyncLookup(GenericRowData.of(0));
+    } while (!future.isCompletedExceptionally());
+    ExecutionException exception = Assert.assertThrows(ExecutionException.class, future::get);
+    Assert.assertTrue(
+        ExceptionUtils.findThrowableWithMessage(exception, "Failed to upsert").isPresent());
+  }
+
+  @Test
+  public void testFailPendingLookupsOnClose() throws Exception {
+    ArcticRowDataAsyncLookupFunction closingFunction = lookupFunction;
+    lookupFunction = null;
+    kvTable.block();
+    List<CompletableFuture<Collection<RowData>>> futures = new ArrayList<>();
+    futures.add(closingFunction.asyncLookup(GenericRowData.of(0)));
+    kvTable.awaitBlocked();
+    for (int id = 1; id < ROW_COUNT; id++) {
+      futures.add(closingFunction.asyncLookup(GenericRowData.of(id)));
+    }
+
+    // the reader thread is interrupted and exits before the kvTable is closed
+    closingFunction.close();
+    Assert.assertTrue(kvTable.closedAfterReads);
+    for (CompletableFuture<Collection<RowData>> future : futures) {
+      Assert.assertTrue(future.isCompletedExceptionally());
+    }
+    Assert.assertTrue(closingFunction.asyncLookup(GenericRowData.of(0)).isCompletedExceptionally());
+  }
+
+  private void write(int fromId, int toId, boolean base) throws IOException {
+    KeyedTable table = getArcticTable().asKeyedTable();
+    try (TaskWriter<RowData> taskWriter =
+        base
+            ? createBaseTaskWriter(table, FlinkSchemaUtil.convert(table.schema()))
+            : createTaskWriter(table, FlinkSchemaUtil.convert(table.schema()))) {
+      for (int id = fromId; id < toId; id++) {
+        taskWriter.write(
+            DataUtil.toRowData(
+                id, "name" + id, (long) id, LocalDateTime.parse("2022-06-18T10:10:11")));
+      }
+      commit(table, taskWriter.complete(), base);
+    }
+  }
+
+  @Override
+  public String getMetastoreUrl() {
+    return getCatalogUrl();
+  }
+
+  @Override
+  public String getCatalogName() {
+    return getMixedFormatCatalog().name();
+  }
+
+  /** A kvTable which records the multi-gets, and blocks them or fails the upserts on demand. */
+  private static class BlockingKVTable implements KVTable<RowData> {
+    private final KVTable<RowData> kvTable;
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private volatile CountDownLatch blocked = new CountDownLatch(0);
+    private volatile CountDownLatch unblocked = new CountDownLatch(0);
+    private volatile boolean failUpserts;
+    private volatile boolean reading;
+    private volatile boolean closedAfterReads;
+
+    private BlockingKVTable(KVTable<RowData> kvTable) {
+      this.kvTable = kvTable;
+    }
+
+    private void block() {
+      blocked = new CountDownLatch(1);
+      unblocked = new CountDownLatch(1);
+    }
+
+    private void awaitBlocked() throws InterruptedException {
+      Assert.assertTrue(blocked.await(10, TimeUnit.SECONDS));
+    }
+
+    private void unblock() {
+      unblocked.countDown();
+    }
+
+    private void failUpserts() {
+      failUpserts = true;
+    }
+
+    @Override
+    public void open() {
+      kvTable.open();
+    }
+
+    @Override
+    public List<RowData> get(RowData key) throws IOException {
+      return kvTable.get(key);
+    }
+
+    @Override
+    public List<List<RowData>> get(List<RowData> keys) throws IOException {
+      reading = true;
+      try {
+        batchSizes.add(keys.size());
+        blocked.countDown();
+        try {
+          unblocked.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while blocked");
+        }
+        return kvTable.get(keys);
+      } finally {
+        reading = false;
+      }
+    }
+
+    @Override
+    public void upsert(Iterator<RowData> dataStream) throws IOException {
+      if (failUpserts) {
+        throw new IOException("Failed to upsert");
+      }
+      kvTable.upsert(dataStream);
+    }
+
+    @Override
+    public void initialize(Iterator<RowData> dataStream) throws IOException {
+      kvTable.initialize(dataStream);
+    }
+
+    @Override
+    public boolean filter(RowData value) {
+      return kvTable.filter(value);
+    }
+
+    @Override
+    public boolean initialized() {
+      return kvTable.initialized();
+    }
+
+    @Override
+    public void waitInitializationCompleted() {
+      kvTable.waitInitializationCompleted();
+    }
+
+    @Override
+    public void close() {
+      closedAfterReads = !reading;
+      kvTable.close();
+    }
+  }
+}
@@ -152,6 +152,38 @@ public class TestKVTable extends TestRowDataPredicateBase {
     Assert.assertArrayEquals(rowBytes1, rowBytes);
   }
 
+  @Test
+  public void testInitialUpdatesOfSameKeyInOrder() throws IOException {
+    config.setInteger(ROCKSDB_WRITING_THREADS, 4);
+    List<String> joinKeys = Lists.newArrayList("id", "grade");
+    try (UniqueIndexTable uniqueIndexTable = (UniqueIndexTable) createTable(joinKeys)) {
+      uniqueIndexTable.open();
+
+      // the updates of the same key are spread over many write batches of several threads
+      List<RowData> rows = new ArrayList<>();
+      int updates = RocksDBCacheState.WRITE_BATCH_SIZE * 10;
+      for (int i = 0; i < updates; i++) {
+        rows.add(row(RowKind.UPDATE_BEFORE, i % 10, "1", i - 10));
+        rows.add(row(RowKind.UPDATE_AFTER, i % 10, "1", i));
+      }
+      rows.add(row(RowKind.DELETE, 9, "1", updates - 1));
+      initTable(uniqueIndexTable, rows.iterator());
+
+      if (!uniqueIndexTable.initialized()) {
+        uniqueIndexTable.waitInitializationCompleted();
+      }
+
+      assertTable(
+          uniqueIndexTable,
+          row(0, "1"),
+          row(0, "1", updates - 10),
+          row(5, "1"),
+          row(5, "1", updates - 5),
+          row(9, "1"),
+          null);
+    }
+  }
+
   @Test
   public void testInitialUniqueKeyTable() throws IOException {
     config.setInteger(ROCKSDB_WRITING_THREADS, 5);
@@ -509,6 +541,24 @@ public class TestKVTable extends TestRowDataPredicateBase {
       RowData actual = values.get(0);
       assertRecord(expected, actual);
     }
+
+    // the batch get returns the same results in the order of the keys
+    List<RowData> keys = new ArrayList<>();
+    for (int i = 0; i < rows.length; i = i + 2) {
+      keys.add(rows[i]);
+    }
+    List<List<RowData>> batchValues = table.get(keys);
+    Assert.assertEquals(keys.size(), batchValues.size());
+    for (int i = 0; i < keys.size(); i++) {
+      RowData expected = rows[i * 2 + 1];
+      List<RowData> values = batchValues.get(i);
+      if (expected == null) {
+        Assert.assertEquals(0, values.size());
+        continue;
+      }
+      Assert.assertEquals(expected.toString(), 1, values.size());
+      assertRecord(expected, values.get(0));
+    }
   }
 
   private void assertTableSet(KVTable<RowData> table, RowData key, RowData... expects)
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.flink.lookup;
+
+import static com.netease.arctic.flink.table.descriptors.ArcticValidator.LOOKUP_KEY_PARTITIONED;
+
+import com.netease.arctic.BasicTableTestHelper;
+import com.netease.arctic.ams.api.TableFormat;
+import com.netease.arctic.catalog.BasicCatalogTestHelper;
+import com.netease.arctic.catalog.TableTestBase;
+import com.netease.arctic.data.DataTreeNode;
+import com.netease.arctic.flink.read.MixedIncrementalLoader;
+import com.netease.arctic.flink.read.hybrid.enumerator.MergeOnReadIncrementalPlanner;
+import com.netease.arctic.flink.read.hybrid.reader.RowDataReaderFunction;
+import com.netease.arctic.flink.read.source.FlinkArcticMORDataReader;
+import com.netease.arctic.flink.util.DataUtil;
+import com.netease.arctic.flink.write.FlinkTaskWriterBaseTest;
+import com.netease.arctic.table.KeyedTable;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.groups.OperatorMetricGroup;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.streaming.util.MockStreamingRuntimeContext;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.functions.FunctionContext;
+import org.apache.flink.util.FlinkRuntimeException;
+import org.apache.iceberg.flink.FlinkSchemaUtil;
+import org.apache.iceberg.flink.data.RowDataUtil;
+import org.apache.iceberg.io.CloseableIterator;
+import org.apache.iceberg.io.TaskWriter;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+@RunWith(value = Parameterized.class)
+public class TestKeyPartitionedLookup extends TableTestBase implements FlinkTaskWriterBaseTest {
+
+  private static final int ROW_COUNT = 64;
+
+  private final int parallelism;
+
+  public TestKeyPartitionedLookup(int parallelism) {
+    super(
+        new BasicCatalogTestHelper(TableFormat.MIXED_ICEBERG),
+        new BasicTableTestHelper(true, false));
+    this.parallelism = parallelism;
+  }
+
+  @Parameterized.Parameters(name = "parallelism = {0}")
+  public static Object[] parameters() {
+    return new Object[] {2, 4};
+  }
+
+  @Before
+  public void before() throws IOException {
+    // the writers spread the keys over 4 tree nodes, in both the base and the change store
+    KeyedTable table = getArcticTable().asKeyedTable();
+    try (TaskWriter<RowData> taskWriter =
+        createBaseTaskWriter(table, FlinkSchemaUtil.convert(table.schema()))) {
+      for (int id = 0; id < ROW_COUNT / 2; id++) {
+        taskWriter.write(row(id));
+      }
+      commit(table, taskWriter.complete(), true);
+    }
+    try (TaskWriter<RowData> taskWriter =
+        createTaskWriter(table, FlinkSchemaUtil.convert(table.schema()))) {
+      for (int id = ROW_COUNT / 2; id < ROW_COUNT; id++) {
+        taskWriter.write(row(id));
+      }
+      commit(table, taskWriter.complete(), false);
+    }
+  }
+
+  @Test
+  public void testSkipSplitsOfOtherSubtasks() throws Exception {
+    KeyedTable table = getArcticTable().asKeyedTable();
+    LookupKeyPartitioner partitioner =
+        LookupKeyPartitioner.of(table, table.primaryKeySpec().fieldNames());
+    Set<Integer> allIds = loadIds(node -> true);
+    Assert.assertEquals(ROW_COUNT, allIds.size());
+
+    Set<Integer> loadedIds = new HashSet<>();
+    for (int subtask = 0; subtask < parallelism; subtask++) {
+      int subtaskIndex = subtask;
+      Set<Integer> ids =
+          loadIds(node -> LookupKeyPartitioner.mayContain(node, subtaskIndex, parallelism));
+      // the splits of the other tree nodes are skipped, so only the keys of the subtask are loaded
+      Assert.assertTrue(ids.size() < allIds.size());
+      for (int id : ids) {
+        Assert.assertEquals(subtask, partitioner.partition(GenericRowData.of(id), parallelism));
+      }
+      loadedIds.addAll(ids);
+    }
+    Assert.assertEquals(allIds, loadedIds);
+  }
+
+  @Test
+  public void testLookupOwnedKeys() throws Exception {
+    KeyedTable table = getArcticTable().asKeyedTable();
+    LookupKeyPartitioner partitioner =
+        LookupKeyPartitioner.of(table, table.primaryKeySpec().fieldNames());
+    Configuration config = new Configuration();
+    config.set(LOOKUP_KEY_PARTITIONED, true);
+
+    Set<Integer> foundIds = new HashSet<>();
+    for (int subtask = 0; subtask < parallelism; subtask++) {
+      BasicLookupFunction<RowData> lookupFunction = lookupFunction(table, config);
+      lookupFunction.init(functionContext(subtask));
+      lookupFunction.start();
+      try {
+        KVTable<RowData> cache = lookupFunction.getKVTable();
+        for (int id = 0; id < ROW_COUNT; id++) {
+          RowData key = GenericRowData.of(id);
+          if (partitioner.partition(key, parallelism) == subtask) {
+            Assert.assertEquals(1, lookupFunction.lookup(key).size());
+            foundIds.add(id);
+          } else {
+            // the rows of the other subtasks are not cached, and looking up their keys fails fast
+            Assert.assertTrue(cache.get(key).isEmpty());
+            Assert.assertThrows(FlinkRuntimeException.class, () -> lookupFunction.lookup(key));
+          }
+        }
+      } finally {
+        lookupFunction.close();
+      }
+    }
+    Assert.assertEquals(ROW_COUNT, foundIds.size());
+  }
+
+  private Set<Integer> loadIds(Predicate<DataTreeNode> nodeFilter) throws Exception {
+    KeyedTable table = getArcticTable().asKeyedTable();
+    Set<Integer> ids = new HashSet<>();
+    try (MixedIncrementalLoader<RowData> incrementalLoader =
+        new MixedIncrementalLoader<>(
+            new MergeOnReadIncrementalPlanner(
+                getTableLoader(getCatalogName(), getMetastoreUrl(), table)),
+            morDataReader(table),
+            readerFunction(table),
+            Collections.emptyList(),
+            nodeFilter)) {
+      while (incrementalLoader.hasNext()) {
+        try (CloseableIterator<RowData> iterator = incrementalLoader.next()) {
+          iterator.forEachRemaining(row -> ids.add(row.getInt(0)));
+        }
+      }
+    }
+    return ids;
+  }
+
+  private BasicLookupFunction<RowData> lookupFunction(KeyedTable table, Configuration config) {
+    return new BasicLookupFunction<>(
+        KVTableFactory.INSTANCE,
+        table,
+        table.primaryKeySpec().fieldNames(),
+        table.schema(),
+        Collections.emptyList(),
+        getTableLoader(getCatalogName(), getMetastoreUrl(), table),
+        config,
+        null,
+        morDataReader(table),
+        readerFunction(table));
+  }
+
+  private FunctionContext functionContext(int subtaskIndex) {
+    return new FunctionContext(
+        new MockStreamingRuntimeContext(false, parallelism, subtaskIndex) {
+          @Override
+          public OperatorMetricGroup getMetricGroup() {
+            return UnregisteredMetricsGroup.createOperatorMetricGroup();
+          }
+        });
+  }
+
+  private static FlinkArcticMORDataReader morDataReader(KeyedTable table) {
+    return new FlinkArcticMORDataReader(
+        table.io(),
+        table.schema(),
+        table.schema(),
+        table.primaryKeySpec(),
+        null,
+        true,
+        RowDataUtil::convertConstant,
+        true);
+  }
+
+  private static RowDataReaderFunction readerFunction(KeyedTable table) {
+    return new RowDataReaderFunction(
+        new Configuration(),
+        table.schema(),
+        table.schema(),
+        table.primaryKeySpec(),
+        null,
+        true,
+        table.io(),
+        true);
+  }
+
+  private static RowData row(int id) {
+    return DataUtil.toRowData(
+        id, "name" + id, (long) id, LocalDateTime.parse("2022-06-18T10:10:11"));
+  }
+
+  @Override
+  public String getMetastoreUrl() {
+    return getCatalogUrl();
+  }
+
+  @Override
+  public String getCatalogName() {
+    return getMixedFormatCatalog().name();
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.flink.lookup;
+
+import com.netease.arctic.data.DataTreeNode;
+import com.netease.arctic.data.PrimaryKeyData;
+import com.netease.arctic.table.PrimaryKeySpec;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.types.Types;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestLookupKeyPartitioner {
+
+  private static final Schema SCHEMA =
+      new Schema(
+          Types.NestedField.required(1, "id", Types.IntegerType.get()),
+          Types.NestedField.required(2, "name", Types.StringType.get()));
+
+  private static final PrimaryKeySpec PRIMARY_KEY_SPEC =
+      PrimaryKeySpec.builderFor(SCHEMA).addColumn("id").build();
+
+  @Test
+  public void testPartitionByTreeNodeHash() {
+    LookupKeyPartitioner partitioner = new LookupKeyPartitioner(PRIMARY_KEY_SPEC, SCHEMA);
+    PrimaryKeyData primaryKey = new PrimaryKeyData(PRIMARY_KEY_SPEC, SCHEMA);
+    for (int id = 0; id < 100; id++) {
+      primaryKey.set(0, id);
+      int expected = primaryKey.hashCode() % 4;
+      Assert.assertEquals(
+          expected, partitioner.partition(GenericRowData.of(id, StringData.fromString("a")), 4));
+    }
+  }
+
+  @Test
+  public void testMayContain() {
+    for (int hash = 0; hash < 1024; hash++) {
+      for (int numPartitions : new int[] {1, 2, 4, 8}) {
+        int partition = LookupKeyPartitioner.partition(hash, numPartitions);
+        for (long mask : new long[] {0, 1, 3, 7, 15}) {
+          DataTreeNode node = DataTreeNode.of(mask, hash & mask);
+          // the node containing the key is never skipped
+          Assert.assertTrue(LookupKeyPartitioner.mayContain(node, partition, numPartitions));
+          // the node is skipped by other partitions if the mask covers the partition bits
+          for (int other = 0; other < numPartitions; other++) {
+            if (other != partition && mask >= numPartitions - 1) {
+              Assert.assertFalse(LookupKeyPartitioner.mayContain(node, other, numPartitions));
+            }
+          }
+        }
+      }
+    }
+    // the partition of a key depends on all the hash bits if the partitions are not a power of 2
+    Assert.assertTrue(LookupKeyPartitioner.mayContain(DataTreeNode.of(3, 0), 1, 3));
+  }
+}
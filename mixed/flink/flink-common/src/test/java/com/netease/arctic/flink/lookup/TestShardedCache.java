@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netease.arctic.flink.lookup;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestShardedCache {
+
+  @Test
+  public void testShardNum() {
+    Assert.assertEquals(1, ShardedCache.create(0, 16).shardNum());
+    Assert.assertEquals(1, ShardedCache.create(10000, 1).shardNum());
+    Assert.assertEquals(8, ShardedCache.create(10000, 16).shardNum());
+    Assert.assertEquals(16, ShardedCache.create(1 << 20, 16).shardNum());
+    Assert.assertEquals(4, ShardedCache.create(1 << 20, 6).shardNum());
+  }
+
+  @Test
+  public void testPutAndGet() {
+    ShardedCache<Integer, String> cache = ShardedCache.create(1 << 20, 16);
+    for (int i = 0; i < 1000; i++) {
+      cache.put(i, String.valueOf(i));
+    }
+    Assert.assertEquals(1000, cache.size());
+    for (int i = 0; i < 1000; i++) {
+      Assert.assertEquals(String.valueOf(i), cache.getIfPresent(i));
+    }
+    Assert.assertNull(cache.getIfPresent(1000));
+    Assert.assertEquals(1000, cache.stats().hitCount());
+    Assert.assertEquals(1, cache.stats().missCount());
+
+    cache.invalidate(1);
+    Assert.assertNull(cache.getIfPresent(1));
+    Assert.assertEquals(999, cache.size());
+
+    cache.invalidateAll();
+    Assert.assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testMaximumSize() {
+    ShardedCache<Integer, Integer> cache = ShardedCache.create(5000, 16);
+    for (int i = 0; i < 20000; i++) {
+      cache.put(i, i);
+    }
+    cache.cleanUp();
+    Assert.assertTrue(cache.size() <= 5000);
+
+    ShardedCache<Integer, Integer> disabled = ShardedCache.create(0, 16);
+    disabled.put(1, 1);
+    Assert.assertNull(disabled.getIfPresent(1));
+  }
+}
@@ -20,10 +20,12 @@ package com.netease.arctic.flink.read.hybrid.assigner;
 
 import com.netease.arctic.data.DataTreeNode;
 import com.netease.arctic.flink.read.FlinkSplitPlanner;
+import com.netease.arctic.flink.read.hybrid.enumerator.ArcticSourceEnumState;
 import com.netease.arctic.flink.read.hybrid.reader.RowDataReaderFunction;
 import com.netease.arctic.flink.read.hybrid.reader.TestRowDataReaderFunction;
 import com.netease.arctic.flink.read.hybrid.split.ArcticSplit;
 import com.netease.arctic.flink.read.source.DataIterator;
+import com.netease.arctic.scan.ArcticFileScanTask;
 import org.apache.flink.api.connector.source.ReaderInfo;
 import org.apache.flink.api.connector.source.SourceEvent;
 import org.apache.flink.api.connector.source.SplitEnumeratorContext;
@@ -31,6 +33,7 @@ import org.apache.flink.api.connector.source.SplitsAssignment;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.metrics.groups.SplitEnumeratorMetricGroup;
 import org.apache.flink.table.data.RowData;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
 import org.junit.Assert;
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -38,7 +41,12 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -93,6 +101,152 @@ public class TestShuffleSplitAssigner extends TestRowDataReaderFunction {
     Assert.assertEquals(splitList.size(), actual.size());
   }
 
+  @Test
+  public void testRescale() throws IOException {
+    ShuffleSplitAssigner shuffleSplitAssigner = instanceSplitAssigner(3);
+
+    List<ArcticSplit> splitList =
+        FlinkSplitPlanner.planFullTable(testKeyedTable, new AtomicInteger());
+    shuffleSplitAssigner.onDiscoveredSplits(splitList);
+    // subtask 0 is reading a split when the checkpoint is taken
+    Split readingSplit = shuffleSplitAssigner.getNext(0);
+    Assert.assertTrue(readingSplit.isAvailable());
+    String readingSplitId = readingSplit.split().splitId();
+    ArcticSourceEnumState state =
+        new ArcticSourceEnumState(
+            shuffleSplitAssigner.state(),
+            null,
+            shuffleSplitAssigner.serializePartitionIndex(),
+            null);
+
+    // restore with a smaller parallelism, all the splits should be read by the remaining subtasks
+    try (ShuffleSplitAssigner rescaledAssigner =
+        new ShuffleSplitAssigner(
+            new InternalSplitEnumeratorContext(2), testKeyedTable.name(), state)) {
+      // the restored split may be redistributed to any subtask
+      rescaledAssigner.onReaderStarted(0, Collections.emptyList());
+      Assert.assertFalse(rescaledAssigner.getNext(0).isAvailable());
+      rescaledAssigner.onReaderStarted(1, Collections.singletonList(readingSplitId));
+      Assert.assertFalse(rescaledAssigner.getNext(0).isAvailable());
+      Assert.assertFalse(rescaledAssigner.getNext(1).isAvailable());
+      Assert.assertFalse(rescaledAssigner.isEmpty());
+
+      // the groups are placed again after the restored split has finished
+      rescaledAssigner.onCompletedSplits(1, Collections.singletonList(readingSplitId));
+      Map<Integer, List<ArcticSplit>> actual = new HashMap<>();
+      int subtaskId = 1;
+      while (subtaskId >= 0) {
+        Split splitOpt = rescaledAssigner.getNext(subtaskId);
+        if (splitOpt.isAvailable()) {
+          actual.computeIfAbsent(subtaskId, id -> new ArrayList<>()).add(splitOpt.split());
+        } else {
+          --subtaskId;
+        }
+      }
+      Assert.assertEquals(
+          state.pendingSplits().size(), actual.values().stream().mapToInt(List::size).sum());
+      Assert.assertTrue(rescaledAssigner.isEmpty());
+
+      // the splits of a group are read by one subtask in order
+      Map<String, Integer> groupSubtasks = new HashMap<>();
+      Map<String, ArcticSplit> groupLastSplits = new HashMap<>();
+      actual.forEach(
+          (subtask, splits) ->
+              splits.forEach(
+                  split -> {
+                    String group = groupOf(split);
+                    Assert.assertEquals(
+                        subtask, groupSubtasks.computeIfAbsent(group, g -> subtask));
+                    ArcticSplit lastSplit = groupLastSplits.put(group, split);
+                    Assert.assertTrue(lastSplit == null || lastSplit.compareTo(split) <= 0);
+                  }));
+    }
+  }
+
+  @Test
+  public void testKeepGroupOfReadingSplitOnReaderStart() throws IOException {
+    // the reader sends the start event and then the first split request, the group of the split
+    // assigned by the request must not be taken as idle, whichever order they are handled in
+    for (boolean startedFirst : new boolean[] {true, false}) {
+      Map<String, ArcticSplit> groupSplits = new LinkedHashMap<>();
+      FlinkSplitPlanner.planFullTable(testKeyedTable, new AtomicInteger())
+          .forEach(split -> groupSplits.putIfAbsent(groupOf(split), split));
+      Assert.assertTrue(groupSplits.size() >= 3);
+      Iterator<ArcticSplit> groups = groupSplits.values().iterator();
+      ArcticSplit readingGroupSplit = groups.next();
+      ArcticSplit otherGroupSplit = groups.next();
+      ArcticSplit pendingGroupSplit = groups.next();
+
+      try (ShuffleSplitAssigner assigner = instanceSplitAssigner(2)) {
+        assigner.onDiscoveredSplits(Lists.newArrayList(readingGroupSplit, otherGroupSplit));
+        if (startedFirst) {
+          assigner.onReaderStarted(0, Collections.emptyList());
+        }
+        Split readingSplit = assigner.getNext(0);
+        Assert.assertTrue(readingSplit.isAvailable());
+        Assert.assertEquals(groupOf(readingGroupSplit), groupOf(readingSplit.split()));
+        if (!startedFirst) {
+          assigner.onReaderStarted(0, Collections.emptyList());
+        }
+
+        // subtask 0 gets pending records, and subtask 1 finishes all of its splits
+        assigner.onDiscoveredSplits(Collections.singletonList(pendingGroupSplit));
+        Split otherSplit = assigner.getNext(1);
+        Assert.assertTrue(otherSplit.isAvailable());
+        assigner.onCompletedSplits(1, Collections.singletonList(otherSplit.split().splitId()));
+        Assert.assertFalse(assigner.getNext(1).isAvailable());
+
+        // a new split of the group being read stays on subtask 0, though subtask 1 is idle
+        assigner.onDiscoveredSplits(
+            Collections.singletonList(
+                FlinkSplitPlanner.planFullTable(testKeyedTable, new AtomicInteger()).stream()
+                    .filter(split -> groupOf(split).equals(groupOf(readingGroupSplit)))
+                    .findFirst()
+                    .get()));
+        Assert.assertFalse(assigner.getNext(1).isAvailable());
+
+        // the split given back by the failed reader goes back to subtask 0 with its group
+        assigner.onUnassignedSplits(0, Collections.singletonList(readingSplit.split()));
+        Assert.assertFalse(assigner.getNext(1).isAvailable());
+        for (int i = 0; i < 3; i++) {
+          Assert.assertTrue(assigner.getNext(0).isAvailable());
+        }
+        Assert.assertTrue(assigner.isEmpty());
+      }
+    }
+  }
+
+  @Test
+  public void testRestoreWithSameParallelism() throws IOException {
+    ShuffleSplitAssigner shuffleSplitAssigner = instanceSplitAssigner(2);
+    List<ArcticSplit> splitList =
+        FlinkSplitPlanner.planFullTable(testKeyedTable, new AtomicInteger());
+    shuffleSplitAssigner.onDiscoveredSplits(splitList);
+    ArcticSourceEnumState state =
+        new ArcticSourceEnumState(
+            shuffleSplitAssigner.state(),
+            null,
+            shuffleSplitAssigner.serializePartitionIndex(),
+            null);
+
+    // the restored assignment is kept, so the subtasks read before the readers have started
+    try (ShuffleSplitAssigner restoredAssigner =
+        new ShuffleSplitAssigner(
+            new InternalSplitEnumeratorContext(2), testKeyedTable.name(), state)) {
+      int count = 0;
+      int subtaskId = 1;
+      while (subtaskId >= 0) {
+        Split splitOpt = restoredAssigner.getNext(subtaskId);
+        if (splitOpt.isAvailable()) {
+          count++;
+        } else {
+          --subtaskId;
+        }
+      }
+      Assert.assertEquals(state.pendingSplits().size(), count);
+    }
+  }
+
   @Test
   public void testTreeNodeMaskUpdate() {
     ShuffleSplitAssigner shuffleSplitAssigner = instanceSplitAssigner(3);
@@ -205,6 +359,14 @@ public class TestShuffleSplitAssigner extends TestRowDataReaderFunction {
     assertArrayEquals(array, actual);
   }
 
+  private static String groupOf(ArcticSplit split) {
+    Collection<ArcticFileScanTask> tasks =
+        split.isSnapshotSplit()
+            ? split.asSnapshotSplit().insertTasks()
+            : split.asChangelogSplit().insertTasks();
+    return tasks.iterator().next().file().partition() + "-" + split.dataTreeNode();
+  }
+
   protected ShuffleSplitAssigner instanceSplitAssigner(int parallelism) {
     SplitEnumeratorContext<ArcticSplit> splitEnumeratorContext =
         new InternalSplitEnumeratorContext(parallelism);
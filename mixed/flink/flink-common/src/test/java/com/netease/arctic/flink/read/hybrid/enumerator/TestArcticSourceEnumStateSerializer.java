@@ -54,7 +54,8 @@ public class TestArcticSourceEnumStateSerializer extends TestShuffleSplitAssigne
             shuffleSplitAssigner.state(),
             null,
             shuffleSplitAssigner.serializePartitionIndex(),
-            splits);
+            splits,
+            InitialPlanningProgress.of(null, 1L, 2));
 
     ArcticSourceEnumStateSerializer arcticSourceEnumStateSerializer =
         new ArcticSourceEnumStateSerializer();
@@ -62,12 +63,15 @@ public class TestArcticSourceEnumStateSerializer extends TestShuffleSplitAssigne
 
     Assert.assertNotNull(ser);
 
-    ArcticSourceEnumState actual = arcticSourceEnumStateSerializer.deserialize(1, ser);
+    ArcticSourceEnumState actual =
+        arcticSourceEnumStateSerializer.deserialize(
+            arcticSourceEnumStateSerializer.getVersion(), ser);
 
     Assert.assertEquals(expect.pendingSplits().size(), actual.pendingSplits().size());
     Assert.assertEquals(
         Objects.requireNonNull(expect.shuffleSplitRelation()).length,
         Objects.requireNonNull(actual.shuffleSplitRelation()).length);
+    Assert.assertEquals(expect.initialPlanningProgress(), actual.initialPlanningProgress());
 
     SplitEnumeratorContext<ArcticSplit> splitEnumeratorContext =
         new InternalSplitEnumeratorContext(3);
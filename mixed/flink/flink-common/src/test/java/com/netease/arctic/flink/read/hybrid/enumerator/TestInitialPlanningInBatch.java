@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.flink.read.hybrid.enumerator;
+
+import com.netease.arctic.BasicTableTestHelper;
+import com.netease.arctic.TableTestHelper;
+import com.netease.arctic.ams.api.TableFormat;
+import com.netease.arctic.catalog.BasicCatalogTestHelper;
+import com.netease.arctic.flink.read.FlinkSplitPlanner;
+import com.netease.arctic.flink.read.hybrid.split.ArcticSplit;
+import com.netease.arctic.flink.table.ArcticTableLoader;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.data.TimestampData;
+import org.apache.flink.types.RowKind;
+import org.apache.iceberg.io.TaskWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestInitialPlanningInBatch extends TestContinuousSplitPlannerImpl {
+
+  public TestInitialPlanningInBatch() {
+    super(
+        new BasicCatalogTestHelper(TableFormat.MIXED_ICEBERG),
+        new BasicTableTestHelper(true, true));
+  }
+
+  @Test
+  public void testPlanInitialSnapshotInBatch() throws IOException {
+    // write another base commit, so that the base table has two data manifests
+    TaskWriter<RowData> taskWriter = createTaskWriter(true);
+    taskWriter.write(
+        GenericRowData.ofKind(
+            RowKind.INSERT,
+            7,
+            StringData.fromString("tom"),
+            ldt.plusDays(2).toEpochSecond(ZoneOffset.UTC),
+            TimestampData.fromLocalDateTime(ldt.plusDays(2))));
+    commit(testKeyedTable, taskWriter.complete(), true);
+    testKeyedTable.refresh();
+
+    int expectedSplits =
+        FlinkSplitPlanner.planFullTable(testKeyedTable, null, new AtomicInteger()).size();
+    long changeSnapshotId = testKeyedTable.changeTable().currentSnapshot().snapshotId();
+
+    ArcticTableLoader loader = ArcticTableLoader.of(TableTestHelper.TEST_TABLE_ID, catalogBuilder);
+    try (ContinuousSplitPlannerImpl planner = new ContinuousSplitPlannerImpl(loader, 1)) {
+      List<ArcticSplit> splits = new ArrayList<>();
+      InitialPlanningProgress progress = null;
+      ContinuousEnumerationResult result;
+      int batches = 0;
+      do {
+        result = planner.planSplits(null, progress, null);
+        splits.addAll(result.splits());
+        progress = result.planningProgress();
+        batches++;
+        if (progress != null) {
+          Assert.assertTrue(result.toOffset().isEmpty());
+          Assert.assertEquals(batches, progress.plannedManifests());
+          Assert.assertEquals(changeSnapshotId, progress.changeSnapshotId());
+        }
+      } while (result.toOffset().isEmpty());
+
+      Assert.assertTrue(batches > 1);
+      Assert.assertEquals(changeSnapshotId, (long) result.toOffset().changeSnapshotId());
+      Assert.assertEquals(expectedSplits, splits.size());
+    }
+  }
+
+  @Test
+  public void testReplanWhenPinnedSnapshotExpired() throws IOException {
+    testKeyedTable.refresh();
+    int expectedSplits =
+        FlinkSplitPlanner.planFullTable(testKeyedTable, null, new AtomicInteger()).size();
+    long changeSnapshotId = testKeyedTable.changeTable().currentSnapshot().snapshotId();
+    long baseSnapshotId = testKeyedTable.baseTable().currentSnapshot().snapshotId();
+
+    ArcticTableLoader loader = ArcticTableLoader.of(TableTestHelper.TEST_TABLE_ID, catalogBuilder);
+    try (ContinuousSplitPlannerImpl planner =
+        new ContinuousSplitPlannerImpl(loader, Integer.MAX_VALUE)) {
+      // a restored progress pinned to a base snapshot which no longer exists
+      InitialPlanningProgress expired =
+          InitialPlanningProgress.of(baseSnapshotId - 1, changeSnapshotId, 1);
+      Assert.assertNull(testKeyedTable.baseTable().snapshot(expired.baseSnapshotId()));
+
+      ContinuousEnumerationResult result = planner.planSplits(null, expired, null);
+      Assert.assertNull(result.planningProgress());
+      Assert.assertEquals(changeSnapshotId, (long) result.toOffset().changeSnapshotId());
+      Assert.assertEquals(expectedSplits, result.splits().size());
+    }
+  }
+}
@@ -55,6 +55,9 @@ public class HiveTableProperties {
   public static final String HIVE_CONSISTENT_WRITE_ENABLED = "base.hive.consistent-write.enabled";
   public static final boolean HIVE_CONSISTENT_WRITE_ENABLED_DEFAULT = true;
 
+  public static final String HIVE_SYNC_PARTITION_BATCH_SIZE = "base.hive.sync-partition.batch-size";
+  public static final int HIVE_SYNC_PARTITION_BATCH_SIZE_DEFAULT = 500;
+
   public static final String ALLOW_HIVE_TABLE_EXISTED = "allow-hive-table-existed";
 
   public static final String WATERMARK_HIVE = "watermark.hive";
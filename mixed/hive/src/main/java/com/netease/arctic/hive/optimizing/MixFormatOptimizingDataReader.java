@@ -1,11 +1,15 @@
 package com.netease.arctic.hive.optimizing;
 
+import com.netease.arctic.data.DataTreeNode;
 import com.netease.arctic.data.PrimaryKeyedFile;
 import com.netease.arctic.hive.io.reader.AdaptHiveGenericKeyedDataReader;
+import com.netease.arctic.io.reader.ArcticDeleteFilter;
 import com.netease.arctic.optimizing.OptimizingDataReader;
+import com.netease.arctic.optimizing.OptimizingTaskSummary;
 import com.netease.arctic.optimizing.RewriteFilesInput;
 import com.netease.arctic.scan.ArcticFileScanTask;
 import com.netease.arctic.scan.BasicArcticFileScanTask;
+import com.netease.arctic.scan.KeyedTableScanTask;
 import com.netease.arctic.scan.NodeFileScanTask;
 import com.netease.arctic.table.ArcticTable;
 import com.netease.arctic.table.KeyedTable;
@@ -23,6 +27,7 @@ import org.apache.iceberg.io.CloseableIterator;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -38,6 +43,9 @@ public class MixFormatOptimizingDataReader implements OptimizingDataReader {
 
   private final RewriteFilesInput input;
 
+  /** The delete filters created by the readers, kept to collect the statistics of deletes. */
+  private final List<ArcticDeleteFilter<Record>> deleteFilters = new ArrayList<>();
+
   public MixFormatOptimizingDataReader(
       ArcticTable table, StructLikeCollections structLikeCollections, RewriteFilesInput input) {
     this.table = table;
@@ -67,6 +75,21 @@ public class MixFormatOptimizingDataReader implements OptimizingDataReader {
         reader.readDeletedData(nodeFileScanTask(input.rePosDeletedDataFilesForMixed())));
   }
 
+  @Override
+  public void collectSummary(OptimizingTaskSummary summary) {
+    long deleteLoadDuration = 0;
+    long spillSize = 0;
+    long peakMemorySize = 0;
+    for (ArcticDeleteFilter<Record> deleteFilter : deleteFilters) {
+      deleteLoadDuration += deleteFilter.deleteLoadDuration();
+      spillSize += deleteFilter.eqDeleteSpilledBytes();
+      peakMemorySize = Math.max(peakMemorySize, deleteFilter.eqDeletePeakMemorySize());
+    }
+    summary.setDeleteLoadDuration(deleteLoadDuration);
+    summary.setSpillSize(spillSize);
+    summary.setPeakMemorySize(peakMemorySize);
+  }
+
   @Override
   public void close() {}
 
@@ -88,7 +111,27 @@ public class MixFormatOptimizingDataReader implements OptimizingDataReader {
         IdentityPartitionConverters::convertConstant,
         null,
         false,
-        structLikeCollections);
+        structLikeCollections) {
+      @Override
+      protected ArcticDeleteFilter<Record> createArcticDeleteFilter(
+          KeyedTableScanTask keyedTableScanTask,
+          Schema tableSchema,
+          Schema projectedSchema,
+          PrimaryKeySpec primaryKeySpec,
+          Set<DataTreeNode> sourceNodes,
+          StructLikeCollections structLikeCollections) {
+        ArcticDeleteFilter<Record> deleteFilter =
+            super.createArcticDeleteFilter(
+                keyedTableScanTask,
+                tableSchema,
+                projectedSchema,
+                primaryKeySpec,
+                sourceNodes,
+                structLikeCollections);
+        deleteFilters.add(deleteFilter);
+        return deleteFilter;
+      }
+    };
   }
 
   private NodeFileScanTask nodeFileScanTask(List<PrimaryKeyedFile> dataFiles) {
@@ -30,7 +30,7 @@ import com.netease.arctic.table.UnkeyedTable;
 import com.netease.arctic.utils.TablePropertyUtil;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.hadoop.hive.metastore.Warehouse;
-import org.apache.hadoop.hive.metastore.api.FieldSchema;
+import org.apache.hadoop.hive.metastore.api.AlreadyExistsException;
 import org.apache.hadoop.hive.metastore.api.Partition;
 import org.apache.hadoop.hive.metastore.api.Table;
 import org.apache.iceberg.DataFile;
@@ -46,10 +46,12 @@ import org.apache.iceberg.data.TableMigrationUtil;
 import org.apache.iceberg.io.CloseableIterable;
 import org.apache.iceberg.mapping.NameMappingParser;
 import org.apache.iceberg.relocated.com.google.common.annotations.VisibleForTesting;
+import org.apache.iceberg.relocated.com.google.common.collect.Iterables;
 import org.apache.iceberg.relocated.com.google.common.collect.Lists;
 import org.apache.iceberg.relocated.com.google.common.collect.Maps;
 import org.apache.iceberg.types.TypeUtil;
 import org.apache.iceberg.types.Types;
+import org.apache.iceberg.util.PropertyUtil;
 import org.apache.iceberg.util.StructLikeMap;
 import org.apache.thrift.TException;
 import org.slf4j.Logger;
@@ -57,6 +59,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -341,168 +344,252 @@ public class HiveMetaSynchronizer {
     }
   }
 
+  /**
+   * Partition names are listed from hive once and diffed with hash sets, only the hive partitions
+   * needed for the comparison are fetched, and the changed partitions are added or altered, all in
+   * batches of {@link HiveTableProperties#HIVE_SYNC_PARTITION_BATCH_SIZE}.
+   */
   private static void syncPartitionTable(
       SupportHive table, StructLikeMap<Map<String, String>> partitionProperty) throws Exception {
+    int batchSize =
+        PropertyUtil.propertyAsInt(
+            table.properties(),
+            HiveTableProperties.HIVE_SYNC_PARTITION_BATCH_SIZE,
+            HiveTableProperties.HIVE_SYNC_PARTITION_BATCH_SIZE_DEFAULT);
     Map<String, StructLike> icebergPartitionMap = new HashMap<>();
     for (StructLike structLike : partitionProperty.keySet()) {
       icebergPartitionMap.put(table.spec().partitionToPath(structLike), structLike);
     }
-    List<String> icebergPartitions = new ArrayList<>(icebergPartitionMap.keySet());
-    List<Partition> hivePartitions =
-        table
-            .getHMSClient()
-            .run(
-                client ->
-                    client.listPartitions(
-                        table.id().getDatabase(), table.id().getTableName(), Short.MAX_VALUE));
-    List<String> hivePartitionNames =
-        table
-            .getHMSClient()
-            .run(
-                client ->
-                    client.listPartitionNames(
-                        table.id().getDatabase(), table.id().getTableName(), Short.MAX_VALUE));
-    List<FieldSchema> partitionKeys =
-        table
-            .getHMSClient()
-            .run(
-                client -> {
-                  Table hiveTable =
-                      client.getTable(table.id().getDatabase(), table.id().getTableName());
-                  return hiveTable.getPartitionKeys();
-                });
-    Map<String, Partition> hivePartitionMap = new HashMap<>();
-    for (Partition hivePartition : hivePartitions) {
-      hivePartitionMap.put(
-          Warehouse.makePartName(partitionKeys, hivePartition.getValues()), hivePartition);
+    // a negative limit lists all the partitions, Short.MAX_VALUE would truncate large tables
+    Set<String> hivePartitionNames =
+        new HashSet<>(
+            table
+                .getHMSClient()
+                .run(
+                    client ->
+                        client.listPartitionNames(
+                            table.id().getDatabase(), table.id().getTableName(), (short) -1)));
+
+    Set<String> inIcebergNotInHive = new HashSet<>();
+    Set<String> inBoth = new HashSet<>();
+    for (String partition : icebergPartitionMap.keySet()) {
+      if (hivePartitionNames.contains(partition)) {
+        inBoth.add(partition);
+      } else {
+        inIcebergNotInHive.add(partition);
+      }
     }
-
-    Set<String> inIcebergNotInHive =
-        icebergPartitions.stream()
-            .filter(partition -> !hivePartitionNames.contains(partition))
-            .collect(Collectors.toSet());
     Set<String> inHiveNotInIceberg =
         hivePartitionNames.stream()
-            .filter(partition -> !icebergPartitions.contains(partition))
+            .filter(partition -> !icebergPartitionMap.containsKey(partition))
             .collect(Collectors.toSet());
-    Set<String> inBoth =
-        icebergPartitions.stream().filter(hivePartitionNames::contains).collect(Collectors.toSet());
+
+    Table hiveTable =
+        table
+            .getHMSClient()
+            .run(client -> client.getTable(table.id().getDatabase(), table.id().getTableName()));
 
     if (CollectionUtils.isNotEmpty(inIcebergNotInHive)) {
-      handleInIcebergPartitions(table, inIcebergNotInHive, icebergPartitionMap, partitionProperty);
+      handleInIcebergPartitions(
+          table, hiveTable, inIcebergNotInHive, icebergPartitionMap, partitionProperty, batchSize);
     }
 
     if (CollectionUtils.isNotEmpty(inHiveNotInIceberg)) {
-      handleInHivePartitions(table, inHiveNotInIceberg, hivePartitionMap);
+      handleInHivePartitions(table, inHiveNotInIceberg, batchSize);
     }
 
     if (CollectionUtils.isNotEmpty(inBoth)) {
       handleInBothPartitions(
-          table, inBoth, hivePartitionMap, icebergPartitionMap, partitionProperty);
+          table, hiveTable, inBoth, icebergPartitionMap, partitionProperty, batchSize);
     }
   }
 
-  /** if iceberg partition location is existed, should update hive table location. */
+  /** if iceberg partition location is existed, should create the hive partition. */
   private static void handleInIcebergPartitions(
-      ArcticTable arcticTable,
+      SupportHive arcticTable,
+      Table hiveTable,
       Set<String> inIcebergNotInHive,
       Map<String, StructLike> icebergPartitionMap,
-      StructLikeMap<Map<String, String>> partitionProperty) {
-    inIcebergNotInHive.forEach(
-        partition -> {
-          Map<String, String> property = partitionProperty.get(icebergPartitionMap.get(partition));
-          if (property == null
-              || property.get(HiveTableProperties.PARTITION_PROPERTIES_KEY_HIVE_LOCATION) == null) {
-            return;
-          }
-          String currentLocation =
-              property.get(HiveTableProperties.PARTITION_PROPERTIES_KEY_HIVE_LOCATION);
-
-          if (arcticTable.io().exists(currentLocation)) {
-            int transientTime =
-                Integer.parseInt(
-                    property.getOrDefault(
-                        HiveTableProperties.PARTITION_PROPERTIES_KEY_TRANSIENT_TIME, "0"));
-            List<DataFile> dataFiles =
-                getIcebergPartitionFiles(arcticTable, icebergPartitionMap.get(partition));
-            HivePartitionUtil.createPartitionIfAbsent(
-                ((SupportHive) arcticTable).getHMSClient(),
-                arcticTable,
-                HivePartitionUtil.partitionValuesAsList(
-                    icebergPartitionMap.get(partition), arcticTable.spec().partitionType()),
-                currentLocation,
-                dataFiles,
-                transientTime);
-          }
-        });
+      StructLikeMap<Map<String, String>> partitionProperty,
+      int batchSize)
+      throws TException, InterruptedException {
+    Map<StructLike, String> partitionLocations = new HashMap<>();
+    for (String partition : inIcebergNotInHive) {
+      StructLike partitionData = icebergPartitionMap.get(partition);
+      String currentLocation = hiveLocation(partitionProperty.get(partitionData));
+      if (currentLocation != null && arcticTable.io().exists(currentLocation)) {
+        partitionLocations.put(partitionData, currentLocation);
+      }
+    }
+    if (partitionLocations.isEmpty()) {
+      return;
+    }
+
+    StructLikeMap<List<DataFile>> partitionFiles =
+        getIcebergPartitionFiles(arcticTable, partitionLocations.keySet());
+    List<Partition> newPartitions = new ArrayList<>();
+    partitionLocations.forEach(
+        (partitionData, location) ->
+            newPartitions.add(
+                HivePartitionUtil.newPartition(
+                    hiveTable,
+                    HivePartitionUtil.partitionValuesAsList(
+                        partitionData, arcticTable.spec().partitionType()),
+                    location,
+                    partitionFiles.get(partitionData),
+                    transientTime(partitionProperty.get(partitionData)))));
+    addPartitions(arcticTable, newPartitions, batchSize);
   }
 
   private static void handleInHivePartitions(
-      ArcticTable arcticTable,
-      Set<String> inHiveNotInIceberg,
-      Map<String, Partition> hivePartitionMap) {
-    inHiveNotInIceberg.forEach(
-        partition -> {
-          Partition hivePartition = hivePartitionMap.get(partition);
-          boolean isArctic =
-              CompatibleHivePropertyUtil.propertyAsBoolean(
-                  hivePartition.getParameters(), HiveTableProperties.ARCTIC_TABLE_FLAG, false);
-          if (isArctic) {
-            HivePartitionUtil.dropPartition(
-                ((SupportHive) arcticTable).getHMSClient(), arcticTable, hivePartition);
-          }
-        });
+      SupportHive arcticTable, Set<String> inHiveNotInIceberg, int batchSize)
+      throws TException, InterruptedException {
+    for (List<String> partitionNames : Iterables.partition(inHiveNotInIceberg, batchSize)) {
+      for (Partition hivePartition : getHivePartitions(arcticTable, partitionNames)) {
+        boolean isArctic =
+            CompatibleHivePropertyUtil.propertyAsBoolean(
+                hivePartition.getParameters(), HiveTableProperties.ARCTIC_TABLE_FLAG, false);
+        if (isArctic) {
+          HivePartitionUtil.dropPartition(arcticTable.getHMSClient(), arcticTable, hivePartition);
+        }
+      }
+    }
   }
 
   private static void handleInBothPartitions(
-      ArcticTable arcticTable,
+      SupportHive arcticTable,
+      Table hiveTable,
       Set<String> inBoth,
-      Map<String, Partition> hivePartitionMap,
       Map<String, StructLike> icebergPartitionMap,
-      StructLikeMap<Map<String, String>> partitionProperty) {
+      StructLikeMap<Map<String, String>> partitionProperty,
+      int batchSize)
+      throws TException, InterruptedException {
     Set<String> inHiveNotInIceberg = new HashSet<>();
-    inBoth.forEach(
-        partition -> {
-          Map<String, String> property = partitionProperty.get(icebergPartitionMap.get(partition));
-          if (property == null
-              || property.get(HiveTableProperties.PARTITION_PROPERTIES_KEY_HIVE_LOCATION) == null) {
-            inHiveNotInIceberg.add(partition);
-            return;
-          }
+    Set<String> partitionsToCompare = new HashSet<>();
+    for (String partition : inBoth) {
+      if (hiveLocation(partitionProperty.get(icebergPartitionMap.get(partition))) == null) {
+        inHiveNotInIceberg.add(partition);
+      } else {
+        partitionsToCompare.add(partition);
+      }
+    }
+
+    Map<StructLike, Partition> relocatedPartitions = new HashMap<>();
+    for (List<String> partitionNames : Iterables.partition(partitionsToCompare, batchSize)) {
+      for (Partition hivePartition : getHivePartitions(arcticTable, partitionNames)) {
+        StructLike partitionData =
+            icebergPartitionMap.get(
+                Warehouse.makePartName(hiveTable.getPartitionKeys(), hivePartition.getValues()));
+        String currentLocation = hiveLocation(partitionProperty.get(partitionData));
+        if (!Objects.equals(currentLocation, hivePartition.getSd().getLocation())) {
+          relocatedPartitions.put(partitionData, hivePartition);
+        }
+      }
+    }
+
+    if (!relocatedPartitions.isEmpty()) {
+      StructLikeMap<List<DataFile>> partitionFiles =
+          getIcebergPartitionFiles(arcticTable, relocatedPartitions.keySet());
+      List<Partition> alteredPartitions = new ArrayList<>();
+      relocatedPartitions.forEach(
+          (partitionData, hivePartition) -> {
+            // build the partition from the table like a newly created one, so that no storage
+            // descriptor or statistics of the old location is kept
+            Map<String, String> property = partitionProperty.get(partitionData);
+            alteredPartitions.add(
+                HivePartitionUtil.newPartition(
+                    hiveTable,
+                    hivePartition.getValues(),
+                    hiveLocation(property),
+                    partitionFiles.get(partitionData),
+                    transientTime(property)));
+          });
+      alterPartitions(arcticTable, alteredPartitions, batchSize);
+    }
+
+    handleInHivePartitions(arcticTable, inHiveNotInIceberg, batchSize);
+  }
 
-          String currentLocation =
-              property.get(HiveTableProperties.PARTITION_PROPERTIES_KEY_HIVE_LOCATION);
-          Partition hivePartition = hivePartitionMap.get(partition);
-
-          if (!Objects.equals(currentLocation, hivePartition.getSd().getLocation())) {
-            int transientTime =
-                Integer.parseInt(
-                    property.getOrDefault(
-                        HiveTableProperties.PARTITION_PROPERTIES_KEY_TRANSIENT_TIME, "0"));
-            List<DataFile> dataFiles =
-                getIcebergPartitionFiles(arcticTable, icebergPartitionMap.get(partition));
-            HivePartitionUtil.updatePartitionLocation(
-                ((SupportHive) arcticTable).getHMSClient(),
-                arcticTable,
-                hivePartition,
-                currentLocation,
-                dataFiles,
-                transientTime);
+  private static String hiveLocation(Map<String, String> property) {
+    return property == null
+        ? null
+        : property.get(HiveTableProperties.PARTITION_PROPERTIES_KEY_HIVE_LOCATION);
+  }
+
+  private static int transientTime(Map<String, String> property) {
+    return Integer.parseInt(
+        property.getOrDefault(HiveTableProperties.PARTITION_PROPERTIES_KEY_TRANSIENT_TIME, "0"));
+  }
+
+  private static List<Partition> getHivePartitions(
+      SupportHive arcticTable, List<String> partitionNames)
+      throws TException, InterruptedException {
+    return arcticTable
+        .getHMSClient()
+        .run(
+            client ->
+                client.getPartitionsByNames(
+                    arcticTable.id().getDatabase(),
+                    arcticTable.id().getTableName(),
+                    partitionNames));
+  }
+
+  @VisibleForTesting
+  static void addPartitions(SupportHive arcticTable, List<Partition> partitions, int batchSize)
+      throws TException, InterruptedException {
+    for (List<Partition> batch : Iterables.partition(partitions, batchSize)) {
+      try {
+        arcticTable.getHMSClient().run(client -> client.addPartitions(batch));
+      } catch (AlreadyExistsException e) {
+        // add_partitions is atomic, create the partitions of the batch one by one if some of them
+        // have been created concurrently
+        for (Partition partition : batch) {
+          try {
+            arcticTable.getHMSClient().run(client -> client.addPartition(partition));
+          } catch (AlreadyExistsException alreadyExistsException) {
+            LOG.debug(
+                "{} hive partition {} already exists", arcticTable.id(), partition.getValues());
           }
-        });
+        }
+      }
+    }
+  }
 
-    handleInHivePartitions(arcticTable, inHiveNotInIceberg, hivePartitionMap);
+  private static void alterPartitions(
+      SupportHive arcticTable, List<Partition> partitions, int batchSize)
+      throws TException, InterruptedException {
+    for (List<Partition> batch : Iterables.partition(partitions, batchSize)) {
+      arcticTable
+          .getHMSClient()
+          .run(
+              client -> {
+                try {
+                  client.alterPartitions(
+                      arcticTable.id().getDatabase(), arcticTable.id().getTableName(), batch, null);
+                } catch (InstantiationException
+                    | NoSuchMethodException
+                    | InvocationTargetException
+                    | IllegalAccessException
+                    | ClassNotFoundException e) {
+                  throw new RuntimeException(e);
+                }
+                return null;
+              });
+    }
   }
 
-  private static List<DataFile> getIcebergPartitionFiles(
-      ArcticTable arcticTable, StructLike partition) {
+  /** Get the files of the given partitions with a single scan of the base store. */
+  private static StructLikeMap<List<DataFile>> getIcebergPartitionFiles(
+      ArcticTable arcticTable, Collection<StructLike> partitions) {
     UnkeyedTable baseStore;
     baseStore =
         arcticTable.isKeyedTable()
             ? arcticTable.asKeyedTable().baseTable()
             : arcticTable.asUnkeyedTable();
 
-    List<DataFile> partitionFiles = new ArrayList<>();
+    StructLikeMap<List<DataFile>> partitionFiles =
+        StructLikeMap.create(baseStore.spec().partitionType());
+    partitions.forEach(partition -> partitionFiles.put(partition, new ArrayList<>()));
     arcticTable
         .io()
         .doAs(
@@ -510,8 +597,12 @@ public class HiveMetaSynchronizer {
               try (CloseableIterable<FileScanTask> fileScanTasks =
                   baseStore.newScan().planFiles()) {
                 for (FileScanTask fileScanTask : fileScanTasks) {
-                  if (fileScanTask.file().partition().equals(partition)) {
-                    partitionFiles.add(fileScanTask.file());
+                  if (fileScanTask.file().specId() != baseStore.spec().specId()) {
+                    continue;
+                  }
+                  List<DataFile> files = partitionFiles.get(fileScanTask.file().partition());
+                  if (files != null) {
+                    files.add(fileScanTask.file());
                   }
                 }
               }
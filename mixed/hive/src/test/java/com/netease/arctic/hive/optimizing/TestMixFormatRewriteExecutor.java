@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.hive.optimizing;
+
+import com.netease.arctic.BasicTableTestHelper;
+import com.netease.arctic.ams.api.TableFormat;
+import com.netease.arctic.catalog.BasicCatalogTestHelper;
+import com.netease.arctic.catalog.TableTestBase;
+import com.netease.arctic.data.ChangeAction;
+import com.netease.arctic.data.DefaultKeyedFile;
+import com.netease.arctic.io.MixedDataTestHelpers;
+import com.netease.arctic.optimizing.OptimizingTaskSummary;
+import com.netease.arctic.optimizing.RewriteFilesInput;
+import com.netease.arctic.optimizing.RewriteFilesOutput;
+import com.netease.arctic.table.TableProperties;
+import com.netease.arctic.utils.map.StructLikeCollections;
+import org.apache.iceberg.ContentFile;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RunWith(Parameterized.class)
+public class TestMixFormatRewriteExecutor extends TableTestBase {
+
+  private final boolean useDiskMap;
+
+  public TestMixFormatRewriteExecutor(boolean useDiskMap) {
+    super(
+        new BasicCatalogTestHelper(TableFormat.MIXED_ICEBERG),
+        new BasicTableTestHelper(true, true));
+    this.useDiskMap = useDiskMap;
+  }
+
+  @Parameterized.Parameters(name = "useDiskMap = {0}")
+  public static Object[] parameters() {
+    return new Object[] {false, true};
+  }
+
+  @Test
+  public void testCollectSummary() throws IOException {
+    List<DataFile> baseFiles =
+        MixedDataTestHelpers.writeAndCommitBaseStore(
+            getArcticTable(),
+            1L,
+            Lists.newArrayList(
+                MixedDataTestHelpers.createRecord(1, "john", 0, "2022-01-01T12:00:00"),
+                MixedDataTestHelpers.createRecord(2, "lily", 0, "2022-01-01T12:00:00"),
+                MixedDataTestHelpers.createRecord(3, "sam", 0, "2022-01-01T12:00:00")),
+            false);
+    List<DataFile> deleteFiles =
+        MixedDataTestHelpers.writeAndCommitChangeStore(
+            getArcticTable().asKeyedTable(),
+            2L,
+            ChangeAction.DELETE,
+            Lists.newArrayList(
+                MixedDataTestHelpers.createRecord(1, "john", 0, "2022-01-01T12:00:00"),
+                MixedDataTestHelpers.createRecord(2, "lily", 0, "2022-01-01T12:00:00")));
+
+    RewriteFilesInput input =
+        new RewriteFilesInput(
+            baseFiles.stream().map(DefaultKeyedFile::parseBase).toArray(DataFile[]::new),
+            new DataFile[] {},
+            deleteFiles.stream().map(DefaultKeyedFile::parseChange).toArray(ContentFile[]::new),
+            new ContentFile[] {},
+            getArcticTable());
+    MixFormatRewriteExecutor executor =
+        new MixFormatRewriteExecutor(input, getArcticTable(), structLikeCollections(), null);
+
+    RewriteFilesOutput output = executor.execute();
+
+    List<Integer> ids = Lists.newArrayList();
+    for (DataFile dataFile : output.getDataFiles()) {
+      ids.addAll(
+          ids(
+              MixedDataTestHelpers.readDataFile(
+                  dataFile.format(), getArcticTable().schema(), dataFile.path())));
+    }
+    ids.sort(Integer::compareTo);
+    Assert.assertEquals(Lists.newArrayList(3), ids);
+
+    Map<String, String> summary = output.summary();
+    Assert.assertEquals("1", summary.get(OptimizingTaskSummary.WRITE_RECORD_CNT));
+    Assert.assertNotNull(summary.get(OptimizingTaskSummary.READ_DURATION));
+    Assert.assertNotNull(summary.get(OptimizingTaskSummary.DELETE_LOAD_DURATION));
+    if (useDiskMap) {
+      // the memory only holds the first delete, the other one is spilled
+      Assert.assertTrue(Long.parseLong(summary.get(OptimizingTaskSummary.SPILL_SIZE)) > 0);
+      Assert.assertTrue(Long.parseLong(summary.get(OptimizingTaskSummary.PEAK_MEMORY_SIZE)) > 0);
+    } else {
+      Assert.assertEquals("0", summary.get(OptimizingTaskSummary.SPILL_SIZE));
+    }
+  }
+
+  @Test
+  public void testSortOutput() throws IOException {
+    getArcticTable()
+        .updateProperties()
+        .set(TableProperties.SELF_OPTIMIZING_SORT_ORDER, "name desc")
+        .commit();
+    List<Record> records = Lists.newArrayList();
+    for (int id = 0; id < 20; id++) {
+      // the names are a permutation of the ids
+      String name = String.valueOf((char) ('a' + id * 7 % 20));
+      records.add(MixedDataTestHelpers.createRecord(id, name, 0, "2022-01-01T12:00:00"));
+    }
+    List<DataFile> baseFiles =
+        MixedDataTestHelpers.writeAndCommitBaseStore(getArcticTable(), 1L, records, false);
+
+    RewriteFilesInput input =
+        new RewriteFilesInput(
+            baseFiles.stream().map(DefaultKeyedFile::parseBase).toArray(DataFile[]::new),
+            new DataFile[] {},
+            new ContentFile[] {},
+            new ContentFile[] {},
+            getArcticTable());
+    // the records are spilled by the disk map settings, or sorted in the bounded default buffer
+    MixFormatRewriteExecutor executor =
+        new MixFormatRewriteExecutor(input, getArcticTable(), structLikeCollections(), null);
+
+    RewriteFilesOutput output = executor.execute();
+
+    List<Integer> ids = Lists.newArrayList();
+    for (DataFile dataFile : output.getDataFiles()) {
+      List<Record> fileRecords =
+          MixedDataTestHelpers.readDataFile(
+              dataFile.format(), getArcticTable().schema(), dataFile.path());
+      Assert.assertTrue(fileRecords.size() > 1);
+      List<String> names =
+          fileRecords.stream().map(r -> (String) r.getField("name")).collect(Collectors.toList());
+      List<String> sortedNames = Lists.newArrayList(names);
+      sortedNames.sort(Comparator.reverseOrder());
+      Assert.assertEquals(sortedNames, names);
+      ids.addAll(ids(fileRecords));
+    }
+    ids.sort(Integer::compareTo);
+    Assert.assertEquals(ids(records), ids);
+  }
+
+  private StructLikeCollections structLikeCollections() {
+    // the RocksDB backend is a singleton of the thread, so it is kept in the temporary directory
+    // instead of a folder deleted after the test
+    return useDiskMap ? new StructLikeCollections(true, 1L, null) : StructLikeCollections.DEFAULT;
+  }
+
+  private static List<Integer> ids(List<Record> records) {
+    return records.stream().map(r -> (Integer) r.getField("id")).collect(Collectors.toList());
+  }
+}
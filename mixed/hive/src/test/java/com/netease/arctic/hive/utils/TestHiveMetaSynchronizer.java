@@ -28,6 +28,7 @@ import com.netease.arctic.hive.catalog.HiveCatalogTestHelper;
 import com.netease.arctic.hive.catalog.HiveTableTestHelper;
 import com.netease.arctic.hive.io.HiveDataTestHelpers;
 import com.netease.arctic.hive.table.SupportHive;
+import com.netease.arctic.op.UpdatePartitionProperties;
 import com.netease.arctic.table.ArcticTable;
 import com.netease.arctic.table.UnkeyedTable;
 import com.netease.arctic.utils.TableFileUtil;
@@ -39,9 +40,11 @@ import org.apache.hadoop.hive.metastore.api.Table;
 import org.apache.iceberg.AppendFiles;
 import org.apache.iceberg.ContentFile;
 import org.apache.iceberg.DataFile;
+import org.apache.iceberg.StructLike;
 import org.apache.iceberg.data.Record;
 import org.apache.iceberg.io.OutputFile;
 import org.apache.iceberg.relocated.com.google.common.collect.ImmutableList;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
 import org.apache.iceberg.util.StructLikeMap;
 import org.junit.Assert;
 import org.junit.Assume;
@@ -438,6 +441,212 @@ public class TestHiveMetaSynchronizer extends TableTestBase {
     Assert.assertEquals(newPartitionLocation, hivePartition.getSd().getLocation());
   }
 
+  @Test
+  public void testAddPartitionsInBatchesWhenSomeExist() throws Exception {
+    Assume.assumeTrue(isPartitionedTable());
+    List<DataFile> dataFiles = writeAndCommitHive(getArcticTable(), 1);
+    StructLikeMap<List<DataFile>> partitionFiles = groupByPartition(dataFiles);
+    Assert.assertEquals(2, partitionFiles.size());
+    Table hiveTable = hiveTable();
+    List<Partition> partitions = Lists.newArrayList();
+    partitionFiles.forEach(
+        (partition, files) ->
+            partitions.add(
+                HivePartitionUtil.newPartition(
+                    hiveTable,
+                    HivePartitionUtil.partitionValuesAsList(
+                        partition, getArcticTable().spec().partitionType()),
+                    TableFileUtil.getFileDir(files.get(0).path().toString()),
+                    files,
+                    0)));
+    // a partition has been created concurrently
+    getArcticTable().getHMSClient().run(client -> client.addPartition(partitions.get(0)));
+
+    // the batch fails as a whole, then the partitions are created one by one
+    HiveMetaSynchronizer.addPartitions(getArcticTable(), partitions, 2);
+    Assert.assertEquals(2, listHivePartitionNames().size());
+    for (Partition partition : partitions) {
+      Assert.assertEquals(
+          partition.getSd().getLocation(),
+          getHivePartition(partition.getValues()).getSd().getLocation());
+    }
+  }
+
+  @Test
+  public void testSyncPartitionsInBatches() throws Exception {
+    Assume.assumeTrue(isPartitionedTable());
+    setSyncBatchSize(1);
+    UnkeyedTable baseTable =
+        isKeyedTable()
+            ? getArcticTable().asKeyedTable().baseTable()
+            : getArcticTable().asUnkeyedTable();
+    StructLikeMap<List<DataFile>> partitionFiles =
+        groupByPartition(writeAndCommitHive(getArcticTable(), 1));
+    Assert.assertEquals(2, partitionFiles.size());
+    setHiveLocations(baseTable, partitionFiles);
+
+    // the partitions are only in iceberg, they are added in two batches
+    HiveMetaSynchronizer.syncArcticDataToHive(getArcticTable());
+    Assert.assertEquals(2, listHivePartitionNames().size());
+    assertHivePartitions(partitionFiles);
+
+    // the partitions are relocated, the hive partitions are fetched and altered in two batches
+    StructLikeMap<List<DataFile>> newPartitionFiles =
+        groupByPartition(writeAndCommitHive(getArcticTable(), 2));
+    setHiveLocations(baseTable, newPartitionFiles);
+    HiveMetaSynchronizer.syncArcticDataToHive(getArcticTable());
+    Assert.assertEquals(2, listHivePartitionNames().size());
+    assertHivePartitions(newPartitionFiles);
+
+    // the partitions are only in hive now, they are dropped in two batches
+    StructLikeMap<Map<String, String>> partitionProperty = baseTable.partitionProperty();
+    UpdatePartitionProperties update = baseTable.updatePartitionProperties(null);
+    partitionProperty
+        .keySet()
+        .forEach(
+            partition ->
+                update.remove(
+                    partition, HiveTableProperties.PARTITION_PROPERTIES_KEY_HIVE_LOCATION));
+    update.commit();
+    HiveMetaSynchronizer.syncArcticDataToHive(getArcticTable());
+    Assert.assertEquals(0, listHivePartitionNames().size());
+  }
+
+  @Test
+  public void testRelocatePartitionWithNewStatistics() throws Exception {
+    Assume.assumeTrue(isPartitionedTable());
+    UnkeyedTable baseTable =
+        isKeyedTable()
+            ? getArcticTable().asKeyedTable().baseTable()
+            : getArcticTable().asUnkeyedTable();
+    StructLikeMap<List<DataFile>> partitionFiles =
+        groupByPartition(writeAndCommitHive(getArcticTable(), 1));
+    setHiveLocations(baseTable, partitionFiles);
+    HiveMetaSynchronizer.syncArcticDataToHive(getArcticTable());
+
+    // the old partition has a statistic which is stale after the relocation
+    StructLike partition = partitionFiles.keySet().iterator().next();
+    List<String> values =
+        HivePartitionUtil.partitionValuesAsList(partition, getArcticTable().spec().partitionType());
+    Partition oldPartition = getHivePartition(values);
+    oldPartition.putToParameters("COLUMN_STATS_ACCURATE", "true");
+    getArcticTable()
+        .getHMSClient()
+        .run(
+            client -> {
+              try {
+                client.alterPartition(
+                    getArcticTable().id().getDatabase(),
+                    getArcticTable().id().getTableName(),
+                    oldPartition,
+                    null);
+              } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+              }
+              return null;
+            });
+
+    StructLikeMap<List<DataFile>> newPartitionFiles =
+        groupByPartition(writeAndCommitHive(getArcticTable(), 2));
+    setHiveLocations(baseTable, newPartitionFiles);
+    HiveMetaSynchronizer.syncArcticDataToHive(getArcticTable());
+
+    Partition newPartition = getHivePartition(values);
+    List<DataFile> newFiles = newPartitionFiles.get(partition);
+    Assert.assertEquals(
+        TableFileUtil.getFileDir(newFiles.get(0).path().toString()),
+        newPartition.getSd().getLocation());
+    Assert.assertEquals(hiveTable().getSd().getCols(), newPartition.getSd().getCols());
+    Assert.assertEquals(
+        String.valueOf(newFiles.size()), newPartition.getParameters().get("numFiles"));
+    Assert.assertEquals(
+        String.valueOf(newFiles.stream().mapToLong(DataFile::recordCount).sum()),
+        newPartition.getParameters().get("numRows"));
+    Assert.assertFalse(newPartition.getParameters().containsKey("COLUMN_STATS_ACCURATE"));
+  }
+
+  private void setSyncBatchSize(int batchSize) {
+    getArcticTable()
+        .updateProperties()
+        .set(HiveTableProperties.HIVE_SYNC_PARTITION_BATCH_SIZE, String.valueOf(batchSize))
+        .commit();
+    getArcticTable().refresh();
+    Assert.assertEquals(
+        String.valueOf(batchSize),
+        getArcticTable().properties().get(HiveTableProperties.HIVE_SYNC_PARTITION_BATCH_SIZE));
+  }
+
+  private void setHiveLocations(
+      UnkeyedTable baseTable, StructLikeMap<List<DataFile>> partitionFiles) {
+    UpdatePartitionProperties update = baseTable.updatePartitionProperties(null);
+    partitionFiles.forEach(
+        (partition, files) ->
+            update.set(
+                partition,
+                HiveTableProperties.PARTITION_PROPERTIES_KEY_HIVE_LOCATION,
+                TableFileUtil.getFileDir(files.get(0).path().toString())));
+    update.commit();
+  }
+
+  private void assertHivePartitions(StructLikeMap<List<DataFile>> partitionFiles) throws Exception {
+    for (Map.Entry<StructLike, List<DataFile>> entry : partitionFiles.entrySet()) {
+      Partition hivePartition =
+          getHivePartition(
+              HivePartitionUtil.partitionValuesAsList(
+                  entry.getKey(), getArcticTable().spec().partitionType()));
+      Assert.assertEquals(
+          TableFileUtil.getFileDir(entry.getValue().get(0).path().toString()),
+          hivePartition.getSd().getLocation());
+      Assert.assertEquals(
+          String.valueOf(entry.getValue().size()), hivePartition.getParameters().get("numFiles"));
+    }
+  }
+
+  private StructLikeMap<List<DataFile>> groupByPartition(List<DataFile> dataFiles) {
+    StructLikeMap<List<DataFile>> partitionFiles =
+        StructLikeMap.create(getArcticTable().spec().partitionType());
+    for (DataFile dataFile : dataFiles) {
+      List<DataFile> files = partitionFiles.get(dataFile.partition());
+      if (files == null) {
+        files = Lists.newArrayList();
+        partitionFiles.put(dataFile.partition(), files);
+      }
+      files.add(dataFile);
+    }
+    return partitionFiles;
+  }
+
+  private Table hiveTable() throws Exception {
+    return getArcticTable()
+        .getHMSClient()
+        .run(
+            client ->
+                client.getTable(
+                    getArcticTable().id().getDatabase(), getArcticTable().id().getTableName()));
+  }
+
+  private List<String> listHivePartitionNames() throws Exception {
+    return getArcticTable()
+        .getHMSClient()
+        .run(
+            client ->
+                client.listPartitionNames(
+                    getArcticTable().id().getDatabase(),
+                    getArcticTable().id().getTableName(),
+                    (short) -1));
+  }
+
+  private Partition getHivePartition(List<String> partitionValues) throws Exception {
+    return getArcticTable()
+        .getHMSClient()
+        .run(
+            client ->
+                client.getPartition(
+                    getArcticTable().id().getDatabase(),
+                    getArcticTable().id().getTableName(),
+                    partitionValues));
+  }
+
   private String createEmptyLocationForHive(ArcticTable arcticTable) {
     // create a new empty location for hive
     String newLocation =
@@ -31,6 +31,16 @@ public class ArcticConfig {
 
   private boolean enableSplitTaskByDeleteRatio = true;
 
+  private boolean enableSplitTaskByCost = false;
+
+  private long splitChangeRecordCost = 32;
+
+  private boolean enableSpillEqualityDeletes = false;
+
+  private long equalityDeleteMaxInMemorySize = 512 * 1024 * 1024L;
+
+  private String equalityDeleteSpillDir;
+
   public String getCatalogUrl() {
     return catalogUrl;
   }
@@ -51,6 +61,26 @@ public class ArcticConfig {
     return enableSplitTaskByDeleteRatio;
   }
 
+  public boolean isEnableSplitTaskByCost() {
+    return enableSplitTaskByCost;
+  }
+
+  public long getSplitChangeRecordCost() {
+    return splitChangeRecordCost;
+  }
+
+  public boolean isEnableSpillEqualityDeletes() {
+    return enableSpillEqualityDeletes;
+  }
+
+  public long getEqualityDeleteMaxInMemorySize() {
+    return equalityDeleteMaxInMemorySize;
+  }
+
+  public String getEqualityDeleteSpillDir() {
+    return equalityDeleteSpillDir;
+  }
+
   @Config("arctic.url")
   public void setCatalogUrl(String catalogUrl) {
     this.catalogUrl = catalogUrl;
@@ -76,4 +106,35 @@ public class ArcticConfig {
   public void setSplitTaskByDeleteRatio(double splitTaskByDeleteRatio) {
     this.splitTaskByDeleteRatio = splitTaskByDeleteRatio;
   }
+
+  @Config("arctic.enable-split-task-by-cost")
+  @ConfigDescription(
+      "Split and combine keyed table tasks by the estimated read cost including equality deletes")
+  public void setEnableSplitTaskByCost(boolean enableSplitTaskByCost) {
+    this.enableSplitTaskByCost = enableSplitTaskByCost;
+  }
+
+  @Config("arctic.split-change-record-cost")
+  @ConfigDescription("Estimated cost in bytes to merge one record of change files")
+  public void setSplitChangeRecordCost(long splitChangeRecordCost) {
+    this.splitChangeRecordCost = splitChangeRecordCost;
+  }
+
+  @Config("arctic.enable-spill-equality-deletes")
+  @ConfigDescription("Spill equality deletes of keyed table scans to local disk")
+  public void setEnableSpillEqualityDeletes(boolean enableSpillEqualityDeletes) {
+    this.enableSpillEqualityDeletes = enableSpillEqualityDeletes;
+  }
+
+  @Config("arctic.equality-delete-max-in-memory-size")
+  @ConfigDescription("Max bytes of equality deletes kept in memory before spilling")
+  public void setEqualityDeleteMaxInMemorySize(long equalityDeleteMaxInMemorySize) {
+    this.equalityDeleteMaxInMemorySize = equalityDeleteMaxInMemorySize;
+  }
+
+  @Config("arctic.equality-delete-spill-dir")
+  @ConfigDescription("Local directory to spill equality deletes, a temporary directory if not set")
+  public void setEqualityDeleteSpillDir(String equalityDeleteSpillDir) {
+    this.equalityDeleteSpillDir = equalityDeleteSpillDir;
+  }
 }
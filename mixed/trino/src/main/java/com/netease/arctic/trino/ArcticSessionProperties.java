@@ -20,6 +20,7 @@ package com.netease.arctic.trino;
 
 import static io.trino.spi.session.PropertyMetadata.booleanProperty;
 import static io.trino.spi.session.PropertyMetadata.doubleProperty;
+import static io.trino.spi.session.PropertyMetadata.longProperty;
 
 import com.google.common.collect.ImmutableList;
 import io.trino.plugin.base.session.SessionPropertiesProvider;
@@ -40,6 +41,8 @@ public final class ArcticSessionProperties implements SessionPropertiesProvider
       "arctic_split_task_by_delete_ratio";
   private static final String ARCTIC_ENABLE_SPLIT_TASK_BY_DELETE_RATIO =
       "arctic_enable_split_task_by_delete_ratio";
+  private static final String ARCTIC_ENABLE_SPLIT_TASK_BY_COST = "arctic_enable_split_task_by_cost";
+  private static final String ARCTIC_SPLIT_CHANGE_RECORD_COST = "arctic_split_change_record_cost";
   private final List<PropertyMetadata<?>> sessionProperties;
 
   @Inject
@@ -66,6 +69,18 @@ public final class ArcticSessionProperties implements SessionPropertiesProvider
                     "Enable task split by ratio",
                     arcticConfig.isEnableSplitTaskByDeleteRatio(),
                     false))
+            .add(
+                booleanProperty(
+                    ARCTIC_ENABLE_SPLIT_TASK_BY_COST,
+                    "Enable task split and combine by estimated read cost",
+                    arcticConfig.isEnableSplitTaskByCost(),
+                    false))
+            .add(
+                longProperty(
+                    ARCTIC_SPLIT_CHANGE_RECORD_COST,
+                    "Estimated cost in bytes to merge one record of change files",
+                    arcticConfig.getSplitChangeRecordCost(),
+                    false))
             .build();
   }
 
@@ -85,4 +100,12 @@ public final class ArcticSessionProperties implements SessionPropertiesProvider
   public static double splitTaskByDeleteRatio(ConnectorSession session) {
     return session.getProperty(ARCTIC_SPLIT_TASK_BY_DELETE_RATIO, Double.class);
   }
+
+  public static boolean enableSplitTaskByCost(ConnectorSession session) {
+    return session.getProperty(ARCTIC_ENABLE_SPLIT_TASK_BY_COST, Boolean.class);
+  }
+
+  public static long splitChangeRecordCost(ConnectorSession session) {
+    return session.getProperty(ARCTIC_SPLIT_CHANGE_RECORD_COST, Long.class);
+  }
 }
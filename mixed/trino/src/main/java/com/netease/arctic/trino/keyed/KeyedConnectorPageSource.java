@@ -21,17 +21,14 @@ package com.netease.arctic.trino.keyed;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Throwables.throwIfInstanceOf;
 import static com.netease.arctic.ArcticErrorCode.ARCTIC_BAD_DATA;
-import static io.trino.plugin.iceberg.IcebergErrorCode.ICEBERG_BAD_DATA;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.collect.ImmutableList;
 import com.netease.arctic.data.DataFileType;
 import com.netease.arctic.data.PrimaryKeyedFile;
-import com.netease.arctic.hive.io.reader.AdaptHiveArcticDeleteFilter;
 import com.netease.arctic.scan.ArcticFileScanTask;
 import com.netease.arctic.table.MetadataColumns;
 import com.netease.arctic.trino.delete.TrinoDeleteFile;
-import com.netease.arctic.trino.delete.TrinoRow;
 import com.netease.arctic.trino.unkeyed.IcebergPageSourceProvider;
 import com.netease.arctic.trino.unkeyed.IcebergSplit;
 import io.trino.plugin.iceberg.IcebergColumnHandle;
@@ -43,9 +40,7 @@ import io.trino.spi.connector.ConnectorPageSource;
 import io.trino.spi.connector.ConnectorSession;
 import io.trino.spi.connector.ConnectorTransactionHandle;
 import io.trino.spi.connector.DynamicFilter;
-import io.trino.spi.type.Type;
 import io.trino.spi.type.TypeManager;
-import org.apache.iceberg.io.CloseableIterable;
 import org.joda.time.DateTimeZone;
 
 import java.io.IOException;
@@ -70,10 +65,9 @@ public class KeyedConnectorPageSource implements ConnectorPageSource {
   private final List<IcebergColumnHandle> requiredColumns;
   private final DynamicFilter dynamicFilter;
   private final TypeManager typeManager;
-  private final AdaptHiveArcticDeleteFilter<TrinoRow> arcticDeleteFilter;
+  private final KeyedPageDeleteFilter arcticDeleteFilter;
 
   private final List<ColumnHandle> requireColumnsDummy;
-  private final Type[] requireColumnTypes;
   private final int[] expectedColumnIndexes;
   private final Iterator<ArcticFileScanTask> dataTasksIt;
 
@@ -92,7 +86,7 @@ public class KeyedConnectorPageSource implements ConnectorPageSource {
       KeyedTableHandle table,
       DynamicFilter dynamicFilter,
       TypeManager typeManager,
-      AdaptHiveArcticDeleteFilter<TrinoRow> arcticDeleteFilter) {
+      KeyedPageDeleteFilter arcticDeleteFilter) {
     this.expectedColumns = expectedColumns;
     this.icebergPageSourceProvider = icebergPageSourceProvider;
     this.transaction = transaction;
@@ -114,9 +108,6 @@ public class KeyedConnectorPageSource implements ConnectorPageSource {
       expectedColumnIndexes[i] = i;
     }
 
-    this.requireColumnTypes =
-        requiredColumns.stream().map(IcebergColumnHandle::getType).toArray(Type[]::new);
-
     this.dataTasksIt = split.getKeyedTableScanTask().dataTasks().iterator();
   }
 
@@ -167,22 +158,11 @@ public class KeyedConnectorPageSource implements ConnectorPageSource {
       if (arcticDeleteFilter != null) {
         int positionCount = page.getPositionCount();
         int[] positionsToKeep = new int[positionCount];
-        try (CloseableIterable<TrinoRow> filteredRows =
-            arcticDeleteFilter.filter(
-                CloseableIterable.withNoopClose(
-                    TrinoRow.fromPage(requireColumnTypes, page, positionCount)))) {
-          int positionsToKeepCount = 0;
-          for (TrinoRow rowToKeep : filteredRows) {
-            positionsToKeep[positionsToKeepCount] = rowToKeep.getPosition();
-            positionsToKeepCount++;
-          }
-          page =
-              page.getPositions(positionsToKeep, 0, positionsToKeepCount)
-                  .getColumns(expectedColumnIndexes);
-        } catch (IOException e) {
-          throw new TrinoException(
-              ICEBERG_BAD_DATA, "Failed to filter rows during merge-on-read operation", e);
+        int positionsToKeepCount = arcticDeleteFilter.filter(page, positionsToKeep);
+        if (positionsToKeepCount < positionCount) {
+          page = page.getPositions(positionsToKeep, 0, positionsToKeepCount);
         }
+        page = page.getColumns(expectedColumnIndexes);
       }
 
       return page;
@@ -201,8 +181,14 @@ public class KeyedConnectorPageSource implements ConnectorPageSource {
   @Override
   public void close() throws IOException {
     close = true;
-    if (current != null) {
-      current.close();
+    try {
+      if (current != null) {
+        current.close();
+      }
+    } finally {
+      if (arcticDeleteFilter != null) {
+        arcticDeleteFilter.close();
+      }
     }
   }
 
@@ -24,6 +24,7 @@ import com.netease.arctic.scan.KeyedTableScanTask;
 import com.netease.arctic.scan.NodeFileScanTask;
 import com.netease.arctic.trino.util.ObjectSerializerUtil;
 import io.trino.spi.HostAddress;
+import io.trino.spi.SplitWeight;
 import io.trino.spi.connector.ConnectorSplit;
 
 import java.util.Collections;
@@ -40,14 +41,18 @@ public class KeyedConnectorSplit implements ConnectorSplit {
 
   private final String partitionDataJson;
 
+  private final SplitWeight splitWeight;
+
   @JsonCreator
   public KeyedConnectorSplit(
       @JsonProperty("keyedTableScanTaskBytes") byte[] keyedTableScanTaskBytes,
       @JsonProperty("partitionSpecJson") String partitionSpecJson,
-      @JsonProperty("partitionDataJson") String partitionDataJson) {
+      @JsonProperty("partitionDataJson") String partitionDataJson,
+      @JsonProperty("splitWeight") SplitWeight splitWeight) {
     this.keyedTableScanTaskBytes = keyedTableScanTaskBytes;
     this.partitionSpecJson = partitionSpecJson;
     this.partitionDataJson = partitionDataJson;
+    this.splitWeight = splitWeight;
   }
 
   @JsonProperty
@@ -69,6 +74,12 @@ public class KeyedConnectorSplit implements ConnectorSplit {
     return partitionDataJson;
   }
 
+  @JsonProperty
+  @Override
+  public SplitWeight getSplitWeight() {
+    return splitWeight;
+  }
+
   @Override
   public boolean isRemotelyAccessible() {
     return true;
@@ -18,19 +18,25 @@
 
 package com.netease.arctic.trino.keyed;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static io.trino.plugin.iceberg.ExpressionConverter.toIcebergExpression;
+import static io.trino.plugin.iceberg.IcebergSessionProperties.getMinimumAssignedSplitWeight;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.netease.arctic.scan.ArcticFileScanTask;
 import com.netease.arctic.scan.CombinedScanTask;
 import com.netease.arctic.scan.KeyedTableScan;
 import com.netease.arctic.scan.KeyedTableScanTask;
+import com.netease.arctic.scan.SplitCostModel;
 import com.netease.arctic.table.KeyedTable;
+import com.netease.arctic.table.TableProperties;
 import com.netease.arctic.trino.ArcticSessionProperties;
 import com.netease.arctic.trino.ArcticTransactionManager;
 import com.netease.arctic.trino.util.MetricUtil;
 import com.netease.arctic.trino.util.ObjectSerializerUtil;
 import io.trino.plugin.iceberg.IcebergTableHandle;
 import io.trino.plugin.iceberg.PartitionData;
+import io.trino.spi.SplitWeight;
 import io.trino.spi.classloader.ThreadContextClassLoader;
 import io.trino.spi.connector.ConnectorSession;
 import io.trino.spi.connector.ConnectorSplitManager;
@@ -44,6 +50,7 @@ import io.trino.spi.connector.SchemaTableName;
 import io.trino.spi.connector.TableNotFoundException;
 import org.apache.iceberg.PartitionSpecParser;
 import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.util.PropertyUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -102,6 +109,29 @@ public class KeyedConnectorSplitManager implements ConnectorSplitManager {
           ArcticSessionProperties.splitTaskByDeleteRatio(session));
     }
 
+    SplitCostModel splitCostModel =
+        new SplitCostModel(
+            PropertyUtil.propertyAsLong(
+                arcticTable.properties(),
+                TableProperties.SPLIT_OPEN_FILE_COST,
+                TableProperties.SPLIT_OPEN_FILE_COST_DEFAULT),
+            ArcticSessionProperties.splitChangeRecordCost(session));
+    boolean splitByCost = ArcticSessionProperties.enableSplitTaskByCost(session);
+    if (splitByCost) {
+      tableScan.enableSplitTaskByCost(splitCostModel);
+    }
+    long targetSplitCost =
+        PropertyUtil.propertyAsLong(
+            arcticTable.properties(),
+            TableProperties.SPLIT_SIZE,
+            TableProperties.SPLIT_SIZE_DEFAULT);
+    checkArgument(
+        targetSplitCost > 0,
+        "%s must be positive, but is %s",
+        TableProperties.SPLIT_SIZE,
+        targetSplitCost);
+    double minimumAssignedSplitWeight = getMinimumAssignedSplitWeight(session);
+
     ClassLoader pluginClassloader = arcticTable.getClass().getClassLoader();
 
     try (ThreadContextClassLoader ignored = new ThreadContextClassLoader(pluginClassloader)) {
@@ -123,7 +153,13 @@ public class KeyedConnectorSplitManager implements ConnectorSplitManager {
                         new KeyedConnectorSplit(
                             ObjectSerializerUtil.write(s),
                             PartitionSpecParser.toJson(arcticFileScanTask.spec()),
-                            PartitionData.toJson(arcticFileScanTask.file().partition()));
+                            PartitionData.toJson(arcticFileScanTask.file().partition()),
+                            splitByCost
+                                ? splitWeight(
+                                    splitCostModel.cost(s),
+                                    targetSplitCost,
+                                    minimumAssignedSplitWeight)
+                                : SplitWeight.standard());
                     return keyedConnectorSplit;
                   })
               .collect(Collectors.toList());
@@ -131,4 +167,15 @@ public class KeyedConnectorSplitManager implements ConnectorSplitManager {
       return new FixedSplitSource(keyedConnectorSplits);
     }
   }
+
+  /**
+   * The weight of a split relative to the split size, splits more expensive than the split size
+   * weigh more than a standard split.
+   */
+  @VisibleForTesting
+  static SplitWeight splitWeight(
+      long cost, long targetSplitCost, double minimumAssignedSplitWeight) {
+    double proportion = (double) cost / targetSplitCost;
+    return SplitWeight.fromProportion(Math.max(proportion, minimumAssignedSplitWeight));
+  }
 }
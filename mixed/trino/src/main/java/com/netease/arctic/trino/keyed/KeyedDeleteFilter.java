@@ -25,6 +25,7 @@ import com.netease.arctic.hive.io.reader.AdaptHiveArcticDeleteFilter;
 import com.netease.arctic.scan.KeyedTableScanTask;
 import com.netease.arctic.table.PrimaryKeySpec;
 import com.netease.arctic.trino.delete.TrinoRow;
+import com.netease.arctic.utils.map.StructLikeCollections;
 import io.trino.plugin.iceberg.IcebergColumnHandle;
 import org.apache.iceberg.Schema;
 import org.apache.iceberg.StructLike;
@@ -46,11 +47,29 @@ public class KeyedDeleteFilter extends AdaptHiveArcticDeleteFilter<TrinoRow> {
       List<IcebergColumnHandle> requestedSchema,
       PrimaryKeySpec primaryKeySpec,
       FileIO fileIO) {
+    this(
+        keyedTableScanTask,
+        tableSchema,
+        requestedSchema,
+        primaryKeySpec,
+        fileIO,
+        StructLikeCollections.DEFAULT);
+  }
+
+  protected KeyedDeleteFilter(
+      KeyedTableScanTask keyedTableScanTask,
+      Schema tableSchema,
+      List<IcebergColumnHandle> requestedSchema,
+      PrimaryKeySpec primaryKeySpec,
+      FileIO fileIO,
+      StructLikeCollections structLikeCollections) {
     super(
         keyedTableScanTask,
         tableSchema,
         filterSchema(tableSchema, requestedSchema),
-        primaryKeySpec);
+        primaryKeySpec,
+        null,
+        structLikeCollections);
     this.fileIO = fileIO;
   }
 
@@ -0,0 +1,515 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.trino.keyed;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.trino.plugin.iceberg.IcebergTypes.convertIcebergValueToTrino;
+import static io.trino.spi.type.TypeUtils.readNativeValue;
+
+import com.netease.arctic.data.ChangedLsn;
+import com.netease.arctic.io.reader.ArcticDeleteFilter;
+import com.netease.arctic.table.MetadataColumns;
+import com.netease.arctic.trino.delete.TrinoRow;
+import io.airlift.slice.Slice;
+import io.airlift.slice.XxHash64;
+import io.trino.plugin.iceberg.IcebergColumnHandle;
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.VarbinaryType;
+import io.trino.spi.type.VarcharType;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.StructLike;
+import org.apache.iceberg.types.Types;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Block oriented delete filter for Keyed Table.
+ *
+ * <p>Position deletes of the current data file are checked as lookups in a compressed bitmap over
+ * the row position block. Equality deletes are probed by hashing the primary key blocks directly,
+ * so filtering a page creates no per-row objects. If the {@link ArcticDeleteFilter} keeps equality
+ * deletes in spillable collections, they are probed through it instead, so they are not bounded by
+ * the heap.
+ */
+public class KeyedPageDeleteFilter implements Closeable {
+
+  private static final int NO_CHANNEL = -1;
+
+  private final Type[] primaryKeyTypes;
+  private final org.apache.iceberg.types.Type[] primaryKeyIcebergTypes;
+  private final int[] primaryKeyChannels;
+  private final int transactionIdChannel;
+  private final int fileOffsetChannel;
+  private final int rowPositionChannel;
+  private final Consumer<BiConsumer<StructLike, ChangedLsn>> equalityDeleteLoader;
+  private final Function<String, Set<Long>> positionDeleteLoader;
+
+  private EqualityDeleteTable equalityDeletes;
+  private Roaring64Bitmap currentPositionDeletes;
+
+  private Type[] columnTypes;
+  private Supplier<Predicate<TrinoRow>> spillableEqualityDeleteLoader;
+  private Predicate<TrinoRow> spillableEqualityDeletes;
+  private Closeable equalityDeleteCloser = () -> {};
+
+  KeyedPageDeleteFilter(
+      Type[] primaryKeyTypes,
+      org.apache.iceberg.types.Type[] primaryKeyIcebergTypes,
+      int[] primaryKeyChannels,
+      int transactionIdChannel,
+      int fileOffsetChannel,
+      int rowPositionChannel,
+      Consumer<BiConsumer<StructLike, ChangedLsn>> equalityDeleteLoader,
+      Function<String, Set<Long>> positionDeleteLoader) {
+    checkArgument(
+        primaryKeyTypes.length == primaryKeyChannels.length
+            && primaryKeyIcebergTypes.length == primaryKeyChannels.length,
+        "Primary key types must match primary key channels");
+    this.primaryKeyTypes = primaryKeyTypes;
+    this.primaryKeyIcebergTypes = primaryKeyIcebergTypes;
+    this.primaryKeyChannels = primaryKeyChannels;
+    this.transactionIdChannel = transactionIdChannel;
+    this.fileOffsetChannel = fileOffsetChannel;
+    this.rowPositionChannel = rowPositionChannel;
+    this.equalityDeleteLoader = equalityDeleteLoader;
+    this.positionDeleteLoader = positionDeleteLoader;
+  }
+
+  /**
+   * Create a page delete filter reading delete files through the given {@link ArcticDeleteFilter}.
+   *
+   * @param deleteFilter the delete filter used to load delete files
+   * @param requiredColumns the columns of the pages to filter, must cover {@link
+   *     ArcticDeleteFilter#requiredSchema()}
+   */
+  public static KeyedPageDeleteFilter create(
+      ArcticDeleteFilter<TrinoRow> deleteFilter, List<IcebergColumnHandle> requiredColumns) {
+    Schema primaryKeySchema = deleteFilter.primaryKeySchema();
+    List<Types.NestedField> primaryKeyFields = primaryKeySchema.columns();
+    Type[] primaryKeyTypes = new Type[primaryKeyFields.size()];
+    org.apache.iceberg.types.Type[] primaryKeyIcebergTypes =
+        new org.apache.iceberg.types.Type[primaryKeyFields.size()];
+    int[] primaryKeyChannels = new int[primaryKeyFields.size()];
+    for (int i = 0; i < primaryKeyFields.size(); i++) {
+      Types.NestedField field = primaryKeyFields.get(i);
+      primaryKeyChannels[i] = channelOf(requiredColumns, field.fieldId());
+      primaryKeyTypes[i] =
+          primaryKeyChannels[i] == NO_CHANNEL
+              ? null
+              : requiredColumns.get(primaryKeyChannels[i]).getType();
+      primaryKeyIcebergTypes[i] = field.type();
+    }
+    KeyedPageDeleteFilter filter =
+        new KeyedPageDeleteFilter(
+            primaryKeyTypes,
+            primaryKeyIcebergTypes,
+            primaryKeyChannels,
+            channelOf(requiredColumns, MetadataColumns.TRANSACTION_ID_FILED_ID),
+            channelOf(requiredColumns, MetadataColumns.FILE_OFFSET_FILED_ID),
+            channelOf(requiredColumns, org.apache.iceberg.MetadataColumns.ROW_POSITION.fieldId()),
+            deleteFilter::readEqualityDeletes,
+            deleteFilter::positionDeletes);
+    if (deleteFilter.isEqualityDeleteSpillable()) {
+      filter.useSpillableEqualityDeletes(
+          requiredColumns.stream().map(IcebergColumnHandle::getType).toArray(Type[]::new),
+          deleteFilter::equalityDeletePredicate,
+          deleteFilter::close);
+    }
+    return filter;
+  }
+
+  /**
+   * Probe equality deletes by a predicate over the rows of the page instead of the in-heap table,
+   * used when the deletes are kept in spillable collections.
+   *
+   * @param columnTypes the types of all the channels of the pages to filter
+   * @param loader load the equality deletes and return the predicate of the deleted rows
+   * @param closer release the collections holding the equality deletes
+   */
+  void useSpillableEqualityDeletes(
+      Type[] columnTypes, Supplier<Predicate<TrinoRow>> loader, Closeable closer) {
+    this.columnTypes = columnTypes;
+    this.spillableEqualityDeleteLoader = loader;
+    this.equalityDeleteCloser = closer;
+  }
+
+  private static int channelOf(List<IcebergColumnHandle> columns, int fieldId) {
+    for (int i = 0; i < columns.size(); i++) {
+      if (columns.get(i).getId() == fieldId) {
+        return i;
+      }
+    }
+    return NO_CHANNEL;
+  }
+
+  public void setCurrentDataPath(String currentDataPath) {
+    if (rowPositionChannel == NO_CHANNEL) {
+      this.currentPositionDeletes = null;
+      return;
+    }
+    Set<Long> positions = positionDeleteLoader.apply(currentDataPath);
+    if (positions == null || positions.isEmpty()) {
+      this.currentPositionDeletes = null;
+      return;
+    }
+    Roaring64Bitmap bitmap = new Roaring64Bitmap();
+    positions.forEach(bitmap::addLong);
+    this.currentPositionDeletes = bitmap;
+  }
+
+  /**
+   * Filter the deleted rows of a page.
+   *
+   * @param page the page to filter
+   * @param positionsToKeep the array to put the positions of the rows to keep, its length must not
+   *     be less than the position count of the page
+   * @return the count of positions to keep
+   */
+  public int filter(Page page, int[] positionsToKeep) {
+    int positionCount = page.getPositionCount();
+    Iterator<TrinoRow> rows = null;
+    EqualityDeleteTable equalityDeleteTable;
+    if (spillableEqualityDeleteLoader != null) {
+      if (spillableEqualityDeletes == null) {
+        spillableEqualityDeletes = spillableEqualityDeleteLoader.get();
+      }
+      rows = TrinoRow.fromPage(columnTypes, page, positionCount).iterator();
+      equalityDeleteTable = EqualityDeleteTable.EMPTY_TABLE;
+    } else {
+      equalityDeleteTable = equalityDeletes();
+    }
+
+    Block rowPositionBlock =
+        currentPositionDeletes == null ? null : page.getBlock(rowPositionChannel);
+    Block[] primaryKeyBlocks = null;
+    Block transactionIdBlock = null;
+    Block fileOffsetBlock = null;
+    if (!equalityDeleteTable.isEmpty()) {
+      primaryKeyBlocks = new Block[primaryKeyChannels.length];
+      for (int i = 0; i < primaryKeyChannels.length; i++) {
+        primaryKeyBlocks[i] = page.getBlock(primaryKeyChannels[i]);
+      }
+      transactionIdBlock = page.getBlock(transactionIdChannel);
+      fileOffsetBlock = page.getBlock(fileOffsetChannel);
+    }
+
+    int positionsToKeepCount = 0;
+    for (int position = 0; position < positionCount; position++) {
+      TrinoRow row = rows == null ? null : rows.next();
+      if (rowPositionBlock != null
+          && currentPositionDeletes.contains(rowPositionBlock.getLong(position, 0))) {
+        continue;
+      }
+      if (row != null && spillableEqualityDeletes.test(row)) {
+        continue;
+      }
+      if (primaryKeyBlocks != null
+          && equalityDeleteTable.isDeleted(
+              primaryKeyBlocks,
+              position,
+              transactionIdBlock.getLong(position, 0),
+              fileOffsetBlock.getLong(position, 0))) {
+        continue;
+      }
+      positionsToKeep[positionsToKeepCount++] = position;
+    }
+    return positionsToKeepCount;
+  }
+
+  private EqualityDeleteTable equalityDeletes() {
+    if (equalityDeletes == null) {
+      EqualityDeleteTable table = new EqualityDeleteTable(primaryKeyTypes);
+      for (int channel : primaryKeyChannels) {
+        if (channel == NO_CHANNEL) {
+          // no equality delete in the task, so primary keys are not required
+          equalityDeletes = table;
+          return table;
+        }
+      }
+      Object[] key = new Object[primaryKeyTypes.length];
+      equalityDeleteLoader.accept(
+          (deletePk, deleteLsn) -> {
+            for (int i = 0; i < key.length; i++) {
+              Object value = deletePk.get(i, Object.class);
+              key[i] =
+                  value == null
+                      ? null
+                      : convertIcebergValueToTrino(primaryKeyIcebergTypes[i], value);
+            }
+            table.put(key, deleteLsn.transactionId(), deleteLsn.fileOffset());
+          });
+      equalityDeletes = table;
+    }
+    return equalityDeletes;
+  }
+
+  @Override
+  public void close() throws IOException {
+    spillableEqualityDeletes = null;
+    equalityDeleteCloser.close();
+  }
+
+  /**
+   * Open addressing hash table from primary key to the latest delete LSN.
+   *
+   * <p>Keys are stored as Trino native values so they can be compared with blocks in place.
+   */
+  static class EqualityDeleteTable {
+    private static final int EMPTY = -1;
+
+    static final EqualityDeleteTable EMPTY_TABLE = new EqualityDeleteTable(new Type[0]);
+
+    private final KeyKind[] kinds;
+    private final Type[] types;
+    private final long[][] longKeys;
+    private final Object[][] objectKeys;
+
+    private int[] hashes = new int[16];
+    private long[] transactionIds = new long[16];
+    private long[] fileOffsets = new long[16];
+    private int size;
+    private int[] slots = newSlots(32);
+
+    EqualityDeleteTable(Type[] types) {
+      this.types = types;
+      this.kinds = new KeyKind[types.length];
+      this.longKeys = new long[types.length][];
+      this.objectKeys = new Object[types.length][];
+      for (int i = 0; i < types.length; i++) {
+        kinds[i] = KeyKind.of(types[i]);
+        if (kinds[i] == KeyKind.LONG) {
+          longKeys[i] = new long[16];
+        } else {
+          objectKeys[i] = new Object[16];
+        }
+      }
+    }
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    /** Put a delete record, keep the larger LSN if the key already exists. */
+    void put(Object[] key, long transactionId, long fileOffset) {
+      for (Object value : key) {
+        if (value == null) {
+          // primary keys are required, a null key never matches a data row
+          return;
+        }
+      }
+      int hash = hashKey(key);
+      int mask = slots.length - 1;
+      int slot = hash & mask;
+      while (slots[slot] != EMPTY) {
+        int entry = slots[slot];
+        if (hashes[entry] == hash && keyEquals(entry, key)) {
+          if (compareLsn(transactionIds[entry], fileOffsets[entry], transactionId, fileOffset)
+              <= 0) {
+            transactionIds[entry] = transactionId;
+            fileOffsets[entry] = fileOffset;
+          }
+          return;
+        }
+        slot = (slot + 1) & mask;
+      }
+
+      ensureEntryCapacity(size + 1);
+      hashes[size] = hash;
+      transactionIds[size] = transactionId;
+      fileOffsets[size] = fileOffset;
+      for (int i = 0; i < kinds.length; i++) {
+        if (kinds[i] == KeyKind.LONG) {
+          longKeys[i][size] = (Long) key[i];
+        } else {
+          objectKeys[i][size] = key[i];
+        }
+      }
+      slots[slot] = size;
+      size++;
+      if (size * 4L > slots.length * 3L) {
+        rehash(slots.length * 2);
+      }
+    }
+
+    /** Check whether the key at the position is deleted by a record with a larger LSN. */
+    boolean isDeleted(Block[] keyBlocks, int position, long transactionId, long fileOffset) {
+      int hash = 0;
+      for (int i = 0; i < kinds.length; i++) {
+        if (keyBlocks[i].isNull(position)) {
+          return false;
+        }
+        hash = hash * 31 + hashBlockValue(i, keyBlocks[i], position);
+      }
+      int mask = slots.length - 1;
+      int slot = hash & mask;
+      while (slots[slot] != EMPTY) {
+        int entry = slots[slot];
+        if (hashes[entry] == hash && blockEquals(entry, keyBlocks, position)) {
+          return compareLsn(transactionIds[entry], fileOffsets[entry], transactionId, fileOffset)
+              > 0;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return false;
+    }
+
+    private int hashKey(Object[] key) {
+      int hash = 0;
+      for (int i = 0; i < kinds.length; i++) {
+        int valueHash;
+        switch (kinds[i]) {
+          case LONG:
+            valueHash = Long.hashCode(XxHash64.hash((Long) key[i]));
+            break;
+          case SLICE:
+            Slice slice = (Slice) key[i];
+            valueHash = Long.hashCode(XxHash64.hash(slice, 0, slice.length()));
+            break;
+          default:
+            valueHash = key[i].hashCode();
+        }
+        hash = hash * 31 + valueHash;
+      }
+      return hash;
+    }
+
+    private int hashBlockValue(int keyIndex, Block block, int position) {
+      switch (kinds[keyIndex]) {
+        case LONG:
+          return Long.hashCode(XxHash64.hash(types[keyIndex].getLong(block, position)));
+        case SLICE:
+          return Long.hashCode(block.hash(position, 0, block.getSliceLength(position)));
+        default:
+          return readNativeValue(types[keyIndex], block, position).hashCode();
+      }
+    }
+
+    private boolean keyEquals(int entry, Object[] key) {
+      for (int i = 0; i < kinds.length; i++) {
+        if (kinds[i] == KeyKind.LONG) {
+          if (longKeys[i][entry] != (Long) key[i]) {
+            return false;
+          }
+        } else if (!objectKeys[i][entry].equals(key[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean blockEquals(int entry, Block[] keyBlocks, int position) {
+      for (int i = 0; i < kinds.length; i++) {
+        Block block = keyBlocks[i];
+        switch (kinds[i]) {
+          case LONG:
+            if (longKeys[i][entry] != types[i].getLong(block, position)) {
+              return false;
+            }
+            break;
+          case SLICE:
+            Slice slice = (Slice) objectKeys[i][entry];
+            int length = block.getSliceLength(position);
+            if (length != slice.length() || !block.bytesEqual(position, 0, slice, 0, length)) {
+              return false;
+            }
+            break;
+          default:
+            if (!objectKeys[i][entry].equals(readNativeValue(types[i], block, position))) {
+              return false;
+            }
+        }
+      }
+      return true;
+    }
+
+    private void ensureEntryCapacity(int capacity) {
+      if (capacity <= hashes.length) {
+        return;
+      }
+      int newCapacity = hashes.length * 2;
+      hashes = Arrays.copyOf(hashes, newCapacity);
+      transactionIds = Arrays.copyOf(transactionIds, newCapacity);
+      fileOffsets = Arrays.copyOf(fileOffsets, newCapacity);
+      for (int i = 0; i < kinds.length; i++) {
+        if (kinds[i] == KeyKind.LONG) {
+          longKeys[i] = Arrays.copyOf(longKeys[i], newCapacity);
+        } else {
+          objectKeys[i] = Arrays.copyOf(objectKeys[i], newCapacity);
+        }
+      }
+    }
+
+    private void rehash(int capacity) {
+      int[] newSlots = newSlots(capacity);
+      int mask = capacity - 1;
+      for (int entry = 0; entry < size; entry++) {
+        int slot = hashes[entry] & mask;
+        while (newSlots[slot] != EMPTY) {
+          slot = (slot + 1) & mask;
+        }
+        newSlots[slot] = entry;
+      }
+      this.slots = newSlots;
+    }
+
+    private static int[] newSlots(int capacity) {
+      int[] slots = new int[capacity];
+      Arrays.fill(slots, EMPTY);
+      return slots;
+    }
+
+    private static int compareLsn(
+        long transactionId, long fileOffset, long otherTransactionId, long otherFileOffset) {
+      int result = Long.compare(transactionId, otherTransactionId);
+      return result != 0 ? result : Long.compare(fileOffset, otherFileOffset);
+    }
+  }
+
+  private enum KeyKind {
+    LONG,
+    SLICE,
+    OBJECT;
+
+    static KeyKind of(Type type) {
+      if (type == null) {
+        return OBJECT;
+      }
+      if (type.getJavaType() == long.class) {
+        return LONG;
+      }
+      if (type instanceof VarcharType || type instanceof VarbinaryType) {
+        return SLICE;
+      }
+      return OBJECT;
+    }
+  }
+}
@@ -21,11 +21,11 @@ package com.netease.arctic.trino.keyed;
 import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
 import com.netease.arctic.data.PrimaryKeyedFile;
-import com.netease.arctic.hive.io.reader.AdaptHiveArcticDeleteFilter;
 import com.netease.arctic.scan.ArcticFileScanTask;
 import com.netease.arctic.scan.KeyedTableScanTask;
-import com.netease.arctic.trino.delete.TrinoRow;
+import com.netease.arctic.trino.ArcticConfig;
 import com.netease.arctic.trino.unkeyed.IcebergPageSourceProvider;
+import com.netease.arctic.utils.map.StructLikeCollections;
 import io.trino.filesystem.TrinoFileSystemFactory;
 import io.trino.plugin.iceberg.IcebergColumnHandle;
 import io.trino.plugin.iceberg.IcebergUtil;
@@ -50,15 +50,22 @@ public class KeyedPageSourceProvider implements ConnectorPageSourceProvider {
   private final IcebergPageSourceProvider icebergPageSourceProvider;
   private final TypeManager typeManager;
   private final TrinoFileSystemFactory fileSystemFactory;
+  private final StructLikeCollections structLikeCollections;
 
   @Inject
   public KeyedPageSourceProvider(
       IcebergPageSourceProvider icebergPageSourceProvider,
       TypeManager typeManager,
-      TrinoFileSystemFactory fileSystemFactory) {
+      TrinoFileSystemFactory fileSystemFactory,
+      ArcticConfig arcticConfig) {
     this.icebergPageSourceProvider = icebergPageSourceProvider;
     this.typeManager = typeManager;
     this.fileSystemFactory = fileSystemFactory;
+    this.structLikeCollections =
+        new StructLikeCollections(
+            arcticConfig.isEnableSpillEqualityDeletes(),
+            arcticConfig.getEqualityDeleteMaxInMemorySize(),
+            arcticConfig.getEqualityDeleteSpillDir());
   }
 
   @Override
@@ -96,13 +103,16 @@ public class KeyedPageSourceProvider implements ConnectorPageSourceProvider {
         .filter(column -> !columns.contains(column))
         .forEach(requiredColumnsBuilder::add);
     List<IcebergColumnHandle> requiredColumns = requiredColumnsBuilder.build();
-    AdaptHiveArcticDeleteFilter<TrinoRow> arcticDeleteFilter =
-        new KeyedDeleteFilter(
-            keyedTableScanTask,
-            tableSchema,
-            requiredColumns,
-            keyedTableHandle.getPrimaryKeySpec(),
-            fileSystemFactory.create(session).toFileIo());
+    KeyedPageDeleteFilter arcticDeleteFilter =
+        KeyedPageDeleteFilter.create(
+            new KeyedDeleteFilter(
+                keyedTableScanTask,
+                tableSchema,
+                requiredColumns,
+                keyedTableHandle.getPrimaryKeySpec(),
+                fileSystemFactory.create(session).toFileIo(),
+                structLikeCollections),
+            requiredColumns);
 
     return new KeyedConnectorPageSource(
         icebergColumnHandles,
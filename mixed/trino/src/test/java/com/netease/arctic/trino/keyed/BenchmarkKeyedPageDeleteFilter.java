@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.trino.keyed;
+
+import static io.trino.spi.type.BigintType.BIGINT;
+
+import com.netease.arctic.data.ChangedLsn;
+import io.trino.spi.Page;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.type.Type;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.data.GenericRecord;
+import org.apache.iceberg.types.Types;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link KeyedPageDeleteFilter} on pages with different ratios of deleted rows, half
+ * of the deletes are position deletes and half are equality deletes.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BenchmarkKeyedPageDeleteFilter {
+
+  private static final int POSITION_COUNT = 8192;
+  private static final int PAGE_COUNT = 16;
+  private static final long TRANSACTION_ID = 10L;
+  private static final Schema PK_SCHEMA =
+      new Schema(Types.NestedField.required(1, "id", Types.LongType.get()));
+
+  @Param({"0", "0.01", "0.3"})
+  private double deleteRatio;
+
+  private Page[] pages;
+  private int[] positionsToKeep;
+  private KeyedPageDeleteFilter filter;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(0);
+    Set<Long> positionDeletes = new HashSet<>();
+    Set<Long> equalityDeletes = new HashSet<>();
+    long rowCount = (long) POSITION_COUNT * PAGE_COUNT;
+    for (long row = 0; row < rowCount; row++) {
+      if (random.nextDouble() < deleteRatio) {
+        if (random.nextBoolean()) {
+          positionDeletes.add(row);
+        } else {
+          equalityDeletes.add(row);
+        }
+      }
+    }
+
+    pages = new Page[PAGE_COUNT];
+    for (int i = 0; i < PAGE_COUNT; i++) {
+      BlockBuilder pk = BIGINT.createBlockBuilder(null, POSITION_COUNT);
+      BlockBuilder transactionId = BIGINT.createBlockBuilder(null, POSITION_COUNT);
+      BlockBuilder fileOffset = BIGINT.createBlockBuilder(null, POSITION_COUNT);
+      BlockBuilder rowPosition = BIGINT.createBlockBuilder(null, POSITION_COUNT);
+      for (int position = 0; position < POSITION_COUNT; position++) {
+        long row = (long) i * POSITION_COUNT + position;
+        BIGINT.writeLong(pk, row);
+        BIGINT.writeLong(transactionId, TRANSACTION_ID);
+        BIGINT.writeLong(fileOffset, Long.MAX_VALUE);
+        BIGINT.writeLong(rowPosition, row);
+      }
+      pages[i] =
+          new Page(pk.build(), transactionId.build(), fileOffset.build(), rowPosition.build());
+    }
+    positionsToKeep = new int[POSITION_COUNT];
+
+    filter =
+        new KeyedPageDeleteFilter(
+            new Type[] {BIGINT},
+            new org.apache.iceberg.types.Type[] {Types.LongType.get()},
+            new int[] {0},
+            1,
+            2,
+            3,
+            consumer -> {
+              GenericRecord key = GenericRecord.create(PK_SCHEMA);
+              for (long id : equalityDeletes) {
+                key.set(0, id);
+                consumer.accept(key, ChangedLsn.of(TRANSACTION_ID + 1, 0L));
+              }
+            },
+            path -> positionDeletes);
+    filter.setCurrentDataPath("data-file");
+  }
+
+  @Benchmark
+  public int filterPages() {
+    int kept = 0;
+    for (Page page : pages) {
+      kept += filter.filter(page, positionsToKeep);
+    }
+    return kept;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder()
+                .include(BenchmarkKeyedPageDeleteFilter.class.getSimpleName())
+                .build())
+        .run();
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.trino.keyed;
+
+import io.trino.spi.SplitWeight;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestKeyedConnectorSplitManager {
+
+  private static final long TARGET_SPLIT_COST = 128 * 1024 * 1024L;
+
+  @Test
+  public void testSplitWeight() {
+    SplitWeight standard = SplitWeight.standard();
+    // a split of the target cost weighs as a standard split
+    Assert.assertEquals(
+        KeyedConnectorSplitManager.splitWeight(TARGET_SPLIT_COST, TARGET_SPLIT_COST, 0.05)
+            .getRawValue(),
+        standard.getRawValue());
+    // a split with heavy deletes weighs more than a standard split, in proportion to its cost
+    Assert.assertEquals(
+        KeyedConnectorSplitManager.splitWeight(TARGET_SPLIT_COST * 3, TARGET_SPLIT_COST, 0.05)
+            .getRawValue(),
+        standard.getRawValue() * 3);
+    Assert.assertEquals(
+        KeyedConnectorSplitManager.splitWeight(TARGET_SPLIT_COST / 2, TARGET_SPLIT_COST, 0.05)
+            .getRawValue(),
+        standard.getRawValue() / 2);
+    // tiny splits are bounded by the minimum assigned weight
+    Assert.assertEquals(
+        KeyedConnectorSplitManager.splitWeight(1, TARGET_SPLIT_COST, 0.05).getRawValue(),
+        SplitWeight.fromProportion(0.05).getRawValue());
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.trino.keyed;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+
+import com.google.common.collect.ImmutableSet;
+import com.netease.arctic.data.ChangedLsn;
+import io.trino.spi.Page;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.type.Type;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.data.GenericRecord;
+import org.apache.iceberg.types.Types;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestKeyedPageDeleteFilter {
+
+  private static final Schema PK_SCHEMA =
+      new Schema(
+          Types.NestedField.required(1, "id", Types.LongType.get()),
+          Types.NestedField.required(2, "name", Types.StringType.get()));
+
+  @Test
+  public void testFilterPage() {
+    KeyedPageDeleteFilter filter =
+        new KeyedPageDeleteFilter(
+            new Type[] {BIGINT, VARCHAR},
+            new org.apache.iceberg.types.Type[] {Types.LongType.get(), Types.StringType.get()},
+            new int[] {0, 1},
+            2,
+            3,
+            4,
+            consumer -> {
+              GenericRecord key = GenericRecord.create(PK_SCHEMA);
+              // deleted by a later transaction
+              key.set(0, 1L);
+              key.set(1, "a");
+              consumer.accept(key, ChangedLsn.of(2L, 0L));
+              // deleted before the row is written
+              key.set(0, 2L);
+              key.set(1, "b");
+              consumer.accept(key, ChangedLsn.of(1L, 0L));
+              // same transaction but a larger offset
+              key.set(0, 3L);
+              key.set(1, "c");
+              consumer.accept(key, ChangedLsn.of(1L, 5L));
+              // name does not match
+              key.set(0, 4L);
+              key.set(1, "x");
+              consumer.accept(key, ChangedLsn.of(2L, 0L));
+            },
+            path -> "data-file".equals(path) ? ImmutableSet.of(4L) : null);
+    filter.setCurrentDataPath("data-file");
+
+    Page page = page(new long[] {1, 2, 3, 4, 5}, new String[] {"a", "b", "c", "d", "e"});
+    int[] positionsToKeep = new int[page.getPositionCount()];
+    int count = filter.filter(page, positionsToKeep);
+    Assert.assertEquals(Arrays.copyOf(positionsToKeep, count), new int[] {1, 3});
+
+    filter.setCurrentDataPath("other-file");
+    count = filter.filter(page, positionsToKeep);
+    Assert.assertEquals(Arrays.copyOf(positionsToKeep, count), new int[] {1, 3, 4});
+  }
+
+  @Test
+  public void testPositionsBeyondIntRange() {
+    long largePosition = Integer.MAX_VALUE + 10L;
+    KeyedPageDeleteFilter filter =
+        new KeyedPageDeleteFilter(
+            new Type[] {BIGINT, VARCHAR},
+            new org.apache.iceberg.types.Type[] {Types.LongType.get(), Types.StringType.get()},
+            new int[] {0, 1},
+            2,
+            3,
+            4,
+            consumer -> {},
+            path -> ImmutableSet.of(1L, largePosition));
+    filter.setCurrentDataPath("data-file");
+
+    Page page =
+        page(
+            new long[] {1, 2, 3},
+            new String[] {"a", "b", "c"},
+            new long[] {0, largePosition, largePosition + 1});
+    int[] positionsToKeep = new int[page.getPositionCount()];
+    int count = filter.filter(page, positionsToKeep);
+    Assert.assertEquals(Arrays.copyOf(positionsToKeep, count), new int[] {0, 2});
+  }
+
+  @Test
+  public void testSpillableEqualityDeletes() throws IOException {
+    KeyedPageDeleteFilter filter =
+        new KeyedPageDeleteFilter(
+            new Type[] {BIGINT, VARCHAR},
+            new org.apache.iceberg.types.Type[] {Types.LongType.get(), Types.StringType.get()},
+            new int[] {0, 1},
+            2,
+            3,
+            4,
+            consumer -> Assert.fail("Equality deletes should not be loaded into heap"),
+            path -> "data-file".equals(path) ? ImmutableSet.of(4L) : null);
+    AtomicInteger loadCount = new AtomicInteger();
+    AtomicBoolean closed = new AtomicBoolean();
+    filter.useSpillableEqualityDeletes(
+        new Type[] {BIGINT, VARCHAR, BIGINT, BIGINT, BIGINT},
+        () -> {
+          loadCount.incrementAndGet();
+          return row -> row.get(0, Long.class) % 2 == 0;
+        },
+        () -> closed.set(true));
+    filter.setCurrentDataPath("data-file");
+
+    Page page = page(new long[] {1, 2, 3, 4, 5}, new String[] {"a", "b", "c", "d", "e"});
+    int[] positionsToKeep = new int[page.getPositionCount()];
+    int count = filter.filter(page, positionsToKeep);
+    Assert.assertEquals(Arrays.copyOf(positionsToKeep, count), new int[] {0, 2});
+    count = filter.filter(page, positionsToKeep);
+    Assert.assertEquals(Arrays.copyOf(positionsToKeep, count), new int[] {0, 2});
+    // deletes are loaded once
+    Assert.assertEquals(loadCount.get(), 1);
+
+    filter.close();
+    Assert.assertTrue(closed.get());
+  }
+
+  private static Page page(long[] ids, String[] names) {
+    long[] rowPositions = new long[ids.length];
+    for (int i = 0; i < ids.length; i++) {
+      rowPositions[i] = i;
+    }
+    return page(ids, names, rowPositions);
+  }
+
+  private static Page page(long[] ids, String[] names, long[] rowPositions) {
+    BlockBuilder id = BIGINT.createBlockBuilder(null, ids.length);
+    BlockBuilder name = VARCHAR.createBlockBuilder(null, ids.length);
+    BlockBuilder transactionId = BIGINT.createBlockBuilder(null, ids.length);
+    BlockBuilder fileOffset = BIGINT.createBlockBuilder(null, ids.length);
+    BlockBuilder rowPosition = BIGINT.createBlockBuilder(null, ids.length);
+    for (int i = 0; i < ids.length; i++) {
+      BIGINT.writeLong(id, ids[i]);
+      VARCHAR.writeSlice(name, utf8Slice(names[i]));
+      BIGINT.writeLong(transactionId, 1L);
+      BIGINT.writeLong(fileOffset, 1L);
+      BIGINT.writeLong(rowPosition, rowPositions[i]);
+    }
+    return new Page(
+        id.build(), name.build(), transactionId.build(), fileOffset.build(), rowPosition.build());
+  }
+}